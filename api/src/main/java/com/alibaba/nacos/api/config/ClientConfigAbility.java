@@ -29,6 +29,11 @@ public class ClientConfigAbility {
      */
     private boolean supportRemoteMetrics;
     
+    /**
+     * support receiving config changes in batch.
+     */
+    private boolean supportBatchChangeNotify;
+    
     public boolean isSupportRemoteMetrics() {
         return supportRemoteMetrics;
     }
@@ -36,4 +41,12 @@ public class ClientConfigAbility {
     public void setSupportRemoteMetrics(boolean supportRemoteMetrics) {
         this.supportRemoteMetrics = supportRemoteMetrics;
     }
+    
+    public boolean isSupportBatchChangeNotify() {
+        return supportBatchChangeNotify;
+    }
+    
+    public void setSupportBatchChangeNotify(boolean supportBatchChangeNotify) {
+        this.supportBatchChangeNotify = supportBatchChangeNotify;
+    }
 }
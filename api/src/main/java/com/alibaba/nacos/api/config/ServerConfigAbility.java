@@ -32,6 +32,11 @@ public class ServerConfigAbility implements Serializable {
      */
     private boolean supportRemoteMetrics;
     
+    /**
+     * support batch config change sync between servers.
+     */
+    private boolean supportBatchClusterSync;
+    
     public boolean isSupportRemoteMetrics() {
         return supportRemoteMetrics;
     }
@@ -40,6 +45,14 @@ public class ServerConfigAbility implements Serializable {
         this.supportRemoteMetrics = supportRemoteMetrics;
     }
     
+    public boolean isSupportBatchClusterSync() {
+        return supportBatchClusterSync;
+    }
+    
+    public void setSupportBatchClusterSync(boolean supportBatchClusterSync) {
+        this.supportBatchClusterSync = supportBatchClusterSync;
+    }
+    
     @Override
     public boolean equals(Object o) {
         if (this == o) {
@@ -49,11 +62,12 @@ public class ServerConfigAbility implements Serializable {
             return false;
         }
         ServerConfigAbility that = (ServerConfigAbility) o;
-        return supportRemoteMetrics == that.supportRemoteMetrics;
+        return supportRemoteMetrics == that.supportRemoteMetrics
+                && supportBatchClusterSync == that.supportBatchClusterSync;
     }
     
     @Override
     public int hashCode() {
-        return Objects.hash(supportRemoteMetrics);
+        return Objects.hash(supportRemoteMetrics, supportBatchClusterSync);
     }
 }
@@ -0,0 +1,105 @@
+/*
+ * Copyright 1999-2020 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.nacos.api.config.remote.request;
+
+import com.alibaba.nacos.api.remote.request.ServerRequest;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * request to notify a batch of config changes to a client, only sent to clients supporting batch change notify.
+ *
+ * @author Nacos
+ */
+public class ConfigChangeBatchNotifyRequest extends ServerRequest {
+    
+    private static final String MODULE = "config";
+    
+    private List<ChangedConfig> changedConfigs = new ArrayList<ChangedConfig>();
+    
+    /**
+     * add changed config.
+     *
+     * @param dataId dataId.
+     * @param group  group.
+     * @param tenant tenant.
+     */
+    public void addChangedConfig(String dataId, String group, String tenant) {
+        ChangedConfig changedConfig = new ChangedConfig();
+        changedConfig.dataId = dataId;
+        changedConfig.group = group;
+        changedConfig.tenant = tenant;
+        changedConfigs.add(changedConfig);
+    }
+    
+    public List<ChangedConfig> getChangedConfigs() {
+        return changedConfigs;
+    }
+    
+    public void setChangedConfigs(List<ChangedConfig> changedConfigs) {
+        this.changedConfigs = changedConfigs;
+    }
+    
+    @Override
+    public String getModule() {
+        return MODULE;
+    }
+    
+    public static class ChangedConfig {
+        
+        String dataId;
+        
+        String group;
+        
+        String tenant;
+        
+        public ChangedConfig() {
+        
+        }
+        
+        public String getDataId() {
+            return dataId;
+        }
+        
+        public void setDataId(String dataId) {
+            this.dataId = dataId;
+        }
+        
+        public String getGroup() {
+            return group;
+        }
+        
+        public void setGroup(String group) {
+            this.group = group;
+        }
+        
+        public String getTenant() {
+            return tenant;
+        }
+        
+        public void setTenant(String tenant) {
+            this.tenant = tenant;
+        }
+        
+        @Override
+        public String toString() {
+            return "ChangedConfig{" + "dataId='" + dataId + '\'' + ", group='" + group + '\'' + ", tenant='" + tenant
+                    + '\'' + '}';
+        }
+    }
+}
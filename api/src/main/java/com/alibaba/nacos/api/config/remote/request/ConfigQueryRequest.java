@@ -16,6 +16,8 @@
 
 package com.alibaba.nacos.api.config.remote.request;
 
+import com.alibaba.nacos.api.common.Constants;
+
 /**
  * request to query config content.
  *
@@ -126,4 +128,17 @@ public class ConfigQueryRequest extends AbstractConfigRequest {
         String notify = getHeader(NOTIFY_HEADER, Boolean.FALSE.toString());
         return Boolean.parseBoolean(notify);
     }
+    
+    /**
+     * Set content encodings the client can decode, large content may be returned compressed.
+     *
+     * @param acceptEncoding encodings separated by comma, such as gzip
+     */
+    public void setAcceptEncoding(String acceptEncoding) {
+        putHeader(Constants.ACCEPT_ENCODING, acceptEncoding);
+    }
+    
+    public String getAcceptEncoding() {
+        return getHeader(Constants.ACCEPT_ENCODING);
+    }
 }
@@ -0,0 +1,136 @@
+/*
+ * Copyright 1999-2020 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.nacos.api.config.remote.request.cluster;
+
+import com.alibaba.nacos.api.config.remote.request.AbstractConfigRequest;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * config change sync request of a batch of configs on clusters.
+ *
+ * @author Nacos
+ */
+public class ConfigChangeClusterBatchSyncRequest extends AbstractConfigRequest {
+    
+    private List<ConfigChangeItem> configChanges = new ArrayList<ConfigChangeItem>();
+    
+    /**
+     * add changed config.
+     *
+     * @param dataId       dataId.
+     * @param group        group.
+     * @param tenant       tenant.
+     * @param tag          tag.
+     * @param lastModified lastModified.
+     * @param beta         beta or not.
+     */
+    public void addConfigChange(String dataId, String group, String tenant, String tag, long lastModified,
+            boolean beta) {
+        ConfigChangeItem item = new ConfigChangeItem();
+        item.dataId = dataId;
+        item.group = group;
+        item.tenant = tenant;
+        item.tag = tag;
+        item.lastModified = lastModified;
+        item.beta = beta;
+        configChanges.add(item);
+    }
+    
+    public List<ConfigChangeItem> getConfigChanges() {
+        return configChanges;
+    }
+    
+    public void setConfigChanges(List<ConfigChangeItem> configChanges) {
+        this.configChanges = configChanges;
+    }
+    
+    public static class ConfigChangeItem {
+        
+        String dataId;
+        
+        String group;
+        
+        String tenant;
+        
+        String tag;
+        
+        long lastModified;
+        
+        boolean beta;
+        
+        public ConfigChangeItem() {
+        
+        }
+        
+        public String getDataId() {
+            return dataId;
+        }
+        
+        public void setDataId(String dataId) {
+            this.dataId = dataId;
+        }
+        
+        public String getGroup() {
+            return group;
+        }
+        
+        public void setGroup(String group) {
+            this.group = group;
+        }
+        
+        public String getTenant() {
+            return tenant;
+        }
+        
+        public void setTenant(String tenant) {
+            this.tenant = tenant;
+        }
+        
+        public String getTag() {
+            return tag;
+        }
+        
+        public void setTag(String tag) {
+            this.tag = tag;
+        }
+        
+        public long getLastModified() {
+            return lastModified;
+        }
+        
+        public void setLastModified(long lastModified) {
+            this.lastModified = lastModified;
+        }
+        
+        public boolean isBeta() {
+            return beta;
+        }
+        
+        public void setBeta(boolean beta) {
+            this.beta = beta;
+        }
+        
+        @Override
+        public String toString() {
+            return "ConfigChangeItem{" + "dataId='" + dataId + '\'' + ", group='" + group + '\'' + ", tenant='"
+                    + tenant + '\'' + ", tag='" + tag + '\'' + ", lastModified=" + lastModified + ", beta=" + beta
+                    + '}';
+        }
+    }
+}
@@ -30,8 +30,20 @@ public class ConfigQueryResponse extends Response {
     
     public static final int CONFIG_QUERY_CONFLICT = 400;
     
+    public static final String ENCODING_GZIP = "gzip";
+    
     String content;
     
+    /**
+     * Encoding of {@link #compressedContent}, null if content is not compressed.
+     */
+    String contentEncoding;
+    
+    /**
+     * Compressed content, set instead of content. The md5 is always of the uncompressed content.
+     */
+    byte[] compressedContent;
+    
     String encryptedDataKey;
     
     String contentType;
@@ -122,6 +134,22 @@ public class ConfigQueryResponse extends Response {
         this.content = content;
     }
     
+    public String getContentEncoding() {
+        return contentEncoding;
+    }
+    
+    public void setContentEncoding(String contentEncoding) {
+        this.contentEncoding = contentEncoding;
+    }
+    
+    public byte[] getCompressedContent() {
+        return compressedContent;
+    }
+    
+    public void setCompressedContent(byte[] compressedContent) {
+        this.compressedContent = compressedContent;
+    }
+    
     public void setEncryptedDataKey(String encryptedDataKey) {
         this.encryptedDataKey = encryptedDataKey;
     }
@@ -16,9 +16,12 @@
 
 package com.alibaba.nacos.api.naming.remote.request;
 
+import com.alibaba.nacos.api.naming.pojo.Instance;
 import com.alibaba.nacos.api.naming.pojo.ServiceInfo;
 import com.alibaba.nacos.api.remote.request.ServerRequest;
 
+import java.util.List;
+
 /**
  * Notify subscriber response.
  *
@@ -36,6 +39,20 @@ public class NotifySubscriberRequest extends ServerRequest {
     
     private ServiceInfo serviceInfo;
     
+    /**
+     * Whether {@link #serviceInfo} only contains the added and modified instances since {@link #baseRevision}.
+     */
+    private boolean delta;
+    
+    /**
+     * Revision of the pushed data on server, {@code 0} means the server doesn't version its push data.
+     */
+    private long revision;
+    
+    private long baseRevision;
+    
+    private List<Instance> removedHosts;
+    
     public NotifySubscriberRequest() {
     }
     
@@ -52,6 +69,25 @@ public class NotifySubscriberRequest extends ServerRequest {
         return new NotifySubscriberRequest(serviceInfo, "success");
     }
     
+    /**
+     * Build delta request, which only contains the changes from {@code baseRevision} to {@code revision}.
+     *
+     * @param changedServiceInfo service info only contains added and modified instances
+     * @param removedHosts       removed instances
+     * @param baseRevision       revision which the changes based on
+     * @param revision           revision after apply the changes
+     * @return delta request
+     */
+    public static NotifySubscriberRequest buildDeltaRequest(ServiceInfo changedServiceInfo, List<Instance> removedHosts,
+            long baseRevision, long revision) {
+        NotifySubscriberRequest result = new NotifySubscriberRequest(changedServiceInfo, "success");
+        result.setDelta(true);
+        result.setRemovedHosts(removedHosts);
+        result.setBaseRevision(baseRevision);
+        result.setRevision(revision);
+        return result;
+    }
+    
     /**
      * Build fail response.
      *
@@ -94,4 +130,36 @@ public class NotifySubscriberRequest extends ServerRequest {
         this.groupName = groupName;
     }
     
+    public boolean isDelta() {
+        return delta;
+    }
+    
+    public void setDelta(boolean delta) {
+        this.delta = delta;
+    }
+    
+    public long getRevision() {
+        return revision;
+    }
+    
+    public void setRevision(long revision) {
+        this.revision = revision;
+    }
+    
+    public long getBaseRevision() {
+        return baseRevision;
+    }
+    
+    public void setBaseRevision(long baseRevision) {
+        this.baseRevision = baseRevision;
+    }
+    
+    public List<Instance> getRemovedHosts() {
+        return removedHosts;
+    }
+    
+    public void setRemovedHosts(List<Instance> removedHosts) {
+        this.removedHosts = removedHosts;
+    }
+    
 }
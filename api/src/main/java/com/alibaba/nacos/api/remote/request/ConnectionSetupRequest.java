@@ -19,6 +19,7 @@ package com.alibaba.nacos.api.remote.request;
 import com.alibaba.nacos.api.ability.ClientAbilities;
 
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -37,6 +38,11 @@ public class ConnectionSetupRequest extends InternalRequest {
     
     private Map<String, String> labels = new HashMap<String, String>();
     
+    /**
+     * Payload codecs supported by client in order of preference, server uses the negotiated one to encode requests.
+     */
+    private List<String> payloadCodecs;
+    
     public ConnectionSetupRequest() {
     }
     
@@ -71,4 +77,12 @@ public class ConnectionSetupRequest extends InternalRequest {
     public void setAbilities(ClientAbilities abilities) {
         this.abilities = abilities;
     }
+    
+    public List<String> getPayloadCodecs() {
+        return payloadCodecs;
+    }
+    
+    public void setPayloadCodecs(List<String> payloadCodecs) {
+        this.payloadCodecs = payloadCodecs;
+    }
 }
@@ -16,6 +16,8 @@
 
 package com.alibaba.nacos.api.remote.response;
 
+import java.util.List;
+
 /**
  * response of server check.
  *
@@ -26,6 +28,11 @@ public class ServerCheckResponse extends Response {
     
     private String connectionId;
     
+    /**
+     * Payload codecs supported by server, client uses the negotiated one to encode requests.
+     */
+    private List<String> payloadCodecs;
+    
     public ServerCheckResponse() {
     
     }
@@ -41,4 +48,12 @@ public class ServerCheckResponse extends Response {
     public void setConnectionId(String connectionId) {
         this.connectionId = connectionId;
     }
+    
+    public List<String> getPayloadCodecs() {
+        return payloadCodecs;
+    }
+    
+    public void setPayloadCodecs(List<String> payloadCodecs) {
+        this.payloadCodecs = payloadCodecs;
+    }
 }
@@ -23,12 +23,14 @@ import com.alibaba.nacos.api.config.ConfigType;
 import com.alibaba.nacos.api.config.listener.Listener;
 import com.alibaba.nacos.api.config.remote.request.ClientConfigMetricRequest;
 import com.alibaba.nacos.api.config.remote.request.ConfigBatchListenRequest;
+import com.alibaba.nacos.api.config.remote.request.ConfigChangeBatchNotifyRequest;
 import com.alibaba.nacos.api.config.remote.request.ConfigChangeNotifyRequest;
 import com.alibaba.nacos.api.config.remote.request.ConfigPublishRequest;
 import com.alibaba.nacos.api.config.remote.request.ConfigQueryRequest;
 import com.alibaba.nacos.api.config.remote.request.ConfigRemoveRequest;
 import com.alibaba.nacos.api.config.remote.response.ClientConfigMetricResponse;
 import com.alibaba.nacos.api.config.remote.response.ConfigChangeBatchListenResponse;
+import com.alibaba.nacos.api.config.remote.response.ConfigChangeBatchNotifyResponse;
 import com.alibaba.nacos.api.config.remote.response.ConfigChangeNotifyResponse;
 import com.alibaba.nacos.api.config.remote.response.ConfigPublishResponse;
 import com.alibaba.nacos.api.config.remote.response.ConfigQueryResponse;
@@ -55,6 +57,7 @@ import com.alibaba.nacos.common.remote.client.RpcClient;
 import com.alibaba.nacos.common.remote.client.RpcClientFactory;
 import com.alibaba.nacos.common.remote.client.ServerListFactory;
 import com.alibaba.nacos.common.utils.ConvertUtils;
+import com.alibaba.nacos.common.utils.IoUtils;
 import com.alibaba.nacos.common.utils.JacksonUtils;
 import com.alibaba.nacos.common.utils.MD5Utils;
 import com.alibaba.nacos.common.utils.StringUtils;
@@ -609,6 +612,30 @@ public class ClientWorker implements Closeable {
                 return null;
             });
 
+            rpcClientInner.registerServerRequestHandler((request) -> {
+                if (request instanceof ConfigChangeBatchNotifyRequest) {
+                    ConfigChangeBatchNotifyRequest batchNotifyRequest = (ConfigChangeBatchNotifyRequest) request;
+                    LOGGER.info("[{}] [server-push] configs changed. count={}", rpcClientInner.getName(),
+                            batchNotifyRequest.getChangedConfigs().size());
+                    boolean changed = false;
+                    for (ConfigChangeBatchNotifyRequest.ChangedConfig changedConfig : batchNotifyRequest
+                            .getChangedConfigs()) {
+                        String groupKey = GroupKey.getKeyTenant(changedConfig.getDataId(), changedConfig.getGroup(),
+                                changedConfig.getTenant());
+                        CacheData cacheData = cacheMap.get().get(groupKey);
+                        if (cacheData != null) {
+                            cacheData.setSyncWithServer(false);
+                            changed = true;
+                        }
+                    }
+                    if (changed) {
+                        notifyListenConfig();
+                    }
+                    return new ConfigChangeBatchNotifyResponse();
+                }
+                return null;
+            });
+
             rpcClientInner.registerServerRequestHandler((request) -> {
                 if (request instanceof ClientConfigMetricRequest) {
                     ClientConfigMetricResponse response = new ClientConfigMetricResponse();
@@ -865,6 +892,7 @@ public class ClientWorker implements Closeable {
             ClientAbilities clientAbilities = new ClientAbilities();
             clientAbilities.getRemoteAbility().setSupportRemoteConnection(true);
             clientAbilities.getConfigAbility().setSupportRemoteMetrics(true);
+            clientAbilities.getConfigAbility().setSupportBatchChangeNotify(true);
             return clientAbilities;
         }
 
@@ -908,13 +936,15 @@ public class ClientWorker implements Closeable {
                 throws NacosException {
             ConfigQueryRequest request = ConfigQueryRequest.build(dataId, group, tenant);
             request.putHeader("notify", String.valueOf(notify));
+            request.setAcceptEncoding(ConfigQueryResponse.ENCODING_GZIP);
             ConfigQueryResponse response = (ConfigQueryResponse) requestProxy(getOneRunningClient(), request,
                     readTimeouts);
 
             ConfigResponse configResponse = new ConfigResponse();
             if (response.isSuccess()) {
-                LocalConfigInfoProcessor.saveSnapshot(this.getName(), dataId, group, tenant, response.getContent());
-                configResponse.setContent(response.getContent());
+                String content = decodeContent(response);
+                LocalConfigInfoProcessor.saveSnapshot(this.getName(), dataId, group, tenant, content);
+                configResponse.setContent(content);
                 String configType;
                 if (StringUtils.isNotBlank(response.getContentType())) {
                     configType = response.getContentType();
@@ -947,6 +977,17 @@ public class ClientWorker implements Closeable {
             }
         }
 
+        private String decodeContent(ConfigQueryResponse response) throws NacosException {
+            if (!ConfigQueryResponse.ENCODING_GZIP.equals(response.getContentEncoding())) {
+                return response.getContent();
+            }
+            try {
+                return new String(IoUtils.tryDecompress(response.getCompressedContent()), Constants.ENCODE);
+            } catch (Exception e) {
+                throw new NacosException(NacosException.SERVER_ERROR, "decompress config content failed", e);
+            }
+        }
+
         private Response requestProxy(RpcClient rpcClientInner, Request request) throws NacosException {
             return requestProxy(rpcClientInner, request, 3000L);
         }
@@ -34,6 +34,7 @@ import java.io.File;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Properties;
@@ -52,6 +53,8 @@ public class ServiceInfoHolder implements Closeable {
     
     private final ConcurrentMap<String, ServiceInfo> serviceInfoMap;
     
+    private final ConcurrentMap<String, PushedRevision> pushedRevisions;
+    
     private final FailoverReactor failoverReactor;
     
     private final boolean pushEmptyProtection;
@@ -65,6 +68,7 @@ public class ServiceInfoHolder implements Closeable {
         } else {
             this.serviceInfoMap = new ConcurrentHashMap<String, ServiceInfo>(16);
         }
+        this.pushedRevisions = new ConcurrentHashMap<String, PushedRevision>(16);
         this.failoverReactor = new FailoverReactor(this, cacheDir);
         this.pushEmptyProtection = isPushEmptyProtect(properties);
     }
@@ -135,10 +139,13 @@ public class ServiceInfoHolder implements Closeable {
     /**
      * Process service info.
      *
+     * <p>The revision pushed by server is kept if the new service info, e.g. a query result, has the same instances
+     * as the pushed one, so that later delta pushes still apply.
+     *
      * @param serviceInfo new service info
      * @return service info
      */
-    public ServiceInfo processServiceInfo(ServiceInfo serviceInfo) {
+    public synchronized ServiceInfo processServiceInfo(ServiceInfo serviceInfo) {
         String serviceKey = serviceInfo.getKey();
         if (serviceKey == null) {
             return null;
@@ -150,6 +157,7 @@ public class ServiceInfoHolder implements Closeable {
         }
         serviceInfoMap.put(serviceInfo.getKey(), serviceInfo);
         boolean changed = isChangedServiceInfo(oldService, serviceInfo);
+        keepPushedRevision(serviceKey, oldService, serviceInfo, changed);
         if (StringUtils.isBlank(serviceInfo.getJsonFromServer())) {
             serviceInfo.setJsonFromServer(JacksonUtils.toJson(serviceInfo));
         }
@@ -164,6 +172,82 @@ public class ServiceInfoHolder implements Closeable {
         return serviceInfo;
     }
     
+    /**
+     * Process service info pushed by server with its revision.
+     *
+     * @param serviceInfo new service info
+     * @param revision    revision of service info on server, {@code 0} if server doesn't version push data
+     * @return service info
+     */
+    public synchronized ServiceInfo processServiceInfo(ServiceInfo serviceInfo, long revision) {
+        ServiceInfo result = processServiceInfo(serviceInfo);
+        String serviceKey = serviceInfo.getKey();
+        if (null == serviceKey) {
+            return result;
+        }
+        if (revision > 0 && result == serviceInfo) {
+            pushedRevisions.put(serviceKey, new PushedRevision(revision, serviceInfo));
+        } else {
+            pushedRevisions.remove(serviceKey);
+        }
+        return result;
+    }
+    
+    /**
+     * Apply the delta pushed by server to the service info received at {@code baseRevision}.
+     *
+     * @param changedServiceInfo service info only contains added and modified instances
+     * @param removedHosts       removed instances
+     * @param baseRevision       revision which the changes based on
+     * @param revision           revision after apply the changes
+     * @return {@code false} if current service info isn't the one of {@code baseRevision}, full data is required
+     */
+    public synchronized boolean processDeltaServiceInfo(ServiceInfo changedServiceInfo, List<Instance> removedHosts,
+            long baseRevision, long revision) {
+        String serviceKey = changedServiceInfo.getKey();
+        if (null == serviceKey) {
+            return false;
+        }
+        PushedRevision pushedRevision = pushedRevisions.get(serviceKey);
+        ServiceInfo oldService = serviceInfoMap.get(serviceKey);
+        // service info may be replaced by query result after the revision was received
+        if (null == pushedRevision || null == oldService || pushedRevision.serviceInfo != oldService
+                || pushedRevision.revision != baseRevision) {
+            NAMING_LOGGER.warn("[DELTA-PUSH] revision mismatched for service {}, local: {}, base: {}", serviceKey,
+                    null == pushedRevision ? null : pushedRevision.revision, baseRevision);
+            pushedRevisions.remove(serviceKey);
+            return false;
+        }
+        Map<String, Instance> hostMap = new LinkedHashMap<String, Instance>(oldService.getHosts().size());
+        for (Instance host : oldService.getHosts()) {
+            hostMap.put(host.toInetAddr(), host);
+        }
+        if (null != removedHosts) {
+            for (Instance host : removedHosts) {
+                hostMap.remove(host.toInetAddr());
+            }
+        }
+        for (Instance host : changedServiceInfo.getHosts()) {
+            hostMap.put(host.toInetAddr(), host);
+        }
+        changedServiceInfo.setHosts(new ArrayList<Instance>(hostMap.values()));
+        processServiceInfo(changedServiceInfo, revision);
+        return true;
+    }
+    
+    private void keepPushedRevision(String serviceKey, ServiceInfo oldService, ServiceInfo newService,
+            boolean changed) {
+        PushedRevision pushedRevision = pushedRevisions.get(serviceKey);
+        if (null == pushedRevision || pushedRevision.serviceInfo != oldService) {
+            return;
+        }
+        if (changed) {
+            pushedRevisions.remove(serviceKey);
+        } else {
+            pushedRevisions.put(serviceKey, new PushedRevision(pushedRevision.revision, newService));
+        }
+    }
+    
     private boolean isEmptyOrErrorPush(ServiceInfo serviceInfo) {
         return null == serviceInfo.getHosts() || (pushEmptyProtection && !serviceInfo.validate());
     }
@@ -249,4 +333,16 @@ public class ServiceInfoHolder implements Closeable {
         failoverReactor.shutdown();
         NAMING_LOGGER.info("{} do shutdown stop", className);
     }
+    
+    private static class PushedRevision {
+        
+        private final long revision;
+        
+        private final ServiceInfo serviceInfo;
+        
+        private PushedRevision(long revision, ServiceInfo serviceInfo) {
+            this.revision = revision;
+            this.serviceInfo = serviceInfo;
+        }
+    }
 }
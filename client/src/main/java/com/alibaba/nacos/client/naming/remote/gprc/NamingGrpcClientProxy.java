@@ -16,6 +16,7 @@
 
 package com.alibaba.nacos.client.naming.remote.gprc;
 
+import com.alibaba.nacos.api.ability.ClientAbilities;
 import com.alibaba.nacos.api.exception.NacosException;
 import com.alibaba.nacos.api.naming.CommonParams;
 import com.alibaba.nacos.api.naming.pojo.Instance;
@@ -87,11 +88,19 @@ public class NamingGrpcClientProxy extends AbstractNamingClientProxy {
     
     private void start(ServerListFactory serverListFactory, ServiceInfoHolder serviceInfoHolder) throws NacosException {
         rpcClient.serverListFactory(serverListFactory);
+        rpcClient.clientAbilities(initAbilities());
         rpcClient.start();
         rpcClient.registerServerRequestHandler(new NamingPushRequestHandler(serviceInfoHolder));
         rpcClient.registerConnectionListener(namingGrpcConnectionEventListener);
     }
     
+    private ClientAbilities initAbilities() {
+        ClientAbilities clientAbilities = new ClientAbilities();
+        clientAbilities.getRemoteAbility().setSupportRemoteConnection(true);
+        clientAbilities.getNamingAbility().setSupportDeltaPush(true);
+        return clientAbilities;
+    }
+    
     @Override
     public void registerService(String serviceName, String groupName, Instance instance) throws NacosException {
         NAMING_LOGGER.info("[REGISTER-SERVICE] {} registering service {} with instance {}", namespaceId, serviceName,
@@ -20,6 +20,7 @@ import com.alibaba.nacos.api.naming.remote.request.NotifySubscriberRequest;
 import com.alibaba.nacos.api.naming.remote.response.NotifySubscriberResponse;
 import com.alibaba.nacos.api.remote.request.Request;
 import com.alibaba.nacos.api.remote.response.Response;
+import com.alibaba.nacos.api.remote.response.ResponseCode;
 import com.alibaba.nacos.client.naming.cache.ServiceInfoHolder;
 import com.alibaba.nacos.common.remote.client.ServerRequestHandler;
 
@@ -39,9 +40,18 @@ public class NamingPushRequestHandler implements ServerRequestHandler {
     @Override
     public Response requestReply(Request request) {
         if (request instanceof NotifySubscriberRequest) {
-            NotifySubscriberRequest notifyResponse = (NotifySubscriberRequest) request;
-            serviceInfoHolder.processServiceInfo(notifyResponse.getServiceInfo());
-            return new NotifySubscriberResponse();
+            NotifySubscriberRequest notifyRequest = (NotifySubscriberRequest) request;
+            if (!notifyRequest.isDelta()) {
+                serviceInfoHolder.processServiceInfo(notifyRequest.getServiceInfo(), notifyRequest.getRevision());
+                return new NotifySubscriberResponse();
+            }
+            NotifySubscriberResponse response = new NotifySubscriberResponse();
+            if (!serviceInfoHolder.processDeltaServiceInfo(notifyRequest.getServiceInfo(),
+                    notifyRequest.getRemovedHosts(), notifyRequest.getBaseRevision(), notifyRequest.getRevision())) {
+                // let server retry with full data
+                response.setErrorInfo(ResponseCode.FAIL.getCode(), "Revision mismatched, full data is required");
+            }
+            return response;
         }
         return null;
     }
@@ -28,6 +28,7 @@ import org.junit.Test;
 
 import java.lang.reflect.Field;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Properties;
 import java.util.concurrent.ScheduledExecutorService;
@@ -113,6 +114,50 @@ public class ServiceInfoHolderTest {
         Assert.assertEquals(2, actual.getHosts().size());
     }
     
+    @Test
+    public void testProcessDeltaServiceInfo() {
+        ServiceInfo info = new ServiceInfo("a@@b@@c");
+        List<Instance> hosts = new ArrayList<>();
+        hosts.add(createInstance("1.1.1.1", 1));
+        hosts.add(createInstance("1.1.1.2", 2));
+        info.setHosts(hosts);
+        ServiceInfoHolder holder = new ServiceInfoHolder("aa", new Properties());
+        holder.processServiceInfo(info, 10L);
+        
+        ServiceInfo delta = new ServiceInfo("a@@b@@c");
+        delta.setHosts(Collections.singletonList(createInstance("1.1.1.3", 3)));
+        List<Instance> removed = Collections.singletonList(createInstance("1.1.1.1", 1));
+        Assert.assertTrue(holder.processDeltaServiceInfo(delta, removed, 10L, 12L));
+        List<Instance> actual = holder.getServiceInfo("b", "a", "c").getHosts();
+        Assert.assertEquals(2, actual.size());
+        Assert.assertEquals("1.1.1.2", actual.get(0).getIp());
+        Assert.assertEquals("1.1.1.3", actual.get(1).getIp());
+        
+        ServiceInfo gap = new ServiceInfo("a@@b@@c");
+        Assert.assertFalse(holder.processDeltaServiceInfo(gap, removed, 10L, 14L));
+    }
+    
+    @Test
+    public void testProcessDeltaServiceInfoAfterQuery() {
+        ServiceInfo info = new ServiceInfo("a@@b@@c");
+        info.setHosts(Collections.singletonList(createInstance("1.1.1.1", 1)));
+        ServiceInfoHolder holder = new ServiceInfoHolder("aa", new Properties());
+        holder.processServiceInfo(info, 10L);
+        
+        ServiceInfo queried = new ServiceInfo("a@@b@@c");
+        queried.setHosts(Collections.singletonList(createInstance("1.1.1.1", 1)));
+        holder.processServiceInfo(queried);
+        ServiceInfo delta = new ServiceInfo("a@@b@@c");
+        delta.setHosts(Collections.singletonList(createInstance("1.1.1.2", 2)));
+        Assert.assertTrue(holder.processDeltaServiceInfo(delta, null, 10L, 11L));
+        Assert.assertEquals(2, holder.getServiceInfo("b", "a", "c").getHosts().size());
+        
+        ServiceInfo changed = new ServiceInfo("a@@b@@c");
+        changed.setHosts(Collections.singletonList(createInstance("1.1.1.3", 3)));
+        holder.processServiceInfo(changed);
+        Assert.assertFalse(holder.processDeltaServiceInfo(delta, null, 11L, 12L));
+    }
+    
     @Test
     public void testGetServiceInfo() {
         ServiceInfo info = new ServiceInfo("a@@b@@c");
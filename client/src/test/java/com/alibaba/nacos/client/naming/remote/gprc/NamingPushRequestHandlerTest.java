@@ -44,6 +44,6 @@ public class NamingPushRequestHandlerTest {
         Response response = handler.requestReply(req);
         //then
         Assert.assertTrue(response instanceof NotifySubscriberResponse);
-        verify(holder, times(1)).processServiceInfo(info);
+        verify(holder, times(1)).processServiceInfo(info, 0L);
     }
 }
\ No newline at end of file
@@ -29,6 +29,7 @@ import com.alibaba.nacos.api.remote.response.ServerCheckResponse;
 import com.alibaba.nacos.common.remote.ConnectionType;
 import com.alibaba.nacos.common.remote.client.Connection;
 import com.alibaba.nacos.common.remote.client.RpcClient;
+import com.alibaba.nacos.common.remote.codec.PayloadCodecFactory;
 import com.alibaba.nacos.common.remote.client.RpcClientStatus;
 import com.alibaba.nacos.common.utils.LoggerUtils;
 import com.alibaba.nacos.common.utils.ThreadUtils;
@@ -272,6 +273,8 @@ public abstract class GrpcClient extends RpcClient {
                         .newStub(newChannelStubTemp.getChannel());
                 GrpcConnection grpcConn = new GrpcConnection(serverInfo, grpcExecutor);
                 grpcConn.setConnectionId(((ServerCheckResponse) response).getConnectionId());
+                grpcConn.setPayloadCodec(
+                        PayloadCodecFactory.negotiate(((ServerCheckResponse) response).getPayloadCodecs()));
                 
                 //create stream request and bind connection event to this connection.
                 StreamObserver<Payload> payloadStreamObserver = bindRequestStream(biRequestStreamStub, grpcConn);
@@ -286,6 +289,7 @@ public abstract class GrpcClient extends RpcClient {
                 conSetupRequest.setLabels(super.getLabels());
                 conSetupRequest.setAbilities(super.clientAbilities);
                 conSetupRequest.setTenant(super.getTenant());
+                conSetupRequest.setPayloadCodecs(PayloadCodecFactory.getSupportedCodecs());
                 grpcConn.sendRequest(conSetupRequest);
                 //wait to register connection setup
                 Thread.sleep(100L);
@@ -16,7 +16,6 @@
 
 package com.alibaba.nacos.common.remote.client.grpc;
 
-import com.alibaba.nacos.api.common.Constants;
 import com.alibaba.nacos.api.exception.NacosException;
 import com.alibaba.nacos.api.exception.runtime.NacosDeserializationException;
 import com.alibaba.nacos.api.exception.runtime.NacosSerializationException;
@@ -27,16 +26,21 @@ import com.alibaba.nacos.api.remote.request.Request;
 import com.alibaba.nacos.api.remote.request.RequestMeta;
 import com.alibaba.nacos.api.remote.response.Response;
 import com.alibaba.nacos.api.utils.NetUtils;
+import com.alibaba.nacos.common.remote.codec.JsonPayloadCodec;
+import com.alibaba.nacos.common.remote.codec.PayloadCodec;
+import com.alibaba.nacos.common.remote.codec.PayloadCodecFactory;
 import com.alibaba.nacos.common.remote.exception.RemoteException;
 import com.fasterxml.jackson.annotation.JsonInclude;
-import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.google.protobuf.Any;
 import com.google.protobuf.ByteString;
+import com.google.protobuf.UnsafeByteOperations;
 
 import java.io.IOException;
-import java.nio.charset.Charset;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
 
 /**
  * gRPC utils, use to parse request and response.
@@ -48,26 +52,18 @@ public class GrpcUtils {
     
     static ObjectMapper mapper = new ObjectMapper();
     
+    /**
+     * Written as request id when building {@link PayloadTemplate}, random to avoid conflicting with request content.
+     */
+    private static final String REQUEST_ID_PLACEHOLDER = "request-id-" + UUID.randomUUID().toString();
+    
+    private static final ByteString PLACEHOLDER_BYTES = ByteString.copyFromUtf8(REQUEST_ID_PLACEHOLDER);
+    
     static {
         mapper.disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
         mapper.setSerializationInclusion(JsonInclude.Include.NON_NULL);
     }
     
-    /**
-     * Object to json string.
-     *
-     * @param obj obj
-     * @return json string
-     * @throws NacosSerializationException if transfer failed
-     */
-    private static String toJson(Object obj) {
-        try {
-            return mapper.writeValueAsString(obj);
-        } catch (JsonProcessingException e) {
-            throw new NacosSerializationException(obj.getClass(), e);
-        }
-    }
-    
     /**
      * Json string deserialize to Object.
      *
@@ -104,10 +100,7 @@ public class GrpcUtils {
         
         // request body .
         request.clearHeaders();
-        String jsonString = toJson(request);
-        return payloadBuilder
-                .setBody(Any.newBuilder().setValue(ByteString.copyFrom(jsonString, Charset.forName(Constants.ENCODE))))
-                .build();
+        return payloadBuilder.setBody(encode(request, PayloadCodecFactory.getJsonCodec())).build();
         
     }
     
@@ -118,18 +111,21 @@ public class GrpcUtils {
      * @return payload.
      */
     public static Payload convert(Request request) {
-        
+        return convert(request, PayloadCodecFactory.getJsonCodec());
+    }
+    
+    /**
+     * convert request to payload by codec, json codec is used if the request type is not supported by codec.
+     *
+     * @param request request.
+     * @param codec   codec negotiated with peer.
+     * @return payload.
+     */
+    public static Payload convert(Request request, PayloadCodec codec) {
         Metadata newMeta = Metadata.newBuilder().setType(request.getClass().getSimpleName())
                 .setClientIp(NetUtils.localIP()).putAllHeaders(request.getHeaders()).build();
         request.clearHeaders();
-        String jsonString = toJson(request);
-        
-        Payload.Builder builder = Payload.newBuilder();
-    
-        return builder
-                .setBody(Any.newBuilder().setValue(ByteString.copyFrom(jsonString, Charset.forName(Constants.ENCODE))))
-                .setMetadata(newMeta).build();
-        
+        return Payload.newBuilder().setBody(encode(request, codec)).setMetadata(newMeta).build();
     }
     
     /**
@@ -139,14 +135,71 @@ public class GrpcUtils {
      * @return payload.
      */
     public static Payload convert(Response response) {
-        String jsonString = toJson(response);
-        
         Metadata.Builder metaBuilder = Metadata.newBuilder().setType(response.getClass().getSimpleName());
-        return Payload.newBuilder()
-                .setBody(Any.newBuilder().setValue(ByteString.copyFrom(jsonString, Charset.forName(Constants.ENCODE))))
+        return Payload.newBuilder().setBody(encode(response, PayloadCodecFactory.getJsonCodec()))
                 .setMetadata(metaBuilder.build()).build();
     }
     
+    private static Any encode(Object obj, PayloadCodec codec) {
+        PayloadCodec actual = codec.isSupported(obj.getClass()) ? codec : PayloadCodecFactory.getJsonCodec();
+        Any.Builder builder = Any.newBuilder().setValue(UnsafeByteOperations.unsafeWrap(actual.encode(obj)));
+        if (!JsonPayloadCodec.NAME.equals(actual.name())) {
+            builder.setTypeUrl(actual.name());
+        }
+        return builder.build();
+    }
+    
+    /**
+     * convert request to payload template, which can be used to build payloads of the same request for different
+     * connections, only the request id is different in the payloads.
+     *
+     * @param request request.
+     * @return payload template.
+     */
+    public static PayloadTemplate convertToTemplate(Request request) {
+        return convertToTemplate(request, PayloadCodecFactory.getJsonCodec());
+    }
+    
+    /**
+     * convert request to payload template by codec.
+     *
+     * @param request request.
+     * @param codec   codec negotiated with peer.
+     * @return payload template.
+     */
+    public static PayloadTemplate convertToTemplate(Request request, PayloadCodec codec) {
+        Map<String, String> headers = new HashMap<String, String>(request.getHeaders());
+        final Metadata newMeta = Metadata.newBuilder().setType(request.getClass().getSimpleName())
+                .setClientIp(NetUtils.localIP()).putAllHeaders(headers).build();
+        request.clearHeaders();
+        request.setRequestId(REQUEST_ID_PLACEHOLDER);
+        Any body = encode(request, codec);
+        // restore headers so that the request can be encoded again by other codecs.
+        request.putAllHeader(headers);
+        ByteString value = body.getValue();
+        int index = indexOf(value, PLACEHOLDER_BYTES);
+        if (index < 0) {
+            throw new NacosSerializationException(request.getClass());
+        }
+        ByteString prefix = value.substring(0, index);
+        ByteString suffix = value.substring(index + PLACEHOLDER_BYTES.size());
+        return new PayloadTemplate(newMeta, body.getTypeUrl(), prefix, suffix);
+    }
+    
+    private static int indexOf(ByteString source, ByteString target) {
+        int last = source.size() - target.size();
+        for (int i = 0; i <= last; i++) {
+            int j = 0;
+            while (j < target.size() && source.byteAt(i + j) == target.byteAt(j)) {
+                j++;
+            }
+            if (j == target.size()) {
+                return i;
+            }
+        }
+        return -1;
+    }
+    
     /**
      * parse payload to request/response model.
      *
@@ -155,17 +208,53 @@ public class GrpcUtils {
      */
     public static Object parse(Payload payload) {
         Class classType = PayloadRegistry.getClassByType(payload.getMetadata().getType());
-        if (classType != null) {
-            Object obj = toObj(payload.getBody().getValue().toString(Charset.forName(Constants.ENCODE)), classType);
-            if (obj instanceof Request) {
-                ((Request) obj).putAllHeader(payload.getMetadata().getHeadersMap());
-            }
-            return obj;
-        } else {
+        if (classType == null) {
             throw new RemoteException(NacosException.SERVER_ERROR,
                     "Unknown payload type:" + payload.getMetadata().getType());
         }
+        PayloadCodec codec = PayloadCodecFactory.getCodec(payload.getBody().getTypeUrl());
+        if (codec == null) {
+            throw new RemoteException(NacosException.SERVER_ERROR,
+                    "Unknown payload codec:" + payload.getBody().getTypeUrl());
+        }
+        Object obj = codec.decode(payload.getBody().getValue().asReadOnlyByteBuffer(), classType);
+        if (obj instanceof Request) {
+            ((Request) obj).putAllHeader(payload.getMetadata().getHeadersMap());
+        }
+        return obj;
+    }
+    
+    /**
+     * Encoded request which can be shared by payloads for different connections.
+     */
+    public static class PayloadTemplate {
+        
+        private final Metadata metadata;
+        
+        private final String typeUrl;
+        
+        private final ByteString bodyPrefix;
         
+        private final ByteString bodySuffix;
+        
+        private PayloadTemplate(Metadata metadata, String typeUrl, ByteString bodyPrefix, ByteString bodySuffix) {
+            this.metadata = metadata;
+            this.typeUrl = typeUrl;
+            this.bodyPrefix = bodyPrefix;
+            this.bodySuffix = bodySuffix;
+        }
+        
+        /**
+         * Build payload with request id, the encoded body is shared rather than copied.
+         *
+         * @param requestId request id, which is generated number and needs no escaping
+         * @return payload
+         */
+        public Payload toPayload(String requestId) {
+            ByteString body = bodyPrefix.concat(ByteString.copyFromUtf8(requestId)).concat(bodySuffix);
+            return Payload.newBuilder().setBody(Any.newBuilder().setTypeUrl(typeUrl).setValue(body))
+                    .setMetadata(metadata).build();
+        }
     }
     
     public static class PlainRequest {
@@ -0,0 +1,530 @@
+/*
+ * Copyright 1999-2020 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.nacos.common.remote.codec;
+
+import com.alibaba.nacos.api.config.remote.request.ConfigBatchListenRequest;
+import com.alibaba.nacos.api.config.remote.request.ConfigQueryRequest;
+import com.alibaba.nacos.api.exception.runtime.NacosDeserializationException;
+import com.alibaba.nacos.api.exception.runtime.NacosSerializationException;
+import com.alibaba.nacos.api.naming.pojo.Instance;
+import com.alibaba.nacos.api.naming.pojo.ServiceInfo;
+import com.alibaba.nacos.api.naming.remote.request.InstanceRequest;
+import com.alibaba.nacos.api.naming.remote.request.NotifySubscriberRequest;
+import com.alibaba.nacos.api.naming.remote.request.ServiceQueryRequest;
+import com.alibaba.nacos.api.remote.request.Request;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compact binary payload codec for frequently used requests.
+ *
+ * <p>Layout: {@code [version][hasRequestId][fields of type][requestId]}. Strings are written as varint length
+ * plus one (zero for null) and UTF-8 bytes, numbers as zigzag varint. The request id is written raw at the end of
+ * data, so that payloads of the same request for different connections can share the encoded prefix.
+ *
+ * @author Nacos
+ */
+public class BinaryPayloadCodec implements PayloadCodec {
+    
+    public static final String NAME = "binary";
+    
+    private static final byte VERSION = 1;
+    
+    private static final int DEFAULT_BUFFER_SIZE = 256;
+    
+    private static final int MAX_CACHED_BUFFER_SIZE = 64 * 1024;
+    
+    private static final ThreadLocal<Writer> WRITER = ThreadLocal.withInitial(Writer::new);
+    
+    private static final int VARINT_SHIFT = 7;
+    
+    private static final int VARINT_MASK = 0x7F;
+    
+    private static final int VARINT_CONTINUE = 0x80;
+    
+    private static final int MAX_VARINT_SHIFT = 63;
+    
+    private final Map<Class<?>, TypeCodec<?>> typeCodecs = new HashMap<Class<?>, TypeCodec<?>>(8);
+    
+    public BinaryPayloadCodec() {
+        typeCodecs.put(InstanceRequest.class, new InstanceRequestCodec());
+        typeCodecs.put(ServiceQueryRequest.class, new ServiceQueryRequestCodec());
+        typeCodecs.put(NotifySubscriberRequest.class, new NotifySubscriberRequestCodec());
+        typeCodecs.put(ConfigQueryRequest.class, new ConfigQueryRequestCodec());
+        typeCodecs.put(ConfigBatchListenRequest.class, new ConfigBatchListenRequestCodec());
+    }
+    
+    @Override
+    public String name() {
+        return NAME;
+    }
+    
+    @Override
+    public boolean isSupported(Class<?> type) {
+        return typeCodecs.containsKey(type);
+    }
+    
+    @Override
+    @SuppressWarnings("unchecked")
+    public byte[] encode(Object obj) {
+        TypeCodec<Object> typeCodec = (TypeCodec<Object>) typeCodecs.get(obj.getClass());
+        if (null == typeCodec) {
+            throw new NacosSerializationException(obj.getClass());
+        }
+        String requestId = ((Request) obj).getRequestId();
+        Writer writer = WRITER.get();
+        writer.reset();
+        writer.writeByte(VERSION);
+        writer.writeBoolean(null != requestId);
+        typeCodec.write(writer, obj);
+        if (null != requestId) {
+            writer.writeRaw(requestId.getBytes(StandardCharsets.UTF_8));
+        }
+        return writer.toByteArray();
+    }
+    
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T decode(ByteBuffer data, Class<T> cls) {
+        TypeCodec<T> typeCodec = (TypeCodec<T>) typeCodecs.get(cls);
+        if (null == typeCodec) {
+            throw new NacosDeserializationException(cls);
+        }
+        try {
+            Reader reader = new Reader(data.duplicate());
+            if (VERSION != reader.readByte()) {
+                throw new NacosDeserializationException(cls);
+            }
+            boolean hasRequestId = reader.readBoolean();
+            T result = typeCodec.read(reader);
+            if (hasRequestId) {
+                ((Request) result).setRequestId(reader.readRemaining());
+            }
+            return result;
+        } catch (BufferUnderflowException | IllegalArgumentException e) {
+            throw new NacosDeserializationException(cls, e);
+        }
+    }
+    
+    private interface TypeCodec<T> {
+        
+        /**
+         * Write fields of object.
+         *
+         * @param writer writer
+         * @param obj    object
+         */
+        void write(Writer writer, T obj);
+        
+        /**
+         * Read fields into a new object.
+         *
+         * @param reader reader
+         * @return object
+         */
+        T read(Reader reader);
+    }
+    
+    private static class InstanceRequestCodec implements TypeCodec<InstanceRequest> {
+        
+        @Override
+        public void write(Writer writer, InstanceRequest obj) {
+            writer.writeString(obj.getNamespace());
+            writer.writeString(obj.getServiceName());
+            writer.writeString(obj.getGroupName());
+            writer.writeString(obj.getType());
+            writeInstance(writer, obj.getInstance());
+        }
+        
+        @Override
+        public InstanceRequest read(Reader reader) {
+            InstanceRequest result = new InstanceRequest();
+            result.setNamespace(reader.readString());
+            result.setServiceName(reader.readString());
+            result.setGroupName(reader.readString());
+            result.setType(reader.readString());
+            result.setInstance(readInstance(reader));
+            return result;
+        }
+    }
+    
+    private static class ServiceQueryRequestCodec implements TypeCodec<ServiceQueryRequest> {
+        
+        @Override
+        public void write(Writer writer, ServiceQueryRequest obj) {
+            writer.writeString(obj.getNamespace());
+            writer.writeString(obj.getServiceName());
+            writer.writeString(obj.getGroupName());
+            writer.writeString(obj.getCluster());
+            writer.writeBoolean(obj.isHealthyOnly());
+            writer.writeVarLong(obj.getUdpPort());
+        }
+        
+        @Override
+        public ServiceQueryRequest read(Reader reader) {
+            ServiceQueryRequest result = new ServiceQueryRequest();
+            result.setNamespace(reader.readString());
+            result.setServiceName(reader.readString());
+            result.setGroupName(reader.readString());
+            result.setCluster(reader.readString());
+            result.setHealthyOnly(reader.readBoolean());
+            result.setUdpPort((int) reader.readVarLong());
+            return result;
+        }
+    }
+    
+    private static class NotifySubscriberRequestCodec implements TypeCodec<NotifySubscriberRequest> {
+        
+        @Override
+        public void write(Writer writer, NotifySubscriberRequest obj) {
+            writer.writeString(obj.getNamespace());
+            writer.writeString(obj.getServiceName());
+            writer.writeString(obj.getGroupName());
+            writeServiceInfo(writer, obj.getServiceInfo());
+            writer.writeBoolean(obj.isDelta());
+            writer.writeVarLong(obj.getRevision());
+            writer.writeVarLong(obj.getBaseRevision());
+            writeInstances(writer, obj.getRemovedHosts());
+        }
+        
+        @Override
+        public NotifySubscriberRequest read(Reader reader) {
+            NotifySubscriberRequest result = new NotifySubscriberRequest();
+            result.setNamespace(reader.readString());
+            result.setServiceName(reader.readString());
+            result.setGroupName(reader.readString());
+            result.setServiceInfo(readServiceInfo(reader));
+            result.setDelta(reader.readBoolean());
+            result.setRevision(reader.readVarLong());
+            result.setBaseRevision(reader.readVarLong());
+            result.setRemovedHosts(readInstances(reader));
+            return result;
+        }
+    }
+    
+    private static class ConfigQueryRequestCodec implements TypeCodec<ConfigQueryRequest> {
+        
+        @Override
+        public void write(Writer writer, ConfigQueryRequest obj) {
+            writer.writeString(obj.getDataId());
+            writer.writeString(obj.getGroup());
+            writer.writeString(obj.getTenant());
+            writer.writeString(obj.getTag());
+        }
+        
+        @Override
+        public ConfigQueryRequest read(Reader reader) {
+            ConfigQueryRequest result = new ConfigQueryRequest();
+            result.setDataId(reader.readString());
+            result.setGroup(reader.readString());
+            result.setTenant(reader.readString());
+            result.setTag(reader.readString());
+            return result;
+        }
+    }
+    
+    private static class ConfigBatchListenRequestCodec implements TypeCodec<ConfigBatchListenRequest> {
+        
+        @Override
+        public void write(Writer writer, ConfigBatchListenRequest obj) {
+            writer.writeBoolean(obj.isListen());
+            List<ConfigBatchListenRequest.ConfigListenContext> contexts = obj.getConfigListenContexts();
+            writer.writeSize(null == contexts ? -1 : contexts.size());
+            if (null != contexts) {
+                for (ConfigBatchListenRequest.ConfigListenContext each : contexts) {
+                    writer.writeString(each.getGroup());
+                    writer.writeString(each.getMd5());
+                    writer.writeString(each.getDataId());
+                    writer.writeString(each.getTenant());
+                }
+            }
+        }
+        
+        @Override
+        public ConfigBatchListenRequest read(Reader reader) {
+            ConfigBatchListenRequest result = new ConfigBatchListenRequest();
+            result.setListen(reader.readBoolean());
+            int size = reader.readSize();
+            if (size < 0) {
+                result.setConfigListenContexts(null);
+                return result;
+            }
+            List<ConfigBatchListenRequest.ConfigListenContext> contexts = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                ConfigBatchListenRequest.ConfigListenContext context = new ConfigBatchListenRequest.ConfigListenContext();
+                context.setGroup(reader.readString());
+                context.setMd5(reader.readString());
+                context.setDataId(reader.readString());
+                context.setTenant(reader.readString());
+                contexts.add(context);
+            }
+            result.setConfigListenContexts(contexts);
+            return result;
+        }
+    }
+    
+    private static void writeServiceInfo(Writer writer, ServiceInfo serviceInfo) {
+        writer.writeBoolean(null != serviceInfo);
+        if (null == serviceInfo) {
+            return;
+        }
+        writer.writeString(serviceInfo.getName());
+        writer.writeString(serviceInfo.getGroupName());
+        writer.writeString(serviceInfo.getClusters());
+        writer.writeVarLong(serviceInfo.getCacheMillis());
+        writeInstances(writer, serviceInfo.getHosts());
+        writer.writeVarLong(serviceInfo.getLastRefTime());
+        writer.writeString(serviceInfo.getChecksum());
+        writer.writeBoolean(serviceInfo.isAllIPs());
+        writer.writeBoolean(serviceInfo.isReachProtectionThreshold());
+    }
+    
+    private static ServiceInfo readServiceInfo(Reader reader) {
+        if (!reader.readBoolean()) {
+            return null;
+        }
+        ServiceInfo result = new ServiceInfo();
+        result.setName(reader.readString());
+        result.setGroupName(reader.readString());
+        result.setClusters(reader.readString());
+        result.setCacheMillis(reader.readVarLong());
+        result.setHosts(readInstances(reader));
+        result.setLastRefTime(reader.readVarLong());
+        result.setChecksum(reader.readString());
+        result.setAllIPs(reader.readBoolean());
+        result.setReachProtectionThreshold(reader.readBoolean());
+        return result;
+    }
+    
+    private static void writeInstances(Writer writer, List<Instance> instances) {
+        writer.writeSize(null == instances ? -1 : instances.size());
+        if (null != instances) {
+            for (Instance each : instances) {
+                writeInstance(writer, each);
+            }
+        }
+    }
+    
+    private static List<Instance> readInstances(Reader reader) {
+        int size = reader.readSize();
+        if (size < 0) {
+            return null;
+        }
+        List<Instance> result = new ArrayList<Instance>(size);
+        for (int i = 0; i < size; i++) {
+            result.add(readInstance(reader));
+        }
+        return result;
+    }
+    
+    private static void writeInstance(Writer writer, Instance instance) {
+        writer.writeBoolean(null != instance);
+        if (null == instance) {
+            return;
+        }
+        writer.writeString(instance.getInstanceId());
+        writer.writeString(instance.getIp());
+        writer.writeVarLong(instance.getPort());
+        writer.writeDouble(instance.getWeight());
+        writer.writeBoolean(instance.isHealthy());
+        writer.writeBoolean(instance.isEnabled());
+        writer.writeBoolean(instance.isEphemeral());
+        writer.writeString(instance.getClusterName());
+        writer.writeString(instance.getServiceName());
+        Map<String, String> metadata = instance.getMetadata();
+        writer.writeSize(null == metadata ? -1 : metadata.size());
+        if (null != metadata) {
+            for (Map.Entry<String, String> entry : metadata.entrySet()) {
+                writer.writeString(entry.getKey());
+                writer.writeString(entry.getValue());
+            }
+        }
+    }
+    
+    private static Instance readInstance(Reader reader) {
+        if (!reader.readBoolean()) {
+            return null;
+        }
+        Instance result = new Instance();
+        result.setInstanceId(reader.readString());
+        result.setIp(reader.readString());
+        result.setPort((int) reader.readVarLong());
+        result.setWeight(reader.readDouble());
+        result.setHealthy(reader.readBoolean());
+        result.setEnabled(reader.readBoolean());
+        result.setEphemeral(reader.readBoolean());
+        result.setClusterName(reader.readString());
+        result.setServiceName(reader.readString());
+        int size = reader.readSize();
+        if (size < 0) {
+            result.setMetadata(null);
+            return result;
+        }
+        Map<String, String> metadata = new HashMap<String, String>((int) (size / 0.75f) + 1);
+        for (int i = 0; i < size; i++) {
+            metadata.put(reader.readString(), reader.readString());
+        }
+        result.setMetadata(metadata);
+        return result;
+    }
+    
+    private static class Writer {
+        
+        private byte[] buffer = new byte[DEFAULT_BUFFER_SIZE];
+        
+        private int position;
+        
+        private void writeByte(int value) {
+            ensureCapacity(1);
+            buffer[position++] = (byte) value;
+        }
+        
+        private void writeBoolean(boolean value) {
+            writeByte(value ? 1 : 0);
+        }
+        
+        private void writeVarLong(long value) {
+            long zigzag = (value << 1) ^ (value >> MAX_VARINT_SHIFT);
+            while ((zigzag & ~VARINT_MASK) != 0) {
+                writeByte((int) ((zigzag & VARINT_MASK) | VARINT_CONTINUE));
+                zigzag >>>= VARINT_SHIFT;
+            }
+            writeByte((int) zigzag);
+        }
+        
+        private void writeSize(int size) {
+            writeVarLong(size + 1L);
+        }
+        
+        private void writeDouble(double value) {
+            long bits = Double.doubleToLongBits(value);
+            ensureCapacity(Long.BYTES);
+            for (int i = Long.BYTES - 1; i >= 0; i--) {
+                buffer[position++] = (byte) (bits >>> (i * Byte.SIZE));
+            }
+        }
+        
+        private void writeString(String value) {
+            if (null == value) {
+                writeSize(-1);
+                return;
+            }
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            writeSize(bytes.length);
+            writeRaw(bytes);
+        }
+        
+        private void writeRaw(byte[] bytes) {
+            ensureCapacity(bytes.length);
+            System.arraycopy(bytes, 0, buffer, position, bytes.length);
+            position += bytes.length;
+        }
+        
+        private void ensureCapacity(int length) {
+            if (position + length > buffer.length) {
+                buffer = Arrays.copyOf(buffer, Math.max(buffer.length << 1, position + length));
+            }
+        }
+        
+        private void reset() {
+            position = 0;
+        }
+        
+        private byte[] toByteArray() {
+            byte[] result = Arrays.copyOf(buffer, position);
+            if (buffer.length > MAX_CACHED_BUFFER_SIZE) {
+                // don't keep large buffer for thread.
+                buffer = new byte[DEFAULT_BUFFER_SIZE];
+            }
+            return result;
+        }
+    }
+    
+    private static class Reader {
+        
+        private final ByteBuffer buffer;
+        
+        private Reader(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+        
+        private byte readByte() {
+            return buffer.get();
+        }
+        
+        private boolean readBoolean() {
+            return buffer.get() != 0;
+        }
+        
+        private long readVarLong() {
+            long zigzag = 0L;
+            for (int shift = 0; shift <= MAX_VARINT_SHIFT; shift += VARINT_SHIFT) {
+                byte each = buffer.get();
+                zigzag |= (long) (each & VARINT_MASK) << shift;
+                if ((each & VARINT_CONTINUE) == 0) {
+                    return (zigzag >>> 1) ^ -(zigzag & 1);
+                }
+            }
+            throw new IllegalArgumentException("malformed varint");
+        }
+        
+        private int readSize() {
+            long size = readVarLong() - 1;
+            if (size > buffer.remaining()) {
+                throw new IllegalArgumentException("malformed size: " + size);
+            }
+            return (int) size;
+        }
+        
+        private double readDouble() {
+            return Double.longBitsToDouble(buffer.getLong());
+        }
+        
+        private String readString() {
+            int length = readSize();
+            if (length < 0) {
+                return null;
+            }
+            return readString(length);
+        }
+        
+        private String readString(int length) {
+            String result;
+            if (buffer.hasArray()) {
+                result = new String(buffer.array(), buffer.arrayOffset() + buffer.position(), length,
+                        StandardCharsets.UTF_8);
+                buffer.position(buffer.position() + length);
+            } else {
+                byte[] bytes = new byte[length];
+                buffer.get(bytes);
+                result = new String(bytes, StandardCharsets.UTF_8);
+            }
+            return result;
+        }
+        
+        private String readRemaining() {
+            return readString(buffer.remaining());
+        }
+    }
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright 1999-2020 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.nacos.common.remote.codec;
+
+import com.alibaba.nacos.api.exception.runtime.NacosDeserializationException;
+import com.alibaba.nacos.api.exception.runtime.NacosSerializationException;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.util.ByteBufferBackedInputStream;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Json payload codec, which supports all types and is used when peer doesn't support other codecs.
+ *
+ * <p>Payload is parsed from the received buffer directly rather than an intermediate string, and readers are cached
+ * per type, parser buffers are recycled per thread by jackson.
+ *
+ * @author Nacos
+ */
+public class JsonPayloadCodec implements PayloadCodec {
+    
+    public static final String NAME = "json";
+    
+    private final ObjectMapper mapper = new ObjectMapper();
+    
+    private final Map<Class<?>, ObjectReader> readers = new ConcurrentHashMap<Class<?>, ObjectReader>(64);
+    
+    public JsonPayloadCodec() {
+        mapper.disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+        mapper.setSerializationInclusion(JsonInclude.Include.NON_NULL);
+    }
+    
+    @Override
+    public String name() {
+        return NAME;
+    }
+    
+    @Override
+    public boolean isSupported(Class<?> type) {
+        return true;
+    }
+    
+    @Override
+    public byte[] encode(Object obj) {
+        try {
+            return mapper.writeValueAsBytes(obj);
+        } catch (JsonProcessingException e) {
+            throw new NacosSerializationException(obj.getClass(), e);
+        }
+    }
+    
+    @Override
+    public <T> T decode(ByteBuffer data, Class<T> cls) {
+        ObjectReader reader = readers.get(cls);
+        if (null == reader) {
+            reader = mapper.readerFor(cls);
+            readers.put(cls, reader);
+        }
+        try {
+            if (data.hasArray()) {
+                return reader.readValue(data.array(), data.arrayOffset() + data.position(), data.remaining());
+            }
+            return reader.readValue(new ByteBufferBackedInputStream(data.duplicate()));
+        } catch (IOException e) {
+            throw new NacosDeserializationException(cls, e);
+        }
+    }
+}
@@ -0,0 +1,63 @@
+/*
+ * Copyright 1999-2020 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.nacos.common.remote.codec;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Codec of gRPC payload body.
+ *
+ * <p>The name of codec is written into payload, so the receiver can decode payload by the same codec. A codec can
+ * only support part of types, payloads of other types are encoded by json codec.
+ *
+ * @author Nacos
+ */
+public interface PayloadCodec {
+    
+    /**
+     * The name of the codec.
+     *
+     * @return name
+     */
+    String name();
+    
+    /**
+     * Whether the codec can encode and decode the type.
+     *
+     * @param type type of request or response
+     * @return true if supported
+     */
+    boolean isSupported(Class<?> type);
+    
+    /**
+     * Encode the object.
+     *
+     * @param obj object to encode
+     * @return encoded data
+     */
+    byte[] encode(Object obj);
+    
+    /**
+     * Decode the data.
+     *
+     * @param data encoded data, may be a read only view of received buffer
+     * @param cls  class of object
+     * @param <T>  class type
+     * @return object
+     */
+    <T> T decode(ByteBuffer data, Class<T> cls);
+}
@@ -0,0 +1,108 @@
+/*
+ * Copyright 1999-2020 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.nacos.common.remote.codec;
+
+import com.alibaba.nacos.common.spi.NacosServiceLoader;
+import com.alibaba.nacos.common.utils.StringUtils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Payload codec factory.
+ *
+ * <p>Binary and json codecs are built in, other codecs can be loaded by SPI. The preferred codec can be specified by
+ * system property {@code nacos.remote.payload.codec}, set it to {@code json} to disable other codecs.
+ *
+ * @author Nacos
+ */
+public class PayloadCodecFactory {
+    
+    public static final String PREFERRED_CODEC_PROPERTY = "nacos.remote.payload.codec";
+    
+    private static final Map<String, PayloadCodec> CODEC_MAP = new LinkedHashMap<String, PayloadCodec>(4);
+    
+    private static final PayloadCodec JSON_CODEC = new JsonPayloadCodec();
+    
+    private static final List<String> SUPPORTED_CODECS;
+    
+    static {
+        String preferred = System.getProperty(PREFERRED_CODEC_PROPERTY, BinaryPayloadCodec.NAME).toLowerCase();
+        List<PayloadCodec> codecs = new ArrayList<PayloadCodec>();
+        codecs.add(new BinaryPayloadCodec());
+        codecs.addAll(NacosServiceLoader.load(PayloadCodec.class));
+        for (PayloadCodec each : codecs) {
+            if (each.name().equalsIgnoreCase(preferred)) {
+                CODEC_MAP.put(each.name().toLowerCase(), each);
+            }
+        }
+        if (!JsonPayloadCodec.NAME.equals(preferred)) {
+            for (PayloadCodec each : codecs) {
+                CODEC_MAP.putIfAbsent(each.name().toLowerCase(), each);
+            }
+        }
+        CODEC_MAP.put(JsonPayloadCodec.NAME, JSON_CODEC);
+        SUPPORTED_CODECS = Collections.unmodifiableList(new ArrayList<String>(CODEC_MAP.keySet()));
+    }
+    
+    public static PayloadCodec getJsonCodec() {
+        return JSON_CODEC;
+    }
+    
+    /**
+     * Get codec by name.
+     *
+     * @param name name of codec, empty name means json
+     * @return codec, or {@code null} if not supported
+     */
+    public static PayloadCodec getCodec(String name) {
+        if (StringUtils.isEmpty(name)) {
+            return JSON_CODEC;
+        }
+        return CODEC_MAP.get(name.toLowerCase());
+    }
+    
+    /**
+     * Get names of supported codecs, in order of preference.
+     *
+     * @return names of codecs
+     */
+    public static List<String> getSupportedCodecs() {
+        return SUPPORTED_CODECS;
+    }
+    
+    /**
+     * Choose the most preferred codec which is supported by both local and peer.
+     *
+     * @param peerCodecs codecs supported by peer, {@code null} for old version peer
+     * @return negotiated codec, json if nothing matched
+     */
+    public static PayloadCodec negotiate(List<String> peerCodecs) {
+        if (null == peerCodecs) {
+            return JSON_CODEC;
+        }
+        for (String each : SUPPORTED_CODECS) {
+            if (peerCodecs.contains(each)) {
+                return CODEC_MAP.get(each);
+            }
+        }
+        return JSON_CODEC;
+    }
+}
@@ -0,0 +1,45 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.nacos.common.remote.client.grpc;
+
+import com.alibaba.nacos.api.grpc.auto.Payload;
+import com.alibaba.nacos.api.remote.request.ConnectResetRequest;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class GrpcUtilsTest {
+    
+    @Test
+    public void testConvertToTemplate() {
+        GrpcUtils.PayloadTemplate template = GrpcUtils.convertToTemplate(newRequest());
+        ConnectResetRequest request = newRequest();
+        request.setRequestId("42");
+        Payload expected = GrpcUtils.convert(request);
+        Payload actual = template.toPayload("42");
+        Assert.assertEquals(expected.getMetadata(), actual.getMetadata());
+        Assert.assertEquals(expected.getBody().getValue().toStringUtf8(), actual.getBody().getValue().toStringUtf8());
+        Assert.assertTrue(template.toPayload("43").getBody().getValue().toStringUtf8().contains("\"43\""));
+    }
+    
+    private ConnectResetRequest newRequest() {
+        ConnectResetRequest result = new ConnectResetRequest();
+        result.setServerIp("127.0.0.1");
+        result.setServerPort("8848");
+        result.putHeader("k", "v");
+        return result;
+    }
+}
@@ -0,0 +1,172 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.nacos.common.remote.codec;
+
+import com.alibaba.nacos.api.config.remote.request.ConfigBatchListenRequest;
+import com.alibaba.nacos.api.config.remote.request.ConfigQueryRequest;
+import com.alibaba.nacos.api.grpc.auto.Payload;
+import com.alibaba.nacos.api.naming.pojo.Instance;
+import com.alibaba.nacos.api.naming.pojo.ServiceInfo;
+import com.alibaba.nacos.api.naming.remote.request.InstanceRequest;
+import com.alibaba.nacos.api.naming.remote.request.NotifySubscriberRequest;
+import com.alibaba.nacos.api.naming.remote.request.ServiceQueryRequest;
+import com.alibaba.nacos.api.remote.PayloadRegistry;
+import com.alibaba.nacos.api.remote.request.ServerCheckRequest;
+import com.alibaba.nacos.common.remote.client.grpc.GrpcUtils;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+public class BinaryPayloadCodecTest {
+    
+    private final PayloadCodec codec = PayloadCodecFactory.getCodec(BinaryPayloadCodec.NAME);
+    
+    @BeforeClass
+    public static void setUpClass() {
+        PayloadRegistry.init();
+    }
+    
+    @Test
+    public void testNegotiate() {
+        Assert.assertEquals(BinaryPayloadCodec.NAME, PayloadCodecFactory.getSupportedCodecs().get(0));
+        Assert.assertEquals(BinaryPayloadCodec.NAME,
+                PayloadCodecFactory.negotiate(Arrays.asList(JsonPayloadCodec.NAME, BinaryPayloadCodec.NAME)).name());
+        Assert.assertEquals(JsonPayloadCodec.NAME,
+                PayloadCodecFactory.negotiate(Collections.singletonList(JsonPayloadCodec.NAME)).name());
+        Assert.assertEquals(JsonPayloadCodec.NAME, PayloadCodecFactory.negotiate(null).name());
+    }
+    
+    @Test
+    public void testInstanceRequest() {
+        InstanceRequest request = new InstanceRequest("ns", "service", "group", "registerInstance", newInstance("1"));
+        request.setRequestId("1");
+        request.putHeader("k", "v");
+        Payload payload = GrpcUtils.convert(request, codec);
+        Assert.assertEquals(BinaryPayloadCodec.NAME, payload.getBody().getTypeUrl());
+        InstanceRequest actual = (InstanceRequest) GrpcUtils.parse(payload);
+        Assert.assertEquals("1", actual.getRequestId());
+        Assert.assertEquals("v", actual.getHeader("k"));
+        Assert.assertEquals("ns", actual.getNamespace());
+        Assert.assertEquals("service", actual.getServiceName());
+        Assert.assertEquals("group", actual.getGroupName());
+        Assert.assertEquals("registerInstance", actual.getType());
+        assertInstance(newInstance("1"), actual.getInstance());
+    }
+    
+    @Test
+    public void testServiceQueryRequest() {
+        ServiceQueryRequest request = new ServiceQueryRequest("ns", "service", "group");
+        request.setCluster("c1");
+        request.setHealthyOnly(true);
+        request.setUdpPort(-1);
+        ServiceQueryRequest actual = (ServiceQueryRequest) GrpcUtils.parse(GrpcUtils.convert(request, codec));
+        Assert.assertNull(actual.getRequestId());
+        Assert.assertEquals("c1", actual.getCluster());
+        Assert.assertTrue(actual.isHealthyOnly());
+        Assert.assertEquals(-1, actual.getUdpPort());
+    }
+    
+    @Test
+    public void testNotifySubscriberRequestTemplate() {
+        ServiceInfo serviceInfo = new ServiceInfo("group@@service", "c1");
+        serviceInfo.setHosts(Arrays.asList(newInstance("1"), newInstance("2")));
+        serviceInfo.setLastRefTime(System.currentTimeMillis());
+        serviceInfo.setChecksum("checksum");
+        NotifySubscriberRequest request = NotifySubscriberRequest
+                .buildDeltaRequest(serviceInfo, Collections.singletonList(newInstance("3")), 1L, 2L);
+        request.setNamespace("ns");
+        GrpcUtils.PayloadTemplate template = GrpcUtils.convertToTemplate(request, codec);
+        NotifySubscriberRequest actual = (NotifySubscriberRequest) GrpcUtils.parse(template.toPayload("42"));
+        Assert.assertEquals("42", actual.getRequestId());
+        Assert.assertEquals("ns", actual.getNamespace());
+        Assert.assertTrue(actual.isDelta());
+        Assert.assertEquals(1L, actual.getBaseRevision());
+        Assert.assertEquals(2L, actual.getRevision());
+        Assert.assertEquals(serviceInfo.getKey(), actual.getServiceInfo().getKey());
+        Assert.assertEquals(serviceInfo.getLastRefTime(), actual.getServiceInfo().getLastRefTime());
+        Assert.assertEquals("checksum", actual.getServiceInfo().getChecksum());
+        Assert.assertEquals(2, actual.getServiceInfo().getHosts().size());
+        assertInstance(newInstance("2"), actual.getServiceInfo().getHosts().get(1));
+        assertInstance(newInstance("3"), actual.getRemovedHosts().get(0));
+        Assert.assertEquals("43", ((NotifySubscriberRequest) GrpcUtils.parse(template.toPayload("43"))).getRequestId());
+    }
+    
+    @Test
+    public void testConfigRequests() {
+        ConfigQueryRequest queryRequest = ConfigQueryRequest.build("dataId", "group", "tenant");
+        queryRequest.setTag("tag");
+        ConfigQueryRequest actualQuery = (ConfigQueryRequest) GrpcUtils.parse(GrpcUtils.convert(queryRequest, codec));
+        Assert.assertEquals("dataId", actualQuery.getDataId());
+        Assert.assertEquals("group", actualQuery.getGroup());
+        Assert.assertEquals("tenant", actualQuery.getTenant());
+        Assert.assertEquals("tag", actualQuery.getTag());
+        
+        ConfigBatchListenRequest listenRequest = new ConfigBatchListenRequest();
+        listenRequest.addConfigListenContext("group", "dataId", "tenant", "md5");
+        listenRequest.addConfigListenContext("group2", "dataId2", null, "md5");
+        ConfigBatchListenRequest actualListen = (ConfigBatchListenRequest) GrpcUtils
+                .parse(GrpcUtils.convert(listenRequest, codec));
+        Assert.assertTrue(actualListen.isListen());
+        Assert.assertEquals(2, actualListen.getConfigListenContexts().size());
+        Assert.assertEquals("md5", actualListen.getConfigListenContexts().get(0).getMd5());
+        Assert.assertNull(actualListen.getConfigListenContexts().get(1).getTenant());
+    }
+    
+    @Test
+    public void testFallbackToJson() {
+        Payload payload = GrpcUtils.convert(new ServerCheckRequest(), codec);
+        Assert.assertEquals("", payload.getBody().getTypeUrl());
+        Assert.assertTrue(GrpcUtils.parse(payload) instanceof ServerCheckRequest);
+    }
+    
+    @Test
+    public void testSmallerThanJson() {
+        InstanceRequest request = new InstanceRequest("ns", "service", "group", "registerInstance", newInstance("1"));
+        int binarySize = codec.encode(request).length;
+        int jsonSize = PayloadCodecFactory.getJsonCodec().encode(request).length;
+        Assert.assertTrue(binarySize * 2 < jsonSize);
+    }
+    
+    private Instance newInstance(String id) {
+        Instance result = new Instance();
+        result.setInstanceId(id);
+        result.setIp("127.0.0." + id);
+        result.setPort(8080);
+        result.setWeight(0.5D);
+        result.setHealthy(false);
+        result.setClusterName("c1");
+        result.setServiceName("group@@service");
+        result.addMetadata("version", id);
+        return result;
+    }
+    
+    private void assertInstance(Instance expected, Instance actual) {
+        Assert.assertEquals(expected.getInstanceId(), actual.getInstanceId());
+        Assert.assertEquals(expected.getIp(), actual.getIp());
+        Assert.assertEquals(expected.getPort(), actual.getPort());
+        Assert.assertEquals(expected.getWeight(), actual.getWeight(), 0.0D);
+        Assert.assertEquals(expected.isHealthy(), actual.isHealthy());
+        Assert.assertEquals(expected.isEnabled(), actual.isEnabled());
+        Assert.assertEquals(expected.isEphemeral(), actual.isEphemeral());
+        Assert.assertEquals(expected.getClusterName(), actual.getClusterName());
+        Assert.assertEquals(expected.getServiceName(), actual.getServiceName());
+        Assert.assertEquals(expected.getMetadata(), actual.getMetadata());
+    }
+}
@@ -0,0 +1,110 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.nacos.common.remote.codec;
+
+import com.alibaba.nacos.api.config.remote.request.ConfigQueryRequest;
+import com.alibaba.nacos.api.exception.runtime.NacosDeserializationException;
+import com.fasterxml.jackson.databind.ObjectReader;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.lang.reflect.Field;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+public class JsonPayloadCodecTest {
+    
+    private final JsonPayloadCodec codec = new JsonPayloadCodec();
+    
+    @Test
+    public void testDecodeHeapBuffer() {
+        ByteBuffer data = ByteBuffer.wrap(codec.encode(newRequest()));
+        assertRequest(codec.decode(data, ConfigQueryRequest.class));
+        Assert.assertEquals(0, data.position());
+    }
+    
+    @Test
+    public void testDecodeDirectBuffer() {
+        byte[] bytes = codec.encode(newRequest());
+        ByteBuffer data = ByteBuffer.allocateDirect(bytes.length);
+        data.put(bytes);
+        data.flip();
+        Assert.assertFalse(data.hasArray());
+        assertRequest(codec.decode(data, ConfigQueryRequest.class));
+        Assert.assertEquals(0, data.position());
+        Assert.assertEquals(bytes.length, data.remaining());
+    }
+    
+    @Test
+    public void testDecodeOffsetBuffer() {
+        byte[] bytes = codec.encode(newRequest());
+        byte[] padded = new byte[bytes.length + 8];
+        padded[0] = '}';
+        padded[padded.length - 1] = '{';
+        System.arraycopy(bytes, 0, padded, 4, bytes.length);
+        ByteBuffer data = ByteBuffer.wrap(padded, 2, bytes.length + 4).slice();
+        data.position(2);
+        data.limit(2 + bytes.length);
+        Assert.assertNotEquals(0, data.arrayOffset());
+        assertRequest(codec.decode(data, ConfigQueryRequest.class));
+    }
+    
+    @Test
+    public void testDecodeIgnoresUnknownProperties() {
+        byte[] bytes = "{\"dataId\":\"dataId\",\"unknown\":1}".getBytes(StandardCharsets.UTF_8);
+        Assert.assertEquals("dataId", codec.decode(ByteBuffer.wrap(bytes), ConfigQueryRequest.class).getDataId());
+    }
+    
+    @Test(expected = NacosDeserializationException.class)
+    public void testDecodeIllegalContent() {
+        codec.decode(ByteBuffer.wrap("{\"dataId\":".getBytes(StandardCharsets.UTF_8)), ConfigQueryRequest.class);
+    }
+    
+    @Test
+    public void testReaderCachedPerType() throws Exception {
+        Map<Class<?>, ObjectReader> readers = getReaders();
+        codec.decode(ByteBuffer.wrap(codec.encode(newRequest())), ConfigQueryRequest.class);
+        ObjectReader reader = readers.get(ConfigQueryRequest.class);
+        Assert.assertNotNull(reader);
+        codec.decode(ByteBuffer.wrap(codec.encode(newRequest())), ConfigQueryRequest.class);
+        Assert.assertSame(reader, readers.get(ConfigQueryRequest.class));
+        Assert.assertEquals(1, readers.size());
+    }
+    
+    @SuppressWarnings("unchecked")
+    private Map<Class<?>, ObjectReader> getReaders() throws Exception {
+        Field field = JsonPayloadCodec.class.getDeclaredField("readers");
+        field.setAccessible(true);
+        return (Map<Class<?>, ObjectReader>) field.get(codec);
+    }
+    
+    private ConfigQueryRequest newRequest() {
+        ConfigQueryRequest request = ConfigQueryRequest.build("dataId", "group", "tenant");
+        request.setTag("tag");
+        request.putHeader("k", "v");
+        return request;
+    }
+    
+    private void assertRequest(ConfigQueryRequest actual) {
+        Assert.assertEquals("dataId", actual.getDataId());
+        Assert.assertEquals("group", actual.getGroup());
+        Assert.assertEquals("tenant", actual.getTenant());
+        Assert.assertEquals("tag", actual.getTag());
+        Assert.assertEquals("v", actual.getHeader("k"));
+    }
+}
@@ -59,4 +59,26 @@ public class PropertiesConstant {
     
     public static final String EMBEDDED_STORAGE = "embeddedStorage";
     
+    public static final String CONTENT_CACHE_ENABLED = "contentCacheEnabled";
+    
+    public static final String CONTENT_CACHE_MAX_BYTES = "contentCacheMaxBytes";
+    
+    public static final String CONFIG_DISK_TYPE = "configDiskType";
+    
+    public static final String DUMP_CHECKPOINT_ENABLED = "dumpCheckpointEnabled";
+    
+    public static final String NOTIFY_BATCH_SIZE = "notifyBatchSize";
+    
+    public static final String NOTIFY_BATCH_WINDOW = "notifyBatchWindow";
+    
+    public static final String PUSH_BATCH_WINDOW = "pushBatchWindow";
+    
+    public static final String HISTORY_WRITE_BEHIND_ENABLED = "historyWriteBehindEnabled";
+    
+    public static final String HISTORY_WRITE_BEHIND_QUEUE_SIZE = "historyWriteBehindQueueSize";
+    
+    public static final String CONFIG_SEARCH_INDEX_ENABLED = "configSearchIndexEnabled";
+    
+    public static final String CONTENT_COMPRESS_THRESHOLD = "contentCompressThreshold";
+    
 }
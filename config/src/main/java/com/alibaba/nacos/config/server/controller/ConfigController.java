@@ -42,6 +42,7 @@ import com.alibaba.nacos.config.server.service.AggrWhitelist;
 import com.alibaba.nacos.config.server.service.ConfigChangePublisher;
 import com.alibaba.nacos.config.server.service.ConfigSubService;
 import com.alibaba.nacos.config.server.service.repository.PersistService;
+import com.alibaba.nacos.config.server.service.search.ConfigSearchIndexer;
 import com.alibaba.nacos.config.server.service.trace.ConfigTraceService;
 import com.alibaba.nacos.config.server.utils.GroupKey;
 import com.alibaba.nacos.config.server.utils.MD5Util;
@@ -111,6 +112,9 @@ public class ConfigController {
     @Autowired
     private ConfigSubService configSubService;
     
+    @Autowired
+    private ConfigSearchIndexer configSearchIndexer;
+    
     /**
      * Adds or updates non-aggregated data.
      *
@@ -387,6 +391,11 @@ public class ConfigController {
             configAdvanceInfo.put("config_tags", configTags);
         }
         try {
+            Page<ConfigInfo> page = configSearchIndexer
+                    .findConfigInfoLike4Page(pageNo, pageSize, dataId, group, tenant, configAdvanceInfo);
+            if (page != null) {
+                return page;
+            }
             return persistService.findConfigInfoLike4Page(pageNo, pageSize, dataId, group, tenant, configAdvanceInfo);
         } catch (Exception e) {
             String errorMsg = "serialize page error, dataId=" + dataId + ", group=" + group;
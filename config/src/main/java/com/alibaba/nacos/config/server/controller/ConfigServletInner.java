@@ -17,16 +17,16 @@
 package com.alibaba.nacos.config.server.controller;
 
 import com.alibaba.nacos.common.constant.HttpHeaderConsts;
-import com.alibaba.nacos.common.utils.IoUtils;
 import com.alibaba.nacos.config.server.constant.Constants;
 import com.alibaba.nacos.config.server.enums.FileTypeEnum;
 import com.alibaba.nacos.config.server.model.CacheItem;
 import com.alibaba.nacos.config.server.model.ConfigInfoBase;
 import com.alibaba.nacos.config.server.service.ConfigCacheService;
 import com.alibaba.nacos.config.server.service.LongPollingService;
+import com.alibaba.nacos.config.server.service.dump.disk.ConfigDiskService;
+import com.alibaba.nacos.config.server.service.dump.disk.ConfigDiskServiceFactory;
 import com.alibaba.nacos.config.server.service.repository.PersistService;
 import com.alibaba.nacos.config.server.service.trace.ConfigTraceService;
-import com.alibaba.nacos.config.server.utils.DiskUtil;
 import com.alibaba.nacos.config.server.utils.GroupKey2;
 import com.alibaba.nacos.config.server.utils.LogUtil;
 import com.alibaba.nacos.config.server.utils.MD5Util;
@@ -41,12 +41,8 @@ import org.springframework.stereotype.Service;
 import javax.servlet.ServletException;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
-import java.io.File;
-import java.io.FileInputStream;
 import java.io.IOException;
-import java.io.PrintWriter;
 import java.net.URLEncoder;
-import java.nio.channels.Channels;
 import java.nio.charset.StandardCharsets;
 import java.util.List;
 import java.util.Map;
@@ -71,6 +67,8 @@ public class ConfigServletInner {
     
     private static final int START_LONG_POLLING_VERSION_NUM = 204;
     
+    private static final String GZIP_ENCODING = "gzip";
+    
     /**
      * long polling the config.
      */
@@ -134,7 +132,6 @@ public class ConfigServletInner {
         boolean isSli = false;
         if (lockResult > 0) {
             // LockResult > 0 means cacheItem is not null and other thread can`t delete this cacheItem
-            FileInputStream fis = null;
             try {
                 String md5 = Constants.NULL;
                 long lastModified = 0L;
@@ -150,16 +147,28 @@ public class ConfigServletInner {
                 String contentTypeHeader = fileTypeEnum.getContentType();
                 response.setHeader(HttpHeaderConsts.CONTENT_TYPE, contentTypeHeader);
                 
-                File file = null;
+                // Disk content is only read into memory if it is cached or may be compressed, otherwise it is
+                // transferred to the response directly.
+                final boolean readDiskContent = PropertyUtil.isContentCacheEnabled()
+                        || acceptGzip(request) && PropertyUtil.getContentCompressThreshold() > 0;
                 ConfigInfoBase configInfoBase = null;
-                PrintWriter out = null;
+                byte[] cachedContent = null;
+                byte[] diskContent = null;
+                boolean streamDiskContent = false;
+                String contentTag = null;
                 if (isBeta) {
                     md5 = cacheItem.getMd54Beta();
                     lastModified = cacheItem.getLastModifiedTs4Beta();
-                    if (PropertyUtil.isDirectRead()) {
-                        configInfoBase = persistService.findConfigInfo4Beta(dataId, group, tenant);
-                    } else {
-                        file = DiskUtil.targetBetaFile(dataId, group, tenant);
+                    cachedContent = ConfigCacheService.getCachedContent(groupKey, true, null, md5);
+                    if (cachedContent == null) {
+                        if (PropertyUtil.isDirectRead()) {
+                            configInfoBase = persistService.findConfigInfo4Beta(dataId, group, tenant);
+                        } else if (readDiskContent) {
+                            diskContent = ConfigDiskServiceFactory.getInstance()
+                                    .getBetaContentBytes(dataId, group, tenant);
+                        } else {
+                            streamDiskContent = true;
+                        }
                     }
                     response.setHeader("isBeta", "true");
                 } else {
@@ -171,10 +180,17 @@ public class ConfigServletInner {
                             if (cacheItem.tagLastModifiedTs != null) {
                                 lastModified = cacheItem.tagLastModifiedTs.get(autoTag);
                             }
-                            if (PropertyUtil.isDirectRead()) {
-                                configInfoBase = persistService.findConfigInfo4Tag(dataId, group, tenant, autoTag);
-                            } else {
-                                file = DiskUtil.targetTagFile(dataId, group, tenant, autoTag);
+                            contentTag = autoTag;
+                            cachedContent = ConfigCacheService.getCachedContent(groupKey, false, autoTag, md5);
+                            if (cachedContent == null) {
+                                if (PropertyUtil.isDirectRead()) {
+                                    configInfoBase = persistService.findConfigInfo4Tag(dataId, group, tenant, autoTag);
+                                } else if (readDiskContent) {
+                                    diskContent = ConfigDiskServiceFactory.getInstance()
+                                            .getTagContentBytes(dataId, group, tenant, autoTag);
+                                } else {
+                                    streamDiskContent = true;
+                                }
                             }
                             
                             response.setHeader(com.alibaba.nacos.api.common.Constants.VIPSERVER_TAG,
@@ -182,12 +198,18 @@ public class ConfigServletInner {
                         } else {
                             md5 = cacheItem.getMd5();
                             lastModified = cacheItem.getLastModifiedTs();
-                            if (PropertyUtil.isDirectRead()) {
-                                configInfoBase = persistService.findConfigInfo(dataId, group, tenant);
-                            } else {
-                                file = DiskUtil.targetFile(dataId, group, tenant);
+                            cachedContent = ConfigCacheService.getCachedContent(groupKey, false, null, md5);
+                            if (cachedContent == null) {
+                                if (PropertyUtil.isDirectRead()) {
+                                    configInfoBase = persistService.findConfigInfo(dataId, group, tenant);
+                                } else if (readDiskContent) {
+                                    diskContent = ConfigDiskServiceFactory.getInstance()
+                                            .getContentBytes(dataId, group, tenant);
+                                } else {
+                                    streamDiskContent = true;
+                                }
                             }
-                            if (configInfoBase == null && fileNotExist(file)) {
+                            if (isContentNotFound(cachedContent, configInfoBase, diskContent, streamDiskContent)) {
                                 // FIXME CacheItem
                                 // No longer exists. It is impossible to simply calculate the push delayed. Here, simply record it as - 1.
                                 ConfigTraceService.logPullEvent(dataId, group, tenant, requestIpApp, -1,
@@ -211,12 +233,19 @@ public class ConfigServletInner {
                                 lastModified = lm;
                             }
                         }
-                        if (PropertyUtil.isDirectRead()) {
-                            configInfoBase = persistService.findConfigInfo4Tag(dataId, group, tenant, tag);
-                        } else {
-                            file = DiskUtil.targetTagFile(dataId, group, tenant, tag);
+                        contentTag = tag;
+                        cachedContent = ConfigCacheService.getCachedContent(groupKey, false, tag, md5);
+                        if (cachedContent == null) {
+                            if (PropertyUtil.isDirectRead()) {
+                                configInfoBase = persistService.findConfigInfo4Tag(dataId, group, tenant, tag);
+                            } else if (readDiskContent) {
+                                diskContent = ConfigDiskServiceFactory.getInstance()
+                                        .getTagContentBytes(dataId, group, tenant, tag);
+                            } else {
+                                streamDiskContent = true;
+                            }
                         }
-                        if (configInfoBase == null && fileNotExist(file)) {
+                        if (isContentNotFound(cachedContent, configInfoBase, diskContent, streamDiskContent)) {
                             // FIXME CacheItem
                             // No longer exists. It is impossible to simply calculate the push delayed. Here, simply record it as - 1.
                             ConfigTraceService.logPullEvent(dataId, group, tenant, requestIpApp, -1,
@@ -233,27 +262,41 @@ public class ConfigServletInner {
                     }
                 }
                 
+                if (isContentNotFound(cachedContent, configInfoBase, diskContent, streamDiskContent)) {
+                    return get404Result(response);
+                }
+                
                 response.setHeader(Constants.CONTENT_MD5, md5);
                 
                 // Disable cache.
                 response.setHeader("Pragma", "no-cache");
                 response.setDateHeader("Expires", 0);
                 response.setHeader("Cache-Control", "no-cache,no-store");
-                if (PropertyUtil.isDirectRead()) {
-                    response.setDateHeader("Last-Modified", lastModified);
-                } else {
-                    fis = new FileInputStream(file);
-                    response.setDateHeader("Last-Modified", file.lastModified());
-                }
+                response.setDateHeader("Last-Modified", lastModified);
                 
-                if (PropertyUtil.isDirectRead()) {
-                    out = response.getWriter();
-                    out.print(configInfoBase.getContent());
-                    out.flush();
-                    out.close();
+                if (streamDiskContent) {
+                    if (!writeDiskContent(dataId, group, tenant, isBeta, contentTag, response)) {
+                        // Removed by a dump after the cache item was read.
+                        response.reset();
+                        ConfigTraceService.logPullEvent(dataId, group, tenant, requestIpApp, -1,
+                                ConfigTraceService.PULL_EVENT_NOTFOUND, -1, requestIp, notify && isSli);
+                        return get404Result(response);
+                    }
                 } else {
-                    fis.getChannel()
-                            .transferTo(0L, fis.getChannel().size(), Channels.newChannel(response.getOutputStream()));
+                    byte[] content = cachedContent;
+                    if (content == null) {
+                        content = diskContent != null ? diskContent
+                                : configInfoBase.getContent().getBytes(StandardCharsets.UTF_8);
+                        ConfigCacheService.cacheContent(groupKey, isBeta, contentTag, md5, content);
+                    }
+                    byte[] compressed = acceptGzip(request) ? ConfigCacheService
+                            .getCompressedContent(groupKey, isBeta, contentTag, md5, content) : null;
+                    if (compressed != null) {
+                        response.setHeader(HttpHeaderConsts.CONTENT_ENCODING, GZIP_ENCODING);
+                        response.getOutputStream().write(compressed);
+                    } else {
+                        response.getOutputStream().write(content);
+                    }
                 }
                 
                 LogUtil.PULL_CHECK_LOG.warn("{}|{}|{}|{}", groupKey, requestIp, md5, TimeUtils.getCurrentTimeStr());
@@ -270,7 +313,6 @@ public class ConfigServletInner {
                 
             } finally {
                 releaseConfigReadLock(groupKey);
-                IoUtils.closeQuietly(fis);
             }
         } else if (lockResult == 0) {
             
@@ -298,6 +340,23 @@ public class ConfigServletInner {
         ConfigCacheService.releaseReadLock(groupKey);
     }
     
+    private static boolean isContentNotFound(byte[] cachedContent, ConfigInfoBase configInfoBase, byte[] diskContent,
+            boolean streamDiskContent) {
+        return cachedContent == null && configInfoBase == null && diskContent == null && !streamDiskContent;
+    }
+    
+    private static boolean writeDiskContent(String dataId, String group, String tenant, boolean beta, String tag,
+            HttpServletResponse response) throws IOException {
+        ConfigDiskService diskService = ConfigDiskServiceFactory.getInstance();
+        if (beta) {
+            return diskService.writeBetaContentTo(dataId, group, tenant, response.getOutputStream());
+        }
+        if (StringUtils.isNotBlank(tag)) {
+            return diskService.writeTagContentTo(dataId, group, tenant, tag, response.getOutputStream());
+        }
+        return diskService.writeContentTo(dataId, group, tenant, response.getOutputStream());
+    }
+    
     private String get404Result(HttpServletResponse response) throws IOException {
         response.setStatus(HttpServletResponse.SC_NOT_FOUND);
         response.getWriter().println("config data not exist");
@@ -342,6 +401,11 @@ public class ConfigServletInner {
         return lockResult;
     }
     
+    private static boolean acceptGzip(HttpServletRequest request) {
+        String acceptEncoding = request.getHeader(HttpHeaderConsts.ACCEPT_ENCODING);
+        return acceptEncoding != null && acceptEncoding.contains(GZIP_ENCODING);
+    }
+    
     private static boolean isUseTag(CacheItem cacheItem, String tag) {
         if (cacheItem != null && cacheItem.tagMd5 != null && cacheItem.tagMd5.size() > 0) {
             return StringUtils.isNotBlank(tag) && cacheItem.tagMd5.containsKey(tag);
@@ -349,8 +413,4 @@ public class ConfigServletInner {
         return false;
     }
     
-    private static boolean fileNotExist(File file) {
-        return file == null || !file.exists();
-    }
-    
 }
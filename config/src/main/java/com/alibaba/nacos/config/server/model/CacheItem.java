@@ -118,6 +118,14 @@ public class CacheItem {
         this.type = type;
     }
     
+    public CompressedContent getCompressedContent() {
+        return compressedContent;
+    }
+    
+    public void setCompressedContent(CompressedContent compressedContent) {
+        this.compressedContent = compressedContent;
+    }
+    
     final String groupKey;
     
     public volatile String md5 = Constants.NULL;
@@ -142,4 +150,32 @@ public class CacheItem {
     public SimpleReadWriteLock rwLock = new SimpleReadWriteLock();
     
     public String type;
+    
+    /**
+     * Gzip copy of the formal content, only valid while its md5 equals {@link #md5}.
+     */
+    private volatile CompressedContent compressedContent;
+    
+    /**
+     * Compressed content with the md5 of the uncompressed content.
+     */
+    public static class CompressedContent {
+        
+        private final String md5;
+        
+        private final byte[] content;
+        
+        public CompressedContent(String md5, byte[] content) {
+            this.md5 = md5;
+            this.content = content;
+        }
+        
+        public String getMd5() {
+            return md5;
+        }
+        
+        public byte[] getContent() {
+            return content;
+        }
+    }
 }
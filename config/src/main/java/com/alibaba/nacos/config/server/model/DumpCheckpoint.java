@@ -0,0 +1,127 @@
+/*
+ * Copyright 1999-2020 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.nacos.config.server.model;
+
+import java.io.Serializable;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Checkpoint of the local config dump, used to load only the changed configs on restart.
+ *
+ * @author Nacos
+ */
+public class DumpCheckpoint implements Serializable {
+    
+    private static final long serialVersionUID = -3517482309271746187L;
+    
+    /**
+     * Max id of config_info when the checkpoint was taken.
+     */
+    private long maxId;
+    
+    /**
+     * Max last modified time of the dumped configs.
+     */
+    private long lastModified;
+    
+    /**
+     * Config disk type the dump was written by.
+     */
+    private String diskType;
+    
+    /**
+     * Digest of each dumped config, keyed by groupKey.
+     */
+    private Map<String, Digest> configs = new HashMap<String, Digest>();
+    
+    public long getMaxId() {
+        return maxId;
+    }
+    
+    public void setMaxId(long maxId) {
+        this.maxId = maxId;
+    }
+    
+    public long getLastModified() {
+        return lastModified;
+    }
+    
+    public void setLastModified(long lastModified) {
+        this.lastModified = lastModified;
+    }
+    
+    public String getDiskType() {
+        return diskType;
+    }
+    
+    public void setDiskType(String diskType) {
+        this.diskType = diskType;
+    }
+    
+    public Map<String, Digest> getConfigs() {
+        return configs;
+    }
+    
+    public void setConfigs(Map<String, Digest> configs) {
+        this.configs = configs;
+    }
+    
+    public static class Digest implements Serializable {
+        
+        private static final long serialVersionUID = 6871513904317252021L;
+        
+        private String md5;
+        
+        private long lastModified;
+        
+        private String type;
+        
+        public Digest() {
+        }
+        
+        public Digest(String md5, long lastModified, String type) {
+            this.md5 = md5;
+            this.lastModified = lastModified;
+            this.type = type;
+        }
+        
+        public String getMd5() {
+            return md5;
+        }
+        
+        public void setMd5(String md5) {
+            this.md5 = md5;
+        }
+        
+        public long getLastModified() {
+            return lastModified;
+        }
+        
+        public void setLastModified(long lastModified) {
+            this.lastModified = lastModified;
+        }
+        
+        public String getType() {
+            return type;
+        }
+        
+        public void setType(String type) {
+            this.type = type;
+        }
+    }
+}
@@ -0,0 +1,44 @@
+/*
+ * Copyright 1999-2020 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.nacos.config.server.model.event;
+
+import com.alibaba.nacos.common.notify.Event;
+
+/**
+ * Published after a formal config is dumped or removed locally, only when the config search index is enabled.
+ *
+ * @author Nacos
+ */
+public class ConfigDumpedEvent extends Event {
+    
+    private static final long serialVersionUID = -3514364781238410872L;
+    
+    public final String dataId;
+    
+    public final String group;
+    
+    public final String tenant;
+    
+    public final boolean remove;
+    
+    public ConfigDumpedEvent(String dataId, String group, String tenant, boolean remove) {
+        this.dataId = dataId;
+        this.group = group;
+        this.tenant = tenant;
+        this.remove = remove;
+    }
+}
@@ -17,6 +17,7 @@
 package com.alibaba.nacos.config.server.monitor;
 
 import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
 import io.micrometer.core.instrument.ImmutableTag;
 import io.micrometer.core.instrument.Metrics;
 import io.micrometer.core.instrument.Tag;
@@ -25,6 +26,7 @@ import io.micrometer.core.instrument.Timer;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Metrics Monitor.
@@ -56,6 +58,16 @@ public class MetricsMonitor {
     
     private static AtomicInteger dumpTask = new AtomicInteger();
     
+    /**
+     * bytes of config content held in memory by the content cache.
+     */
+    private static AtomicLong contentCacheBytes = new AtomicLong();
+    
+    /**
+     * config history rows accepted but not yet written to the database.
+     */
+    private static AtomicLong historyBacklog = new AtomicLong();
+    
     static {
         List<Tag> tags = new ArrayList<Tag>();
         tags.add(new ImmutableTag("module", "config"));
@@ -92,6 +104,16 @@ public class MetricsMonitor {
         tags.add(new ImmutableTag("name", "dumpTask"));
         
         Metrics.gauge("nacos_monitor", tags, dumpTask);
+        
+        tags = new ArrayList<Tag>();
+        tags.add(new ImmutableTag("module", "config"));
+        tags.add(new ImmutableTag("name", "contentCacheBytes"));
+        Metrics.gauge("nacos_monitor", tags, contentCacheBytes);
+        
+        tags = new ArrayList<Tag>();
+        tags.add(new ImmutableTag("module", "config"));
+        tags.add(new ImmutableTag("name", "historyBacklog"));
+        Metrics.gauge("nacos_monitor", tags, historyBacklog);
     }
     
     public static AtomicInteger getConfigMonitor() {
@@ -122,10 +144,42 @@ public class MetricsMonitor {
         return dumpTask;
     }
     
+    public static AtomicLong getContentCacheBytesMonitor() {
+        return contentCacheBytes;
+    }
+    
+    public static AtomicLong getHistoryBacklogMonitor() {
+        return historyBacklog;
+    }
+    
+    public static Counter getHistorySpill() {
+        return Metrics.counter("nacos_monitor", "module", "config", "name", "historySpill");
+    }
+    
+    public static Counter getContentCacheHit() {
+        return Metrics.counter("nacos_monitor", "module", "config", "name", "contentCacheHit");
+    }
+    
+    public static Counter getContentCacheMiss() {
+        return Metrics.counter("nacos_monitor", "module", "config", "name", "contentCacheMiss");
+    }
+    
+    public static Counter getContentCacheEviction() {
+        return Metrics.counter("nacos_monitor", "module", "config", "name", "contentCacheEviction");
+    }
+    
     public static Timer getNotifyRtTimer() {
         return Metrics.timer("nacos_timer", "module", "config", "name", "notifyRt");
     }
     
+    public static Timer getConfigPushRtTimer() {
+        return Metrics.timer("nacos_timer", "module", "config", "name", "configPushRt");
+    }
+    
+    public static DistributionSummary getConfigPushBatchSize() {
+        return Metrics.summary("nacos_summary", "module", "config", "name", "configPushBatchSize");
+    }
+    
     public static Counter getIllegalArgumentException() {
         return Metrics.counter("nacos_exception", "module", "config", "name", "illegalArgument");
     }
@@ -0,0 +1,63 @@
+/*
+ * Copyright 1999-2020 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.nacos.config.server.remote;
+
+import com.alibaba.nacos.api.config.remote.request.cluster.ConfigChangeClusterBatchSyncRequest;
+import com.alibaba.nacos.api.config.remote.request.cluster.ConfigChangeClusterBatchSyncRequest.ConfigChangeItem;
+import com.alibaba.nacos.api.config.remote.response.cluster.ConfigChangeClusterBatchSyncResponse;
+import com.alibaba.nacos.api.exception.NacosException;
+import com.alibaba.nacos.api.remote.request.RequestMeta;
+import com.alibaba.nacos.config.server.service.dump.DumpService;
+import com.alibaba.nacos.core.remote.RequestHandler;
+import com.alibaba.nacos.core.remote.control.ConcurrencyLimit;
+import com.alibaba.nacos.core.remote.control.RequestPriority;
+import com.alibaba.nacos.core.remote.control.TpsControl;
+import org.springframework.stereotype.Component;
+
+/**
+ * handler to handle a batch of config changes from other servers.
+ *
+ * @author Nacos
+ */
+@Component
+public class ConfigChangeClusterBatchSyncRequestHandler
+        extends RequestHandler<ConfigChangeClusterBatchSyncRequest, ConfigChangeClusterBatchSyncResponse> {
+    
+    private final DumpService dumpService;
+    
+    public ConfigChangeClusterBatchSyncRequestHandler(DumpService dumpService) {
+        this.dumpService = dumpService;
+    }
+    
+    @TpsControl(pointName = "ClusterConfigChangeNotify")
+    @ConcurrencyLimit(priority = RequestPriority.HIGH)
+    @Override
+    public ConfigChangeClusterBatchSyncResponse handle(ConfigChangeClusterBatchSyncRequest request, RequestMeta meta)
+            throws NacosException {
+        for (ConfigChangeItem item : request.getConfigChanges()) {
+            if (item.isBeta()) {
+                dumpService.dump(item.getDataId(), item.getGroup(), item.getTenant(), item.getLastModified(),
+                        meta.getClientIp(), true);
+            } else {
+                dumpService.dump(item.getDataId(), item.getGroup(), item.getTenant(), item.getTag(),
+                        item.getLastModified(), meta.getClientIp());
+            }
+        }
+        return new ConfigChangeClusterBatchSyncResponse();
+    }
+    
+}
@@ -22,6 +22,8 @@ import com.alibaba.nacos.api.exception.NacosException;
 import com.alibaba.nacos.api.remote.request.RequestMeta;
 import com.alibaba.nacos.config.server.service.dump.DumpService;
 import com.alibaba.nacos.core.remote.RequestHandler;
+import com.alibaba.nacos.core.remote.control.ConcurrencyLimit;
+import com.alibaba.nacos.core.remote.control.RequestPriority;
 import com.alibaba.nacos.core.remote.control.TpsControl;
 import org.springframework.stereotype.Component;
 
@@ -42,6 +44,7 @@ public class ConfigChangeClusterSyncRequestHandler
     }
     
     @TpsControl(pointName = "ClusterConfigChangeNotify")
+    @ConcurrencyLimit(priority = RequestPriority.HIGH)
     @Override
     public ConfigChangeClusterSyncResponse handle(ConfigChangeClusterSyncRequest configChangeSyncRequest,
             RequestMeta meta) throws NacosException {
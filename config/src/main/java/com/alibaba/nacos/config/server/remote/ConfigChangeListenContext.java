@@ -16,13 +16,9 @@
 
 package com.alibaba.nacos.config.server.remote;
 
-import com.alibaba.nacos.common.utils.CollectionUtils;
 import org.springframework.stereotype.Component;
 
-import java.util.Collection;
-import java.util.HashMap;
-import java.util.HashSet;
-import java.util.Iterator;
+import java.util.Collections;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
@@ -30,6 +26,12 @@ import java.util.concurrent.ConcurrentHashMap;
 /**
  * config change listen context.
  *
+ * <p>Both indexes are kept in {@link ConcurrentHashMap}s whose values are concurrent collections, so listeners of
+ * different group keys or connections never contend on a shared monitor. Structural changes of a single entry (create
+ * on first listen, drop when empty) are done inside {@code compute}, which only locks the bin of that key. Every
+ * change of a connection updates both indexes inside {@code compute} of that connection id, so a listen added while
+ * the connection is being cleared can't be left in the group key index.
+ *
  * @author liuzunfei
  * @version $Id: ConfigChangeListenContext.java, v 0.1 2020年07月20日 1:37 PM liuzunfei Exp $
  */
@@ -39,12 +41,12 @@ public class ConfigChangeListenContext {
     /**
      * groupKey-> connection set.
      */
-    private ConcurrentHashMap<String, HashSet<String>> groupKeyContext = new ConcurrentHashMap<String, HashSet<String>>();
+    private final ConcurrentHashMap<String, Set<String>> groupKeyContext = new ConcurrentHashMap<String, Set<String>>();
     
     /**
      * connectionId-> group key set.
      */
-    private ConcurrentHashMap<String, HashMap<String, String>> connectionIdContext = new ConcurrentHashMap<String, HashMap<String, String>>();
+    private final ConcurrentHashMap<String, ConcurrentHashMap<String, String>> connectionIdContext = new ConcurrentHashMap<>();
     
     /**
      * add listen.
@@ -52,23 +54,21 @@ public class ConfigChangeListenContext {
      * @param groupKey     groupKey.
      * @param connectionId connectionId.
      */
-    public synchronized void addListen(String groupKey, String md5, String connectionId) {
-        // 1.add groupKeyContext
-        Set<String> listenClients = groupKeyContext.get(groupKey);
-        if (listenClients == null) {
-            groupKeyContext.putIfAbsent(groupKey, new HashSet<String>());
-            listenClients = groupKeyContext.get(groupKey);
-        }
-        listenClients.add(connectionId);
-        
-        // 2.add connectionIdContext
-        HashMap<String, String> groupKeys = connectionIdContext.get(connectionId);
-        if (groupKeys == null) {
-            connectionIdContext.putIfAbsent(connectionId, new HashMap<String, String>(16));
-            groupKeys = connectionIdContext.get(connectionId);
-        }
-        groupKeys.put(groupKey, md5);
-        
+    public void addListen(final String groupKey, final String md5, final String connectionId) {
+        connectionIdContext.compute(connectionId, (key, groupKeys) -> {
+            // 1.add groupKeyContext
+            groupKeyContext.compute(groupKey, (gk, connectionIds) -> {
+                Set<String> result = connectionIds == null ? ConcurrentHashMap.<String>newKeySet() : connectionIds;
+                result.add(connectionId);
+                return result;
+            });
+            
+            // 2.add connectionIdContext
+            ConcurrentHashMap<String, String> result =
+                    groupKeys == null ? new ConcurrentHashMap<String, String>(16) : groupKeys;
+            result.put(groupKey, md5);
+            return result;
+        });
     }
     
     /**
@@ -77,52 +77,42 @@ public class ConfigChangeListenContext {
      * @param groupKey     groupKey.
      * @param connectionId connection id.
      */
-    public synchronized void removeListen(String groupKey, String connectionId) {
-        
-        //1. remove groupKeyContext
-        Set<String> connectionIds = groupKeyContext.get(groupKey);
-        if (connectionIds != null) {
-            connectionIds.remove(connectionId);
-            if (connectionIds.isEmpty()) {
-                groupKeyContext.remove(groupKey);
+    public void removeListen(final String groupKey, final String connectionId) {
+        connectionIdContext.compute(connectionId, (key, groupKeys) -> {
+            //1. remove groupKeyContext
+            removeConnectionFromGroupKey(groupKey, connectionId);
+            
+            //2.remove connectionIdContext
+            if (groupKeys != null) {
+                groupKeys.remove(groupKey);
             }
-        }
-        
-        //2.remove connectionIdContext
-        HashMap<String, String> groupKeys = connectionIdContext.get(connectionId);
-        if (groupKeys != null) {
-            groupKeys.remove(groupKey);
-        }
+            return groupKeys;
+        });
     }
     
-    /**
-     * get listeners of the group key.
-     *
-     * @param groupKey groupKey.
-     * @return the copy of listeners, may be return null.
-     */
-    public synchronized Set<String> getListeners(String groupKey) {
-        
-        HashSet<String> strings = groupKeyContext.get(groupKey);
-        if (CollectionUtils.isNotEmpty(strings)) {
-            Set<String> listenConnections = new HashSet<String>();
-            safeCopy(strings, listenConnections);
-            return listenConnections;
-        }
-        return null;
+    private void removeConnectionFromGroupKey(String groupKey, final String connectionId) {
+        groupKeyContext.computeIfPresent(groupKey, (key, connectionIds) -> {
+            connectionIds.remove(connectionId);
+            return connectionIds.isEmpty() ? null : connectionIds;
+        });
     }
     
     /**
-     * copy collections.
+     * get listeners of the group key.
      *
-     * @param src  may be modified concurrently
-     * @param dest dest collection
+     * <p>The returned set is a read-only, weakly consistent view instead of a copy: iterating it never throws
+     * {@link java.util.ConcurrentModificationException}, and reflects listens added or removed during iteration at
+     * best effort.
+     *
+     * @param groupKey groupKey.
+     * @return the read-only view of listeners, may be return null.
      */
-    private void safeCopy(Collection src, Collection dest) {
-        Iterator iterator = src.iterator();
-        while (iterator.hasNext()) {
-            dest.add(iterator.next());
+    public Set<String> getListeners(String groupKey) {
+        Set<String> connectionIds = groupKeyContext.get(groupKey);
+        if (connectionIds == null || connectionIds.isEmpty()) {
+            return null;
         }
+        return Collections.unmodifiableSet(connectionIds);
     }
     
     /**
@@ -130,36 +120,26 @@ public class ConfigChangeListenContext {
      *
      * @param connectionId connectionId.
      */
-    public synchronized void clearContextForConnectionId(final String connectionId) {
-        
-        Map<String, String> listenKeys = getListenKeys(connectionId);
-        
-        if (listenKeys == null) {
-            connectionIdContext.remove(connectionId);
-            return;
-        }
-        for (Map.Entry<String, String> groupKey : listenKeys.entrySet()) {
-
-            Set<String> connectionIds = groupKeyContext.get(groupKey.getKey());
-            if (CollectionUtils.isNotEmpty(connectionIds)) {
-                connectionIds.remove(connectionId);
-            } else {
-                groupKeyContext.remove(groupKey.getKey());
+    public void clearContextForConnectionId(final String connectionId) {
+        connectionIdContext.computeIfPresent(connectionId, (key, listenKeys) -> {
+            for (String groupKey : listenKeys.keySet()) {
+                removeConnectionFromGroupKey(groupKey, connectionId);
             }
-
-        }
-        connectionIdContext.remove(connectionId);
+            return null;
+        });
     }
     
     /**
      * get listen keys.
      *
+     * <p>The returned map is a read-only, weakly consistent view of the connection's listen keys, not a copy.
+     *
      * @param connectionId connection id.
      * @return listen group keys of the connection id, key:group key,value:md5
      */
-    public synchronized Map<String, String> getListenKeys(String connectionId) {
-        HashMap<String, String> stringStringHashMap = connectionIdContext.get(connectionId);
-        return stringStringHashMap == null ? null : new HashMap<String, String>(stringStringHashMap);
+    public Map<String, String> getListenKeys(String connectionId) {
+        Map<String, String> groupKeys = connectionIdContext.get(connectionId);
+        return groupKeys == null ? null : Collections.unmodifiableMap(groupKeys);
     }
     
     /**
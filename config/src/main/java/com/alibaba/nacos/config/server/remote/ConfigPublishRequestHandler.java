@@ -33,6 +33,8 @@ import com.alibaba.nacos.config.server.service.trace.ConfigTraceService;
 import com.alibaba.nacos.config.server.utils.ParamUtils;
 import com.alibaba.nacos.config.server.utils.TimeUtils;
 import com.alibaba.nacos.core.remote.RequestHandler;
+import com.alibaba.nacos.core.remote.control.ConcurrencyLimit;
+import com.alibaba.nacos.core.remote.control.RequestPriority;
 import com.alibaba.nacos.core.remote.control.TpsControl;
 import com.alibaba.nacos.core.utils.Loggers;
 import com.alibaba.nacos.sys.utils.InetUtils;
@@ -62,6 +64,7 @@ public class ConfigPublishRequestHandler extends RequestHandler<ConfigPublishReq
     @TpsControl(pointName = "ConfigPublish", parsers = {ConfigPublishGroupKeyParser.class,
             ConfigPublishGroupParser.class})
     @Secured(action = ActionTypes.WRITE, resource = "", parser = ConfigResourceParser.class)
+    @ConcurrencyLimit(priority = RequestPriority.LOW)
     public ConfigPublishResponse handle(ConfigPublishRequest request, RequestMeta meta) throws NacosException {
         
         try {
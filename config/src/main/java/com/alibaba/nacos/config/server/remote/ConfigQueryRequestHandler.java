@@ -28,26 +28,22 @@ import com.alibaba.nacos.config.server.constant.Constants;
 import com.alibaba.nacos.config.server.model.CacheItem;
 import com.alibaba.nacos.config.server.model.ConfigInfoBase;
 import com.alibaba.nacos.config.server.service.ConfigCacheService;
+import com.alibaba.nacos.config.server.service.dump.disk.ConfigDiskServiceFactory;
 import com.alibaba.nacos.config.server.service.repository.PersistService;
 import com.alibaba.nacos.config.server.service.trace.ConfigTraceService;
-import com.alibaba.nacos.config.server.utils.DiskUtil;
 import com.alibaba.nacos.config.server.utils.GroupKey2;
 import com.alibaba.nacos.config.server.utils.LogUtil;
 import com.alibaba.nacos.config.server.utils.PropertyUtil;
 import com.alibaba.nacos.config.server.utils.TimeUtils;
 import com.alibaba.nacos.core.remote.RequestHandler;
 import com.alibaba.nacos.core.remote.control.TpsControl;
-import org.apache.commons.io.FileUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.springframework.stereotype.Component;
 
-import java.io.File;
 import java.io.IOException;
 import java.io.PrintWriter;
-import java.io.UnsupportedEncodingException;
 import java.net.URLEncoder;
 
-import static com.alibaba.nacos.api.common.Constants.ENCODE;
 import static com.alibaba.nacos.config.server.utils.LogUtil.PULL_LOG;
 import static com.alibaba.nacos.config.server.utils.RequestUtil.CLIENT_APPNAME_HEADER;
 
@@ -83,7 +79,7 @@ public class ConfigQueryRequestHandler extends RequestHandler<ConfigQueryRequest
     }
     
     private ConfigQueryResponse getContext(ConfigQueryRequest configQueryRequest, RequestMeta meta, boolean notify)
-            throws UnsupportedEncodingException {
+            throws IOException {
         String dataId = configQueryRequest.getDataId();
         String group = configQueryRequest.getGroup();
         String tenant = configQueryRequest.getTenant();
@@ -117,16 +113,21 @@ public class ConfigQueryRequestHandler extends RequestHandler<ConfigQueryRequest
                     String configType = cacheItem.getType();
                     response.setContentType((null != configType) ? configType : "text");
                 }
-                File file = null;
+                String content = null;
                 ConfigInfoBase configInfoBase = null;
                 PrintWriter out = null;
+                String cachedContent = null;
+                String contentTag = null;
                 if (isBeta) {
                     md5 = cacheItem.getMd54Beta();
                     lastModified = cacheItem.getLastModifiedTs4Beta();
-                    if (PropertyUtil.isDirectRead()) {
-                        configInfoBase = persistService.findConfigInfo4Beta(dataId, group, tenant);
-                    } else {
-                        file = DiskUtil.targetBetaFile(dataId, group, tenant);
+                    cachedContent = ConfigCacheService.getCachedContentString(groupKey, true, null, md5);
+                    if (cachedContent == null) {
+                        if (PropertyUtil.isDirectRead()) {
+                            configInfoBase = persistService.findConfigInfo4Beta(dataId, group, tenant);
+                        } else {
+                            content = ConfigDiskServiceFactory.getInstance().getBetaContent(dataId, group, tenant);
+                        }
                     }
                     response.setBeta(true);
                 } else {
@@ -140,22 +141,30 @@ public class ConfigQueryRequestHandler extends RequestHandler<ConfigQueryRequest
                                     lastModified = cacheItem.tagLastModifiedTs.get(autoTag);
                                 }
                             }
-                            if (PropertyUtil.isDirectRead()) {
-                                configInfoBase = persistService.findConfigInfo4Tag(dataId, group, tenant, autoTag);
-                            } else {
-                                file = DiskUtil.targetTagFile(dataId, group, tenant, autoTag);
+                            contentTag = autoTag;
+                            cachedContent = ConfigCacheService.getCachedContentString(groupKey, false, autoTag, md5);
+                            if (cachedContent == null) {
+                                if (PropertyUtil.isDirectRead()) {
+                                    configInfoBase = persistService.findConfigInfo4Tag(dataId, group, tenant, autoTag);
+                                } else {
+                                    content = ConfigDiskServiceFactory.getInstance()
+                                            .getTagContent(dataId, group, tenant, autoTag);
+                                }
                             }
                             response.setTag(URLEncoder.encode(autoTag, Constants.ENCODE));
                             
                         } else {
                             md5 = cacheItem.getMd5();
                             lastModified = cacheItem.getLastModifiedTs();
-                            if (PropertyUtil.isDirectRead()) {
-                                configInfoBase = persistService.findConfigInfo(dataId, group, tenant);
-                            } else {
-                                file = DiskUtil.targetFile(dataId, group, tenant);
+                            cachedContent = ConfigCacheService.getCachedContentString(groupKey, false, null, md5);
+                            if (cachedContent == null) {
+                                if (PropertyUtil.isDirectRead()) {
+                                    configInfoBase = persistService.findConfigInfo(dataId, group, tenant);
+                                } else {
+                                    content = ConfigDiskServiceFactory.getInstance().getContent(dataId, group, tenant);
+                                }
                             }
-                            if (configInfoBase == null && fileNotExist(file)) {
+                            if (cachedContent == null && configInfoBase == null && content == null) {
                                 // FIXME CacheItem
                                 // No longer exists. It is impossible to simply calculate the push delayed. Here, simply record it as - 1.
                                 ConfigTraceService.logPullEvent(dataId, group, tenant, requestIpApp, -1,
@@ -181,12 +190,16 @@ public class ConfigQueryRequestHandler extends RequestHandler<ConfigQueryRequest
                                 }
                             }
                         }
-                        if (PropertyUtil.isDirectRead()) {
-                            configInfoBase = persistService.findConfigInfo4Tag(dataId, group, tenant, tag);
-                        } else {
-                            file = DiskUtil.targetTagFile(dataId, group, tenant, tag);
+                        contentTag = tag;
+                        cachedContent = ConfigCacheService.getCachedContentString(groupKey, false, tag, md5);
+                        if (cachedContent == null) {
+                            if (PropertyUtil.isDirectRead()) {
+                                configInfoBase = persistService.findConfigInfo4Tag(dataId, group, tenant, tag);
+                            } else {
+                                content = ConfigDiskServiceFactory.getInstance().getTagContent(dataId, group, tenant, tag);
+                            }
                         }
-                        if (configInfoBase == null && fileNotExist(file)) {
+                        if (cachedContent == null && configInfoBase == null && content == null) {
                             // FIXME CacheItem
                             // No longer exists. It is impossible to simply calculate the push delayed. Here, simply record it as - 1.
                             ConfigTraceService.logPullEvent(dataId, group, tenant, requestIpApp, -1,
@@ -205,25 +218,30 @@ public class ConfigQueryRequestHandler extends RequestHandler<ConfigQueryRequest
                 
                 response.setMd5(md5);
                 
-                if (PropertyUtil.isDirectRead()) {
+                if (cachedContent != null) {
+                    response.setLastModified(lastModified);
+                    response.setContent(cachedContent);
+                    response.setResultCode(ResponseCode.SUCCESS.getCode());
+                    
+                } else if (PropertyUtil.isDirectRead()) {
                     response.setLastModified(lastModified);
                     response.setContent(configInfoBase.getContent());
                     response.setResultCode(ResponseCode.SUCCESS.getCode());
+                    ConfigCacheService.cacheContent(groupKey, isBeta, contentTag, md5, configInfoBase.getContent());
                     
                 } else {
-                    //read from file
-                    String content = null;
-                    try {
-                        content = readFileContent(file);
-                        response.setContent(content);
-                        response.setLastModified(lastModified);
-                        response.setResultCode(ResponseCode.SUCCESS.getCode());
-                    } catch (IOException e) {
-                        response.setErrorInfo(ResponseCode.FAIL.getCode(), e.getMessage());
+                    //read from disk
+                    if (content == null) {
+                        response.setErrorInfo(ResponseCode.FAIL.getCode(), "config data not exist");
                         return response;
                     }
+                    ConfigCacheService.cacheContent(groupKey, isBeta, contentTag, md5, content);
+                    response.setContent(content);
+                    response.setLastModified(lastModified);
+                    response.setResultCode(ResponseCode.SUCCESS.getCode());
                     
                 }
+                compressContent(configQueryRequest, response, groupKey, isBeta, contentTag, md5);
                 
                 LogUtil.PULL_CHECK_LOG.warn("{}|{}|{}|{}", groupKey, clientIp, md5, TimeUtils.getCurrentTimeStr());
                 
@@ -257,24 +275,26 @@ public class ConfigQueryRequestHandler extends RequestHandler<ConfigQueryRequest
     }
     
     /**
-     * read content.
-     *
-     * @param file file to read.
-     * @return content.
+     * Return large content gzip compressed if the client accepts it.
      */
-    public static String readFileContent(File file) throws IOException {
-        return FileUtils.readFileToString(file, ENCODE);
-        
+    private static void compressContent(ConfigQueryRequest request, ConfigQueryResponse response, String groupKey,
+            boolean isBeta, String tag, String md5) {
+        String acceptEncoding = request.getAcceptEncoding();
+        if (acceptEncoding == null || !acceptEncoding.contains(ConfigQueryResponse.ENCODING_GZIP)) {
+            return;
+        }
+        byte[] compressed = ConfigCacheService.getCompressedContent(groupKey, isBeta, tag, md5, response.getContent());
+        if (compressed != null) {
+            response.setContent(null);
+            response.setContentEncoding(ConfigQueryResponse.ENCODING_GZIP);
+            response.setCompressedContent(compressed);
+        }
     }
     
     private static void releaseConfigReadLock(String groupKey) {
         ConfigCacheService.releaseReadLock(groupKey);
     }
     
-    private static boolean fileNotExist(File file) {
-        return file == null || !file.exists();
-    }
-    
     private static int tryConfigReadLock(String groupKey) {
         
         // Lock failed by default.
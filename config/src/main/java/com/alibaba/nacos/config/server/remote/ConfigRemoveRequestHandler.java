@@ -30,6 +30,8 @@ import com.alibaba.nacos.config.server.service.trace.ConfigTraceService;
 import com.alibaba.nacos.config.server.utils.ParamUtils;
 import com.alibaba.nacos.config.server.utils.TimeUtils;
 import com.alibaba.nacos.core.remote.RequestHandler;
+import com.alibaba.nacos.core.remote.control.ConcurrencyLimit;
+import com.alibaba.nacos.core.remote.control.RequestPriority;
 import com.alibaba.nacos.core.remote.control.TpsControl;
 import com.alibaba.nacos.core.utils.Loggers;
 import org.apache.commons.lang3.StringUtils;
@@ -55,6 +57,7 @@ public class ConfigRemoveRequestHandler extends RequestHandler<ConfigRemoveReque
     @Override
     @TpsControl(pointName = "ConfigRemove")
     @Secured(action = ActionTypes.WRITE, parser = ConfigResourceParser.class)
+    @ConcurrencyLimit(priority = RequestPriority.LOW)
     public ConfigRemoveResponse handle(ConfigRemoveRequest configRemoveRequest, RequestMeta meta)
             throws NacosException {
         // check tenant
@@ -16,16 +16,21 @@
 
 package com.alibaba.nacos.config.server.remote;
 
+import com.alibaba.nacos.api.ability.ClientAbilities;
+import com.alibaba.nacos.api.config.remote.request.ConfigChangeBatchNotifyRequest;
 import com.alibaba.nacos.api.config.remote.request.ConfigChangeNotifyRequest;
 import com.alibaba.nacos.api.remote.AbstractPushCallBack;
+import com.alibaba.nacos.api.remote.request.ServerRequest;
 import com.alibaba.nacos.common.notify.Event;
 import com.alibaba.nacos.common.notify.NotifyCenter;
 import com.alibaba.nacos.common.notify.listener.Subscriber;
 import com.alibaba.nacos.common.utils.CollectionUtils;
 import com.alibaba.nacos.common.utils.StringUtils;
 import com.alibaba.nacos.config.server.model.event.LocalDataChangeEvent;
+import com.alibaba.nacos.config.server.monitor.MetricsMonitor;
 import com.alibaba.nacos.config.server.utils.ConfigExecutor;
 import com.alibaba.nacos.config.server.utils.GroupKey;
+import com.alibaba.nacos.config.server.utils.PropertyUtil;
 import com.alibaba.nacos.core.remote.Connection;
 import com.alibaba.nacos.core.remote.ConnectionManager;
 import com.alibaba.nacos.core.remote.RpcPushService;
@@ -36,9 +41,16 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
 import javax.annotation.PostConstruct;
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Queue;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * ConfigChangeNotifier.
@@ -55,6 +67,13 @@ public class RpcConfigChangeNotifier extends Subscriber<LocalDataChangeEvent> {
     
     private static final String POINT_CONFIG_PUSH_FAIL = "CONFIG_PUSH_FAIL";
     
+    private static final int MAX_BATCH_SIZE = 500;
+    
+    /**
+     * Pending batch pushes, keyed by connection id.
+     */
+    private final ConcurrentHashMap<String, BatchPushQueue> batchPushQueues = new ConcurrentHashMap<>();
+    
     @Autowired
     private TpsMonitorManager tpsMonitorManager;
     
@@ -110,6 +129,13 @@ public class RpcConfigChangeNotifier extends Subscriber<LocalDataChangeEvent> {
                 continue;
             }
 
+            if (isBatchNotifyEnabled(connection)) {
+                batchPushQueues.computeIfAbsent(client, BatchPushQueue::new)
+                        .add(new ChangedConfig(groupKey, dataId, group, tenant));
+                notifyClientCount++;
+                continue;
+            }
+
             ConfigChangeNotifyRequest notifyRequest = ConfigChangeNotifyRequest.build(dataId, group, tenant);
 
             RpcPushTask rpcPushRetryTask = new RpcPushTask(notifyRequest, 50, client, clientIp,
@@ -140,9 +166,104 @@ public class RpcConfigChangeNotifier extends Subscriber<LocalDataChangeEvent> {
         return LocalDataChangeEvent.class;
     }
     
+    private boolean isBatchNotifyEnabled(Connection connection) {
+        if (PropertyUtil.getPushBatchWindow() <= 0) {
+            return false;
+        }
+        ClientAbilities abilities = connection.getAbilities();
+        return abilities != null && abilities.getConfigAbility() != null && abilities.getConfigAbility()
+                .isSupportBatchChangeNotify();
+    }
+    
+    static class ChangedConfig {
+        
+        final String groupKey;
+        
+        final String dataId;
+        
+        final String group;
+        
+        final String tenant;
+        
+        final long changeTime = System.currentTimeMillis();
+        
+        ChangedConfig(String groupKey, String dataId, String group, String tenant) {
+            this.groupKey = groupKey;
+            this.dataId = dataId;
+            this.group = group;
+            this.tenant = tenant;
+        }
+    }
+    
+    /**
+     * Changed configs of one connection, changes within {@link PropertyUtil#getPushBatchWindow()} are coalesced and
+     * pushed in one {@link ConfigChangeBatchNotifyRequest}.
+     */
+    class BatchPushQueue implements Runnable {
+        
+        private final String connectionId;
+        
+        private final Queue<ChangedConfig> queue = new ConcurrentLinkedQueue<ChangedConfig>();
+        
+        private final AtomicBoolean scheduled = new AtomicBoolean(false);
+        
+        BatchPushQueue(String connectionId) {
+            this.connectionId = connectionId;
+        }
+        
+        void add(ChangedConfig changedConfig) {
+            queue.offer(changedConfig);
+            if (scheduled.compareAndSet(false, true)) {
+                ConfigExecutor.getClientConfigNotifierServiceExecutor()
+                        .schedule(this, PropertyUtil.getPushBatchWindow(), TimeUnit.MILLISECONDS);
+            }
+        }
+        
+        @Override
+        public void run() {
+            // Reset before draining, so changes added from now on schedule the next flush.
+            scheduled.set(false);
+            Connection connection = connectionManager.getConnection(connectionId);
+            if (connection == null) {
+                batchPushQueues.remove(connectionId, this);
+                return;
+            }
+            Map<String, ChangedConfig> changedConfigs = new LinkedHashMap<String, ChangedConfig>();
+            ChangedConfig changedConfig;
+            while ((changedConfig = queue.poll()) != null) {
+                // The client queries the latest content, so one notify of the same config is enough.
+                changedConfigs.putIfAbsent(changedConfig.groupKey, changedConfig);
+                if (changedConfigs.size() >= MAX_BATCH_SIZE) {
+                    push(connection, changedConfigs.values());
+                    changedConfigs.clear();
+                }
+            }
+            if (!changedConfigs.isEmpty()) {
+                push(connection, changedConfigs.values());
+            }
+            if (queue.isEmpty()) {
+                // A change added concurrently still schedules this queue, so it is not lost.
+                batchPushQueues.remove(connectionId, this);
+            }
+        }
+        
+        private void push(Connection connection, Collection<ChangedConfig> changedConfigs) {
+            ConfigChangeBatchNotifyRequest notifyRequest = new ConfigChangeBatchNotifyRequest();
+            long changeTime = Long.MAX_VALUE;
+            for (ChangedConfig each : changedConfigs) {
+                notifyRequest.addChangedConfig(each.dataId, each.group, each.tenant);
+                changeTime = Math.min(changeTime, each.changeTime);
+            }
+            MetricsMonitor.getConfigPushBatchSize().record(changedConfigs.size());
+            RpcConfigChangeNotifier.this.push(
+                    new RpcPushTask(notifyRequest, 50, connectionId, connection.getMetaInfo().getClientIp(),
+                            connection.getMetaInfo().getAppName(), changeTime));
+        }
+    }
+    
     class RpcPushTask implements Runnable {
         
-        ConfigChangeNotifyRequest notifyRequest;
+        ServerRequest notifyRequest;
         
         int maxRetryTimes = -1;
         
@@ -154,13 +275,21 @@ public class RpcConfigChangeNotifier extends Subscriber<LocalDataChangeEvent> {
         
         String appName;
         
+        long changeTime;
+        
         public RpcPushTask(ConfigChangeNotifyRequest notifyRequest, int maxRetryTimes, String connectionId,
                 String clientIp, String appName) {
+            this(notifyRequest, maxRetryTimes, connectionId, clientIp, appName, System.currentTimeMillis());
+        }
+        
+        public RpcPushTask(ServerRequest notifyRequest, int maxRetryTimes, String connectionId, String clientIp,
+                String appName, long changeTime) {
             this.notifyRequest = notifyRequest;
             this.maxRetryTimes = maxRetryTimes;
             this.connectionId = connectionId;
             this.clientIp = clientIp;
             this.appName = appName;
+            this.changeTime = changeTime;
         }
         
         public boolean isOverTimes() {
@@ -177,6 +306,8 @@ public class RpcConfigChangeNotifier extends Subscriber<LocalDataChangeEvent> {
                     @Override
                     public void onSuccess() {
                         tpsMonitorManager.applyTpsForClientIp(POINT_CONFIG_PUSH_SUCCESS, connectionId, clientIp);
+                        MetricsMonitor.getConfigPushRtTimer()
+                                .record(System.currentTimeMillis() - changeTime, TimeUnit.MILLISECONDS);
                     }
                     
                     @Override
@@ -194,12 +325,19 @@ public class RpcConfigChangeNotifier extends Subscriber<LocalDataChangeEvent> {
     }
     
     private void push(RpcPushTask retryTask) {
-        ConfigChangeNotifyRequest notifyRequest = retryTask.notifyRequest;
         if (retryTask.isOverTimes()) {
-            Loggers.REMOTE_PUSH
-                    .warn("push callback retry fail over times .dataId={},group={},tenant={},clientId={},will unregister client.",
-                            notifyRequest.getDataId(), notifyRequest.getGroup(), notifyRequest.getTenant(),
-                            retryTask.connectionId);
+            if (retryTask.notifyRequest instanceof ConfigChangeNotifyRequest) {
+                ConfigChangeNotifyRequest notifyRequest = (ConfigChangeNotifyRequest) retryTask.notifyRequest;
+                Loggers.REMOTE_PUSH
+                        .warn("push callback retry fail over times .dataId={},group={},tenant={},clientId={},will unregister client.",
+                                notifyRequest.getDataId(), notifyRequest.getGroup(), notifyRequest.getTenant(),
+                                retryTask.connectionId);
+            } else {
+                Loggers.REMOTE_PUSH
+                        .warn("push callback retry fail over times .count={},clientId={},will unregister client.",
+                                ((ConfigChangeBatchNotifyRequest) retryTask.notifyRequest).getChangedConfigs().size(),
+                                retryTask.connectionId);
+            }
             connectionManager.unregister(retryTask.connectionId);
         } else if (connectionManager.getConnection(retryTask.connectionId) != null) {
             // first time :delay 0s; sencond time:delay 2s  ;third time :delay 4s
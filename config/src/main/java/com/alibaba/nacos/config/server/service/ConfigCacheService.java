@@ -22,8 +22,8 @@ import com.alibaba.nacos.config.server.constant.Constants;
 import com.alibaba.nacos.config.server.model.CacheItem;
 import com.alibaba.nacos.config.server.model.ConfigInfoBase;
 import com.alibaba.nacos.config.server.model.event.LocalDataChangeEvent;
+import com.alibaba.nacos.config.server.service.dump.disk.ConfigDiskServiceFactory;
 import com.alibaba.nacos.config.server.service.repository.PersistService;
-import com.alibaba.nacos.config.server.utils.DiskUtil;
 import com.alibaba.nacos.config.server.utils.GroupKey;
 import com.alibaba.nacos.config.server.utils.GroupKey2;
 import com.alibaba.nacos.config.server.utils.PropertyUtil;
@@ -32,15 +32,19 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.List;
 import java.util.HashMap;
 import java.util.Map.Entry;
 import java.util.Map;
 import java.util.Collections;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.GZIPOutputStream;
 
 import static com.alibaba.nacos.config.server.utils.LogUtil.DUMP_LOG;
 import static com.alibaba.nacos.config.server.utils.LogUtil.FATAL_LOG;
@@ -63,6 +67,11 @@ public class ConfigCacheService {
 
     private static final String DISK_QUATA_EN = "Disk quota exceeded";
 
+    /**
+     * Max bytes of a char encoded in UTF-8.
+     */
+    private static final long MAX_BYTES_PER_CHAR = 3L;
+
     /**
      * groupKey -> cacheItem.
      */
@@ -71,6 +80,15 @@ public class ConfigCacheService {
     @Autowired
     private static PersistService persistService;
     
+    /**
+     * Lazy holder of the content cache, so the byte budget is read after {@link PropertyUtil} is initialized.
+     */
+    private static class ContentCacheHolder {
+        
+        private static final ConfigContentCache INSTANCE = new ConfigContentCache(
+                PropertyUtil.getContentCacheMaxBytes());
+    }
+    
     public static int groupCount() {
         return CACHE.size();
     }
@@ -111,8 +129,9 @@ public class ConfigCacheService {
                                 + "lastModifiedNew={}", groupKey, md5, ConfigCacheService.getLastModifiedTs(groupKey),
                         lastModifiedTs);
             } else if (!PropertyUtil.isDirectRead()) {
-                DiskUtil.saveToDisk(dataId, group, tenant, content);
+                ConfigDiskServiceFactory.getInstance().saveToDisk(dataId, group, tenant, content);
             }
+            refreshCachedContent(groupKey, false, null, md5, content);
             updateMd5(groupKey, md5, lastModifiedTs);
             return true;
         } catch (IOException ioe) {
@@ -163,9 +182,10 @@ public class ConfigCacheService {
                                 + "lastModifiedNew={}", groupKey, md5, ConfigCacheService.getLastModifiedTs(groupKey),
                         lastModifiedTs);
             } else if (!PropertyUtil.isDirectRead()) {
-                DiskUtil.saveBetaToDisk(dataId, group, tenant, content);
+                ConfigDiskServiceFactory.getInstance().saveBetaToDisk(dataId, group, tenant, content);
             }
             String[] betaIpsArr = betaIps.split(",");
+            refreshCachedContent(groupKey, true, null, md5, content);
             
             updateBetaMd5(groupKey, md5, Arrays.asList(betaIpsArr), lastModifiedTs);
             return true;
@@ -208,9 +228,9 @@ public class ConfigCacheService {
                                 + "lastModifiedNew={}", groupKey, md5, ConfigCacheService.getLastModifiedTs(groupKey),
                         lastModifiedTs);
             } else if (!PropertyUtil.isDirectRead()) {
-                DiskUtil.saveTagToDisk(dataId, group, tenant, tag, content);
+                ConfigDiskServiceFactory.getInstance().saveTagToDisk(dataId, group, tenant, tag, content);
             }
-            
+            refreshCachedContent(groupKey, false, tag, md5, content);
             updateTagMd5(groupKey, tag, md5, lastModifiedTs);
             return true;
         } catch (IOException ioe) {
@@ -246,15 +266,16 @@ public class ConfigCacheService {
         try {
             final String md5 = MD5Utils.md5Hex(content, Constants.ENCODE);
             if (!PropertyUtil.isDirectRead()) {
-                String localMd5 = DiskUtil.getLocalConfigMd5(dataId, group, tenant);
+                String localMd5 = ConfigDiskServiceFactory.getInstance().getLocalConfigMd5(dataId, group, tenant);
                 if (md5.equals(localMd5)) {
                     DUMP_LOG.warn("[dump-ignore] ignore to save cache file. groupKey={}, md5={}, lastModifiedOld={}, "
                                     + "lastModifiedNew={}", groupKey, md5, ConfigCacheService.getLastModifiedTs(groupKey),
                             lastModifiedTs);
                 } else {
-                    DiskUtil.saveToDisk(dataId, group, tenant, content);
+                    ConfigDiskServiceFactory.getInstance().saveToDisk(dataId, group, tenant, content);
                 }
             }
+            refreshCachedContent(groupKey, false, null, md5, content);
             updateMd5(groupKey, md5, lastModifiedTs);
             return true;
         } catch (IOException ioe) {
@@ -278,7 +299,8 @@ public class ConfigCacheService {
                     aggreds = config.getContent();
                 }
             } else {
-                aggreds = DiskUtil.getConfig(AggrWhitelist.AGGRIDS_METADATA, "DEFAULT_GROUP", StringUtils.EMPTY);
+                aggreds = StringUtils.defaultString(ConfigDiskServiceFactory.getInstance()
+                        .getContent(AggrWhitelist.AGGRIDS_METADATA, "DEFAULT_GROUP", StringUtils.EMPTY));
             }
             if (aggreds != null) {
                 AggrWhitelist.load(aggreds);
@@ -296,8 +318,8 @@ public class ConfigCacheService {
                     clientIpWhitelist = config.getContent();
                 }
             } else {
-                clientIpWhitelist = DiskUtil
-                        .getConfig(ClientIpWhiteList.CLIENT_IP_WHITELIST_METADATA, "DEFAULT_GROUP", StringUtils.EMPTY);
+                clientIpWhitelist = StringUtils.defaultString(ConfigDiskServiceFactory.getInstance()
+                        .getContent(ClientIpWhiteList.CLIENT_IP_WHITELIST_METADATA, "DEFAULT_GROUP", StringUtils.EMPTY));
             }
             if (clientIpWhitelist != null) {
                 ClientIpWhiteList.load(clientIpWhitelist);
@@ -315,8 +337,8 @@ public class ConfigCacheService {
                     switchContent = config.getContent();
                 }
             } else {
-                switchContent = DiskUtil
-                        .getConfig(SwitchService.SWITCH_META_DATAID, "DEFAULT_GROUP", StringUtils.EMPTY);
+                switchContent = StringUtils.defaultString(ConfigDiskServiceFactory.getInstance()
+                        .getContent(SwitchService.SWITCH_META_DATAID, "DEFAULT_GROUP", StringUtils.EMPTY));
             }
             if (switchContent != null) {
                 SwitchService.load(switchContent);
@@ -341,7 +363,7 @@ public class ConfigCacheService {
             String group = dg[1];
             String tenant = dg[2];
             try {
-                String loacalMd5 = DiskUtil.getLocalConfigMd5(dataId, group, tenant);
+                String loacalMd5 = ConfigDiskServiceFactory.getInstance().getLocalConfigMd5(dataId, group, tenant);
                 if (!entry.getValue().md5.equals(loacalMd5)) {
                     DEFAULT_LOG.warn("[md5-different] dataId:{},group:{}", dataId, group);
                     diffList.add(groupKey);
@@ -381,8 +403,9 @@ public class ConfigCacheService {
         
         try {
             if (!PropertyUtil.isDirectRead()) {
-                DiskUtil.removeConfigInfo(dataId, group, tenant);
+                ConfigDiskServiceFactory.getInstance().removeConfigInfo(dataId, group, tenant);
             }
+            invalidateCachedContent(CACHE.get(groupKey));
             CACHE.remove(groupKey);
             NotifyCenter.publishEvent(new LocalDataChangeEvent(groupKey));
             
@@ -418,8 +441,9 @@ public class ConfigCacheService {
         
         try {
             if (!PropertyUtil.isDirectRead()) {
-                DiskUtil.removeConfigInfo4Beta(dataId, group, tenant);
+                ConfigDiskServiceFactory.getInstance().removeConfigInfo4Beta(dataId, group, tenant);
             }
+            invalidateCachedContent(groupKey, true, null);
             NotifyCenter.publishEvent(new LocalDataChangeEvent(groupKey, true, CACHE.get(groupKey).getIps4Beta()));
             CACHE.get(groupKey).setBeta(false);
             CACHE.get(groupKey).setIps4Beta(null);
@@ -457,8 +481,9 @@ public class ConfigCacheService {
         
         try {
             if (!PropertyUtil.isDirectRead()) {
-                DiskUtil.removeConfigInfo4Tag(dataId, group, tenant, tag);
+                ConfigDiskServiceFactory.getInstance().removeConfigInfo4Tag(dataId, group, tenant, tag);
             }
+            invalidateCachedContent(groupKey, false, tag);
             
             CacheItem ci = CACHE.get(groupKey);
             ci.tagMd5.remove(tag);
@@ -470,6 +495,181 @@ public class ConfigCacheService {
         }
     }
     
+    /**
+     * Get content from the in-memory content cache.
+     *
+     * @param groupKey groupKey string value.
+     * @param beta     whether to get the beta content.
+     * @param tag      tag string value, null for no tag.
+     * @param md5      md5 of current content in {@link CacheItem}.
+     * @return encoded content, or null if the cache is disabled, missed, or out of date.
+     */
+    public static byte[] getCachedContent(String groupKey, boolean beta, String tag, String md5) {
+        if (!PropertyUtil.isContentCacheEnabled()) {
+            return null;
+        }
+        return ContentCacheHolder.INSTANCE.get(groupKey, beta, tag, md5);
+    }
+    
+    /**
+     * Get content from the in-memory content cache as a string, the decoded string is kept in the cache.
+     *
+     * @param groupKey groupKey string value.
+     * @param beta     whether to get the beta content.
+     * @param tag      tag string value, null for no tag.
+     * @param md5      md5 of current content in {@link CacheItem}.
+     * @return content, or null if the cache is disabled, missed, or out of date.
+     */
+    public static String getCachedContentString(String groupKey, boolean beta, String tag, String md5) {
+        if (!PropertyUtil.isContentCacheEnabled()) {
+            return null;
+        }
+        return ContentCacheHolder.INSTANCE.getString(groupKey, beta, tag, md5);
+    }
+    
+    /**
+     * Put content read from disk or database into the in-memory content cache. The caller must hold the read lock of
+     * the groupKey, so the content can not be changed by a dump concurrently.
+     *
+     * @param groupKey groupKey string value.
+     * @param beta     whether the content is beta content.
+     * @param tag      tag string value, null for no tag.
+     * @param md5      md5 of the content.
+     * @param content  encoded content.
+     */
+    public static void cacheContent(String groupKey, boolean beta, String tag, String md5, byte[] content) {
+        if (PropertyUtil.isContentCacheEnabled()) {
+            ContentCacheHolder.INSTANCE.put(groupKey, beta, tag, md5, content);
+        }
+    }
+    
+    /**
+     * Put content read from disk or database into the in-memory content cache, see {@link #cacheContent(String,
+     * boolean, String, String, byte[])}.
+     *
+     * @param groupKey groupKey string value.
+     * @param beta     whether the content is beta content.
+     * @param tag      tag string value, null for no tag.
+     * @param md5      md5 of the content.
+     * @param content  content string value.
+     */
+    public static void cacheContent(String groupKey, boolean beta, String tag, String md5, String content) {
+        if (PropertyUtil.isContentCacheEnabled() && content != null) {
+            ContentCacheHolder.INSTANCE
+                    .put(groupKey, beta, tag, md5, content.getBytes(StandardCharsets.UTF_8), content);
+        }
+    }
+    
+    private static void refreshCachedContent(String groupKey, boolean beta, String tag, String md5, String content) {
+        if (PropertyUtil.isContentCacheEnabled() && content != null) {
+            ContentCacheHolder.INSTANCE
+                    .refresh(groupKey, beta, tag, md5, content.getBytes(StandardCharsets.UTF_8));
+        }
+    }
+    
+    private static void invalidateCachedContent(CacheItem item) {
+        if (item == null || !PropertyUtil.isContentCacheEnabled()) {
+            return;
+        }
+        ContentCacheHolder.INSTANCE.invalidate(item.getGroupKey(), false, null);
+        ContentCacheHolder.INSTANCE.invalidate(item.getGroupKey(), true, null);
+        Map<String, String> tagMd5 = item.getTagMd5();
+        if (tagMd5 != null) {
+            for (String tag : tagMd5.keySet()) {
+                ContentCacheHolder.INSTANCE.invalidate(item.getGroupKey(), false, tag);
+            }
+        }
+    }
+    
+    private static void invalidateCachedContent(String groupKey, boolean beta, String tag) {
+        if (PropertyUtil.isContentCacheEnabled()) {
+            ContentCacheHolder.INSTANCE.invalidate(groupKey, beta, tag);
+        }
+    }
+    
+    /**
+     * Get gzip compressed content to return to a client accepting it. The compressed formal content is kept in the
+     * {@link CacheItem} until the md5 changes.
+     *
+     * @param groupKey groupKey string value.
+     * @param beta     whether the content is beta content.
+     * @param tag      tag string value, null for no tag.
+     * @param md5      md5 of the content.
+     * @param content  content string value.
+     * @return compressed content, or null if the content is below {@link PropertyUtil#getContentCompressThreshold()}.
+     */
+    public static byte[] getCompressedContent(String groupKey, boolean beta, String tag, String md5, String content) {
+        int threshold = PropertyUtil.getContentCompressThreshold();
+        if (threshold <= 0 || content == null || content.length() * MAX_BYTES_PER_CHAR < threshold) {
+            return null;
+        }
+        byte[] compressed = getCachedCompressedContent(groupKey, beta, tag, md5);
+        if (compressed != null) {
+            return compressed;
+        }
+        return compressContent(groupKey, beta, tag, md5, content.getBytes(StandardCharsets.UTF_8), threshold);
+    }
+    
+    /**
+     * Get gzip compressed content of the encoded content, see {@link #getCompressedContent(String, boolean, String,
+     * String, String)}. Used when the content is already held as bytes, so it is never decoded.
+     *
+     * @param groupKey groupKey string value.
+     * @param beta     whether the content is beta content.
+     * @param tag      tag string value, null for no tag.
+     * @param md5      md5 of the content.
+     * @param content  encoded content.
+     * @return compressed content, or null if the content is below {@link PropertyUtil#getContentCompressThreshold()}.
+     */
+    public static byte[] getCompressedContent(String groupKey, boolean beta, String tag, String md5, byte[] content) {
+        int threshold = PropertyUtil.getContentCompressThreshold();
+        if (threshold <= 0 || content == null || content.length < threshold) {
+            return null;
+        }
+        byte[] compressed = getCachedCompressedContent(groupKey, beta, tag, md5);
+        if (compressed != null) {
+            return compressed;
+        }
+        return compressContent(groupKey, beta, tag, md5, content, threshold);
+    }
+    
+    private static byte[] getCachedCompressedContent(String groupKey, boolean beta, String tag, String md5) {
+        if (beta || StringUtils.isNotBlank(tag)) {
+            return null;
+        }
+        CacheItem item = CACHE.get(groupKey);
+        CacheItem.CompressedContent compressed = item == null ? null : item.getCompressedContent();
+        if (compressed != null && compressed.getMd5().equals(md5)) {
+            return compressed.getContent();
+        }
+        return null;
+    }
+    
+    private static byte[] compressContent(String groupKey, boolean beta, String tag, String md5, byte[] raw,
+            int threshold) {
+        if (raw.length < threshold) {
+            return null;
+        }
+        final boolean formal = !beta && StringUtils.isBlank(tag);
+        CacheItem item = CACHE.get(groupKey);
+        byte[] compressed = gzip(raw);
+        if (formal && item != null && md5.equals(item.getMd5())) {
+            item.setCompressedContent(new CacheItem.CompressedContent(md5, compressed));
+        }
+        return compressed;
+    }
+    
+    private static byte[] gzip(byte[] raw) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(raw.length / 4);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(raw);
+        } catch (IOException e) {
+            // Never happens for in-memory streams.
+            throw new IllegalStateException(e);
+        }
+        return out.toByteArray();
+    }
+    
     /**
      * Update md5 value.
      *
@@ -482,6 +682,7 @@ public class ConfigCacheService {
         if (cache.md5 == null || !cache.md5.equals(md5)) {
             cache.md5 = md5;
             cache.lastModifiedTs = lastModifiedTs;
+            cache.setCompressedContent(null);
             NotifyCenter.publishEvent(new LocalDataChangeEvent(groupKey));
         }
     }
@@ -606,6 +807,10 @@ public class ConfigCacheService {
         return CACHE.get(groupKey);
     }
     
+    public static Collection<CacheItem> listContentCache() {
+        return Collections.unmodifiableCollection(CACHE.values());
+    }
+    
     public static long getLastModifiedTs(String groupKey) {
         CacheItem item = CACHE.get(groupKey);
         return (null != item) ? item.lastModifiedTs : 0L;
@@ -0,0 +1,340 @@
+/*
+ * Copyright 1999-2020 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.nacos.config.server.service;
+
+import com.alibaba.nacos.config.server.monitor.MetricsMonitor;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Size bounded in-memory tier of config content, kept beside {@link ConfigCacheService}.
+ *
+ * <p>Content is stored as encoded bytes together with its md5, so a reader only uses an entry when the md5 matches
+ * the one in the current {@link com.alibaba.nacos.config.server.model.CacheItem}; a stale entry is never served even if
+ * an invalidation is missed. The decoded string is kept beside the bytes once a reader needs it, and is counted in the
+ * byte budget too. The cache is split into segments, each one an access ordered {@link LinkedHashMap} with
+ * its own lock and a share of the byte budget, so eviction is LRU within a segment.
+ *
+ * @author Nacos
+ */
+public class ConfigContentCache {
+    
+    private static final int DEFAULT_SEGMENTS = 16;
+    
+    private static final int BYTES_PER_CHAR = 2;
+    
+    private final Segment[] segments;
+    
+    private final int segmentMask;
+    
+    public ConfigContentCache(long maxBytes) {
+        this(maxBytes, DEFAULT_SEGMENTS);
+    }
+    
+    public ConfigContentCache(long maxBytes, int segmentCount) {
+        int size = 1;
+        while (size < segmentCount) {
+            size <<= 1;
+        }
+        this.segments = new Segment[size];
+        this.segmentMask = size - 1;
+        for (int i = 0; i < size; i++) {
+            segments[i] = new Segment(maxBytes / size);
+        }
+    }
+    
+    /**
+     * Get cached content.
+     *
+     * @param groupKey groupKey
+     * @param beta     whether the beta content is required
+     * @param tag      tag of the content, null for no tag
+     * @param md5      md5 of the content the caller expects
+     * @return cached bytes, or null if not cached or the cached one is out of date
+     */
+    public byte[] get(String groupKey, boolean beta, String tag, String md5) {
+        if (md5 == null) {
+            return null;
+        }
+        ContentKey key = new ContentKey(groupKey, beta, tag);
+        ContentEntry entry = segmentFor(key).get(key);
+        if (entry != null && md5.equals(entry.md5)) {
+            MetricsMonitor.getContentCacheHit().increment();
+            return entry.content;
+        }
+        MetricsMonitor.getContentCacheMiss().increment();
+        return null;
+    }
+    
+    /**
+     * Get cached content as a string, decoding it once and keeping the string in the entry.
+     *
+     * @param groupKey groupKey
+     * @param beta     whether the beta content is required
+     * @param tag      tag of the content, null for no tag
+     * @param md5      md5 of the content the caller expects
+     * @return cached string, or null if not cached or the cached one is out of date
+     */
+    public String getString(String groupKey, boolean beta, String tag, String md5) {
+        if (md5 == null) {
+            return null;
+        }
+        ContentKey key = new ContentKey(groupKey, beta, tag);
+        Segment segment = segmentFor(key);
+        ContentEntry entry = segment.get(key);
+        if (entry == null || !md5.equals(entry.md5)) {
+            MetricsMonitor.getContentCacheMiss().increment();
+            return null;
+        }
+        MetricsMonitor.getContentCacheHit().increment();
+        String decoded = entry.decoded;
+        if (decoded == null) {
+            decoded = new String(entry.content, StandardCharsets.UTF_8);
+            segment.attachDecoded(key, entry, decoded);
+        }
+        return decoded;
+    }
+    
+    /**
+     * Put content into cache, evicting the least recently used entries of the segment if over budget.
+     *
+     * @param groupKey groupKey
+     * @param beta     whether the content is beta content
+     * @param tag      tag of the content, null for no tag
+     * @param md5      md5 of the content
+     * @param content  encoded content
+     */
+    public void put(String groupKey, boolean beta, String tag, String md5, byte[] content) {
+        put(groupKey, beta, tag, md5, content, null);
+    }
+    
+    /**
+     * Put content into cache together with its decoded string, see {@link #put(String, boolean, String, String,
+     * byte[])}.
+     *
+     * @param groupKey groupKey
+     * @param beta     whether the content is beta content
+     * @param tag      tag of the content, null for no tag
+     * @param md5      md5 of the content
+     * @param content  encoded content
+     * @param decoded  decoded content, null if not decoded
+     */
+    public void put(String groupKey, boolean beta, String tag, String md5, byte[] content, String decoded) {
+        if (md5 == null || content == null) {
+            return;
+        }
+        ContentKey key = new ContentKey(groupKey, beta, tag);
+        segmentFor(key).put(key, new ContentEntry(md5, content, decoded), false);
+    }
+    
+    /**
+     * Replace the cached content only if the key is already cached, so a full dump doesn't flood the cache with cold
+     * configs.
+     *
+     * @param groupKey groupKey
+     * @param beta     whether the content is beta content
+     * @param tag      tag of the content, null for no tag
+     * @param md5      md5 of the content
+     * @param content  encoded content
+     */
+    public void refresh(String groupKey, boolean beta, String tag, String md5, byte[] content) {
+        if (md5 == null || content == null) {
+            return;
+        }
+        ContentKey key = new ContentKey(groupKey, beta, tag);
+        segmentFor(key).put(key, new ContentEntry(md5, content, null), true);
+    }
+    
+    /**
+     * Remove cached content.
+     *
+     * @param groupKey groupKey
+     * @param beta     whether the content is beta content
+     * @param tag      tag of the content, null for no tag
+     */
+    public void invalidate(String groupKey, boolean beta, String tag) {
+        ContentKey key = new ContentKey(groupKey, beta, tag);
+        segmentFor(key).remove(key);
+    }
+    
+    /**
+     * Total bytes of cached content.
+     *
+     * @return cached bytes
+     */
+    public long usedBytes() {
+        long result = 0L;
+        for (Segment each : segments) {
+            result += each.usedBytes;
+        }
+        return result;
+    }
+    
+    private Segment segmentFor(ContentKey key) {
+        int hash = key.hashCode();
+        return segments[(hash ^ (hash >>> 16)) & segmentMask];
+    }
+    
+    private static final class Segment {
+        
+        private final ReentrantLock lock = new ReentrantLock();
+        
+        private final LinkedHashMap<ContentKey, ContentEntry> entries = new LinkedHashMap<>(16, 0.75f, true);
+        
+        private final long maxBytes;
+        
+        private volatile long usedBytes;
+        
+        Segment(long maxBytes) {
+            this.maxBytes = maxBytes;
+        }
+        
+        ContentEntry get(ContentKey key) {
+            lock.lock();
+            try {
+                return entries.get(key);
+            } finally {
+                lock.unlock();
+            }
+        }
+        
+        void put(ContentKey key, ContentEntry entry, boolean onlyIfPresent) {
+            if (entry.weight() > maxBytes) {
+                remove(key);
+                return;
+            }
+            lock.lock();
+            try {
+                if (onlyIfPresent && !entries.containsKey(key)) {
+                    return;
+                }
+                ContentEntry old = entries.put(key, entry);
+                addUsedBytes(entry.weight() - (old == null ? 0 : old.weight()));
+                evictIfNecessary();
+            } finally {
+                lock.unlock();
+            }
+        }
+        
+        void attachDecoded(ContentKey key, ContentEntry entry, String decoded) {
+            lock.lock();
+            try {
+                // The entry may have been replaced or evicted while decoding.
+                if (entries.get(key) != entry || entry.decoded != null) {
+                    return;
+                }
+                long before = entry.weight();
+                entry.decoded = decoded;
+                if (entry.weight() > maxBytes) {
+                    entry.decoded = null;
+                    return;
+                }
+                addUsedBytes(entry.weight() - before);
+                evictIfNecessary();
+            } finally {
+                lock.unlock();
+            }
+        }
+        
+        void remove(ContentKey key) {
+            lock.lock();
+            try {
+                ContentEntry old = entries.remove(key);
+                if (old != null) {
+                    addUsedBytes(-old.weight());
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+        
+        private void addUsedBytes(long delta) {
+            usedBytes += delta;
+            MetricsMonitor.getContentCacheBytesMonitor().addAndGet(delta);
+        }
+        
+        private void evictIfNecessary() {
+            Iterator<Map.Entry<ContentKey, ContentEntry>> iterator = entries.entrySet().iterator();
+            while (usedBytes > maxBytes && iterator.hasNext()) {
+                ContentEntry eldest = iterator.next().getValue();
+                iterator.remove();
+                addUsedBytes(-eldest.weight());
+                MetricsMonitor.getContentCacheEviction().increment();
+            }
+        }
+    }
+    
+    private static final class ContentEntry {
+        
+        final String md5;
+        
+        final byte[] content;
+        
+        /**
+         * Decoded content, only changed under the segment lock since it is counted in the segment bytes.
+         */
+        volatile String decoded;
+        
+        ContentEntry(String md5, byte[] content, String decoded) {
+            this.md5 = md5;
+            this.content = content;
+            this.decoded = decoded;
+        }
+        
+        long weight() {
+            String current = decoded;
+            return content.length + (current == null ? 0L : (long) current.length() * BYTES_PER_CHAR);
+        }
+    }
+    
+    private static final class ContentKey {
+        
+        final String groupKey;
+        
+        final boolean beta;
+        
+        final String tag;
+        
+        ContentKey(String groupKey, boolean beta, String tag) {
+            this.groupKey = groupKey;
+            this.beta = beta;
+            this.tag = tag;
+        }
+        
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            ContentKey that = (ContentKey) o;
+            return beta == that.beta && groupKey.equals(that.groupKey) && Objects.equals(tag, that.tag);
+        }
+        
+        @Override
+        public int hashCode() {
+            return Objects.hash(groupKey, beta, tag);
+        }
+    }
+}
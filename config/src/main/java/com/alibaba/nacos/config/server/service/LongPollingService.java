@@ -40,13 +40,10 @@ import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
-import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
-import java.util.Queue;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 
@@ -98,9 +95,13 @@ public class LongPollingService {
         SampleResult sampleResult = new SampleResult();
         Map<String, String> lisentersGroupkeyStatus = new HashMap<String, String>(50);
         
-        for (ClientLongPolling clientLongPolling : allSubs) {
-            if (clientLongPolling.clientMd5Map.containsKey(groupKey)) {
-                lisentersGroupkeyStatus.put(clientLongPolling.ip, clientLongPolling.clientMd5Map.get(groupKey));
+        Set<ClientLongPolling> subscribers = groupKeySubs.get(groupKey);
+        if (subscribers != null) {
+            for (ClientLongPolling clientLongPolling : subscribers) {
+                String md5 = clientLongPolling.clientMd5Map.get(groupKey);
+                if (md5 != null) {
+                    lisentersGroupkeyStatus.put(clientLongPolling.ip, md5);
+                }
             }
         }
         sampleResult.setLisentersGroupkeyStatus(lisentersGroupkeyStatus);
@@ -283,7 +284,7 @@ public class LongPollingService {
     
     @SuppressWarnings("PMD.ThreadPoolCreationRule")
     public LongPollingService() {
-        allSubs = new ConcurrentLinkedQueue<ClientLongPolling>();
+        allSubs = ConcurrentHashMap.newKeySet();
         
         ConfigExecutor.scheduleLongPolling(new StatTask(), 0L, 10L, TimeUnit.SECONDS);
         
@@ -320,7 +321,49 @@ public class LongPollingService {
     /**
      * ClientLongPolling subscibers.
      */
-    final Queue<ClientLongPolling> allSubs;
+    final Set<ClientLongPolling> allSubs;
+    
+    /**
+     * groupKey -> ClientLongPolling subscribers waiting on it.
+     */
+    private final ConcurrentHashMap<String, Set<ClientLongPolling>> groupKeySubs = new ConcurrentHashMap<>();
+    
+    /**
+     * Add a waiting subscriber and index it by every group key it listens to.
+     *
+     * @param clientSub subscriber
+     */
+    void addSubscriber(final ClientLongPolling clientSub) {
+        allSubs.add(clientSub);
+        for (String groupKey : clientSub.clientMd5Map.keySet()) {
+            groupKeySubs.compute(groupKey, (key, subscribers) -> {
+                Set<ClientLongPolling> result =
+                        subscribers == null ? ConcurrentHashMap.<ClientLongPolling>newKeySet() : subscribers;
+                result.add(clientSub);
+                return result;
+            });
+        }
+    }
+    
+    /**
+     * Remove a subscriber and its group key indexes. Only the first caller for a subscriber gets {@code true}, so a
+     * change and a timeout can not both respond to the same request.
+     *
+     * @param clientSub subscriber
+     * @return true if the subscriber was still waiting and is removed by this call
+     */
+    boolean removeSubscriber(final ClientLongPolling clientSub) {
+        if (!allSubs.remove(clientSub)) {
+            return false;
+        }
+        for (String groupKey : clientSub.clientMd5Map.keySet()) {
+            groupKeySubs.computeIfPresent(groupKey, (key, subscribers) -> {
+                subscribers.remove(clientSub);
+                return subscribers.isEmpty() ? null : subscribers;
+            });
+        }
+        return true;
+    }
     
     class DataChangeTask implements Runnable {
         
@@ -328,28 +371,31 @@ public class LongPollingService {
         public void run() {
             try {
                 ConfigCacheService.getContentBetaMd5(groupKey);
-                for (Iterator<ClientLongPolling> iter = allSubs.iterator(); iter.hasNext(); ) {
-                    ClientLongPolling clientSub = iter.next();
-                    if (clientSub.clientMd5Map.containsKey(groupKey)) {
-                        // If published tag is not in the beta list, then it skipped.
-                        if (isBeta && !CollectionUtils.contains(betaIps, clientSub.ip)) {
-                            continue;
-                        }
-                        
-                        // If published tag is not in the tag list, then it skipped.
-                        if (StringUtils.isNotBlank(tag) && !tag.equals(clientSub.tag)) {
-                            continue;
-                        }
-                        
-                        getRetainIps().put(clientSub.ip, System.currentTimeMillis());
-                        iter.remove(); // Delete subscribers' relationships.
-                        LogUtil.CLIENT_LOG
-                                .info("{}|{}|{}|{}|{}|{}|{}", (System.currentTimeMillis() - changeTime), "in-advance",
-                                        RequestUtil
-                                                .getRemoteIp((HttpServletRequest) clientSub.asyncContext.getRequest()),
-                                        "polling", clientSub.clientMd5Map.size(), clientSub.probeRequestSize, groupKey);
-                        clientSub.sendResponse(Arrays.asList(groupKey));
+                Set<ClientLongPolling> subscribers = groupKeySubs.get(groupKey);
+                if (subscribers == null) {
+                    return;
+                }
+                for (ClientLongPolling clientSub : subscribers) {
+                    // If published tag is not in the beta list, then it skipped.
+                    if (isBeta && !CollectionUtils.contains(betaIps, clientSub.ip)) {
+                        continue;
+                    }
+                    
+                    // If published tag is not in the tag list, then it skipped.
+                    if (StringUtils.isNotBlank(tag) && !tag.equals(clientSub.tag)) {
+                        continue;
+                    }
+                    
+                    // Delete subscribers' relationships.
+                    if (!removeSubscriber(clientSub)) {
+                        continue;
                     }
+                    getRetainIps().put(clientSub.ip, System.currentTimeMillis());
+                    LogUtil.CLIENT_LOG
+                            .info("{}|{}|{}|{}|{}|{}|{}", (System.currentTimeMillis() - changeTime), "in-advance",
+                                    RequestUtil.getRemoteIp((HttpServletRequest) clientSub.asyncContext.getRequest()),
+                                    "polling", clientSub.clientMd5Map.size(), clientSub.probeRequestSize, groupKey);
+                    clientSub.sendResponse(Arrays.asList(groupKey));
                 }
                 
             } catch (Throwable t) {
@@ -399,7 +445,7 @@ public class LongPollingService {
                         getRetainIps().put(ClientLongPolling.this.ip, System.currentTimeMillis());
                         
                         // Delete subscriber's relations.
-                        boolean removeFlag = allSubs.remove(ClientLongPolling.this);
+                        boolean removeFlag = removeSubscriber(ClientLongPolling.this);
                         
                         if (removeFlag) {
                             if (isFixedPolling()) {
@@ -433,7 +479,7 @@ public class LongPollingService {
                 
             }, timeoutTime, TimeUnit.MILLISECONDS);
             
-            allSubs.add(this);
+            addSubscriber(this);
         }
         
         void sendResponse(List<String> changedGroups) {
@@ -0,0 +1,128 @@
+/*
+ * Copyright 1999-2020 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.nacos.config.server.service.dump;
+
+import com.alibaba.nacos.common.utils.JacksonUtils;
+import com.alibaba.nacos.common.utils.StringUtils;
+import com.alibaba.nacos.config.server.model.CacheItem;
+import com.alibaba.nacos.config.server.model.DumpCheckpoint;
+import com.alibaba.nacos.config.server.service.ConfigCacheService;
+import com.alibaba.nacos.config.server.utils.LogUtil;
+import com.alibaba.nacos.config.server.utils.PropertyUtil;
+import com.alibaba.nacos.sys.env.EnvUtil;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * Persists the {@link DumpCheckpoint} of the local dump.
+ *
+ * <p>The checkpoint is written to a temp file first and then moved over the old one, so a crash while saving leaves
+ * the previous checkpoint intact.
+ *
+ * @author Nacos
+ */
+public class DumpCheckpointStore {
+    
+    static final String CHECKPOINT_FILE = "data" + File.separator + "config-checkpoint" + File.separator
+            + "checkpoint.json";
+    
+    private final File file;
+    
+    public DumpCheckpointStore() {
+        this(new File(EnvUtil.getNacosHome(), CHECKPOINT_FILE));
+    }
+    
+    public DumpCheckpointStore(File file) {
+        this.file = file;
+    }
+    
+    /**
+     * Take a checkpoint of the configs in {@link ConfigCacheService}.
+     *
+     * <p>The max id must be queried before taking the snapshot, so that every config inserted after it is loaded
+     * again on restart.
+     *
+     * @param maxId max id of config_info
+     * @return checkpoint
+     */
+    public DumpCheckpoint snapshot(long maxId) {
+        DumpCheckpoint checkpoint = new DumpCheckpoint();
+        checkpoint.setMaxId(maxId);
+        checkpoint.setDiskType(PropertyUtil.getConfigDiskType());
+        long lastModified = 0L;
+        for (CacheItem item : ConfigCacheService.listContentCache()) {
+            String md5 = item.getMd5();
+            if (StringUtils.isBlank(md5)) {
+                // Only beta or tag config exists.
+                continue;
+            }
+            long itemLastModified = item.getLastModifiedTs();
+            checkpoint.getConfigs()
+                    .put(item.getGroupKey(), new DumpCheckpoint.Digest(md5, itemLastModified, item.getType()));
+            lastModified = Math.max(lastModified, itemLastModified);
+        }
+        checkpoint.setLastModified(lastModified);
+        return checkpoint;
+    }
+    
+    /**
+     * Save the checkpoint.
+     *
+     * @param checkpoint checkpoint
+     * @throws IOException if write failed
+     */
+    public void save(DumpCheckpoint checkpoint) throws IOException {
+        File parent = file.getParentFile();
+        if (!parent.exists() && !parent.mkdirs()) {
+            throw new IOException("create checkpoint dir failed: " + parent);
+        }
+        File tmp = new File(parent, file.getName() + ".tmp");
+        Files.write(tmp.toPath(), JacksonUtils.toJsonBytes(checkpoint));
+        Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        LogUtil.DUMP_LOG.info("[dump-checkpoint] saved, maxId={}, lastModified={}, count={}", checkpoint.getMaxId(),
+                checkpoint.getLastModified(), checkpoint.getConfigs().size());
+    }
+    
+    /**
+     * Load the checkpoint.
+     *
+     * @return checkpoint, null if not exist or broken
+     */
+    public DumpCheckpoint load() {
+        if (!file.exists()) {
+            return null;
+        }
+        try {
+            return JacksonUtils.toObj(Files.readAllBytes(file.toPath()), DumpCheckpoint.class);
+        } catch (Exception e) {
+            LogUtil.DUMP_LOG.warn("[dump-checkpoint] load {} failed, ignore it.", file, e);
+            return null;
+        }
+    }
+    
+    /**
+     * Delete the checkpoint.
+     */
+    public void delete() {
+        if (file.exists() && !file.delete()) {
+            LogUtil.DUMP_LOG.warn("[dump-checkpoint] delete {} failed.", file);
+        }
+    }
+}
@@ -18,13 +18,16 @@ package com.alibaba.nacos.config.server.service.dump;
 
 import com.alibaba.nacos.common.utils.StringUtils;
 import com.alibaba.nacos.common.notify.Event;
+import com.alibaba.nacos.common.notify.NotifyCenter;
 import com.alibaba.nacos.common.notify.listener.Subscriber;
 import com.alibaba.nacos.config.server.model.event.ConfigDumpEvent;
+import com.alibaba.nacos.config.server.model.event.ConfigDumpedEvent;
 import com.alibaba.nacos.config.server.service.AggrWhitelist;
 import com.alibaba.nacos.config.server.service.ClientIpWhiteList;
 import com.alibaba.nacos.config.server.service.ConfigCacheService;
 import com.alibaba.nacos.config.server.service.SwitchService;
 import com.alibaba.nacos.config.server.service.trace.ConfigTraceService;
+import com.alibaba.nacos.config.server.utils.PropertyUtil;
 
 /**
  * Dump config subscriber.
@@ -97,6 +100,9 @@ public class DumpConfigHandler extends Subscriber<ConfigDumpEvent> {
                             ConfigTraceService.DUMP_EVENT_REMOVE_OK, System.currentTimeMillis() - lastModified, 0);
                 }
             }
+            if (result && PropertyUtil.isConfigSearchIndexEnabled()) {
+                NotifyCenter.publishEvent(new ConfigDumpedEvent(dataId, group, namespaceId, event.isRemove()));
+            }
             return result;
         } else {
             //
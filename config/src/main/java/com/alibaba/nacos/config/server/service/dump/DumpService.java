@@ -22,17 +22,21 @@ import com.alibaba.nacos.common.utils.MD5Utils;
 import com.alibaba.nacos.common.utils.StringUtils;
 import com.alibaba.nacos.config.server.constant.Constants;
 import com.alibaba.nacos.config.server.manager.TaskManager;
+import com.alibaba.nacos.config.server.model.CacheItem;
 import com.alibaba.nacos.config.server.model.ConfigInfo;
 import com.alibaba.nacos.config.server.model.ConfigInfoAggr;
 import com.alibaba.nacos.config.server.model.ConfigInfoChanged;
 import com.alibaba.nacos.config.server.model.ConfigInfoWrapper;
+import com.alibaba.nacos.config.server.model.DumpCheckpoint;
 import com.alibaba.nacos.config.server.model.Page;
 import com.alibaba.nacos.config.server.service.ConfigCacheService;
 import com.alibaba.nacos.config.server.service.datasource.DynamicDataSource;
+import com.alibaba.nacos.config.server.service.dump.disk.ConfigDiskServiceFactory;
 import com.alibaba.nacos.config.server.service.dump.processor.DumpAllBetaProcessor;
 import com.alibaba.nacos.config.server.service.dump.processor.DumpAllProcessor;
 import com.alibaba.nacos.config.server.service.dump.processor.DumpAllTagProcessor;
 import com.alibaba.nacos.config.server.service.dump.processor.DumpChangeProcessor;
+import com.alibaba.nacos.config.server.service.dump.processor.DumpCheckpointProcessor;
 import com.alibaba.nacos.config.server.service.dump.processor.DumpProcessor;
 import com.alibaba.nacos.config.server.service.dump.task.DumpAllBetaTask;
 import com.alibaba.nacos.config.server.service.dump.task.DumpAllTagTask;
@@ -47,6 +51,7 @@ import com.alibaba.nacos.config.server.utils.DiskUtil;
 import com.alibaba.nacos.config.server.utils.GroupKey;
 import com.alibaba.nacos.config.server.utils.GroupKey2;
 import com.alibaba.nacos.config.server.utils.LogUtil;
+import com.alibaba.nacos.config.server.utils.PropertyUtil;
 import com.alibaba.nacos.config.server.utils.TimeUtils;
 import com.alibaba.nacos.core.cluster.ServerMemberManager;
 import com.alibaba.nacos.sys.env.EnvUtil;
@@ -62,8 +67,10 @@ import java.sql.Timestamp;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
 import java.util.Calendar;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Random;
+import java.util.Set;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 
@@ -120,6 +127,20 @@ public abstract class DumpService {
     
     Boolean isQuickStart = false;
     
+    /**
+     * checkpoint interval.
+     */
+    static final int CHECKPOINT_INTERVAL_IN_MINUTE = 10;
+    
+    /**
+     * checkpoint verify delay.
+     */
+    static final int CHECKPOINT_VERIFY_DELAY_IN_MINUTE = 1;
+    
+    static final int CHECKPOINT_VERIFY_PAGE_SIZE = 1000;
+    
+    private final DumpCheckpointStore checkpointStore = new DumpCheckpointStore();
+    
     private int retentionDays = 30;
     
     /**
@@ -206,13 +227,13 @@ public abstract class DumpService {
                 
                 // update Beta cache
                 LogUtil.DEFAULT_LOG.info("start clear all config-info-beta.");
-                DiskUtil.clearAllBeta();
+                ConfigDiskServiceFactory.getInstance().clearAllBeta();
                 if (persistService.isExistTable(BETA_TABLE_NAME)) {
                     dumpAllBetaProcessor.process(new DumpAllBetaTask());
                 }
                 // update Tag cache
                 LogUtil.DEFAULT_LOG.info("start clear all config-info-tag.");
-                DiskUtil.clearAllTag();
+                ConfigDiskServiceFactory.getInstance().clearAllTag();
                 if (persistService.isExistTable(TAG_TABLE_NAME)) {
                     dumpAllTagProcessor.process(new DumpAllTagTask());
                 }
@@ -262,6 +283,11 @@ public abstract class DumpService {
             }
             
             ConfigExecutor.scheduleConfigTask(clearConfigHistory, 10, 10, TimeUnit.MINUTES);
+            
+            if (PropertyUtil.isDumpCheckpointEnabled()) {
+                ConfigExecutor.scheduleConfigTask(this::saveCheckpoint, CHECKPOINT_INTERVAL_IN_MINUTE,
+                        CHECKPOINT_INTERVAL_IN_MINUTE, TimeUnit.MINUTES);
+            }
         } finally {
             TimerContext.end(dumpFileContext, LogUtil.DUMP_LOG);
         }
@@ -275,7 +301,7 @@ public abstract class DumpService {
         FileInputStream fis = null;
         Timestamp heartheatLastStamp = null;
         try {
-            if (isQuickStart()) {
+            if (isQuickStart() && !ConfigDiskServiceFactory.getInstance().isFullDumpRequired()) {
                 File heartbeatFile = DiskUtil.heartBeatFile();
                 if (heartbeatFile.exists()) {
                     fis = new FileInputStream(heartbeatFile);
@@ -287,30 +313,26 @@ public abstract class DumpService {
                     }
                 }
             }
-            if (isAllDump) {
+            DumpCheckpoint checkpoint = isAllDump ? loadCheckpoint() : null;
+            if (checkpoint != null) {
+                DumpCheckpointProcessor dumpCheckpointProcessor = new DumpCheckpointProcessor(this, checkpoint,
+                        TimeUtils.getCurrentTime());
+                dumpCheckpointProcessor.process(new DumpChangeTask());
+                saveCheckpoint();
+                ConfigExecutor.scheduleConfigTask(this::verifyCheckpoint, CHECKPOINT_VERIFY_DELAY_IN_MINUTE,
+                        TimeUnit.HOURS.toMinutes(12), TimeUnit.MINUTES);
+            } else if (isAllDump) {
+                // The checkpoint is stale as soon as the dump is cleared.
+                checkpointStore.delete();
                 LogUtil.DEFAULT_LOG.info("start clear all config-info.");
-                DiskUtil.clearAll();
+                ConfigDiskServiceFactory.getInstance().clearAll();
                 dumpAllProcessor.process(new DumpAllTask());
             } else {
                 Timestamp beforeTimeStamp = getBeforeStamp(heartheatLastStamp, timeStep);
                 DumpChangeProcessor dumpChangeProcessor = new DumpChangeProcessor(this, beforeTimeStamp,
                         TimeUtils.getCurrentTime());
                 dumpChangeProcessor.process(new DumpChangeTask());
-                Runnable checkMd5Task = () -> {
-                    LogUtil.DEFAULT_LOG.error("start checkMd5Task");
-                    List<String> diffList = ConfigCacheService.checkMd5();
-                    for (String groupKey : diffList) {
-                        String[] dg = GroupKey.parseKey(groupKey);
-                        String dataId = dg[0];
-                        String group = dg[1];
-                        String tenant = dg[2];
-                        ConfigInfoWrapper configInfo = persistService.queryConfigInfo(dataId, group, tenant);
-                        ConfigCacheService.dumpChange(dataId, group, tenant, configInfo.getContent(),
-                                configInfo.getLastModified());
-                    }
-                    LogUtil.DEFAULT_LOG.error("end checkMd5Task");
-                };
-                ConfigExecutor.scheduleConfigTask(checkMd5Task, 0, 12, TimeUnit.HOURS);
+                ConfigExecutor.scheduleConfigTask(this::checkMd5, 0, 12, TimeUnit.HOURS);
             }
         } catch (IOException e) {
             LogUtil.FATAL_LOG.error("dump config fail" + e.getMessage());
@@ -326,6 +348,104 @@ public abstract class DumpService {
         }
     }
     
+    private void checkMd5() {
+        LogUtil.DEFAULT_LOG.error("start checkMd5Task");
+        List<String> diffList = ConfigCacheService.checkMd5();
+        for (String groupKey : diffList) {
+            String[] dg = GroupKey.parseKey(groupKey);
+            String dataId = dg[0];
+            String group = dg[1];
+            String tenant = dg[2];
+            ConfigInfoWrapper configInfo = persistService.queryConfigInfo(dataId, group, tenant);
+            ConfigCacheService.dumpChange(dataId, group, tenant, configInfo.getContent(),
+                    configInfo.getLastModified());
+        }
+        LogUtil.DEFAULT_LOG.error("end checkMd5Task");
+    }
+    
+    private DumpCheckpoint loadCheckpoint() {
+        if (!PropertyUtil.isDumpCheckpointEnabled()) {
+            return null;
+        }
+        if (ConfigDiskServiceFactory.getInstance().isFullDumpRequired()) {
+            LogUtil.DEFAULT_LOG.warn("[dump-checkpoint] local config snapshot is lost, dump all.");
+            return null;
+        }
+        DumpCheckpoint checkpoint = checkpointStore.load();
+        if (checkpoint == null) {
+            return null;
+        }
+        if (!PropertyUtil.getConfigDiskType().equals(checkpoint.getDiskType())) {
+            LogUtil.DEFAULT_LOG.warn("[dump-checkpoint] disk type changed from {} to {}, dump all.",
+                    checkpoint.getDiskType(), PropertyUtil.getConfigDiskType());
+            return null;
+        }
+        // The deleted configs are found from the history, which is cleared after the retention days.
+        long age = TimeUtils.getCurrentTime().getTime() - checkpoint.getLastModified();
+        if (age > TimeUnit.DAYS.toMillis(getRetentionDays())) {
+            LogUtil.DEFAULT_LOG.warn("[dump-checkpoint] checkpoint is too old, lastModified:{}, dump all.",
+                    checkpoint.getLastModified());
+            return null;
+        }
+        return checkpoint;
+    }
+    
+    /**
+     * Save the checkpoint of the local dump, if enabled.
+     */
+    public void saveCheckpoint() {
+        if (!PropertyUtil.isDumpCheckpointEnabled()) {
+            return;
+        }
+        try {
+            checkpointStore.save(checkpointStore.snapshot(persistService.findConfigMaxId()));
+        } catch (Throwable e) {
+            LogUtil.DEFAULT_LOG.error("[dump-checkpoint] save checkpoint failed.", e);
+        }
+    }
+    
+    /**
+     * Verify the md5 restored from the checkpoint against the database, then verify the local dump files.
+     */
+    private void verifyCheckpoint() {
+        LogUtil.DEFAULT_LOG.warn("[dump-checkpoint] start verify");
+        long start = System.currentTimeMillis();
+        Set<String> groupKeys = new HashSet<String>();
+        int diffCount = 0;
+        int pageNo = 1;
+        List<ConfigInfoWrapper> page;
+        do {
+            page = persistService.listGroupKeyMd5ByPage(pageNo++, CHECKPOINT_VERIFY_PAGE_SIZE);
+            for (ConfigInfoWrapper each : page) {
+                String groupKey = GroupKey2.getKey(each.getDataId(), each.getGroup(), each.getTenant());
+                groupKeys.add(groupKey);
+                if (StringUtils.equals(each.getMd5(), ConfigCacheService.getContentMd5(groupKey))) {
+                    continue;
+                }
+                ConfigInfoWrapper configInfo = persistService
+                        .queryConfigInfo(each.getDataId(), each.getGroup(), each.getTenant());
+                if (configInfo != null) {
+                    diffCount++;
+                    ConfigCacheService.dump(configInfo.getDataId(), configInfo.getGroup(), configInfo.getTenant(),
+                            configInfo.getContent(), configInfo.getLastModified(), configInfo.getType());
+                }
+            }
+        } while (page.size() == CHECKPOINT_VERIFY_PAGE_SIZE);
+        for (CacheItem item : ConfigCacheService.listContentCache()) {
+            if (StringUtils.isBlank(item.getMd5()) || groupKeys.contains(item.getGroupKey())) {
+                continue;
+            }
+            String[] dg = GroupKey.parseKey(item.getGroupKey());
+            if (persistService.findConfigInfo(dg[0], dg[1], dg[2]) == null) {
+                diffCount++;
+                ConfigCacheService.remove(dg[0], dg[1], dg[2]);
+            }
+        }
+        LogUtil.DEFAULT_LOG.warn("[dump-checkpoint] end verify, diffCount:{}, cost:{}", diffCount,
+                System.currentTimeMillis() - start);
+        checkMd5();
+    }
+    
     private Timestamp getBeforeStamp(Timestamp date, int step) {
         Calendar cal = Calendar.getInstance();
         cal.setTime(date);
@@ -0,0 +1,229 @@
+/*
+ * Copyright 1999-2020 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.nacos.config.server.service.dump.disk;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Local snapshot store of dumped config content.
+ *
+ * @author Nacos
+ */
+public interface ConfigDiskService {
+    
+    /**
+     * Save configuration information to disk.
+     *
+     * @param dataId  dataId
+     * @param group   group
+     * @param tenant  tenant
+     * @param content content
+     * @throws IOException io exception
+     */
+    void saveToDisk(String dataId, String group, String tenant, String content) throws IOException;
+    
+    /**
+     * Save beta information to disk.
+     *
+     * @param dataId  dataId
+     * @param group   group
+     * @param tenant  tenant
+     * @param content content
+     * @throws IOException io exception
+     */
+    void saveBetaToDisk(String dataId, String group, String tenant, String content) throws IOException;
+    
+    /**
+     * Save tag information to disk.
+     *
+     * @param dataId  dataId
+     * @param group   group
+     * @param tenant  tenant
+     * @param tag     tag
+     * @param content content
+     * @throws IOException io exception
+     */
+    void saveTagToDisk(String dataId, String group, String tenant, String tag, String content) throws IOException;
+    
+    /**
+     * Deletes configuration on disk.
+     *
+     * @param dataId dataId
+     * @param group  group
+     * @param tenant tenant
+     */
+    void removeConfigInfo(String dataId, String group, String tenant);
+    
+    /**
+     * Deletes beta configuration on disk.
+     *
+     * @param dataId dataId
+     * @param group  group
+     * @param tenant tenant
+     */
+    void removeConfigInfo4Beta(String dataId, String group, String tenant);
+    
+    /**
+     * Deletes tag configuration on disk.
+     *
+     * @param dataId dataId
+     * @param group  group
+     * @param tenant tenant
+     * @param tag    tag
+     */
+    void removeConfigInfo4Tag(String dataId, String group, String tenant, String tag);
+    
+    /**
+     * Get content of the configuration.
+     *
+     * @param dataId dataId
+     * @param group  group
+     * @param tenant tenant
+     * @return content, null if not exist
+     * @throws IOException io exception
+     */
+    String getContent(String dataId, String group, String tenant) throws IOException;
+    
+    /**
+     * Get content of the beta configuration.
+     *
+     * @param dataId dataId
+     * @param group  group
+     * @param tenant tenant
+     * @return content, null if not exist
+     * @throws IOException io exception
+     */
+    String getBetaContent(String dataId, String group, String tenant) throws IOException;
+    
+    /**
+     * Get content of the tag configuration.
+     *
+     * @param dataId dataId
+     * @param group  group
+     * @param tenant tenant
+     * @param tag    tag
+     * @return content, null if not exist
+     * @throws IOException io exception
+     */
+    String getTagContent(String dataId, String group, String tenant, String tag) throws IOException;
+    
+    /**
+     * Get encoded content of the configuration, without decoding it to a string.
+     *
+     * @param dataId dataId
+     * @param group  group
+     * @param tenant tenant
+     * @return encoded content, null if not exist
+     * @throws IOException io exception
+     */
+    byte[] getContentBytes(String dataId, String group, String tenant) throws IOException;
+    
+    /**
+     * Get encoded content of the beta configuration, without decoding it to a string.
+     *
+     * @param dataId dataId
+     * @param group  group
+     * @param tenant tenant
+     * @return encoded content, null if not exist
+     * @throws IOException io exception
+     */
+    byte[] getBetaContentBytes(String dataId, String group, String tenant) throws IOException;
+    
+    /**
+     * Get encoded content of the tag configuration, without decoding it to a string.
+     *
+     * @param dataId dataId
+     * @param group  group
+     * @param tenant tenant
+     * @param tag    tag
+     * @return encoded content, null if not exist
+     * @throws IOException io exception
+     */
+    byte[] getTagContentBytes(String dataId, String group, String tenant, String tag) throws IOException;
+    
+    /**
+     * Write encoded content of the configuration to the output stream.
+     *
+     * @param dataId dataId
+     * @param group  group
+     * @param tenant tenant
+     * @param out    output stream
+     * @return false if not exist, nothing is written then
+     * @throws IOException io exception
+     */
+    boolean writeContentTo(String dataId, String group, String tenant, OutputStream out) throws IOException;
+    
+    /**
+     * Write encoded content of the beta configuration to the output stream.
+     *
+     * @param dataId dataId
+     * @param group  group
+     * @param tenant tenant
+     * @param out    output stream
+     * @return false if not exist, nothing is written then
+     * @throws IOException io exception
+     */
+    boolean writeBetaContentTo(String dataId, String group, String tenant, OutputStream out) throws IOException;
+    
+    /**
+     * Write encoded content of the tag configuration to the output stream.
+     *
+     * @param dataId dataId
+     * @param group  group
+     * @param tenant tenant
+     * @param tag    tag
+     * @param out    output stream
+     * @return false if not exist, nothing is written then
+     * @throws IOException io exception
+     */
+    boolean writeTagContentTo(String dataId, String group, String tenant, String tag, OutputStream out)
+            throws IOException;
+    
+    /**
+     * Get md5 of the local configuration, md5 of empty string if not exist.
+     *
+     * @param dataId dataId
+     * @param group  group
+     * @param tenant tenant
+     * @return md5
+     * @throws IOException io exception
+     */
+    String getLocalConfigMd5(String dataId, String group, String tenant) throws IOException;
+    
+    /**
+     * Whether the local snapshot was lost when loaded, so it can not be used as the base of an incremental dump.
+     *
+     * @return true if a full dump is required
+     */
+    boolean isFullDumpRequired();
+    
+    /**
+     * Clear all configurations.
+     */
+    void clearAll();
+    
+    /**
+     * Clear all beta configurations.
+     */
+    void clearAllBeta();
+    
+    /**
+     * Clear all tag configurations.
+     */
+    void clearAllTag();
+}
@@ -0,0 +1,71 @@
+/*
+ * Copyright 1999-2020 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.nacos.config.server.service.dump.disk;
+
+import com.alibaba.nacos.api.exception.NacosException;
+import com.alibaba.nacos.api.exception.runtime.NacosRuntimeException;
+import com.alibaba.nacos.config.server.utils.ConfigExecutor;
+import com.alibaba.nacos.config.server.utils.LogUtil;
+import com.alibaba.nacos.config.server.utils.PropertyUtil;
+import com.alibaba.nacos.sys.env.EnvUtil;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Factory of {@link ConfigDiskService}, the implementation is chosen by {@link PropertyUtil#getConfigDiskType()}.
+ *
+ * @author Nacos
+ */
+public class ConfigDiskServiceFactory {
+    
+    public static final String TYPE_RAW_DISK = "rawdisk";
+    
+    public static final String TYPE_SEGMENT = "segment";
+    
+    private static final long SEGMENT_SIZE = 64 * 1024 * 1024;
+    
+    private static final long COMPACT_INTERVAL_MINUTES = 5L;
+    
+    public static ConfigDiskService getInstance() {
+        return ConfigDiskServiceHolder.INSTANCE;
+    }
+    
+    private static ConfigDiskService createConfigDiskService() {
+        String type = PropertyUtil.getConfigDiskType();
+        if (!TYPE_SEGMENT.equalsIgnoreCase(type)) {
+            LogUtil.DEFAULT_LOG.info("[config-disk] use raw disk config service.");
+            return new ConfigRawDiskServiceImpl();
+        }
+        try {
+            final ConfigSegmentDiskServiceImpl service = new ConfigSegmentDiskServiceImpl(
+                    new File(EnvUtil.getNacosHome(), ConfigSegmentDiskServiceImpl.SEGMENT_DIR), SEGMENT_SIZE);
+            ConfigExecutor.scheduleConfigTask(service::compact, COMPACT_INTERVAL_MINUTES, COMPACT_INTERVAL_MINUTES,
+                    TimeUnit.MINUTES);
+            LogUtil.DEFAULT_LOG.info("[config-disk] use segment config service.");
+            return service;
+        } catch (IOException e) {
+            throw new NacosRuntimeException(NacosException.SERVER_ERROR, "load config segment store failed", e);
+        }
+    }
+    
+    private static class ConfigDiskServiceHolder {
+        
+        private static final ConfigDiskService INSTANCE = createConfigDiskService();
+    }
+}
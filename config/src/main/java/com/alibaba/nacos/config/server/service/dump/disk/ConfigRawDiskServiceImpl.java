@@ -0,0 +1,170 @@
+/*
+ * Copyright 1999-2020 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.nacos.config.server.service.dump.disk;
+
+import com.alibaba.nacos.config.server.constant.Constants;
+import com.alibaba.nacos.config.server.utils.DiskUtil;
+import org.apache.commons.io.FileUtils;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * Config disk service which keeps one file per config, the layout used before segment files were introduced.
+ *
+ * @author Nacos
+ */
+public class ConfigRawDiskServiceImpl implements ConfigDiskService {
+    
+    @Override
+    public void saveToDisk(String dataId, String group, String tenant, String content) throws IOException {
+        DiskUtil.saveToDisk(dataId, group, tenant, content);
+    }
+    
+    @Override
+    public void saveBetaToDisk(String dataId, String group, String tenant, String content) throws IOException {
+        DiskUtil.saveBetaToDisk(dataId, group, tenant, content);
+    }
+    
+    @Override
+    public void saveTagToDisk(String dataId, String group, String tenant, String tag, String content)
+            throws IOException {
+        DiskUtil.saveTagToDisk(dataId, group, tenant, tag, content);
+    }
+    
+    @Override
+    public void removeConfigInfo(String dataId, String group, String tenant) {
+        DiskUtil.removeConfigInfo(dataId, group, tenant);
+    }
+    
+    @Override
+    public void removeConfigInfo4Beta(String dataId, String group, String tenant) {
+        DiskUtil.removeConfigInfo4Beta(dataId, group, tenant);
+    }
+    
+    @Override
+    public void removeConfigInfo4Tag(String dataId, String group, String tenant, String tag) {
+        DiskUtil.removeConfigInfo4Tag(dataId, group, tenant, tag);
+    }
+    
+    @Override
+    public String getContent(String dataId, String group, String tenant) throws IOException {
+        return readContent(DiskUtil.targetFile(dataId, group, tenant));
+    }
+    
+    @Override
+    public String getBetaContent(String dataId, String group, String tenant) throws IOException {
+        return readContent(DiskUtil.targetBetaFile(dataId, group, tenant));
+    }
+    
+    @Override
+    public String getTagContent(String dataId, String group, String tenant, String tag) throws IOException {
+        return readContent(DiskUtil.targetTagFile(dataId, group, tenant, tag));
+    }
+    
+    @Override
+    public byte[] getContentBytes(String dataId, String group, String tenant) throws IOException {
+        return readContentBytes(DiskUtil.targetFile(dataId, group, tenant));
+    }
+    
+    @Override
+    public byte[] getBetaContentBytes(String dataId, String group, String tenant) throws IOException {
+        return readContentBytes(DiskUtil.targetBetaFile(dataId, group, tenant));
+    }
+    
+    @Override
+    public byte[] getTagContentBytes(String dataId, String group, String tenant, String tag) throws IOException {
+        return readContentBytes(DiskUtil.targetTagFile(dataId, group, tenant, tag));
+    }
+    
+    @Override
+    public boolean writeContentTo(String dataId, String group, String tenant, OutputStream out) throws IOException {
+        return transferContent(DiskUtil.targetFile(dataId, group, tenant), out);
+    }
+    
+    @Override
+    public boolean writeBetaContentTo(String dataId, String group, String tenant, OutputStream out)
+            throws IOException {
+        return transferContent(DiskUtil.targetBetaFile(dataId, group, tenant), out);
+    }
+    
+    @Override
+    public boolean writeTagContentTo(String dataId, String group, String tenant, String tag, OutputStream out)
+            throws IOException {
+        return transferContent(DiskUtil.targetTagFile(dataId, group, tenant, tag), out);
+    }
+    
+    @Override
+    public String getLocalConfigMd5(String dataId, String group, String tenant) throws IOException {
+        return DiskUtil.getLocalConfigMd5(dataId, group, tenant);
+    }
+    
+    @Override
+    public boolean isFullDumpRequired() {
+        return false;
+    }
+    
+    @Override
+    public void clearAll() {
+        DiskUtil.clearAll();
+    }
+    
+    @Override
+    public void clearAllBeta() {
+        DiskUtil.clearAllBeta();
+    }
+    
+    @Override
+    public void clearAllTag() {
+        DiskUtil.clearAllTag();
+    }
+    
+    private static String readContent(File file) throws IOException {
+        if (!file.exists()) {
+            return null;
+        }
+        return FileUtils.readFileToString(file, Constants.ENCODE);
+    }
+    
+    private static byte[] readContentBytes(File file) throws IOException {
+        if (!file.exists()) {
+            return null;
+        }
+        return FileUtils.readFileToByteArray(file);
+    }
+    
+    private static boolean transferContent(File file, OutputStream out) throws IOException {
+        if (!file.exists()) {
+            return false;
+        }
+        try (FileInputStream fis = new FileInputStream(file)) {
+            FileChannel channel = fis.getChannel();
+            WritableByteChannel target = Channels.newChannel(out);
+            long size = channel.size();
+            long position = 0L;
+            while (position < size) {
+                position += channel.transferTo(position, size - position, target);
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,666 @@
+/*
+ * Copyright 1999-2020 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.nacos.config.server.service.dump.disk;
+
+import com.alibaba.nacos.common.utils.MD5Utils;
+import com.alibaba.nacos.config.server.constant.Constants;
+import com.alibaba.nacos.config.server.utils.GroupKey2;
+import com.alibaba.nacos.config.server.utils.LogUtil;
+import org.apache.commons.lang3.StringUtils;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.CRC32;
+
+/**
+ * Config disk service which appends all configs to a few segment files instead of one file per config.
+ *
+ * <p>Every save or remove appends a record to the active segment, and an in-memory index maps each config to the
+ * position of its latest record. Segments are preallocated and memory mapped, so reads never touch the file channel;
+ * when the active segment is full it is sealed and a new one is created. Sealed segments whose live data drops under
+ * {@link #COMPACT_LIVE_RATIO} are compacted in the background by copying the live records to the active segment and
+ * deleting the old file; a tombstone is only copied while an older segment still holds a put of its key. Clearing a
+ * type of configs rolls to a new segment holding only the other live records. On startup the index is rebuilt by
+ * scanning the segments in order; a torn record at the tail of the last segment is truncated, while a broken sealed
+ * segment discards the whole store and asks for a full dump.
+ *
+ * <p>Record layout: magic(4) | op(1) | keyLength(4) | valueLength(4) | crc32(4) | key | value.
+ *
+ * @author Nacos
+ */
+public class ConfigSegmentDiskServiceImpl implements ConfigDiskService {
+    
+    static final String SEGMENT_DIR = "data" + File.separator + "config-segment";
+    
+    private static final String SEGMENT_PREFIX = "segment-";
+    
+    private static final String SEGMENT_SUFFIX = ".dat";
+    
+    private static final int RECORD_MAGIC = 0x4E435347;
+    
+    private static final byte OP_PUT = 1;
+    
+    private static final byte OP_DELETE = 2;
+    
+    private static final int HEADER_SIZE = 17;
+    
+    private static final double COMPACT_LIVE_RATIO = 0.5D;
+    
+    private static final char FORMAL = 'F';
+    
+    private static final char BETA = 'B';
+    
+    private static final char TAG = 'T';
+    
+    private final File baseDir;
+    
+    private final long maxSegmentBytes;
+    
+    private final ConcurrentHashMap<String, Location> index = new ConcurrentHashMap<>();
+    
+    private final ConcurrentSkipListMap<Long, Segment> segments = new ConcurrentSkipListMap<>();
+    
+    private final ReentrantLock writeLock = new ReentrantLock();
+    
+    private volatile Segment active;
+    
+    private volatile boolean discarded;
+    
+    public ConfigSegmentDiskServiceImpl(File baseDir, long maxSegmentBytes) throws IOException {
+        this.baseDir = baseDir;
+        this.maxSegmentBytes = Math.min(maxSegmentBytes, Integer.MAX_VALUE);
+        load();
+    }
+    
+    @Override
+    public void saveToDisk(String dataId, String group, String tenant, String content) throws IOException {
+        put(key(FORMAL, dataId, group, tenant, null), content);
+    }
+    
+    @Override
+    public void saveBetaToDisk(String dataId, String group, String tenant, String content) throws IOException {
+        put(key(BETA, dataId, group, tenant, null), content);
+    }
+    
+    @Override
+    public void saveTagToDisk(String dataId, String group, String tenant, String tag, String content)
+            throws IOException {
+        put(key(TAG, dataId, group, tenant, tag), content);
+    }
+    
+    @Override
+    public void removeConfigInfo(String dataId, String group, String tenant) {
+        remove(key(FORMAL, dataId, group, tenant, null));
+    }
+    
+    @Override
+    public void removeConfigInfo4Beta(String dataId, String group, String tenant) {
+        remove(key(BETA, dataId, group, tenant, null));
+    }
+    
+    @Override
+    public void removeConfigInfo4Tag(String dataId, String group, String tenant, String tag) {
+        remove(key(TAG, dataId, group, tenant, tag));
+    }
+    
+    @Override
+    public String getContent(String dataId, String group, String tenant) throws IOException {
+        return get(key(FORMAL, dataId, group, tenant, null));
+    }
+    
+    @Override
+    public String getBetaContent(String dataId, String group, String tenant) throws IOException {
+        return get(key(BETA, dataId, group, tenant, null));
+    }
+    
+    @Override
+    public String getTagContent(String dataId, String group, String tenant, String tag) throws IOException {
+        return get(key(TAG, dataId, group, tenant, tag));
+    }
+    
+    @Override
+    public byte[] getContentBytes(String dataId, String group, String tenant) throws IOException {
+        return getBytes(key(FORMAL, dataId, group, tenant, null));
+    }
+    
+    @Override
+    public byte[] getBetaContentBytes(String dataId, String group, String tenant) throws IOException {
+        return getBytes(key(BETA, dataId, group, tenant, null));
+    }
+    
+    @Override
+    public byte[] getTagContentBytes(String dataId, String group, String tenant, String tag) throws IOException {
+        return getBytes(key(TAG, dataId, group, tenant, tag));
+    }
+    
+    @Override
+    public boolean writeContentTo(String dataId, String group, String tenant, OutputStream out) throws IOException {
+        return writeValue(getContentBytes(dataId, group, tenant), out);
+    }
+    
+    @Override
+    public boolean writeBetaContentTo(String dataId, String group, String tenant, OutputStream out)
+            throws IOException {
+        return writeValue(getBetaContentBytes(dataId, group, tenant), out);
+    }
+    
+    @Override
+    public boolean writeTagContentTo(String dataId, String group, String tenant, String tag, OutputStream out)
+            throws IOException {
+        return writeValue(getTagContentBytes(dataId, group, tenant, tag), out);
+    }
+    
+    @Override
+    public String getLocalConfigMd5(String dataId, String group, String tenant) throws IOException {
+        String content = getContent(dataId, group, tenant);
+        return MD5Utils.md5Hex(content == null ? StringUtils.EMPTY : content, Constants.ENCODE);
+    }
+    
+    /**
+     * A sealed segment found broken on startup discards the whole store, since the configs behind the broken record
+     * are unknown, so a full dump is required to rebuild it.
+     */
+    @Override
+    public boolean isFullDumpRequired() {
+        return discarded;
+    }
+    
+    @Override
+    public void clearAll() {
+        clear(FORMAL);
+    }
+    
+    @Override
+    public void clearAllBeta() {
+        clear(BETA);
+    }
+    
+    @Override
+    public void clearAllTag() {
+        clear(TAG);
+    }
+    
+    /**
+     * Compact sealed segments which are mostly garbage.
+     */
+    public synchronized void compact() {
+        for (Segment segment : new ArrayList<>(segments.values())) {
+            if (segment == active || !isGarbage(segment)) {
+                continue;
+            }
+            try {
+                compactSegment(segment);
+            } catch (IOException e) {
+                LogUtil.DEFAULT_LOG.error("[segment-store] compact segment {} failed.", segment.file, e);
+            }
+        }
+    }
+    
+    private boolean isGarbage(Segment segment) {
+        return segment.liveBytes == 0 || segment.liveBytes < segment.size * COMPACT_LIVE_RATIO;
+    }
+    
+    int segmentCount() {
+        return segments.size();
+    }
+    
+    static String key(char type, String dataId, String group, String tenant, String tag) {
+        StringBuilder sb = new StringBuilder().append(type).append(GroupKey2.getKey(dataId, group, tenant));
+        if (TAG == type) {
+            sb.append('+').append(tag.replace("%", "%25").replace("+", "%2B"));
+        }
+        return sb.toString();
+    }
+    
+    private String get(String key) throws IOException {
+        byte[] value = getBytes(key);
+        return value == null ? null : new String(value, StandardCharsets.UTF_8);
+    }
+    
+    private byte[] getBytes(String key) throws IOException {
+        Location location = index.get(key);
+        if (location == null) {
+            return null;
+        }
+        return location.segment.read(location.valueOffset, location.valueLength);
+    }
+    
+    private static boolean writeValue(byte[] value, OutputStream out) throws IOException {
+        if (value == null) {
+            return false;
+        }
+        out.write(value);
+        return true;
+    }
+    
+    private void put(String key, String content) throws IOException {
+        byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+        byte[] value = content.getBytes(StandardCharsets.UTF_8);
+        writeLock.lock();
+        try {
+            Location location = append(OP_PUT, keyBytes, value);
+            location.segment.liveBytes += location.recordLength;
+            release(index.put(key, location));
+        } finally {
+            writeLock.unlock();
+        }
+    }
+    
+    private void remove(String key) {
+        writeLock.lock();
+        try {
+            if (!index.containsKey(key)) {
+                return;
+            }
+            append(OP_DELETE, key.getBytes(StandardCharsets.UTF_8), new byte[0]);
+            release(index.remove(key));
+        } catch (IOException e) {
+            LogUtil.DEFAULT_LOG.error("[segment-store] remove {} failed.", key, e);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+    
+    private synchronized void clear(char type) {
+        if (index.keySet().stream().noneMatch(key -> key.charAt(0) == type)) {
+            return;
+        }
+        writeLock.lock();
+        try {
+            // Start a new segment, copy the live records of other types into it and drop all older segments, instead
+            // of writing a tombstone for every cleared config.
+            final List<Segment> olds = new ArrayList<>(segments.values());
+            roll(0);
+            for (Map.Entry<String, Location> entry : new ArrayList<>(index.entrySet())) {
+                String key = entry.getKey();
+                if (key.charAt(0) == type) {
+                    index.remove(key);
+                    continue;
+                }
+                Location old = entry.getValue();
+                byte[] value = old.segment.read(old.valueOffset, old.valueLength);
+                Location location = append(OP_PUT, key.getBytes(StandardCharsets.UTF_8), value);
+                location.segment.liveBytes += location.recordLength;
+                index.put(key, location);
+            }
+            active.force();
+            // Delete from the oldest, so a crash in between leaves a suffix of the log which replays correctly.
+            for (Segment each : olds) {
+                segments.remove(each.id);
+                if (!each.file.delete()) {
+                    LogUtil.DEFAULT_LOG.warn("[segment-store] delete cleared segment {} failed.", each.file);
+                }
+            }
+        } catch (IOException e) {
+            LogUtil.DEFAULT_LOG.error("[segment-store] clear type {} failed.", type, e);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+    
+    private void release(Location old) {
+        if (old != null) {
+            old.segment.liveBytes -= old.recordLength;
+        }
+    }
+    
+    private Location append(byte op, byte[] key, byte[] value) throws IOException {
+        int recordLength = HEADER_SIZE + key.length + value.length;
+        if (active.size + recordLength > active.capacity()) {
+            roll(recordLength);
+        }
+        CRC32 crc32 = new CRC32();
+        crc32.update(key);
+        crc32.update(value);
+        ByteBuffer buffer = ByteBuffer.allocate(recordLength);
+        buffer.putInt(RECORD_MAGIC).put(op).putInt(key.length).putInt(value.length).putInt((int) crc32.getValue());
+        buffer.put(key).put(value).flip();
+        long offset = active.size;
+        active.write(buffer, offset);
+        active.size += recordLength;
+        return new Location(active, offset, offset + HEADER_SIZE + key.length, value.length, recordLength);
+    }
+    
+    private void roll(int recordLength) throws IOException {
+        active.seal();
+        Segment segment = Segment.open(segmentFile(active.id + 1), active.id + 1);
+        segment.map(Math.max(maxSegmentBytes, recordLength));
+        segments.put(segment.id, segment);
+        active = segment;
+    }
+    
+    private void compactSegment(Segment segment) throws IOException {
+        Set<String> shadowed = findShadowedTombstones(segment);
+        long offset = 0;
+        while (offset + HEADER_SIZE <= segment.size) {
+            ByteBuffer header = ByteBuffer.wrap(segment.read(offset, HEADER_SIZE));
+            header.getInt();
+            byte op = header.get();
+            int keyLength = header.getInt();
+            int valueLength = header.getInt();
+            byte[] keyBytes = segment.read(offset + HEADER_SIZE, keyLength);
+            String key = new String(keyBytes, StandardCharsets.UTF_8);
+            writeLock.lock();
+            try {
+                if (OP_PUT == op) {
+                    Location current = index.get(key);
+                    if (current != null && current.segment == segment && current.recordOffset == offset) {
+                        byte[] value = segment.read(offset + HEADER_SIZE + keyLength, valueLength);
+                        Location location = append(OP_PUT, keyBytes, value);
+                        location.segment.liveBytes += location.recordLength;
+                        release(index.put(key, location));
+                    }
+                } else if (shadowed.contains(key) && !index.containsKey(key)) {
+                    // An older segment still holds a put of this key, keep the tombstone.
+                    append(OP_DELETE, keyBytes, new byte[0]);
+                }
+            } finally {
+                writeLock.unlock();
+            }
+            offset += HEADER_SIZE + keyLength + valueLength;
+        }
+        // The copied records must be durable before the only other copy is deleted.
+        writeLock.lock();
+        try {
+            active.force();
+        } finally {
+            writeLock.unlock();
+        }
+        segments.remove(segment.id);
+        if (!segment.file.delete()) {
+            LogUtil.DEFAULT_LOG.warn("[segment-store] delete compacted segment {} failed.", segment.file);
+        }
+        LogUtil.DEFAULT_LOG.info("[segment-store] segment {} compacted.", segment.file);
+    }
+    
+    /**
+     * Find the keys whose tombstone in the segment still hides a put in an older segment, only those tombstones need
+     * to be copied forward.
+     */
+    private Set<String> findShadowedTombstones(Segment segment) throws IOException {
+        Set<String> tombstones = collectKeys(segment, OP_DELETE, null);
+        tombstones.removeIf(index::containsKey);
+        if (tombstones.isEmpty()) {
+            return tombstones;
+        }
+        Set<String> result = new HashSet<>();
+        for (Segment older : segments.headMap(segment.id).values()) {
+            result.addAll(collectKeys(older, OP_PUT, tombstones));
+        }
+        return result;
+    }
+    
+    private Set<String> collectKeys(Segment segment, byte op, Set<String> candidates) throws IOException {
+        Set<String> result = new HashSet<>();
+        long offset = 0;
+        while (offset + HEADER_SIZE <= segment.size) {
+            ByteBuffer header = ByteBuffer.wrap(segment.read(offset, HEADER_SIZE));
+            header.getInt();
+            final byte recordOp = header.get();
+            final int keyLength = header.getInt();
+            final int valueLength = header.getInt();
+            if (op == recordOp) {
+                String key = new String(segment.read(offset + HEADER_SIZE, keyLength), StandardCharsets.UTF_8);
+                if (candidates == null || candidates.contains(key)) {
+                    result.add(key);
+                }
+            }
+            offset += HEADER_SIZE + keyLength + valueLength;
+        }
+        return result;
+    }
+    
+    private void load() throws IOException {
+        if (!baseDir.exists() && !baseDir.mkdirs()) {
+            throw new IOException("create segment dir failed: " + baseDir);
+        }
+        File[] files = baseDir.listFiles((dir, name) -> name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX));
+        List<Long> ids = new ArrayList<>();
+        if (files != null) {
+            for (File each : files) {
+                String name = each.getName();
+                ids.add(Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length())));
+            }
+        }
+        ids.sort(Long::compareTo);
+        for (int i = 0; i < ids.size(); i++) {
+            Segment segment = Segment.open(segmentFile(ids.get(i)), ids.get(i));
+            segments.put(segment.id, segment);
+            if (!recover(segment, i == ids.size() - 1)) {
+                LogUtil.FATAL_LOG.error("[segment-store] sealed segment {} is broken, discard the store and wait for "
+                        + "a full dump.", segment.file);
+                discard();
+                break;
+            }
+        }
+        if (segments.isEmpty()) {
+            Segment segment = Segment.open(segmentFile(1L), 1L);
+            segments.put(segment.id, segment);
+        }
+        for (Segment each : segments.values()) {
+            each.map(maxSegmentBytes);
+            if (each.id != segments.lastKey()) {
+                each.seal();
+            }
+        }
+        active = segments.lastEntry().getValue();
+        LogUtil.DEFAULT_LOG.info("[segment-store] loaded {} configs from {} segments.", index.size(), segments.size());
+    }
+    
+    private void discard() throws IOException {
+        for (Segment each : segments.values()) {
+            each.close();
+            if (!each.file.delete()) {
+                throw new IOException("delete broken segment failed: " + each.file);
+            }
+        }
+        segments.clear();
+        index.clear();
+        discarded = true;
+    }
+    
+    /**
+     * Rebuild the index from the segment.
+     *
+     * @return false if a sealed segment is broken, the records after the broken one are unknown then
+     */
+    private boolean recover(Segment segment, boolean last) throws IOException {
+        long offset = 0;
+        long fileSize = segment.size;
+        boolean broken = false;
+        while (offset + HEADER_SIZE <= fileSize) {
+            ByteBuffer header = ByteBuffer.wrap(segment.read(offset, HEADER_SIZE));
+            int magic = header.getInt();
+            if (magic == 0) {
+                // Reach the preallocated tail of the segment.
+                break;
+            }
+            final byte op = header.get();
+            final int keyLength = header.getInt();
+            final int valueLength = header.getInt();
+            final int crc = header.getInt();
+            long recordLength = (long) HEADER_SIZE + keyLength + valueLength;
+            if (magic != RECORD_MAGIC || keyLength <= 0 || valueLength < 0 || offset + recordLength > fileSize) {
+                broken = true;
+                break;
+            }
+            byte[] keyBytes = segment.read(offset + HEADER_SIZE, keyLength);
+            byte[] value = segment.read(offset + HEADER_SIZE + keyLength, valueLength);
+            CRC32 crc32 = new CRC32();
+            crc32.update(keyBytes);
+            crc32.update(value);
+            if ((int) crc32.getValue() != crc) {
+                broken = true;
+                break;
+            }
+            String key = new String(keyBytes, StandardCharsets.UTF_8);
+            if (OP_PUT == op) {
+                Location location = new Location(segment, offset, offset + HEADER_SIZE + keyLength, valueLength,
+                        (int) recordLength);
+                segment.liveBytes += recordLength;
+                release(index.put(key, location));
+            } else {
+                release(index.remove(key));
+            }
+            offset += recordLength;
+        }
+        if (broken) {
+            if (!last) {
+                return false;
+            }
+            LogUtil.DEFAULT_LOG.warn("[segment-store] broken record at {} of {} discarded.", offset, segment.file);
+            // Clear the torn tail, it is zero filled again when the segment is mapped.
+            segment.truncate(offset);
+        }
+        segment.size = offset;
+        return true;
+    }
+    
+    private File segmentFile(long id) {
+        return new File(baseDir, String.format("%s%020d%s", SEGMENT_PREFIX, id, SEGMENT_SUFFIX));
+    }
+    
+    private static final class Location {
+        
+        final Segment segment;
+        
+        final long recordOffset;
+        
+        final long valueOffset;
+        
+        final int valueLength;
+        
+        final int recordLength;
+        
+        Location(Segment segment, long recordOffset, long valueOffset, int valueLength, int recordLength) {
+            this.segment = segment;
+            this.recordOffset = recordOffset;
+            this.valueOffset = valueOffset;
+            this.valueLength = valueLength;
+            this.recordLength = recordLength;
+        }
+    }
+    
+    private static final class Segment {
+        
+        final long id;
+        
+        final File file;
+        
+        /**
+         * Channel for appending, guarded by the write lock and closed once the segment is sealed.
+         */
+        private FileChannel channel;
+        
+        /**
+         * Read only mapping of the whole preallocated segment, null only while recovering.
+         */
+        private volatile MappedByteBuffer mapped;
+        
+        /**
+         * Bytes of records referenced by the index, guarded by the write lock.
+         */
+        long liveBytes;
+        
+        volatile long size;
+        
+        private Segment(long id, File file, FileChannel channel) throws IOException {
+            this.id = id;
+            this.file = file;
+            this.channel = channel;
+            this.size = channel.size();
+        }
+        
+        static Segment open(File file, long id) throws IOException {
+            return new Segment(id, file, new RandomAccessFile(file, "rw").getChannel());
+        }
+        
+        long capacity() {
+            return mapped.capacity();
+        }
+        
+        void map(long capacity) throws IOException {
+            // Mapping a region larger than the file extends the file, the tail is zero filled.
+            mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, Math.max(channel.size(), capacity));
+        }
+        
+        void write(ByteBuffer buffer, long position) throws IOException {
+            if (!channel.isOpen()) {
+                // The channel is closed if a writer thread was interrupted, reopen it.
+                channel = new RandomAccessFile(file, "rw").getChannel();
+            }
+            long current = position;
+            while (buffer.hasRemaining()) {
+                current += channel.write(buffer, current);
+            }
+        }
+        
+        void truncate(long length) throws IOException {
+            channel.truncate(length);
+        }
+        
+        void force() throws IOException {
+            if (channel.isOpen()) {
+                channel.force(false);
+            }
+        }
+        
+        void close() throws IOException {
+            channel.close();
+        }
+        
+        void seal() throws IOException {
+            channel.force(false);
+            channel.close();
+        }
+        
+        byte[] read(long position, int length) throws IOException {
+            byte[] result = new byte[length];
+            MappedByteBuffer buffer = mapped;
+            if (buffer == null) {
+                ByteBuffer target = ByteBuffer.wrap(result);
+                long current = position;
+                while (target.hasRemaining()) {
+                    int read = channel.read(target, current);
+                    if (read < 0) {
+                        throw new IOException("unexpected end of segment " + file);
+                    }
+                    current += read;
+                }
+                return result;
+            }
+            ByteBuffer duplicate = buffer.duplicate();
+            duplicate.position((int) position);
+            duplicate.get(result);
+            return result;
+        }
+    }
+}
@@ -83,6 +83,7 @@ public class DumpAllProcessor implements NacosTaskProcessor {
                 lastMaxId += PAGE_SIZE;
             }
         }
+        dumpService.saveCheckpoint();
         return true;
     }
     
@@ -0,0 +1,120 @@
+/*
+ * Copyright 1999-2020 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.nacos.config.server.service.dump.processor;
+
+import com.alibaba.nacos.common.task.NacosTask;
+import com.alibaba.nacos.common.task.NacosTaskProcessor;
+import com.alibaba.nacos.config.server.model.CacheItem;
+import com.alibaba.nacos.config.server.model.ConfigInfo;
+import com.alibaba.nacos.config.server.model.ConfigInfoWrapper;
+import com.alibaba.nacos.config.server.model.DumpCheckpoint;
+import com.alibaba.nacos.config.server.model.Page;
+import com.alibaba.nacos.config.server.service.ConfigCacheService;
+import com.alibaba.nacos.config.server.service.dump.DumpService;
+import com.alibaba.nacos.config.server.service.repository.PersistService;
+import com.alibaba.nacos.config.server.utils.LogUtil;
+
+import java.sql.Timestamp;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Dump checkpoint processor, restores the md5 of all configs from the checkpoint and dumps only the configs changed
+ * since it was taken.
+ *
+ * @author Nacos
+ */
+public class DumpCheckpointProcessor implements NacosTaskProcessor {
+    
+    /**
+     * Configs modified within this window before the checkpoint are loaded again, to cover the dump tasks which were
+     * still pending when the checkpoint was taken.
+     */
+    static final long SAFE_WINDOW_MS = 10 * 60 * 1000L;
+    
+    static final int PAGE_SIZE = 1000;
+    
+    final DumpService dumpService;
+    
+    final PersistService persistService;
+    
+    final DumpCheckpoint checkpoint;
+    
+    final Timestamp endTime;
+    
+    public DumpCheckpointProcessor(DumpService dumpService, DumpCheckpoint checkpoint, Timestamp endTime) {
+        this.dumpService = dumpService;
+        this.persistService = dumpService.getPersistService();
+        this.checkpoint = checkpoint;
+        this.endTime = endTime;
+    }
+    
+    @Override
+    public boolean process(NacosTask task) {
+        final long start = System.currentTimeMillis();
+        for (Map.Entry<String, DumpCheckpoint.Digest> entry : checkpoint.getConfigs().entrySet()) {
+            DumpCheckpoint.Digest digest = entry.getValue();
+            ConfigCacheService.updateMd5(entry.getKey(), digest.getMd5(), digest.getLastModified());
+            CacheItem item = ConfigCacheService.getContentCache(entry.getKey());
+            if (item != null) {
+                item.setType(digest.getType());
+            }
+        }
+        LogUtil.DEFAULT_LOG.warn("[dump-checkpoint] restored {} configs, cost:{}", checkpoint.getConfigs().size(),
+                System.currentTimeMillis() - start);
+        
+        final int inserted = dumpInserted();
+        
+        Timestamp startTime = new Timestamp(Math.max(0L, checkpoint.getLastModified() - SAFE_WINDOW_MS));
+        List<ConfigInfo> configDeleted = persistService.findDeletedConfig(startTime, endTime);
+        for (ConfigInfo configInfo : configDeleted) {
+            if (persistService.findConfigInfo(configInfo.getDataId(), configInfo.getGroup(), configInfo.getTenant())
+                    == null) {
+                ConfigCacheService.remove(configInfo.getDataId(), configInfo.getGroup(), configInfo.getTenant());
+            }
+        }
+        
+        List<ConfigInfoWrapper> changeConfigs = persistService.findChangeConfig(startTime, endTime);
+        for (ConfigInfoWrapper cf : changeConfigs) {
+            ConfigCacheService.dump(cf.getDataId(), cf.getGroup(), cf.getTenant(), cf.getContent(),
+                    cf.getLastModified(), cf.getType());
+        }
+        ConfigCacheService.reloadConfig();
+        LogUtil.DEFAULT_LOG.warn("[dump-checkpoint] done, startTime:{}, inserted:{}, deleted:{}, changed:{}, cost:{}",
+                startTime, inserted, configDeleted.size(), changeConfigs.size(), System.currentTimeMillis() - start);
+        return true;
+    }
+    
+    private int dumpInserted() {
+        long currentMaxId = persistService.findConfigMaxId();
+        long lastMaxId = checkpoint.getMaxId();
+        int count = 0;
+        while (lastMaxId < currentMaxId) {
+            Page<ConfigInfoWrapper> page = persistService.findAllConfigInfoFragment(lastMaxId, PAGE_SIZE);
+            if (page == null || page.getPageItems() == null || page.getPageItems().isEmpty()) {
+                break;
+            }
+            for (ConfigInfoWrapper cf : page.getPageItems()) {
+                lastMaxId = Math.max(cf.getId(), lastMaxId);
+                ConfigCacheService.dump(cf.getDataId(), cf.getGroup(), cf.getTenant(), cf.getContent(),
+                        cf.getLastModified(), cf.getType());
+                count++;
+            }
+        }
+        return count;
+    }
+}
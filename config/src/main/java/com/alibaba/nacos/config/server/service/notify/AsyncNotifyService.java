@@ -16,7 +16,9 @@
 
 package com.alibaba.nacos.config.server.service.notify;
 
+import com.alibaba.nacos.api.config.remote.request.cluster.ConfigChangeClusterBatchSyncRequest;
 import com.alibaba.nacos.api.config.remote.request.cluster.ConfigChangeClusterSyncRequest;
+import com.alibaba.nacos.api.config.remote.response.cluster.ConfigChangeClusterBatchSyncResponse;
 import com.alibaba.nacos.api.config.remote.response.cluster.ConfigChangeClusterSyncResponse;
 import com.alibaba.nacos.api.remote.RequestCallBack;
 import com.alibaba.nacos.api.utils.NetUtils;
@@ -37,6 +39,7 @@ import com.alibaba.nacos.config.server.service.dump.DumpService;
 import com.alibaba.nacos.config.server.service.trace.ConfigTraceService;
 import com.alibaba.nacos.config.server.utils.ConfigExecutor;
 import com.alibaba.nacos.config.server.utils.LogUtil;
+import com.alibaba.nacos.config.server.utils.PropertyUtil;
 import com.alibaba.nacos.core.cluster.Member;
 import com.alibaba.nacos.core.cluster.MemberUtil;
 import com.alibaba.nacos.core.cluster.ServerMemberManager;
@@ -51,11 +54,18 @@ import org.springframework.stereotype.Service;
 import java.io.UnsupportedEncodingException;
 import java.net.URLEncoder;
 import java.text.MessageFormat;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
 import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.Executor;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * Async notify service.
@@ -83,6 +93,11 @@ public class AsyncNotifyService {
     
     private ServerMemberManager memberManager;
     
+    /**
+     * Pending batch sync tasks, keyed by the address of the target member.
+     */
+    private final ConcurrentHashMap<String, BatchRpcQueue> batchRpcQueues = new ConcurrentHashMap<>();
+    
     @Autowired
     public AsyncNotifyService(ServerMemberManager memberManager) {
         this.memberManager = memberManager;
@@ -113,6 +128,10 @@ public class AsyncNotifyService {
                         if (!MemberUtil.isSupportedLongCon(member)) {
                             httpQueue.add(new NotifySingleTask(dataId, group, tenant, tag, dumpTs, member.getAddress(),
                                     evt.isBeta));
+                        } else if (isBatchSyncEnabled(member)) {
+                            batchRpcQueues.computeIfAbsent(member.getAddress(), BatchRpcQueue::new)
+                                    .add(new NotifySingleRpcTask(dataId, group, tenant, tag, dumpTs, evt.isBeta,
+                                            member));
                         } else {
                             rpcQueue.add(
                                     new NotifySingleRpcTask(dataId, group, tenant, tag, dumpTs, evt.isBeta, member));
@@ -248,6 +267,112 @@ public class AsyncNotifyService {
         }
     }
     
+    private boolean isBatchSyncEnabled(Member member) {
+        if (PropertyUtil.getNotifyBatchSize() <= 1 || memberManager.getSelf().equals(member)) {
+            return false;
+        }
+        return member.getAbilities() != null && member.getAbilities().getConfigAbility() != null && member
+                .getAbilities().getConfigAbility().isSupportBatchClusterSync();
+    }
+    
+    /**
+     * Queue of config changes to one member, changes added within {@link PropertyUtil#getNotifyBatchWindow()} are
+     * coalesced and sent in one {@link ConfigChangeClusterBatchSyncRequest}.
+     */
+    class BatchRpcQueue implements Runnable {
+        
+        private final String address;
+        
+        private final Queue<NotifySingleRpcTask> queue = new ConcurrentLinkedQueue<NotifySingleRpcTask>();
+        
+        private final AtomicBoolean scheduled = new AtomicBoolean(false);
+        
+        BatchRpcQueue(String address) {
+            this.address = address;
+        }
+        
+        void add(NotifySingleRpcTask task) {
+            queue.offer(task);
+            if (scheduled.compareAndSet(false, true)) {
+                ConfigExecutor.scheduleAsyncNotify(this, PropertyUtil.getNotifyBatchWindow(), TimeUnit.MILLISECONDS);
+            }
+        }
+        
+        @Override
+        public void run() {
+            // Reset before draining, so changes added from now on schedule the next flush.
+            scheduled.set(false);
+            List<NotifySingleRpcTask> tasks = drain();
+            while (!tasks.isEmpty()) {
+                executeBatch(new NotifyBatchRpcTask(address, tasks));
+                tasks = drain();
+            }
+        }
+        
+        private List<NotifySingleRpcTask> drain() {
+            int batchSize = PropertyUtil.getNotifyBatchSize();
+            Map<String, NotifySingleRpcTask> tasks = new LinkedHashMap<String, NotifySingleRpcTask>();
+            NotifySingleRpcTask task;
+            while (tasks.size() < batchSize && (task = queue.poll()) != null) {
+                // Only the latest change of the same config is needed, the receiver dumps it from the database.
+                String key = String.join("+", task.getDataId(), task.getGroup(), task.getTenant(), task.tag,
+                        String.valueOf(task.isBeta));
+                NotifySingleRpcTask previous = tasks.get(key);
+                if (previous == null || previous.getLastModified() <= task.getLastModified()) {
+                    tasks.put(key, task);
+                }
+            }
+            return new ArrayList<NotifySingleRpcTask>(tasks.values());
+        }
+    }
+    
+    private void executeBatch(NotifyBatchRpcTask batch) {
+        Member member = memberManager.find(batch.target);
+        if (member == null || !memberManager.hasMember(batch.target)) {
+            // Do nothing if member has offline.
+            return;
+        }
+        if (!isBatchSyncEnabled(member)) {
+            // The member may be rolled back to an old version, notify one by one.
+            ConfigExecutor.executeAsyncNotify(new AsyncRpcTask(new LinkedList<NotifySingleRpcTask>(batch.tasks)));
+            return;
+        }
+        if (memberManager.isUnHealth(batch.target)) {
+            for (NotifySingleRpcTask task : batch.tasks) {
+                ConfigTraceService.logNotifyEvent(task.getDataId(), task.getGroup(), task.getTenant(), null,
+                        task.getLastModified(), InetUtils.getSelfIP(), ConfigTraceService.NOTIFY_EVENT_UNHEALTH, 0,
+                        batch.target);
+            }
+            asyncTaskExecute(batch);
+            return;
+        }
+        ConfigChangeClusterBatchSyncRequest request = new ConfigChangeClusterBatchSyncRequest();
+        for (NotifySingleRpcTask task : batch.tasks) {
+            request.addConfigChange(task.getDataId(), task.getGroup(), task.getTenant(), task.tag,
+                    task.getLastModified(), task.isBeta);
+        }
+        try {
+            configClusterRpcClientProxy.batchSyncConfigChange(member, request, new AsyncRpcBatchNotifyCallBack(batch));
+        } catch (Exception e) {
+            MetricsMonitor.getConfigNotifyException().increment();
+            asyncTaskExecute(batch);
+        }
+    }
+    
+    static class NotifyBatchRpcTask {
+        
+        private final String target;
+        
+        private final List<NotifySingleRpcTask> tasks;
+        
+        private int failCount;
+        
+        NotifyBatchRpcTask(String target, List<NotifySingleRpcTask> tasks) {
+            this.target = target;
+            this.tasks = tasks;
+        }
+    }
+    
     static class NotifySingleRpcTask extends NotifyTask {
         
         private Member member;
@@ -281,6 +406,14 @@ public class AsyncNotifyService {
         ConfigExecutor.scheduleAsyncNotify(asyncTask, delay, TimeUnit.MILLISECONDS);
     }
     
+    private void asyncTaskExecute(NotifyBatchRpcTask batch) {
+        int delay = getDelayTime(batch.failCount);
+        if (batch.failCount <= MAX_COUNT) {
+            batch.failCount++;
+        }
+        ConfigExecutor.scheduleAsyncNotify(() -> executeBatch(batch), delay, TimeUnit.MILLISECONDS);
+    }
+    
     class AsyncNotifyCallBack implements Callback<String> {
         
         private NotifySingleTask task;
@@ -411,6 +544,61 @@ public class AsyncNotifyService {
         }
     }
     
+    class AsyncRpcBatchNotifyCallBack implements RequestCallBack<ConfigChangeClusterBatchSyncResponse> {
+        
+        private NotifyBatchRpcTask batch;
+        
+        public AsyncRpcBatchNotifyCallBack(NotifyBatchRpcTask batch) {
+            this.batch = batch;
+        }
+        
+        @Override
+        public Executor getExecutor() {
+            return ConfigExecutor.getConfigSubServiceExecutor();
+        }
+        
+        @Override
+        public long getTimeout() {
+            return 3000L;
+        }
+        
+        @Override
+        public void onResponse(ConfigChangeClusterBatchSyncResponse response) {
+            if (response.isSuccess()) {
+                logNotifyEvent(ConfigTraceService.NOTIFY_EVENT_OK);
+            } else {
+                LOGGER.error("[notify-error] target:{} count:{} code:{}", batch.target, batch.tasks.size(),
+                        response.getErrorCode());
+                logNotifyEvent(ConfigTraceService.NOTIFY_EVENT_ERROR);
+                retry();
+            }
+        }
+        
+        @Override
+        public void onException(Throwable ex) {
+            LOGGER.error("[notify-exception] target:{} count:{} ex:{}", batch.target, batch.tasks.size(),
+                    ex.toString());
+            logNotifyEvent(ConfigTraceService.NOTIFY_EVENT_EXCEPTION);
+            retry();
+        }
+        
+        private void logNotifyEvent(String type) {
+            long now = System.currentTimeMillis();
+            for (NotifySingleRpcTask task : batch.tasks) {
+                ConfigTraceService.logNotifyEvent(task.getDataId(), task.getGroup(), task.getTenant(), null,
+                        task.getLastModified(), InetUtils.getSelfIP(), type, now - task.getLastModified(),
+                        batch.target);
+            }
+        }
+        
+        private void retry() {
+            //get delay time and set fail count to the batch
+            asyncTaskExecute(batch);
+            LogUtil.NOTIFY_LOG.error("[notify-retry] target:{} count:{}", batch.target, batch.tasks.size());
+            MetricsMonitor.getConfigNotifyException().increment();
+        }
+    }
+    
     static class NotifySingleTask extends NotifyTask {
         
         private String target;
@@ -486,10 +674,14 @@ public class AsyncNotifyService {
      */
     private static int getDelayTime(NotifyTask task) {
         int failCount = task.getFailCount();
-        int delay = MIN_RETRY_INTERVAL + failCount * failCount * INCREASE_STEPS;
+        int delay = getDelayTime(failCount);
         if (failCount <= MAX_COUNT) {
             task.setFailCount(failCount + 1);
         }
         return delay;
     }
+    
+    private static int getDelayTime(int failCount) {
+        return MIN_RETRY_INTERVAL + failCount * failCount * INCREASE_STEPS;
+    }
 }
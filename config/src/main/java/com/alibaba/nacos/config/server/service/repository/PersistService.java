@@ -799,6 +799,15 @@ public interface PersistService {
      */
     Page<ConfigInfoWrapper> findAllConfigInfoFragment(final long lastMaxId, final int pageSize);
     
+    /**
+     * Query all config info without content.
+     *
+     * @param lastMaxId last max id
+     * @param pageSize  page size
+     * @return {@link Page} with {@link ConfigInfoWrapper} generation
+     */
+    Page<ConfigInfoWrapper> findAllConfigInfoBaseFragment(final long lastMaxId, final int pageSize);
+    
     /**
      * Query all beta config info for dump task.
      *
@@ -1046,6 +1055,14 @@ public interface PersistService {
      */
     List<String> selectTagByConfig(String dataId, String group, String tenant);
     
+    /**
+     * Query tags of configs.
+     *
+     * @param ids config ids
+     * @return tags by config id, configs without tag are absent
+     */
+    Map<Long, List<String>> selectTagByConfigIds(List<Long> ids);
+    
     /**
      * Remove configuration; database atomic operation, minimum SQL action, no business encapsulation.
      *
@@ -1404,6 +1404,15 @@ public class EmbeddedStoragePersistServiceImpl implements PersistService {
         
     }
     
+    @Override
+    public Page<ConfigInfoWrapper> findAllConfigInfoBaseFragment(final long lastMaxId, final int pageSize) {
+        String select = "SELECT id,data_id,group_id,tenant_id,app_name,md5,gmt_modified,type from config_info where id > ? "
+                + "order by id asc limit ?,?";
+        PaginationHelper<ConfigInfoWrapper> helper = createPaginationHelper();
+        return helper.fetchPageLimit(select, new Object[] {lastMaxId, 0, pageSize}, 1, pageSize,
+                CONFIG_INFO_WRAPPER_ROW_MAPPER);
+    }
+    
     @Override
     public Page<ConfigInfoBetaWrapper> findAllConfigInfoBetaForDumpAll(final int pageNo, final int pageSize) {
         String sqlCountRows = "SELECT COUNT(*) FROM config_info_beta";
@@ -1870,7 +1879,7 @@ public class EmbeddedStoragePersistServiceImpl implements PersistService {
     @Override
     public List<ConfigInfoWrapper> findChangeConfig(final Timestamp startTime, final Timestamp endTime) {
         List<Map<String, Object>> list = databaseOperate.queryMany(
-                "SELECT data_id, group_id, tenant_id, app_name, content, gmt_modified FROM config_info WHERE "
+                "SELECT data_id, group_id, tenant_id, app_name, content, type, gmt_modified FROM config_info WHERE "
                         + "gmt_modified >=? AND gmt_modified <= ?", new Object[] {startTime, endTime});
         return convertChangeConfig(list);
         
@@ -1987,6 +1996,19 @@ public class EmbeddedStoragePersistServiceImpl implements PersistService {
         return databaseOperate.queryMany(sql, new Object[] {dataId, group, tenant}, String.class);
     }
     
+    @Override
+    public Map<Long, List<String>> selectTagByConfigIds(List<Long> ids) {
+        if (CollectionUtils.isEmpty(ids)) {
+            return new HashMap<Long, List<String>>(16);
+        }
+        StringBuilder sql = new StringBuilder("SELECT id,tag_name FROM config_tags_relation WHERE id IN (");
+        for (int i = 0; i < ids.size(); i++) {
+            sql.append(i == 0 ? "?" : ",?");
+        }
+        sql.append(")");
+        return convertConfigTags(databaseOperate.queryMany(sql.toString(), ids.toArray()));
+    }
+    
     @Override
     public void removeConfigInfoAtomic(final String dataId, final String group, final String tenant, final String srcIp,
             final String srcUser) {
@@ -2302,6 +2324,20 @@ public class EmbeddedStoragePersistServiceImpl implements PersistService {
         return configs;
     }
     
+    private Map<Long, List<String>> convertConfigTags(List<Map<String, Object>> rows) {
+        Map<Long, List<String>> tags = new HashMap<Long, List<String>>(rows.size());
+        for (Map<String, Object> row : rows) {
+            long id = ((Number) row.get("id")).longValue();
+            List<String> configTags = tags.get(id);
+            if (configTags == null) {
+                configTags = new ArrayList<String>(2);
+                tags.put(id, configTags);
+            }
+            configTags.add((String) row.get("tag_name"));
+        }
+        return tags;
+    }
+    
     @Override
     public List<ConfigInfoWrapper> convertChangeConfig(List<Map<String, Object>> list) {
         List<ConfigInfoWrapper> configs = new ArrayList<ConfigInfoWrapper>();
@@ -2310,12 +2346,14 @@ public class EmbeddedStoragePersistServiceImpl implements PersistService {
             String group = (String) map.get("group_id");
             String tenant = (String) map.get("tenant_id");
             String content = (String) map.get("content");
+            String type = (String) map.get("type");
             long mTime = ((Timestamp) map.get("gmt_modified")).getTime();
             ConfigInfoWrapper config = new ConfigInfoWrapper();
             config.setDataId(dataId);
             config.setGroup(group);
             config.setTenant(tenant);
             config.setContent(content);
+            config.setType(type);
             config.setLastModified(mTime);
             configs.add(config);
         }
@@ -0,0 +1,639 @@
+/*
+ * Copyright 1999-2020 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.nacos.config.server.service.repository.extrnal;
+
+import com.alibaba.nacos.common.executor.ExecutorFactory;
+import com.alibaba.nacos.common.executor.NameThreadFactory;
+import com.alibaba.nacos.common.utils.JacksonUtils;
+import com.alibaba.nacos.config.server.Config;
+import com.alibaba.nacos.config.server.monitor.MetricsMonitor;
+import com.alibaba.nacos.config.server.utils.LogUtil;
+import com.alibaba.nacos.core.utils.ClassUtils;
+import com.alibaba.nacos.sys.env.EnvUtil;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Writes config history rows to his_config_info behind the publish transaction.
+ *
+ * <p>Every accepted row is appended to a local spool with an increasing sequence and forced to disk before it is
+ * queued in memory, and rows are inserted into the database in batches in sequence order. The last inserted sequence
+ * is persisted after each batch, so rows not yet in the database are replayed from the spool after a restart. When
+ * the memory queue is full, rows are only kept in the spool and read back one batch at a time once the database
+ * catches up. Delete rows are never written behind, dump tasks query them by gmt_modified and would miss a late one.
+ *
+ * @author Nacos
+ */
+public class ConfigHistoryWriteBehind {
+    
+    static final String SQL_INSERT_HISTORY =
+            "INSERT INTO his_config_info (id,data_id,group_id,tenant_id,app_name,content,md5,src_ip,src_user,"
+                    + "gmt_modified,op_type) VALUES(?,?,?,?,?,?,?,?,?,?,?)";
+    
+    private static final String SQL_COUNT_HISTORY =
+            "SELECT count(*) FROM his_config_info WHERE id = ? AND data_id = ? AND group_id = ? AND tenant_id = ? "
+                    + "AND gmt_modified = ? AND op_type = ?";
+    
+    static final String SPOOL_DIR = "data" + File.separator + "his-spool";
+    
+    private static final String SEGMENT_PREFIX = "spool-";
+    
+    private static final String SEGMENT_SUFFIX = ".log";
+    
+    private static final String COMMITTED_FILE = "committed";
+    
+    private static final int BATCH_SIZE = 100;
+    
+    private static final int SEGMENT_RECORDS = 10000;
+    
+    private static final long FLUSH_INTERVAL = 100L;
+    
+    private final JdbcTemplate jt;
+    
+    private final TransactionTemplate tjt;
+    
+    private final File dir;
+    
+    private final BlockingQueue<HistoryRecord> queue;
+    
+    private final Object journalLock = new Object();
+    
+    /**
+     * First sequence of every spool segment, guarded by journalLock.
+     */
+    private final NavigableSet<Long> segments = new TreeSet<Long>();
+    
+    /**
+     * Rows taken from the queue or the spool but not yet inserted, only accessed by the flushing thread.
+     */
+    private final List<HistoryRecord> pending = new ArrayList<HistoryRecord>();
+    
+    /**
+     * Spool segment, byte offset and sequence where reading continues in spill mode, only accessed by the flushing
+     * thread. The position is dropped when the next row to insert is not {@code cursorSeq}.
+     */
+    private long cursorSegment;
+    
+    private long cursorOffset;
+    
+    private long cursorSeq = -1L;
+    
+    private FileChannel segmentChannel;
+    
+    private long segmentStart;
+    
+    private long nextSeq;
+    
+    /**
+     * Whether rows are only kept in the spool, set when the queue is full or rows are left from last run.
+     */
+    private boolean spilling;
+    
+    private volatile long committedSeq;
+    
+    /**
+     * Rows up to this sequence may have been inserted before a crash, so they are checked before inserting.
+     */
+    private long recoveredSeq;
+    
+    private ScheduledExecutorService executor;
+    
+    public ConfigHistoryWriteBehind(JdbcTemplate jt, TransactionTemplate tjt, int queueSize) {
+        this(jt, tjt, queueSize, new File(EnvUtil.getNacosHome(), SPOOL_DIR));
+    }
+    
+    public ConfigHistoryWriteBehind(JdbcTemplate jt, TransactionTemplate tjt, int queueSize, File dir) {
+        this.jt = jt;
+        this.tjt = tjt;
+        this.dir = dir;
+        this.queue = new ArrayBlockingQueue<HistoryRecord>(Math.max(queueSize, BATCH_SIZE));
+    }
+    
+    /**
+     * Recover the spool left from last run and start flushing.
+     *
+     * @throws IOException if the spool can't be opened
+     */
+    public void start() throws IOException {
+        recover();
+        executor = ExecutorFactory.Managed.newSingleScheduledExecutorService(ClassUtils.getCanonicalName(Config.class),
+                new NameThreadFactory("com.alibaba.nacos.config.history.write-behind"));
+        executor.scheduleWithFixedDelay(this::flushQuietly, FLUSH_INTERVAL, FLUSH_INTERVAL, TimeUnit.MILLISECONDS);
+    }
+    
+    /**
+     * Stop flushing, rows not inserted yet are kept in the spool.
+     */
+    public void shutdown() {
+        if (executor != null) {
+            executor.shutdown();
+            try {
+                executor.awaitTermination(3, TimeUnit.SECONDS);
+            } catch (InterruptedException ignored) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        synchronized (journalLock) {
+            closeSegment();
+        }
+    }
+    
+    /**
+     * Load the committed sequence and the spool segments, rows after the committed sequence are replayed.
+     *
+     * @throws IOException if the spool can't be read
+     */
+    void recover() throws IOException {
+        Files.createDirectories(dir.toPath());
+        committedSeq = readCommitted();
+        long maxSeq = committedSeq;
+        File[] files = dir.listFiles((d, name) -> name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX));
+        if (files != null) {
+            for (File file : files) {
+                segments.add(segmentStartOf(file));
+            }
+        }
+        for (Long start : segments.descendingSet()) {
+            long lastSeq = lastSeqOf(start);
+            if (lastSeq > 0) {
+                maxSeq = Math.max(maxSeq, lastSeq);
+                break;
+            }
+        }
+        synchronized (journalLock) {
+            nextSeq = maxSeq + 1;
+            recoveredSeq = Math.min(maxSeq, committedSeq + BATCH_SIZE);
+            spilling = maxSeq > committedSeq;
+            openSegment(nextSeq);
+            updateBacklog();
+        }
+        if (spilling) {
+            LogUtil.DEFAULT_LOG.warn("[history-write-behind] {} history rows left in spool, replay them",
+                    maxSeq - committedSeq);
+        }
+    }
+    
+    /**
+     * Accept a history row, it is written to the database asynchronously.
+     *
+     * <p>If the spool can't be written, the row is inserted synchronously.
+     *
+     * @param record history row
+     */
+    public void enqueue(HistoryRecord record) {
+        try {
+            synchronized (journalLock) {
+                record.setSeq(nextSeq);
+                if (nextSeq - segmentStart >= SEGMENT_RECORDS) {
+                    closeSegment();
+                    openSegment(nextSeq);
+                }
+                byte[] line = (JacksonUtils.toJson(record) + "\n").getBytes(StandardCharsets.UTF_8);
+                ByteBuffer buffer = ByteBuffer.wrap(line);
+                while (buffer.hasRemaining()) {
+                    segmentChannel.write(buffer);
+                }
+                segmentChannel.force(false);
+                nextSeq++;
+                if (!spilling && !queue.offer(record)) {
+                    spilling = true;
+                }
+                if (spilling) {
+                    MetricsMonitor.getHistorySpill().increment();
+                }
+                updateBacklog();
+            }
+        } catch (IOException e) {
+            LogUtil.FATAL_LOG.error("[history-write-behind] write spool failed, insert history directly", e);
+            insertDirectly(record);
+        }
+    }
+    
+    /**
+     * Count of accepted rows not yet written to the database.
+     *
+     * @return backlog depth
+     */
+    public long backlog() {
+        synchronized (journalLock) {
+            return nextSeq - 1 - committedSeq;
+        }
+    }
+    
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (Throwable e) {
+            LogUtil.DEFAULT_LOG.error("[history-write-behind] flush history failed, retry later", e);
+        }
+    }
+    
+    /**
+     * Insert all accepted rows into the database, stops on the first failed batch which is retried next time.
+     */
+    void flush() throws IOException {
+        while (true) {
+            if (pending.isEmpty()) {
+                fillPending();
+            }
+            if (pending.isEmpty()) {
+                return;
+            }
+            List<HistoryRecord> batch = new ArrayList<HistoryRecord>(
+                    pending.subList(0, Math.min(BATCH_SIZE, pending.size())));
+            insertBatch(batch);
+            pending.subList(0, batch.size()).clear();
+            markCommitted(batch.get(batch.size() - 1).getSeq());
+        }
+    }
+    
+    private void fillPending() throws IOException {
+        queue.drainTo(pending, BATCH_SIZE);
+        if (!pending.isEmpty()) {
+            return;
+        }
+        boolean spillingNow;
+        synchronized (journalLock) {
+            if (spilling && committedSeq >= nextSeq - 1) {
+                spilling = false;
+            }
+            spillingNow = spilling;
+        }
+        if (!spillingNow) {
+            return;
+        }
+        long from = committedSeq + 1;
+        if (cursorSeq != from) {
+            Long start;
+            synchronized (journalLock) {
+                start = segments.floor(from);
+            }
+            if (start == null) {
+                return;
+            }
+            cursorSegment = start;
+            cursorOffset = 0L;
+        }
+        while (true) {
+            cursorOffset = readSegment(cursorSegment, cursorOffset, from, BATCH_SIZE, pending);
+            if (!pending.isEmpty()) {
+                cursorSeq = pending.get(pending.size() - 1).getSeq() + 1;
+                return;
+            }
+            cursorSeq = from;
+            Long next;
+            synchronized (journalLock) {
+                next = segments.higher(cursorSegment);
+            }
+            if (next == null) {
+                return;
+            }
+            cursorSegment = next;
+            cursorOffset = 0L;
+        }
+    }
+    
+    private void insertBatch(List<HistoryRecord> batch) {
+        final List<Object[]> args = new ArrayList<Object[]>(batch.size());
+        for (HistoryRecord record : batch) {
+            if (record.getSeq() <= recoveredSeq && exists(record)) {
+                continue;
+            }
+            args.add(toArgs(record));
+        }
+        if (args.isEmpty()) {
+            return;
+        }
+        try {
+            tjt.execute(status -> jt.batchUpdate(SQL_INSERT_HISTORY, args));
+        } catch (DataAccessException e) {
+            LogUtil.FATAL_LOG.error("[db-error] " + e.toString(), e);
+            throw e;
+        }
+    }
+    
+    private boolean exists(HistoryRecord record) {
+        Integer count = jt.queryForObject(SQL_COUNT_HISTORY, Integer.class, record.getId(), record.getDataId(),
+                record.getGroup(), record.getTenant(), new Timestamp(record.getGmtModified()), record.getOpType());
+        return count != null && count > 0;
+    }
+    
+    private void insertDirectly(HistoryRecord record) {
+        try {
+            jt.update(SQL_INSERT_HISTORY, toArgs(record));
+        } catch (DataAccessException e) {
+            LogUtil.FATAL_LOG.error("[db-error] " + e.toString(), e);
+            throw e;
+        }
+    }
+    
+    private Object[] toArgs(HistoryRecord record) {
+        return new Object[] {record.getId(), record.getDataId(), record.getGroup(), record.getTenant(),
+                record.getAppName(), record.getContent(), record.getMd5(), record.getSrcIp(), record.getSrcUser(),
+                new Timestamp(record.getGmtModified()), record.getOpType()};
+    }
+    
+    private void markCommitted(long seq) throws IOException {
+        File tmp = new File(dir, COMMITTED_FILE + ".tmp");
+        try (FileChannel channel = FileChannel.open(tmp.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buffer = ByteBuffer.wrap(String.valueOf(seq).getBytes(StandardCharsets.UTF_8));
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(true);
+        }
+        Files.move(tmp.toPath(), new File(dir, COMMITTED_FILE).toPath(), StandardCopyOption.REPLACE_EXISTING,
+                StandardCopyOption.ATOMIC_MOVE);
+        synchronized (journalLock) {
+            committedSeq = seq;
+            updateBacklog();
+            // A segment is done once every row before the next segment is inserted.
+            while (segments.size() > 1 && segments.higher(segments.first()) - 1 <= seq) {
+                Files.deleteIfExists(segmentFile(segments.pollFirst()).toPath());
+            }
+        }
+    }
+    
+    private long readCommitted() throws IOException {
+        File file = new File(dir, COMMITTED_FILE);
+        if (!file.exists()) {
+            return 0L;
+        }
+        try {
+            return Long.parseLong(new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8).trim());
+        } catch (NumberFormatException e) {
+            throw new IOException("broken history spool committed file " + file, e);
+        }
+    }
+    
+    /**
+     * Sequence of the last complete row in a segment, or 0 if there is none.
+     */
+    private long lastSeqOf(long start) throws IOException {
+        long lastSeq = 0L;
+        long offset = 0L;
+        List<HistoryRecord> records = new ArrayList<HistoryRecord>(BATCH_SIZE);
+        do {
+            records.clear();
+            offset = readSegment(start, offset, 0L, BATCH_SIZE, records);
+            if (!records.isEmpty()) {
+                lastSeq = records.get(records.size() - 1).getSeq();
+            }
+        } while (records.size() == BATCH_SIZE);
+        return lastSeq;
+    }
+    
+    /**
+     * Read at most {@code limit} rows from sequence {@code from} in a segment, starting at byte {@code offset}. A
+     * broken or unterminated line is the tail still being written or cut by a crash, so reading stops there.
+     *
+     * @return offset after the last complete line read
+     */
+    private long readSegment(long start, long offset, long from, int limit, List<HistoryRecord> records)
+            throws IOException {
+        File file = segmentFile(start);
+        if (!file.exists()) {
+            return offset;
+        }
+        long position = offset;
+        int read = 0;
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+                InputStream in = new BufferedInputStream(Channels.newInputStream(channel.position(offset)))) {
+            ByteArrayOutputStream line = new ByteArrayOutputStream();
+            int b;
+            while (read < limit && (b = in.read()) != -1) {
+                if (b != '\n') {
+                    line.write(b);
+                    continue;
+                }
+                HistoryRecord record;
+                try {
+                    record = JacksonUtils.toObj(line.toByteArray(), HistoryRecord.class);
+                } catch (Exception e) {
+                    break;
+                }
+                position += line.size() + 1;
+                line.reset();
+                if (record.getSeq() >= from) {
+                    records.add(record);
+                    read++;
+                }
+            }
+        }
+        return position;
+    }
+    
+    private void openSegment(long start) throws IOException {
+        segmentChannel = FileChannel.open(segmentFile(start).toPath(), StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        segmentStart = start;
+        segments.add(start);
+    }
+    
+    private void closeSegment() {
+        if (segmentChannel == null) {
+            return;
+        }
+        try {
+            segmentChannel.close();
+        } catch (IOException e) {
+            LogUtil.DEFAULT_LOG.warn("[history-write-behind] close spool segment failed", e);
+        }
+        segmentChannel = null;
+    }
+    
+    private void updateBacklog() {
+        MetricsMonitor.getHistoryBacklogMonitor().set(nextSeq - 1 - committedSeq);
+    }
+    
+    private File segmentFile(long start) {
+        return new File(dir, SEGMENT_PREFIX + start + SEGMENT_SUFFIX);
+    }
+    
+    private static long segmentStartOf(File file) {
+        String name = file.getName();
+        return Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+    }
+    
+    /**
+     * One his_config_info row in the spool.
+     */
+    public static class HistoryRecord {
+        
+        private long seq;
+        
+        private long id;
+        
+        private String dataId;
+        
+        private String group;
+        
+        private String tenant;
+        
+        private String appName;
+        
+        private String content;
+        
+        private String md5;
+        
+        private String srcIp;
+        
+        private String srcUser;
+        
+        private long gmtModified;
+        
+        private String opType;
+        
+        public HistoryRecord() {
+        }
+        
+        public HistoryRecord(long id, String dataId, String group, String tenant, String appName, String content,
+                String md5, String srcIp, String srcUser, long gmtModified, String opType) {
+            this.id = id;
+            this.dataId = dataId;
+            this.group = group;
+            this.tenant = tenant;
+            this.appName = appName;
+            this.content = content;
+            this.md5 = md5;
+            this.srcIp = srcIp;
+            this.srcUser = srcUser;
+            this.gmtModified = gmtModified;
+            this.opType = opType;
+        }
+        
+        public long getSeq() {
+            return seq;
+        }
+        
+        public void setSeq(long seq) {
+            this.seq = seq;
+        }
+        
+        public long getId() {
+            return id;
+        }
+        
+        public void setId(long id) {
+            this.id = id;
+        }
+        
+        public String getDataId() {
+            return dataId;
+        }
+        
+        public void setDataId(String dataId) {
+            this.dataId = dataId;
+        }
+        
+        public String getGroup() {
+            return group;
+        }
+        
+        public void setGroup(String group) {
+            this.group = group;
+        }
+        
+        public String getTenant() {
+            return tenant;
+        }
+        
+        public void setTenant(String tenant) {
+            this.tenant = tenant;
+        }
+        
+        public String getAppName() {
+            return appName;
+        }
+        
+        public void setAppName(String appName) {
+            this.appName = appName;
+        }
+        
+        public String getContent() {
+            return content;
+        }
+        
+        public void setContent(String content) {
+            this.content = content;
+        }
+        
+        public String getMd5() {
+            return md5;
+        }
+        
+        public void setMd5(String md5) {
+            this.md5 = md5;
+        }
+        
+        public String getSrcIp() {
+            return srcIp;
+        }
+        
+        public void setSrcIp(String srcIp) {
+            this.srcIp = srcIp;
+        }
+        
+        public String getSrcUser() {
+            return srcUser;
+        }
+        
+        public void setSrcUser(String srcUser) {
+            this.srcUser = srcUser;
+        }
+        
+        public long getGmtModified() {
+            return gmtModified;
+        }
+        
+        public void setGmtModified(long gmtModified) {
+            this.gmtModified = gmtModified;
+        }
+        
+        public String getOpType() {
+            return opType;
+        }
+        
+        public void setOpType(String opType) {
+            this.opType = opType;
+        }
+    }
+}
@@ -42,6 +42,7 @@ import com.alibaba.nacos.config.server.service.repository.PaginationHelper;
 import com.alibaba.nacos.config.server.service.repository.PersistService;
 import com.alibaba.nacos.config.server.utils.LogUtil;
 import com.alibaba.nacos.config.server.utils.ParamUtils;
+import com.alibaba.nacos.config.server.utils.PropertyUtil;
 import com.google.common.base.Joiner;
 import com.google.common.collect.Lists;
 import org.apache.commons.collections.CollectionUtils;
@@ -62,10 +63,13 @@ import org.springframework.transaction.TransactionException;
 import org.springframework.transaction.TransactionStatus;
 import org.springframework.transaction.TransactionSystemException;
 import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.util.Assert;
 
 import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 import java.io.IOException;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
@@ -117,10 +121,14 @@ public class ExternalStoragePersistServiceImpl implements PersistService {
     
     private static final int QUERY_LIMIT_SIZE = 50;
     
+    private static final String OP_TYPE_DELETE = "D";
+    
     protected JdbcTemplate jt;
     
     protected TransactionTemplate tjt;
     
+    private ConfigHistoryWriteBehind historyWriteBehind;
+    
     /**
      * constant variables.
      */
@@ -135,6 +143,27 @@ public class ExternalStoragePersistServiceImpl implements PersistService {
         
         jt = getJdbcTemplate();
         tjt = getTransactionTemplate();
+        
+        if (PropertyUtil.isHistoryWriteBehindEnabled()) {
+            ConfigHistoryWriteBehind writeBehind = new ConfigHistoryWriteBehind(jt, tjt,
+                    PropertyUtil.getHistoryWriteBehindQueueSize());
+            try {
+                writeBehind.start();
+                historyWriteBehind = writeBehind;
+            } catch (IOException e) {
+                LogUtil.FATAL_LOG.error("[history-write-behind] start failed, write history synchronously", e);
+            }
+        }
+    }
+    
+    /**
+     * Stop writing history behind, rows not written yet are kept in the local spool.
+     */
+    @PreDestroy
+    public void destroy() {
+        if (historyWriteBehind != null) {
+            historyWriteBehind.shutdown();
+        }
     }
     
     public boolean checkMasterWritable() {
@@ -1438,6 +1467,19 @@ public class ExternalStoragePersistServiceImpl implements PersistService {
         }
     }
     
+    @Override
+    public Page<ConfigInfoWrapper> findAllConfigInfoBaseFragment(final long lastMaxId, final int pageSize) {
+        String select = "SELECT id,data_id,group_id,tenant_id,app_name,md5,gmt_modified,type from config_info where id > ? order by id asc limit ?,?";
+        PaginationHelper<ConfigInfoWrapper> helper = createPaginationHelper();
+        try {
+            return helper.fetchPageLimit(select, new Object[] {lastMaxId, 0, pageSize}, 1, pageSize,
+                    CONFIG_INFO_WRAPPER_ROW_MAPPER);
+        } catch (CannotGetJdbcConnectionException e) {
+            LogUtil.FATAL_LOG.error("[db-error] " + e.toString(), e);
+            throw e;
+        }
+    }
+    
     @Override
     public Page<ConfigInfoBetaWrapper> findAllConfigInfoBetaForDumpAll(final int pageNo, final int pageSize) {
         String sqlCountRows = "SELECT COUNT(*) FROM config_info_beta";
@@ -1974,7 +2016,7 @@ public class ExternalStoragePersistServiceImpl implements PersistService {
     public List<ConfigInfoWrapper> findChangeConfig(final Timestamp startTime, final Timestamp endTime) {
         try {
             List<Map<String, Object>> list = jt.queryForList(
-                    "SELECT data_id, group_id, tenant_id, app_name, content, gmt_modified FROM config_info WHERE gmt_modified >=? AND gmt_modified <= ?",
+                    "SELECT data_id, group_id, tenant_id, app_name, content, type, gmt_modified FROM config_info WHERE gmt_modified >=? AND gmt_modified <= ?",
                     new Object[] {startTime, endTime});
             return convertChangeConfig(list);
         } catch (DataAccessException e) {
@@ -2161,6 +2203,26 @@ public class ExternalStoragePersistServiceImpl implements PersistService {
         }
     }
     
+    @Override
+    public Map<Long, List<String>> selectTagByConfigIds(List<Long> ids) {
+        Map<Long, List<String>> tags = new HashMap<Long, List<String>>(16);
+        if (CollectionUtils.isEmpty(ids)) {
+            return tags;
+        }
+        StringBuilder sql = new StringBuilder("SELECT id,tag_name FROM config_tags_relation WHERE id IN (");
+        for (int i = 0; i < ids.size(); i++) {
+            sql.append(i == 0 ? "?" : ",?");
+        }
+        sql.append(")");
+        try {
+            List<Map<String, Object>> rows = jt.queryForList(sql.toString(), ids.toArray());
+            return convertConfigTags(rows);
+        } catch (CannotGetJdbcConnectionException e) {
+            LogUtil.FATAL_LOG.error("[db-error] " + e.toString(), e);
+            throw e;
+        }
+    }
+    
     @Override
     public void removeConfigInfoAtomic(final String dataId, final String group, final String tenant, final String srcIp,
             final String srcUser) {
@@ -2351,6 +2413,25 @@ public class ExternalStoragePersistServiceImpl implements PersistService {
         String appNameTmp = StringUtils.isBlank(configInfo.getAppName()) ? StringUtils.EMPTY : configInfo.getAppName();
         String tenantTmp = StringUtils.isBlank(configInfo.getTenant()) ? StringUtils.EMPTY : configInfo.getTenant();
         final String md5Tmp = MD5Utils.md5Hex(configInfo.getContent(), Constants.ENCODE);
+        // Dump tasks find deleted configs from the delete history by gmt_modified, a delete row written behind could
+        // land after its window was scanned, so it is always written in the publish transaction.
+        if (historyWriteBehind != null && !OP_TYPE_DELETE.equals(ops)) {
+            final ConfigHistoryWriteBehind.HistoryRecord record = new ConfigHistoryWriteBehind.HistoryRecord(id,
+                    configInfo.getDataId(), configInfo.getGroup(), tenantTmp, appNameTmp, configInfo.getContent(),
+                    md5Tmp, srcIp, srcUser, time.getTime(), ops);
+            // Only rows of committed publishes are written.
+            if (TransactionSynchronizationManager.isSynchronizationActive()) {
+                TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+                    @Override
+                    public void afterCommit() {
+                        historyWriteBehind.enqueue(record);
+                    }
+                });
+            } else {
+                historyWriteBehind.enqueue(record);
+            }
+            return;
+        }
         try {
             jt.update(
                     "INSERT INTO his_config_info (id,data_id,group_id,tenant_id,app_name,content,md5,src_ip,src_user,gmt_modified,op_type) "
@@ -2522,6 +2603,20 @@ public class ExternalStoragePersistServiceImpl implements PersistService {
         return configs;
     }
     
+    private Map<Long, List<String>> convertConfigTags(List<Map<String, Object>> rows) {
+        Map<Long, List<String>> tags = new HashMap<Long, List<String>>(rows.size());
+        for (Map<String, Object> row : rows) {
+            long id = ((Number) row.get("id")).longValue();
+            List<String> configTags = tags.get(id);
+            if (configTags == null) {
+                configTags = new ArrayList<String>(2);
+                tags.put(id, configTags);
+            }
+            configTags.add((String) row.get("tag_name"));
+        }
+        return tags;
+    }
+    
     @Override
     public List<ConfigInfoWrapper> convertChangeConfig(List<Map<String, Object>> list) {
         List<ConfigInfoWrapper> configs = new ArrayList<ConfigInfoWrapper>();
@@ -2530,12 +2625,14 @@ public class ExternalStoragePersistServiceImpl implements PersistService {
             String group = (String) map.get("group_id");
             String tenant = (String) map.get("tenant_id");
             String content = (String) map.get("content");
+            String type = (String) map.get("type");
             long mTime = ((Timestamp) map.get("gmt_modified")).getTime();
             ConfigInfoWrapper config = new ConfigInfoWrapper();
             config.setDataId(dataId);
             config.setGroup(group);
             config.setTenant(tenant);
             config.setContent(content);
+            config.setType(type);
             config.setLastModified(mTime);
             configs.add(config);
         }
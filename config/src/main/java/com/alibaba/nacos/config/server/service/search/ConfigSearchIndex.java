@@ -0,0 +1,409 @@
+/*
+ * Copyright 1999-2020 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.nacos.config.server.service.search;
+
+import com.alibaba.nacos.common.utils.StringUtils;
+import com.alibaba.nacos.config.server.model.Page;
+import com.alibaba.nacos.config.server.utils.GroupKey2;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In memory index of config keys for fuzzy search.
+ *
+ * <p>Every document gets an increasing doc number, and the trigrams of its dataId and group point to the doc numbers
+ * containing them. A pattern is matched by intersecting the posting lists of the trigrams of its literal parts and
+ * checking the candidates, so only patterns without any literal of three chars scan all documents. Updating a config
+ * adds a new document and leaves the old doc number dead, the index is rebuilt once dead documents outnumber live ones.
+ *
+ * <p>Patterns follow {@code generateLikeArgument} of the persist service, {@code *} matches any chars and a pattern
+ * without {@code *} must match exactly.
+ *
+ * @author Nacos
+ */
+public class ConfigSearchIndex {
+    
+    private static final int GRAM = 3;
+    
+    private static final String WILDCARD = "*";
+    
+    private static final String WILDCARD_REGEX = "\\*";
+    
+    private static final int MIN_COMPACT_SIZE = 1024;
+    
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    
+    private final Map<String, Integer> docByKey = new HashMap<String, Integer>(1024);
+    
+    private final Map<String, IntList> dataIdGrams = new HashMap<String, IntList>(1024);
+    
+    private final Map<String, IntList> groupGrams = new HashMap<String, IntList>(64);
+    
+    private Document[] docs = new Document[1024];
+    
+    private int docCount;
+    
+    /**
+     * Add or replace the document of a config.
+     *
+     * @param doc document
+     */
+    public void put(Document doc) {
+        lock.writeLock().lock();
+        try {
+            removeDoc(doc.getGroupKey());
+            addDoc(doc);
+            compactIfNeeded();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    /**
+     * Remove the document of a config.
+     *
+     * @param dataId dataId
+     * @param group  group
+     * @param tenant tenant
+     */
+    public void remove(String dataId, String group, String tenant) {
+        lock.writeLock().lock();
+        try {
+            removeDoc(GroupKey2.getKey(dataId, group, StringUtils.defaultIfEmpty(tenant, StringUtils.EMPTY)));
+            compactIfNeeded();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    /**
+     * Get the document of a config.
+     *
+     * @param dataId dataId
+     * @param group  group
+     * @param tenant tenant
+     * @return document, null if not indexed
+     */
+    public Document get(String dataId, String group, String tenant) {
+        lock.readLock().lock();
+        try {
+            Integer docNo = docByKey
+                    .get(GroupKey2.getKey(dataId, group, StringUtils.defaultIfEmpty(tenant, StringUtils.EMPTY)));
+            return docNo == null ? null : docs[docNo];
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    /**
+     * Count of indexed configs.
+     *
+     * @return size
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return docByKey.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    /**
+     * Search configs by page, ordered by config id.
+     *
+     * @param dataId   dataId pattern, blank for any
+     * @param group    group pattern, blank for any
+     * @param tenant   tenant pattern
+     * @param appName  app name, blank for any
+     * @param tags     tags of which the config has any, empty for any
+     * @param pageNo   page number
+     * @param pageSize page size
+     * @return page of documents
+     */
+    public Page<Document> search(String dataId, String group, String tenant, String appName, Collection<String> tags,
+            int pageNo, int pageSize) {
+        if (pageNo <= 0 || pageSize <= 0) {
+            throw new IllegalArgumentException("pageNo and pageSize must be greater than zero");
+        }
+        List<Document> matched = new ArrayList<Document>();
+        lock.readLock().lock();
+        try {
+            int[] candidates = candidates(dataId, group);
+            int count = candidates == null ? docCount : candidates.length;
+            for (int i = 0; i < count; i++) {
+                Document doc = docs[candidates == null ? i : candidates[i]];
+                if (doc != null && doc.matches(dataId, group, tenant, appName, tags)) {
+                    matched.add(doc);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        Collections.sort(matched, (o1, o2) -> Long.compare(o1.getId(), o2.getId()));
+        
+        int pageCount = matched.size() / pageSize;
+        if (matched.size() > pageSize * pageCount) {
+            pageCount++;
+        }
+        Page<Document> page = new Page<Document>();
+        page.setPageNumber(pageNo);
+        page.setPagesAvailable(pageCount);
+        page.setTotalCount(matched.size());
+        if (pageNo > pageCount) {
+            return page;
+        }
+        int startRow = (pageNo - 1) * pageSize;
+        page.getPageItems().addAll(matched.subList(startRow, Math.min(startRow + pageSize, matched.size())));
+        return page;
+    }
+    
+    /**
+     * Doc numbers which may match the patterns in ascending order, or null if every document has to be checked.
+     */
+    private int[] candidates(String dataId, String group) {
+        List<IntList> postings = new ArrayList<IntList>();
+        if (!collectPostings(dataIdGrams, dataId, postings) || !collectPostings(groupGrams, group, postings)) {
+            return new int[0];
+        }
+        if (postings.isEmpty()) {
+            return null;
+        }
+        Collections.sort(postings, (o1, o2) -> Integer.compare(o1.size, o2.size));
+        int[] result = Arrays.copyOf(postings.get(0).data, postings.get(0).size);
+        int size = result.length;
+        for (int i = 1; i < postings.size() && size > 0; i++) {
+            size = intersect(result, size, postings.get(i));
+        }
+        return Arrays.copyOf(result, size);
+    }
+    
+    /**
+     * Collect the posting lists of the trigrams of a pattern, returns false if some trigram is in no document.
+     */
+    private static boolean collectPostings(Map<String, IntList> grams, String pattern, List<IntList> postings) {
+        if (StringUtils.isBlank(pattern)) {
+            return true;
+        }
+        for (String literal : pattern.split(WILDCARD_REGEX)) {
+            for (String gram : grams(literal)) {
+                IntList posting = grams.get(gram);
+                if (posting == null) {
+                    return false;
+                }
+                postings.add(posting);
+            }
+        }
+        return true;
+    }
+    
+    private static int intersect(int[] result, int size, IntList posting) {
+        int count = 0;
+        int j = 0;
+        for (int i = 0; i < size; i++) {
+            while (j < posting.size && posting.data[j] < result[i]) {
+                j++;
+            }
+            if (j == posting.size) {
+                break;
+            }
+            if (posting.data[j] == result[i]) {
+                result[count++] = result[i];
+            }
+        }
+        return count;
+    }
+    
+    private void addDoc(Document doc) {
+        if (docCount == docs.length) {
+            docs = Arrays.copyOf(docs, docs.length * 2);
+        }
+        int docNo = docCount++;
+        docs[docNo] = doc;
+        docByKey.put(doc.getGroupKey(), docNo);
+        for (String gram : grams(doc.getDataId())) {
+            posting(dataIdGrams, gram).add(docNo);
+        }
+        for (String gram : grams(doc.getGroup())) {
+            posting(groupGrams, gram).add(docNo);
+        }
+    }
+    
+    private void removeDoc(String groupKey) {
+        Integer docNo = docByKey.remove(groupKey);
+        if (docNo != null) {
+            docs[docNo] = null;
+        }
+    }
+    
+    private void compactIfNeeded() {
+        int dead = docCount - docByKey.size();
+        if (dead < MIN_COMPACT_SIZE || dead < docByKey.size()) {
+            return;
+        }
+        final Document[] oldDocs = docs;
+        final int oldCount = docCount;
+        docs = new Document[Math.max(MIN_COMPACT_SIZE, docByKey.size() * 2)];
+        docCount = 0;
+        docByKey.clear();
+        dataIdGrams.clear();
+        groupGrams.clear();
+        for (int i = 0; i < oldCount; i++) {
+            if (oldDocs[i] != null) {
+                addDoc(oldDocs[i]);
+            }
+        }
+    }
+    
+    private static IntList posting(Map<String, IntList> grams, String gram) {
+        IntList posting = grams.get(gram);
+        if (posting == null) {
+            posting = new IntList();
+            grams.put(gram, posting);
+        }
+        return posting;
+    }
+    
+    private static Set<String> grams(String value) {
+        if (value == null || value.length() < GRAM) {
+            return Collections.emptySet();
+        }
+        Set<String> grams = new HashSet<String>(value.length());
+        for (int i = 0; i + GRAM <= value.length(); i++) {
+            grams.add(value.substring(i, i + GRAM));
+        }
+        return grams;
+    }
+    
+    /**
+     * Match value against a pattern in which {@code *} matches any chars.
+     */
+    static boolean matchPattern(String pattern, String value) {
+        if (!pattern.contains(WILDCARD)) {
+            return pattern.equals(value);
+        }
+        String[] literals = pattern.split(WILDCARD_REGEX, -1);
+        if (!value.startsWith(literals[0])) {
+            return false;
+        }
+        int from = literals[0].length();
+        for (int i = 1; i < literals.length - 1; i++) {
+            int index = value.indexOf(literals[i], from);
+            if (index < 0) {
+                return false;
+            }
+            from = index + literals[i].length();
+        }
+        String last = literals[literals.length - 1];
+        return value.length() - last.length() >= from && value.endsWith(last);
+    }
+    
+    private static final class IntList {
+        
+        private int[] data = new int[4];
+        
+        private int size;
+        
+        private void add(int value) {
+            if (size == data.length) {
+                data = Arrays.copyOf(data, size * 2);
+            }
+            data[size++] = value;
+        }
+    }
+    
+    /**
+     * Indexed fields of a config.
+     */
+    public static class Document {
+        
+        private final long id;
+        
+        private final String dataId;
+        
+        private final String group;
+        
+        private final String tenant;
+        
+        private final String appName;
+        
+        private final List<String> tags;
+        
+        public Document(long id, String dataId, String group, String tenant, String appName, List<String> tags) {
+            this.id = id;
+            this.dataId = dataId;
+            this.group = group;
+            this.tenant = StringUtils.defaultIfEmpty(tenant, StringUtils.EMPTY);
+            this.appName = StringUtils.defaultIfEmpty(appName, StringUtils.EMPTY);
+            this.tags = tags == null ? Collections.<String>emptyList() : tags;
+        }
+        
+        public long getId() {
+            return id;
+        }
+        
+        public String getDataId() {
+            return dataId;
+        }
+        
+        public String getGroup() {
+            return group;
+        }
+        
+        public String getTenant() {
+            return tenant;
+        }
+        
+        public String getAppName() {
+            return appName;
+        }
+        
+        public List<String> getTags() {
+            return tags;
+        }
+        
+        String getGroupKey() {
+            return GroupKey2.getKey(dataId, group, tenant);
+        }
+        
+        boolean matches(String dataIdPattern, String groupPattern, String tenantPattern, String appNamePattern,
+                Collection<String> tagsPattern) {
+            if (StringUtils.isNotBlank(dataIdPattern) && !matchPattern(dataIdPattern, dataId)) {
+                return false;
+            }
+            if (StringUtils.isNotBlank(groupPattern) && !matchPattern(groupPattern, group)) {
+                return false;
+            }
+            if (!matchPattern(StringUtils.defaultIfEmpty(tenantPattern, StringUtils.EMPTY), tenant)) {
+                return false;
+            }
+            if (StringUtils.isNotBlank(appNamePattern) && !appNamePattern.equals(appName)) {
+                return false;
+            }
+            return tagsPattern == null || tagsPattern.isEmpty() || !Collections.disjoint(tagsPattern, tags);
+        }
+    }
+}
@@ -0,0 +1,292 @@
+/*
+ * Copyright 1999-2020 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.nacos.config.server.service.search;
+
+import com.alibaba.nacos.common.notify.Event;
+import com.alibaba.nacos.common.notify.NotifyCenter;
+import com.alibaba.nacos.common.notify.listener.Subscriber;
+import com.alibaba.nacos.common.utils.StringUtils;
+import com.alibaba.nacos.config.server.model.ConfigAllInfo;
+import com.alibaba.nacos.config.server.model.ConfigInfo;
+import com.alibaba.nacos.config.server.model.ConfigInfoWrapper;
+import com.alibaba.nacos.config.server.model.Page;
+import com.alibaba.nacos.config.server.model.event.ConfigDumpedEvent;
+import com.alibaba.nacos.config.server.service.repository.PersistService;
+import com.alibaba.nacos.config.server.utils.ConfigExecutor;
+import com.alibaba.nacos.config.server.utils.GroupKey2;
+import com.alibaba.nacos.config.server.utils.LogUtil;
+import com.alibaba.nacos.config.server.utils.PropertyUtil;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps a {@link ConfigSearchIndex} of all formal configs and answers console fuzzy searches from it.
+ *
+ * <p>The index is loaded from the database on start and rebuilt periodically, and every config dumped or removed
+ * locally is refreshed in between, in batches looked up by config id. Content of a result page is loaded from the
+ * database by the ids of the page in one query.
+ *
+ * @author Nacos
+ */
+@Component
+public class ConfigSearchIndexer extends Subscriber<ConfigDumpedEvent> {
+    
+    private static final int PAGE_SIZE = 1000;
+    
+    private static final long REBUILD_INTERVAL_MINUTES = 360;
+    
+    private static final long REFRESH_INTERVAL_MILLIS = 1000L;
+    
+    private static final int REFRESH_BATCH_SIZE = 100;
+    
+    private final PersistService persistService;
+    
+    private final Queue<ConfigDumpedEvent> changedDuringRebuild = new ConcurrentLinkedQueue<ConfigDumpedEvent>();
+    
+    /**
+     * Latest dumped event of each config not applied to the index yet.
+     */
+    private final Map<String, ConfigDumpedEvent> pending = new ConcurrentHashMap<String, ConfigDumpedEvent>();
+    
+    private volatile ConfigSearchIndex index;
+    
+    private volatile boolean rebuilding;
+    
+    public ConfigSearchIndexer(PersistService persistService) {
+        this.persistService = persistService;
+    }
+    
+    @PostConstruct
+    protected void init() {
+        if (!PropertyUtil.isConfigSearchIndexEnabled()) {
+            return;
+        }
+        NotifyCenter.registerToPublisher(ConfigDumpedEvent.class, 16384);
+        NotifyCenter.registerSubscriber(this);
+        ConfigExecutor.scheduleConfigTask(this::rebuild, 0, REBUILD_INTERVAL_MINUTES, TimeUnit.MINUTES);
+        ConfigExecutor.scheduleConfigTask(this::flush, REFRESH_INTERVAL_MILLIS, REFRESH_INTERVAL_MILLIS,
+                TimeUnit.MILLISECONDS);
+    }
+    
+    /**
+     * Fuzzy query configs from the index, same as {@link PersistService#findConfigInfoLike4Page}.
+     *
+     * @return page of configs, or null if the index is not loaded or the query filters by content
+     */
+    public Page<ConfigInfo> findConfigInfoLike4Page(final int pageNo, final int pageSize, final String dataId,
+            final String group, final String tenant, final Map<String, Object> configAdvanceInfo) {
+        ConfigSearchIndex current = index;
+        if (current == null) {
+            return null;
+        }
+        String appName = configAdvanceInfo == null ? null : (String) configAdvanceInfo.get("appName");
+        String content = configAdvanceInfo == null ? null : (String) configAdvanceInfo.get("content");
+        String configTags = configAdvanceInfo == null ? null : (String) configAdvanceInfo.get("config_tags");
+        if (StringUtils.isNotBlank(content)) {
+            return null;
+        }
+        List<String> tags = StringUtils.isBlank(configTags) ? Collections.<String>emptyList()
+                : Arrays.asList(configTags.split(","));
+        Page<ConfigSearchIndex.Document> docs = current.search(dataId, group, tenant, appName, tags, pageNo, pageSize);
+        
+        Page<ConfigInfo> page = new Page<ConfigInfo>();
+        page.setPageNumber(docs.getPageNumber());
+        page.setPagesAvailable(docs.getPagesAvailable());
+        page.setTotalCount(docs.getTotalCount());
+        Map<Long, String> contents = findContents(docs.getPageItems());
+        for (ConfigSearchIndex.Document doc : docs.getPageItems()) {
+            ConfigInfo configInfo = new ConfigInfo();
+            configInfo.setId(doc.getId());
+            configInfo.setDataId(doc.getDataId());
+            configInfo.setGroup(doc.getGroup());
+            configInfo.setTenant(doc.getTenant());
+            configInfo.setAppName(doc.getAppName());
+            configInfo.setContent(contents.get(doc.getId()));
+            page.getPageItems().add(configInfo);
+        }
+        return page;
+    }
+    
+    private Map<Long, String> findContents(List<ConfigSearchIndex.Document> docs) {
+        if (docs.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        StringBuilder ids = new StringBuilder();
+        for (ConfigSearchIndex.Document doc : docs) {
+            if (ids.length() > 0) {
+                ids.append(',');
+            }
+            ids.append(doc.getId());
+        }
+        List<ConfigInfo> configs = persistService.findConfigInfosByIds(ids.toString());
+        if (configs == null) {
+            return Collections.emptyMap();
+        }
+        Map<Long, String> result = new HashMap<Long, String>(configs.size());
+        for (ConfigInfo config : configs) {
+            result.put(config.getId(), config.getContent());
+        }
+        return result;
+    }
+    
+    /**
+     * Load all configs from the database into a new index.
+     */
+    void rebuild() {
+        rebuilding = true;
+        try {
+            long start = System.currentTimeMillis();
+            ConfigSearchIndex newIndex = new ConfigSearchIndex();
+            long lastMaxId = 0;
+            while (true) {
+                Page<ConfigInfoWrapper> page = persistService.findAllConfigInfoBaseFragment(lastMaxId, PAGE_SIZE);
+                if (page == null || page.getPageItems().isEmpty()) {
+                    break;
+                }
+                List<Long> ids = new ArrayList<Long>(page.getPageItems().size());
+                for (ConfigInfoWrapper config : page.getPageItems()) {
+                    ids.add(config.getId());
+                    lastMaxId = Math.max(lastMaxId, config.getId());
+                }
+                Map<Long, List<String>> tags = persistService.selectTagByConfigIds(ids);
+                for (ConfigInfoWrapper config : page.getPageItems()) {
+                    newIndex.put(new ConfigSearchIndex.Document(config.getId(), config.getDataId(), config.getGroup(),
+                            config.getTenant(), config.getAppName(), tags.get(config.getId())));
+                }
+            }
+            index = newIndex;
+            LogUtil.DEFAULT_LOG.info("[config-search-index] rebuild {} configs, cost {} ms", newIndex.size(),
+                    System.currentTimeMillis() - start);
+        } catch (Throwable e) {
+            LogUtil.DEFAULT_LOG.error("[config-search-index] rebuild failed", e);
+        } finally {
+            rebuilding = false;
+        }
+        // Changes loaded before the new index was built are applied again.
+        ConfigDumpedEvent event;
+        while ((event = changedDuringRebuild.poll()) != null) {
+            pending.putIfAbsent(GroupKey2.getKey(event.dataId, event.group, event.tenant), event);
+        }
+    }
+    
+    @Override
+    public void onEvent(ConfigDumpedEvent event) {
+        if (rebuilding) {
+            changedDuringRebuild.offer(event);
+        }
+        pending.put(GroupKey2.getKey(event.dataId, event.group, event.tenant), event);
+    }
+    
+    /**
+     * Apply the pending events to the index. Configs already indexed are looked up by id in batches, only new configs
+     * are looked up one by one.
+     */
+    synchronized void flush() {
+        ConfigSearchIndex current = index;
+        if (current == null || pending.isEmpty()) {
+            return;
+        }
+        List<ConfigDumpedEvent> batch = new ArrayList<ConfigDumpedEvent>(REFRESH_BATCH_SIZE);
+        Iterator<String> iterator = pending.keySet().iterator();
+        while (iterator.hasNext()) {
+            ConfigDumpedEvent event = pending.remove(iterator.next());
+            if (event == null) {
+                continue;
+            }
+            if (event.remove) {
+                current.remove(event.dataId, event.group, event.tenant);
+                continue;
+            }
+            batch.add(event);
+            if (batch.size() >= REFRESH_BATCH_SIZE) {
+                refresh(current, batch);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            refresh(current, batch);
+        }
+    }
+    
+    private void refresh(ConfigSearchIndex current, List<ConfigDumpedEvent> events) {
+        Map<Long, ConfigDumpedEvent> indexed = new HashMap<Long, ConfigDumpedEvent>(events.size());
+        List<ConfigDumpedEvent> created = new ArrayList<ConfigDumpedEvent>();
+        for (ConfigDumpedEvent event : events) {
+            ConfigSearchIndex.Document doc = current.get(event.dataId, event.group, event.tenant);
+            if (doc == null) {
+                created.add(event);
+            } else {
+                indexed.put(doc.getId(), event);
+            }
+        }
+        try {
+            if (!indexed.isEmpty()) {
+                List<Long> ids = new ArrayList<Long>(indexed.keySet());
+                List<ConfigInfo> configs = persistService.findConfigInfosByIds(StringUtils.join(ids, ","));
+                Map<Long, List<String>> tags = persistService.selectTagByConfigIds(ids);
+                if (configs != null) {
+                    for (ConfigInfo config : configs) {
+                        indexed.remove(config.getId());
+                        current.put(new ConfigSearchIndex.Document(config.getId(), config.getDataId(),
+                                config.getGroup(), config.getTenant(), config.getAppName(), tags.get(config.getId())));
+                    }
+                }
+                // The config was removed and published again with a new id.
+                created.addAll(indexed.values());
+            }
+        } catch (Throwable e) {
+            LogUtil.DEFAULT_LOG.error("[config-search-index] refresh {} configs failed", indexed.size(), e);
+        }
+        for (ConfigDumpedEvent event : created) {
+            refresh(current, event);
+        }
+    }
+    
+    private void refresh(ConfigSearchIndex current, ConfigDumpedEvent event) {
+        try {
+            ConfigAllInfo config = persistService.findConfigAllInfo(event.dataId, event.group, event.tenant);
+            if (config == null) {
+                current.remove(event.dataId, event.group, event.tenant);
+                return;
+            }
+            List<String> tags = StringUtils.isBlank(config.getConfigTags()) ? null
+                    : Arrays.asList(config.getConfigTags().split(","));
+            current.put(new ConfigSearchIndex.Document(config.getId(), config.getDataId(), config.getGroup(),
+                    config.getTenant(), config.getAppName(), tags));
+        } catch (Throwable e) {
+            LogUtil.DEFAULT_LOG.error("[config-search-index] refresh {}+{}+{} failed", event.dataId, event.group,
+                    event.tenant, e);
+        }
+    }
+    
+    @Override
+    public Class<? extends Event> subscribeType() {
+        return ConfigDumpedEvent.class;
+    }
+}
@@ -97,6 +97,63 @@ public class PropertyUtil implements ApplicationContextInitializer<ConfigurableA
      */
     private static boolean useExternalDB = false;
     
+    /**
+     * Whether to serve hot config content from memory instead of the dumped files or the database.
+     */
+    private static boolean contentCacheEnabled = false;
+    
+    /**
+     * The byte budget of the in-memory config content cache.
+     */
+    private static long contentCacheMaxBytes = 64 * 1024 * 1024;
+    
+    /**
+     * The local snapshot store of dumped configs, rawdisk (one file per config) or segment (append-only segment files).
+     */
+    private static String configDiskType = "rawdisk";
+    
+    /**
+     * Whether to checkpoint the dump and load only the changed configs on startup instead of dumping all.
+     */
+    private static boolean dumpCheckpointEnabled = false;
+    
+    /**
+     * Max count of config changes synced to another server in one request, batch sync is disabled if not above 1.
+     */
+    private static int notifyBatchSize = 100;
+    
+    /**
+     * Time window in milliseconds in which config changes to the same server are coalesced into one request.
+     */
+    private static int notifyBatchWindow = 20;
+    
+    /**
+     * Time window in milliseconds in which config changes to the same client connection are coalesced into one push,
+     * batch push is disabled if not above 0 and is only used for clients supporting it.
+     */
+    private static int pushBatchWindow = 20;
+    
+    /**
+     * Whether config history rows are written behind the publish transaction, only used with external storage.
+     */
+    private static boolean historyWriteBehindEnabled = false;
+    
+    /**
+     * Max count of history rows held in memory by the write-behind queue, the rest is only kept in the local spool.
+     */
+    private static int historyWriteBehindQueueSize = 10000;
+    
+    /**
+     * Whether console fuzzy searches are answered by the local config search index instead of the database.
+     */
+    private static boolean configSearchIndexEnabled = false;
+    
+    /**
+     * Min bytes of config content returned gzip compressed to clients accepting it, compression is disabled if not
+     * above 0.
+     */
+    private static int contentCompressThreshold = 102400;
+    
     /**
      * Inline storage value = ${nacos.standalone}.
      */
@@ -242,6 +299,94 @@ public class PropertyUtil implements ApplicationContextInitializer<ConfigurableA
     // if use mysql, Reduce database read pressure
     // if use raft+derby, Reduce leader read pressure
     
+    public static boolean isContentCacheEnabled() {
+        return contentCacheEnabled;
+    }
+    
+    public static void setContentCacheEnabled(boolean contentCacheEnabled) {
+        PropertyUtil.contentCacheEnabled = contentCacheEnabled;
+    }
+    
+    public static long getContentCacheMaxBytes() {
+        return contentCacheMaxBytes;
+    }
+    
+    public static void setContentCacheMaxBytes(long contentCacheMaxBytes) {
+        PropertyUtil.contentCacheMaxBytes = contentCacheMaxBytes;
+    }
+    
+    public static String getConfigDiskType() {
+        return configDiskType;
+    }
+    
+    public static void setConfigDiskType(String configDiskType) {
+        PropertyUtil.configDiskType = configDiskType;
+    }
+    
+    public static boolean isDumpCheckpointEnabled() {
+        return dumpCheckpointEnabled;
+    }
+    
+    public static void setDumpCheckpointEnabled(boolean dumpCheckpointEnabled) {
+        PropertyUtil.dumpCheckpointEnabled = dumpCheckpointEnabled;
+    }
+    
+    public static int getNotifyBatchSize() {
+        return notifyBatchSize;
+    }
+    
+    public static void setNotifyBatchSize(int notifyBatchSize) {
+        PropertyUtil.notifyBatchSize = notifyBatchSize;
+    }
+    
+    public static int getNotifyBatchWindow() {
+        return notifyBatchWindow;
+    }
+    
+    public static void setNotifyBatchWindow(int notifyBatchWindow) {
+        PropertyUtil.notifyBatchWindow = notifyBatchWindow;
+    }
+    
+    public static int getPushBatchWindow() {
+        return pushBatchWindow;
+    }
+    
+    public static void setPushBatchWindow(int pushBatchWindow) {
+        PropertyUtil.pushBatchWindow = pushBatchWindow;
+    }
+    
+    public static boolean isHistoryWriteBehindEnabled() {
+        return historyWriteBehindEnabled;
+    }
+    
+    public static void setHistoryWriteBehindEnabled(boolean historyWriteBehindEnabled) {
+        PropertyUtil.historyWriteBehindEnabled = historyWriteBehindEnabled;
+    }
+    
+    public static int getHistoryWriteBehindQueueSize() {
+        return historyWriteBehindQueueSize;
+    }
+    
+    public static void setHistoryWriteBehindQueueSize(int historyWriteBehindQueueSize) {
+        PropertyUtil.historyWriteBehindQueueSize = historyWriteBehindQueueSize;
+    }
+    
+    public static boolean isConfigSearchIndexEnabled() {
+        return configSearchIndexEnabled;
+    }
+    
+    public static void setConfigSearchIndexEnabled(boolean configSearchIndexEnabled) {
+        PropertyUtil.configSearchIndexEnabled = configSearchIndexEnabled;
+    }
+    
+    public static int getContentCompressThreshold() {
+        return contentCompressThreshold;
+    }
+    
+    public static void setContentCompressThreshold(int contentCompressThreshold) {
+        PropertyUtil.contentCompressThreshold = contentCompressThreshold;
+    }
+    
     public static boolean isDirectRead() {
         return EnvUtil.getStandaloneMode() && isEmbeddedStorage();
     }
@@ -279,6 +424,21 @@ public class PropertyUtil implements ApplicationContextInitializer<ConfigurableA
             setDefaultMaxAggrSize(getInt(PropertiesConstant.DEFAULT_MAX_AGGR_SIZE, defaultMaxAggrSize));
             setCorrectUsageDelay(getInt(PropertiesConstant.CORRECT_USAGE_DELAY, correctUsageDelay));
             setInitialExpansionPercent(getInt(PropertiesConstant.INITIAL_EXPANSION_PERCENT, initialExpansionPercent));
+            setContentCacheEnabled(getBoolean(PropertiesConstant.CONTENT_CACHE_ENABLED, contentCacheEnabled));
+            setContentCacheMaxBytes(getLong(PropertiesConstant.CONTENT_CACHE_MAX_BYTES, contentCacheMaxBytes));
+            setConfigDiskType(getString(PropertiesConstant.CONFIG_DISK_TYPE, configDiskType));
+            setDumpCheckpointEnabled(getBoolean(PropertiesConstant.DUMP_CHECKPOINT_ENABLED, dumpCheckpointEnabled));
+            setNotifyBatchSize(getInt(PropertiesConstant.NOTIFY_BATCH_SIZE, notifyBatchSize));
+            setNotifyBatchWindow(getInt(PropertiesConstant.NOTIFY_BATCH_WINDOW, notifyBatchWindow));
+            setPushBatchWindow(getInt(PropertiesConstant.PUSH_BATCH_WINDOW, pushBatchWindow));
+            setHistoryWriteBehindEnabled(
+                    getBoolean(PropertiesConstant.HISTORY_WRITE_BEHIND_ENABLED, historyWriteBehindEnabled));
+            setHistoryWriteBehindQueueSize(
+                    getInt(PropertiesConstant.HISTORY_WRITE_BEHIND_QUEUE_SIZE, historyWriteBehindQueueSize));
+            setConfigSearchIndexEnabled(
+                    getBoolean(PropertiesConstant.CONFIG_SEARCH_INDEX_ENABLED, configSearchIndexEnabled));
+            setContentCompressThreshold(
+                    getInt(PropertiesConstant.CONTENT_COMPRESS_THRESHOLD, contentCompressThreshold));
             // External data sources are used by default in cluster mode
             setUseExternalDB(PropertiesConstant.MYSQL
                     .equalsIgnoreCase(getString(PropertiesConstant.SPRING_DATASOURCE_PLATFORM, "")));
@@ -315,6 +475,10 @@ public class PropertyUtil implements ApplicationContextInitializer<ConfigurableA
         return Integer.parseInt(getString(key, String.valueOf(defaultValue)));
     }
     
+    private long getLong(String key, long defaultValue) {
+        return Long.parseLong(getString(key, String.valueOf(defaultValue)));
+    }
+    
     private String getString(String key, String defaultValue) {
         String value = getProperty(key);
         if (value == null) {
@@ -0,0 +1,51 @@
+/*
+ * Copyright 1999-2020 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.nacos.config.server.remote;
+
+import com.alibaba.nacos.api.config.remote.request.cluster.ConfigChangeClusterBatchSyncRequest;
+import com.alibaba.nacos.api.config.remote.response.cluster.ConfigChangeClusterBatchSyncResponse;
+import com.alibaba.nacos.api.remote.request.RequestMeta;
+import com.alibaba.nacos.common.utils.JacksonUtils;
+import com.alibaba.nacos.config.server.service.dump.DumpService;
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+public class ConfigChangeClusterBatchSyncRequestHandlerTest {
+    
+    @Test
+    public void testHandle() throws Exception {
+        ConfigChangeClusterBatchSyncRequest request = new ConfigChangeClusterBatchSyncRequest();
+        request.addConfigChange("dataId1", "group", "tenant", null, 1L, false);
+        request.addConfigChange("dataId2", "group", "tenant", "tag", 2L, false);
+        request.addConfigChange("dataId3", "group", "", null, 3L, true);
+        // Go through the wire format.
+        request = JacksonUtils.toObj(JacksonUtils.toJson(request), ConfigChangeClusterBatchSyncRequest.class);
+        RequestMeta meta = new RequestMeta();
+        meta.setClientIp("1.1.1.1");
+        
+        DumpService dumpService = Mockito.mock(DumpService.class);
+        ConfigChangeClusterBatchSyncRequestHandler handler = new ConfigChangeClusterBatchSyncRequestHandler(
+                dumpService);
+        ConfigChangeClusterBatchSyncResponse response = handler.handle(request, meta);
+        
+        Assert.assertTrue(response.isSuccess());
+        Mockito.verify(dumpService).dump("dataId1", "group", "tenant", null, 1L, "1.1.1.1");
+        Mockito.verify(dumpService).dump("dataId2", "group", "tenant", "tag", 2L, "1.1.1.1");
+        Mockito.verify(dumpService).dump("dataId3", "group", "", 3L, "1.1.1.1", true);
+    }
+}
@@ -0,0 +1,133 @@
+/*
+ * Copyright 1999-2020 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.nacos.config.server.remote;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+public class ConfigChangeListenContextTest {
+    
+    private ConfigChangeListenContext context;
+    
+    @Before
+    public void setUp() {
+        context = new ConfigChangeListenContext();
+    }
+    
+    @Test
+    public void testAddAndRemoveListen() {
+        context.addListen("dataId+group", "md5", "conn1");
+        context.addListen("dataId+group", "md5", "conn2");
+        Set<String> listeners = context.getListeners("dataId+group");
+        Assert.assertEquals(2, listeners.size());
+        Assert.assertEquals("md5", context.getListenKeyMd5("conn1", "dataId+group"));
+        
+        context.removeListen("dataId+group", "conn1");
+        Assert.assertEquals(1, listeners.size());
+        Assert.assertNull(context.getListenKeyMd5("conn1", "dataId+group"));
+        
+        context.removeListen("dataId+group", "conn2");
+        Assert.assertNull(context.getListeners("dataId+group"));
+    }
+    
+    @Test(expected = UnsupportedOperationException.class)
+    public void testListenersViewIsReadOnly() {
+        context.addListen("dataId+group", "md5", "conn1");
+        context.getListeners("dataId+group").add("conn2");
+    }
+    
+    @Test
+    public void testClearContextForConnectionId() {
+        context.addListen("key1", "md5", "conn1");
+        context.addListen("key2", "md5", "conn1");
+        context.addListen("key2", "md5", "conn2");
+        Map<String, String> listenKeys = context.getListenKeys("conn1");
+        Assert.assertEquals(2, listenKeys.size());
+        
+        context.clearContextForConnectionId("conn1");
+        Assert.assertNull(context.getListenKeys("conn1"));
+        Assert.assertNull(context.getListeners("key1"));
+        Assert.assertEquals(1, context.getListeners("key2").size());
+        Assert.assertTrue(context.getListeners("key2").contains("conn2"));
+    }
+    
+    @Test
+    public void testConcurrentListenAndClear() throws InterruptedException {
+        final int connections = 64;
+        final int keys = 100;
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        final CountDownLatch latch = new CountDownLatch(connections);
+        for (int i = 0; i < connections; i++) {
+            final String connectionId = "conn" + i;
+            executor.execute(() -> {
+                for (int j = 0; j < keys; j++) {
+                    context.addListen("key" + j, "md5", connectionId);
+                }
+                context.clearContextForConnectionId(connectionId);
+                latch.countDown();
+            });
+        }
+        Assert.assertTrue(latch.await(10, TimeUnit.SECONDS));
+        executor.shutdown();
+        for (int j = 0; j < keys; j++) {
+            Assert.assertNull(context.getListeners("key" + j));
+        }
+    }
+    
+    @Test
+    public void testConcurrentListenAndClearSameConnection() throws InterruptedException {
+        final int keys = 20000;
+        final int adders = 3;
+        ExecutorService executor = Executors.newFixedThreadPool(adders + 1);
+        final CountDownLatch added = new CountDownLatch(adders);
+        final CountDownLatch cleared = new CountDownLatch(1);
+        for (int t = 0; t < adders; t++) {
+            final String prefix = "key" + t + "-";
+            executor.execute(() -> {
+                for (int j = 0; j < keys; j++) {
+                    context.addListen(prefix + j, "md5", "conn1");
+                }
+                added.countDown();
+            });
+        }
+        executor.execute(() -> {
+            while (added.getCount() > 0) {
+                context.clearContextForConnectionId("conn1");
+            }
+            cleared.countDown();
+        });
+        Assert.assertTrue(cleared.await(30, TimeUnit.SECONDS));
+        executor.shutdown();
+        Map<String, String> listenKeys = context.getListenKeys("conn1");
+        for (int t = 0; t < adders; t++) {
+            for (int j = 0; j < keys; j++) {
+                String groupKey = "key" + t + "-" + j;
+                Set<String> listeners = context.getListeners(groupKey);
+                boolean listened = null != listenKeys && listenKeys.containsKey(groupKey);
+                Assert.assertEquals(groupKey, listened, null != listeners && listeners.contains("conn1"));
+            }
+        }
+    }
+}
@@ -0,0 +1,115 @@
+/*
+ * Copyright 1999-2020 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.nacos.config.server.remote;
+
+import com.alibaba.nacos.api.ability.ClientAbilities;
+import com.alibaba.nacos.api.config.remote.request.ConfigChangeBatchNotifyRequest;
+import com.alibaba.nacos.api.config.remote.request.ConfigChangeNotifyRequest;
+import com.alibaba.nacos.api.remote.request.ServerRequest;
+import com.alibaba.nacos.config.server.utils.GroupKey2;
+import com.alibaba.nacos.core.remote.Connection;
+import com.alibaba.nacos.core.remote.ConnectionManager;
+import com.alibaba.nacos.core.remote.ConnectionMeta;
+import com.alibaba.nacos.core.remote.RpcPushService;
+import com.alibaba.nacos.core.remote.control.TpsMonitorManager;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import java.util.Collections;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+
+@RunWith(MockitoJUnitRunner.Silent.class)
+public class RpcConfigChangeNotifierTest {
+    
+    @Mock
+    private TpsMonitorManager tpsMonitorManager;
+    
+    @Mock
+    private RpcPushService rpcPushService;
+    
+    @Mock
+    private ConnectionManager connectionManager;
+    
+    @Mock
+    private ConfigChangeListenContext configChangeListenContext;
+    
+    @InjectMocks
+    private RpcConfigChangeNotifier notifier;
+    
+    @Before
+    public void setUp() {
+        Mockito.when(tpsMonitorManager.applyTpsForClientIp(anyString(), anyString(), anyString())).thenReturn(true);
+    }
+    
+    @Test
+    public void testBatchNotify() {
+        mockConnection("conn1", true);
+        for (int i = 0; i < 3; i++) {
+            configDataChanged("dataId" + i, "conn1");
+        }
+        // The same config changed twice is pushed once.
+        configDataChanged("dataId0", "conn1");
+        
+        ArgumentCaptor<ServerRequest> captor = ArgumentCaptor.forClass(ServerRequest.class);
+        Mockito.verify(rpcPushService, Mockito.timeout(3000L))
+                .pushWithCallback(eq("conn1"), captor.capture(), any(), any());
+        Assert.assertTrue(captor.getValue() instanceof ConfigChangeBatchNotifyRequest);
+        Assert.assertEquals(3, ((ConfigChangeBatchNotifyRequest) captor.getValue()).getChangedConfigs().size());
+    }
+    
+    @Test
+    public void testSingleNotifyForOldClient() {
+        mockConnection("conn2", false);
+        configDataChanged("dataId0", "conn2");
+        configDataChanged("dataId1", "conn2");
+        
+        ArgumentCaptor<ServerRequest> captor = ArgumentCaptor.forClass(ServerRequest.class);
+        Mockito.verify(rpcPushService, Mockito.timeout(3000L).times(2))
+                .pushWithCallback(eq("conn2"), captor.capture(), any(), any());
+        for (ServerRequest each : captor.getAllValues()) {
+            Assert.assertTrue(each instanceof ConfigChangeNotifyRequest);
+        }
+    }
+    
+    private void mockConnection(String connectionId, boolean supportBatch) {
+        ConnectionMeta meta = new ConnectionMeta(connectionId, "127.0.0.1", "127.0.0.1", 8080, 9848, "GRPC", "2.0.2",
+                "app", Collections.emptyMap());
+        Connection connection = Mockito.mock(Connection.class);
+        Mockito.when(connection.getMetaInfo()).thenReturn(meta);
+        ClientAbilities abilities = new ClientAbilities();
+        abilities.getConfigAbility().setSupportBatchChangeNotify(supportBatch);
+        Mockito.when(connection.getAbilities()).thenReturn(abilities);
+        Mockito.when(connectionManager.getConnection(connectionId)).thenReturn(connection);
+    }
+    
+    private void configDataChanged(String dataId, String connectionId) {
+        String groupKey = GroupKey2.getKey(dataId, "group", "");
+        Mockito.when(configChangeListenContext.getListeners(groupKey))
+                .thenReturn(Collections.singleton(connectionId));
+        notifier.configDataChanged(groupKey, dataId, "group", "", false, null, null);
+    }
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright 1999-2020 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.nacos.config.server.service;
+
+import com.alibaba.nacos.common.utils.IoUtils;
+import com.alibaba.nacos.common.utils.MD5Utils;
+import com.alibaba.nacos.config.server.constant.Constants;
+import com.alibaba.nacos.config.server.utils.GroupKey2;
+import com.alibaba.nacos.config.server.utils.PropertyUtil;
+import org.apache.commons.lang3.StringUtils;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+
+public class ConfigCacheServiceTest {
+    
+    private final String groupKey = GroupKey2.getKey("compress.yaml", "DEFAULT_GROUP", "");
+    
+    private int threshold;
+    
+    @Before
+    public void setUp() {
+        threshold = PropertyUtil.getContentCompressThreshold();
+        PropertyUtil.setContentCompressThreshold(1024);
+    }
+    
+    @After
+    public void tearDown() {
+        PropertyUtil.setContentCompressThreshold(threshold);
+    }
+    
+    @Test
+    public void testGetCompressedContent() throws Exception {
+        String content = StringUtils.repeat("key: value\n", 200);
+        String md5 = MD5Utils.md5Hex(content, Constants.ENCODE);
+        ConfigCacheService.updateMd5(groupKey, md5, 1L);
+        
+        byte[] compressed = ConfigCacheService.getCompressedContent(groupKey, false, null, md5, content);
+        Assert.assertNotNull(compressed);
+        Assert.assertTrue(compressed.length < content.length());
+        Assert.assertEquals(content, new String(IoUtils.tryDecompress(compressed), StandardCharsets.UTF_8));
+        Assert.assertSame(compressed, ConfigCacheService.getCompressedContent(groupKey, false, null, md5, content));
+        
+        // Beta and tag content is not kept.
+        byte[] beta = ConfigCacheService.getCompressedContent(groupKey, true, null, "betaMd5", content);
+        Assert.assertNotNull(beta);
+        Assert.assertSame(compressed, ConfigCacheService.getContentCache(groupKey).getCompressedContent().getContent());
+        
+        ConfigCacheService.updateMd5(groupKey, "newMd5", 2L);
+        Assert.assertNull(ConfigCacheService.getContentCache(groupKey).getCompressedContent());
+    }
+    
+    @Test
+    public void testGetCompressedContentFromBytes() throws Exception {
+        String content = StringUtils.repeat("key: bytes\n", 200);
+        byte[] raw = content.getBytes(StandardCharsets.UTF_8);
+        String md5 = MD5Utils.md5Hex(content, Constants.ENCODE);
+        ConfigCacheService.updateMd5(groupKey, md5, 3L);
+        
+        byte[] compressed = ConfigCacheService.getCompressedContent(groupKey, false, null, md5, raw);
+        Assert.assertNotNull(compressed);
+        Assert.assertArrayEquals(raw, IoUtils.tryDecompress(compressed));
+        Assert.assertSame(compressed, ConfigCacheService.getCompressedContent(groupKey, false, null, md5, content));
+        Assert.assertNull(ConfigCacheService
+                .getCompressedContent(groupKey, false, null, md5, new byte[1023]));
+    }
+    
+    @Test
+    public void testGetCompressedContentBelowThreshold() {
+        String content = StringUtils.repeat("a", 1023);
+        Assert.assertNull(ConfigCacheService.getCompressedContent(groupKey, false, null, "md5", content));
+        PropertyUtil.setContentCompressThreshold(0);
+        Assert.assertNull(ConfigCacheService
+                .getCompressedContent(groupKey, false, null, "md5", StringUtils.repeat("a", 4096)));
+    }
+}
@@ -0,0 +1,102 @@
+/*
+ * Copyright 1999-2020 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.nacos.config.server.service;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+
+public class ConfigContentCacheTest {
+    
+    @Test
+    public void testGetWithMd5Check() {
+        ConfigContentCache cache = new ConfigContentCache(1024);
+        cache.put("key", false, null, "md5", new byte[] {1, 2, 3});
+        Assert.assertArrayEquals(new byte[] {1, 2, 3}, cache.get("key", false, null, "md5"));
+        Assert.assertNull(cache.get("key", false, null, "otherMd5"));
+        Assert.assertNull(cache.get("key", true, null, "md5"));
+        Assert.assertNull(cache.get("key", false, "tag", "md5"));
+    }
+    
+    @Test
+    public void testRefreshOnlyIfPresent() {
+        ConfigContentCache cache = new ConfigContentCache(1024);
+        cache.refresh("key", false, "tag", "md5", new byte[] {1});
+        Assert.assertNull(cache.get("key", false, "tag", "md5"));
+        
+        cache.put("key", false, "tag", "md5", new byte[] {1});
+        cache.refresh("key", false, "tag", "md5New", new byte[] {2});
+        Assert.assertArrayEquals(new byte[] {2}, cache.get("key", false, "tag", "md5New"));
+        
+        cache.invalidate("key", false, "tag");
+        Assert.assertNull(cache.get("key", false, "tag", "md5New"));
+        Assert.assertEquals(0L, cache.usedBytes());
+    }
+    
+    @Test
+    public void testEvictLeastRecentlyUsed() {
+        ConfigContentCache cache = new ConfigContentCache(10, 1);
+        cache.put("key1", false, null, "md5", new byte[4]);
+        cache.put("key2", false, null, "md5", new byte[4]);
+        // touch key1, so key2 becomes the eldest one.
+        Assert.assertNotNull(cache.get("key1", false, null, "md5"));
+        cache.put("key3", false, null, "md5", new byte[4]);
+        
+        Assert.assertNotNull(cache.get("key1", false, null, "md5"));
+        Assert.assertNull(cache.get("key2", false, null, "md5"));
+        Assert.assertNotNull(cache.get("key3", false, null, "md5"));
+        Assert.assertEquals(8L, cache.usedBytes());
+    }
+    
+    @Test
+    public void testContentLargerThanBudgetNotCached() {
+        ConfigContentCache cache = new ConfigContentCache(10, 1);
+        cache.put("key", false, null, "md5", new byte[11]);
+        Assert.assertNull(cache.get("key", false, null, "md5"));
+        Assert.assertEquals(0L, cache.usedBytes());
+    }
+    
+    @Test
+    public void testGetStringKeepsDecodedContent() {
+        ConfigContentCache cache = new ConfigContentCache(100, 1);
+        cache.put("key", false, null, "md5", "abcd".getBytes(StandardCharsets.UTF_8));
+        Assert.assertEquals(4L, cache.usedBytes());
+        String decoded = cache.getString("key", false, null, "md5");
+        Assert.assertEquals("abcd", decoded);
+        Assert.assertSame(decoded, cache.getString("key", false, null, "md5"));
+        Assert.assertNull(cache.getString("key", false, null, "otherMd5"));
+        // The decoded string is counted in the budget.
+        Assert.assertEquals(12L, cache.usedBytes());
+        
+        cache.put("key2", false, null, "md5", "ef".getBytes(StandardCharsets.UTF_8), "ef");
+        Assert.assertEquals(18L, cache.usedBytes());
+        cache.invalidate("key", false, null);
+        cache.invalidate("key2", false, null);
+        Assert.assertEquals(0L, cache.usedBytes());
+    }
+    
+    @Test
+    public void testDecodedContentEvictsOthers() {
+        ConfigContentCache cache = new ConfigContentCache(20, 1);
+        cache.put("key1", false, null, "md5", new byte[6]);
+        cache.put("key2", false, null, "md5", new byte[6]);
+        Assert.assertNotNull(cache.getString("key2", false, null, "md5"));
+        Assert.assertNull(cache.get("key1", false, null, "md5"));
+        Assert.assertEquals(18L, cache.usedBytes());
+    }
+}
@@ -0,0 +1,64 @@
+/*
+ * Copyright 1999-2020 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.nacos.config.server.service;
+
+import com.alibaba.nacos.config.server.utils.GroupKey;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import javax.servlet.AsyncContext;
+import java.util.HashMap;
+import java.util.Map;
+
+public class LongPollingServiceTest {
+    
+    private LongPollingService longPollingService;
+    
+    @Before
+    public void setUp() {
+        longPollingService = new LongPollingService();
+    }
+    
+    @Test
+    public void testSubscriberIndexedByGroupKey() {
+        LongPollingService.ClientLongPolling first = newClientLongPolling("1.1.1.1", GroupKey.getKeyTenant("data1", "group", ""),
+                GroupKey.getKeyTenant("data2", "group", ""));
+        LongPollingService.ClientLongPolling second = newClientLongPolling("2.2.2.2", GroupKey.getKeyTenant("data2", "group", ""));
+        longPollingService.addSubscriber(first);
+        longPollingService.addSubscriber(second);
+        
+        Assert.assertEquals(1, longPollingService.getSubscribleInfo("data1", "group", "").getLisentersGroupkeyStatus().size());
+        Assert.assertEquals(2, longPollingService.getSubscribleInfo("data2", "group", "").getLisentersGroupkeyStatus().size());
+        
+        Assert.assertTrue(longPollingService.removeSubscriber(first));
+        Assert.assertFalse(longPollingService.removeSubscriber(first));
+        Assert.assertTrue(longPollingService.getSubscribleInfo("data1", "group", "").getLisentersGroupkeyStatus().isEmpty());
+        Assert.assertEquals(1, longPollingService.getSubscribleInfo("data2", "group", "").getLisentersGroupkeyStatus().size());
+        Assert.assertEquals(1, longPollingService.allSubs.size());
+    }
+    
+    private LongPollingService.ClientLongPolling newClientLongPolling(String ip, String... groupKeys) {
+        Map<String, String> clientMd5Map = new HashMap<String, String>(groupKeys.length);
+        for (String each : groupKeys) {
+            clientMd5Map.put(each, "md5");
+        }
+        return longPollingService.new ClientLongPolling(Mockito.mock(AsyncContext.class), clientMd5Map, ip, 0, 30000L,
+                "app", null);
+    }
+}
@@ -0,0 +1,92 @@
+/*
+ * Copyright 1999-2020 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.nacos.config.server.service.dump;
+
+import com.alibaba.nacos.config.server.model.DumpCheckpoint;
+import com.alibaba.nacos.config.server.service.ConfigCacheService;
+import com.alibaba.nacos.config.server.utils.GroupKey2;
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+public class DumpCheckpointStoreTest {
+    
+    private File baseDir;
+    
+    private File file;
+    
+    private DumpCheckpointStore store;
+    
+    @Before
+    public void setUp() throws IOException {
+        baseDir = Files.createTempDirectory("config-checkpoint").toFile();
+        file = new File(baseDir, "checkpoint" + File.separator + "checkpoint.json");
+        store = new DumpCheckpointStore(file);
+    }
+    
+    @After
+    public void tearDown() throws IOException {
+        FileUtils.deleteDirectory(baseDir);
+    }
+    
+    @Test
+    public void testSaveAndLoad() throws IOException {
+        Assert.assertNull(store.load());
+        DumpCheckpoint checkpoint = new DumpCheckpoint();
+        checkpoint.setMaxId(10L);
+        checkpoint.setLastModified(1000L);
+        checkpoint.setDiskType("rawdisk");
+        checkpoint.getConfigs().put("dataId+group", new DumpCheckpoint.Digest("md5", 1000L, "yaml"));
+        store.save(checkpoint);
+        
+        DumpCheckpoint loaded = store.load();
+        Assert.assertNotNull(loaded);
+        Assert.assertEquals(10L, loaded.getMaxId());
+        Assert.assertEquals(1000L, loaded.getLastModified());
+        Assert.assertEquals("rawdisk", loaded.getDiskType());
+        DumpCheckpoint.Digest digest = loaded.getConfigs().get("dataId+group");
+        Assert.assertEquals("md5", digest.getMd5());
+        Assert.assertEquals(1000L, digest.getLastModified());
+        Assert.assertEquals("yaml", digest.getType());
+        
+        store.delete();
+        Assert.assertNull(store.load());
+    }
+    
+    @Test
+    public void testLoadBroken() throws IOException {
+        FileUtils.writeStringToFile(file, "{broken", StandardCharsets.UTF_8);
+        Assert.assertNull(store.load());
+    }
+    
+    @Test
+    public void testSnapshot() {
+        String groupKey = GroupKey2.getKey("checkpointDataId", "group", "tenant");
+        ConfigCacheService.updateMd5(groupKey, "md5", 2000L);
+        DumpCheckpoint checkpoint = store.snapshot(5L);
+        Assert.assertEquals(5L, checkpoint.getMaxId());
+        Assert.assertTrue(checkpoint.getLastModified() >= 2000L);
+        Assert.assertEquals("md5", checkpoint.getConfigs().get(groupKey).getMd5());
+    }
+}
@@ -0,0 +1,186 @@
+/*
+ * Copyright 1999-2020 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.nacos.config.server.service.dump.disk;
+
+import com.alibaba.nacos.common.utils.MD5Utils;
+import com.alibaba.nacos.config.server.constant.Constants;
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+
+public class ConfigSegmentDiskServiceImplTest {
+    
+    private static final int HEADER_SIZE = 17;
+    
+    private File baseDir;
+    
+    @Before
+    public void setUp() throws IOException {
+        baseDir = Files.createTempDirectory("config-segment").toFile();
+    }
+    
+    @After
+    public void tearDown() throws IOException {
+        FileUtils.deleteDirectory(baseDir);
+    }
+    
+    @Test
+    public void testSaveAndRemove() throws IOException {
+        ConfigSegmentDiskServiceImpl service = new ConfigSegmentDiskServiceImpl(baseDir, 1024 * 1024);
+        service.saveToDisk("dataId", "group", "", "content");
+        service.saveBetaToDisk("dataId", "group", "", "beta");
+        service.saveTagToDisk("dataId", "group", "", "tag+1", "tag");
+        Assert.assertEquals("content", service.getContent("dataId", "group", ""));
+        Assert.assertEquals("beta", service.getBetaContent("dataId", "group", ""));
+        Assert.assertEquals("tag", service.getTagContent("dataId", "group", "", "tag+1"));
+        Assert.assertNull(service.getTagContent("dataId", "group", "", "tag"));
+        Assert.assertArrayEquals("beta".getBytes(StandardCharsets.UTF_8),
+                service.getBetaContentBytes("dataId", "group", ""));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        Assert.assertTrue(service.writeTagContentTo("dataId", "group", "", "tag+1", out));
+        Assert.assertEquals("tag", out.toString(Constants.ENCODE));
+        Assert.assertFalse(service.writeTagContentTo("dataId", "group", "", "tag", out));
+        Assert.assertEquals(MD5Utils.md5Hex("content", Constants.ENCODE),
+                service.getLocalConfigMd5("dataId", "group", ""));
+        
+        service.removeConfigInfo("dataId", "group", "");
+        Assert.assertNull(service.getContent("dataId", "group", ""));
+        Assert.assertEquals(MD5Utils.md5Hex("", Constants.ENCODE), service.getLocalConfigMd5("dataId", "group", ""));
+        Assert.assertEquals("beta", service.getBetaContent("dataId", "group", ""));
+        
+        service.clearAllTag();
+        Assert.assertNull(service.getTagContent("dataId", "group", "", "tag+1"));
+        Assert.assertEquals("beta", service.getBetaContent("dataId", "group", ""));
+    }
+    
+    @Test
+    public void testRecover() throws IOException {
+        ConfigSegmentDiskServiceImpl service = new ConfigSegmentDiskServiceImpl(baseDir, 256);
+        for (int i = 0; i < 20; i++) {
+            service.saveToDisk("dataId" + i, "group", "tenant", "content" + i);
+        }
+        service.saveToDisk("dataId0", "group", "tenant", "updated");
+        service.removeConfigInfo("dataId1", "group", "tenant");
+        Assert.assertTrue(service.segmentCount() > 1);
+        
+        ConfigSegmentDiskServiceImpl reopened = new ConfigSegmentDiskServiceImpl(baseDir, 256);
+        Assert.assertEquals("updated", reopened.getContent("dataId0", "group", "tenant"));
+        Assert.assertNull(reopened.getContent("dataId1", "group", "tenant"));
+        for (int i = 2; i < 20; i++) {
+            Assert.assertEquals("content" + i, reopened.getContent("dataId" + i, "group", "tenant"));
+        }
+        reopened.saveToDisk("dataId20", "group", "tenant", "content20");
+        Assert.assertEquals("content20", reopened.getContent("dataId20", "group", "tenant"));
+    }
+    
+    @Test
+    public void testCompact() throws IOException {
+        ConfigSegmentDiskServiceImpl service = new ConfigSegmentDiskServiceImpl(baseDir, 256);
+        for (int round = 0; round < 10; round++) {
+            for (int i = 0; i < 3; i++) {
+                service.saveToDisk("dataId" + i, "group", "", "content" + round);
+            }
+        }
+        service.removeConfigInfo("dataId2", "group", "");
+        int before = service.segmentCount();
+        service.compact();
+        Assert.assertTrue(service.segmentCount() < before);
+        Assert.assertEquals("content9", service.getContent("dataId0", "group", ""));
+        Assert.assertEquals("content9", service.getContent("dataId1", "group", ""));
+        Assert.assertNull(service.getContent("dataId2", "group", ""));
+        
+        ConfigSegmentDiskServiceImpl reopened = new ConfigSegmentDiskServiceImpl(baseDir, 256);
+        Assert.assertEquals("content9", reopened.getContent("dataId0", "group", ""));
+        Assert.assertEquals("content9", reopened.getContent("dataId1", "group", ""));
+        Assert.assertNull(reopened.getContent("dataId2", "group", ""));
+    }
+    
+    @Test
+    public void testClearRollsSegment() throws IOException {
+        ConfigSegmentDiskServiceImpl service = new ConfigSegmentDiskServiceImpl(baseDir, 256);
+        for (int i = 0; i < 10; i++) {
+            service.saveToDisk("dataId" + i, "group", "", "content" + i);
+            service.saveBetaToDisk("dataId" + i, "group", "", "beta" + i);
+        }
+        Assert.assertTrue(service.segmentCount() > 2);
+        File[] before = baseDir.listFiles();
+        
+        service.clearAllBeta();
+        for (File each : before) {
+            Assert.assertFalse(each.exists());
+        }
+        ConfigSegmentDiskServiceImpl reopened = new ConfigSegmentDiskServiceImpl(baseDir, 256);
+        for (int i = 0; i < 10; i++) {
+            Assert.assertEquals("content" + i, service.getContent("dataId" + i, "group", ""));
+            Assert.assertEquals("content" + i, reopened.getContent("dataId" + i, "group", ""));
+            Assert.assertNull(reopened.getBetaContent("dataId" + i, "group", ""));
+        }
+    }
+    
+    @Test
+    public void testCompactKeepsShadowingTombstone() throws IOException {
+        ConfigSegmentDiskServiceImpl service = new ConfigSegmentDiskServiceImpl(baseDir, 256);
+        service.saveToDisk("removed", "group", "", "content");
+        for (int i = 0; i < 5; i++) {
+            service.saveToDisk("live", "group", "", StringUtils.repeat("a", 64));
+        }
+        service.removeConfigInfo("removed", "group", "");
+        for (int i = 0; i < 10; i++) {
+            service.saveToDisk("live", "group", "", StringUtils.repeat("b", 64) + i);
+        }
+        service.compact();
+        Assert.assertNull(service.getContent("removed", "group", ""));
+        
+        ConfigSegmentDiskServiceImpl reopened = new ConfigSegmentDiskServiceImpl(baseDir, 256);
+        Assert.assertNull(reopened.getContent("removed", "group", ""));
+        Assert.assertEquals(StringUtils.repeat("b", 64) + 9, reopened.getContent("live", "group", ""));
+    }
+    
+    @Test
+    public void testRecoverBrokenSealedSegment() throws IOException {
+        ConfigSegmentDiskServiceImpl service = new ConfigSegmentDiskServiceImpl(baseDir, 256);
+        for (int i = 0; i < 20; i++) {
+            service.saveToDisk("dataId" + i, "group", "", "content" + i);
+        }
+        Assert.assertTrue(service.segmentCount() > 1);
+        Assert.assertFalse(service.isFullDumpRequired());
+        File[] files = baseDir.listFiles();
+        Arrays.sort(files);
+        try (RandomAccessFile file = new RandomAccessFile(files[0], "rw")) {
+            file.seek(HEADER_SIZE + 1);
+            file.write('x');
+        }
+        
+        ConfigSegmentDiskServiceImpl reopened = new ConfigSegmentDiskServiceImpl(baseDir, 256);
+        Assert.assertTrue(reopened.isFullDumpRequired());
+        Assert.assertEquals(1, reopened.segmentCount());
+        Assert.assertNull(reopened.getContent("dataId19", "group", ""));
+        reopened.saveToDisk("dataId0", "group", "", "dumped");
+        Assert.assertEquals("dumped", new ConfigSegmentDiskServiceImpl(baseDir, 256).getContent("dataId0", "group", ""));
+    }
+}
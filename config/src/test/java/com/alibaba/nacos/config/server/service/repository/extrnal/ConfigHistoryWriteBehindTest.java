@@ -0,0 +1,189 @@
+/*
+ * Copyright 1999-2020 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.nacos.config.server.service.repository.extrnal;
+
+import com.alibaba.nacos.config.server.model.ConfigInfo;
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+
+public class ConfigHistoryWriteBehindTest {
+    
+    private File dir;
+    
+    private JdbcTemplate jt;
+    
+    private TransactionTemplate tjt;
+    
+    private List<Object[]> inserted;
+    
+    @Before
+    public void setUp() throws IOException {
+        dir = Files.createTempDirectory("his-spool").toFile();
+        jt = Mockito.mock(JdbcTemplate.class);
+        tjt = Mockito.mock(TransactionTemplate.class);
+        inserted = new ArrayList<Object[]>();
+        Mockito.when(tjt.execute(Mockito.any())).thenAnswer(
+                invocation -> ((TransactionCallback<?>) invocation.getArgument(0)).doInTransaction(null));
+        Mockito.when(jt.batchUpdate(Mockito.eq(ConfigHistoryWriteBehind.SQL_INSERT_HISTORY), Mockito.anyList()))
+                .thenAnswer(invocation -> {
+                    List<Object[]> args = invocation.getArgument(1);
+                    inserted.addAll(args);
+                    return new int[args.size()];
+                });
+    }
+    
+    @After
+    public void tearDown() throws IOException {
+        FileUtils.deleteDirectory(dir);
+    }
+    
+    @Test
+    public void testFlush() throws IOException {
+        ConfigHistoryWriteBehind writeBehind = new ConfigHistoryWriteBehind(jt, tjt, 100, dir);
+        writeBehind.recover();
+        for (int i = 0; i < 150; i++) {
+            writeBehind.enqueue(record(i));
+        }
+        Assert.assertEquals(150L, writeBehind.backlog());
+        writeBehind.flush();
+        Assert.assertEquals(0L, writeBehind.backlog());
+        assertInsertedInOrder(150);
+    }
+    
+    @Test
+    public void testReplayAfterRestart() throws IOException {
+        ConfigHistoryWriteBehind writeBehind = new ConfigHistoryWriteBehind(jt, tjt, 100, dir);
+        writeBehind.recover();
+        writeBehind.enqueue(record(0));
+        writeBehind.flush();
+        Mockito.when(jt.batchUpdate(Mockito.eq(ConfigHistoryWriteBehind.SQL_INSERT_HISTORY), Mockito.anyList()))
+                .thenThrow(new DataAccessResourceFailureException("db down"));
+        writeBehind.enqueue(record(1));
+        writeBehind.enqueue(record(2));
+        try {
+            writeBehind.flush();
+            Assert.fail();
+        } catch (DataAccessResourceFailureException ignored) {
+        }
+        writeBehind.shutdown();
+        
+        Mockito.reset(jt);
+        Mockito.when(jt.batchUpdate(Mockito.eq(ConfigHistoryWriteBehind.SQL_INSERT_HISTORY), Mockito.anyList()))
+                .thenAnswer(invocation -> {
+                    List<Object[]> args = invocation.getArgument(1);
+                    inserted.addAll(args);
+                    return new int[args.size()];
+                });
+        ConfigHistoryWriteBehind restarted = new ConfigHistoryWriteBehind(jt, tjt, 100, dir);
+        restarted.recover();
+        Assert.assertEquals(2L, restarted.backlog());
+        restarted.flush();
+        Assert.assertEquals(0L, restarted.backlog());
+        assertInsertedInOrder(3);
+    }
+    
+    @Test
+    public void testSpillWhenQueueFull() throws IOException {
+        ConfigHistoryWriteBehind writeBehind = new ConfigHistoryWriteBehind(jt, tjt, 100, dir);
+        writeBehind.recover();
+        for (int i = 0; i < 250; i++) {
+            writeBehind.enqueue(record(i));
+        }
+        writeBehind.flush();
+        writeBehind.enqueue(record(250));
+        writeBehind.flush();
+        Assert.assertEquals(0L, writeBehind.backlog());
+        assertInsertedInOrder(251);
+    }
+    
+    @Test
+    public void testSpoolReadInBatches() throws IOException {
+        final ConfigHistoryWriteBehind writeBehind = new ConfigHistoryWriteBehind(jt, tjt, 100, dir);
+        writeBehind.recover();
+        for (int i = 0; i < 450; i++) {
+            writeBehind.enqueue(record(i));
+        }
+        List<Integer> pendingSizes = new ArrayList<Integer>();
+        Mockito.when(jt.batchUpdate(Mockito.eq(ConfigHistoryWriteBehind.SQL_INSERT_HISTORY), Mockito.anyList()))
+                .thenAnswer(invocation -> {
+                    List<?> pending = (List<?>) ReflectionTestUtils.getField(writeBehind, "pending");
+                    pendingSizes.add(pending.size());
+                    List<Object[]> args = invocation.getArgument(1);
+                    inserted.addAll(args);
+                    return new int[args.size()];
+                });
+        writeBehind.flush();
+        Assert.assertEquals(0L, writeBehind.backlog());
+        assertInsertedInOrder(450);
+        for (Integer each : pendingSizes) {
+            Assert.assertTrue(each <= 100);
+        }
+    }
+    
+    @Test
+    public void testDeleteHistoryWrittenSynchronously() throws IOException {
+        ConfigHistoryWriteBehind writeBehind = new ConfigHistoryWriteBehind(jt, tjt, 100, dir);
+        writeBehind.recover();
+        ExternalStoragePersistServiceImpl persistService = new ExternalStoragePersistServiceImpl();
+        persistService.jt = jt;
+        ReflectionTestUtils.setField(persistService, "historyWriteBehind", writeBehind);
+        ConfigInfo configInfo = new ConfigInfo("dataId", "group", "content");
+        Timestamp time = new Timestamp(System.currentTimeMillis());
+        
+        persistService.insertConfigHistoryAtomic(1L, configInfo, "127.0.0.1", "nacos", time, "U");
+        Assert.assertEquals(1L, writeBehind.backlog());
+        Assert.assertEquals(0L, countUpdates());
+        
+        // The delete row must be visible as soon as the delete is committed.
+        persistService.insertConfigHistoryAtomic(1L, configInfo, "127.0.0.1", "nacos", time, "D");
+        Assert.assertEquals(1L, writeBehind.backlog());
+        Assert.assertEquals(1L, countUpdates());
+    }
+    
+    private long countUpdates() {
+        return Mockito.mockingDetails(jt).getInvocations().stream()
+                .filter(invocation -> "update".equals(invocation.getMethod().getName())).count();
+    }
+    
+    private void assertInsertedInOrder(int count) {
+        Assert.assertEquals(count, inserted.size());
+        for (int i = 0; i < count; i++) {
+            Assert.assertEquals("dataId" + i, inserted.get(i)[1]);
+        }
+    }
+    
+    private ConfigHistoryWriteBehind.HistoryRecord record(int i) {
+        return new ConfigHistoryWriteBehind.HistoryRecord(i, "dataId" + i, "group", "", "", "content\n" + i, "md5",
+                "127.0.0.1", "nacos", System.currentTimeMillis(), "I");
+    }
+}
@@ -0,0 +1,100 @@
+/*
+ * Copyright 1999-2020 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.nacos.config.server.service.search;
+
+import com.alibaba.nacos.config.server.model.Page;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+public class ConfigSearchIndexTest {
+    
+    private ConfigSearchIndex index;
+    
+    @Before
+    public void setUp() {
+        index = new ConfigSearchIndex();
+        index.put(new ConfigSearchIndex.Document(3, "order-service.yaml", "DEFAULT_GROUP", "", "order",
+                Arrays.asList("prod", "core")));
+        index.put(new ConfigSearchIndex.Document(1, "user-service.yaml", "DEFAULT_GROUP", "", "user", null));
+        index.put(new ConfigSearchIndex.Document(2, "user-service.properties", "BIZ_GROUP", "", "user",
+                Collections.singletonList("prod")));
+        index.put(new ConfigSearchIndex.Document(4, "user-service.yaml", "DEFAULT_GROUP", "dev", "user", null));
+    }
+    
+    @Test
+    public void testSearchPattern() {
+        assertIds(index.search("*service*", null, "", null, null, 1, 10), 1, 2, 3);
+        assertIds(index.search("user*", null, "", null, null, 1, 10), 1, 2);
+        assertIds(index.search("*.yaml", "DEFAULT_GROUP", "", null, null, 1, 10), 1, 3);
+        assertIds(index.search("user-service.yaml", null, "", null, null, 1, 10), 1);
+        assertIds(index.search("user-service", null, "", null, null, 1, 10));
+        assertIds(index.search("*xyz*", null, "", null, null, 1, 10));
+        assertIds(index.search("*a*", "*GROUP", "*", null, null, 1, 10), 1, 3, 4);
+        assertIds(index.search(null, null, "dev", null, null, 1, 10), 4);
+    }
+    
+    @Test
+    public void testSearchAppNameAndTags() {
+        assertIds(index.search("*", null, "", "user", null, 1, 10), 1, 2);
+        assertIds(index.search(null, null, "", null, Collections.singletonList("prod"), 1, 10), 2, 3);
+        assertIds(index.search(null, null, "", null, Arrays.asList("core", "test"), 1, 10), 3);
+    }
+    
+    @Test
+    public void testPageAndUpdate() {
+        Page<ConfigSearchIndex.Document> page = index.search("*service*", null, "", null, null, 2, 2);
+        Assert.assertEquals(3, page.getTotalCount());
+        Assert.assertEquals(2, page.getPagesAvailable());
+        assertIds(page, 3);
+        
+        index.put(new ConfigSearchIndex.Document(3, "order-service.yaml", "DEFAULT_GROUP", "", "trade", null));
+        index.remove("user-service.yaml", "DEFAULT_GROUP", "");
+        Assert.assertEquals(3, index.size());
+        assertIds(index.search("*service*", null, "", null, null, 1, 10), 2, 3);
+        assertIds(index.search("*", null, "", "trade", null, 1, 10), 3);
+    }
+    
+    @Test
+    public void testCompact() {
+        for (int i = 0; i < 5000; i++) {
+            index.put(new ConfigSearchIndex.Document(10, "hot-config", "DEFAULT_GROUP", "", "app" + i, null));
+        }
+        Assert.assertEquals(5, index.size());
+        assertIds(index.search("hot*", null, "", "app4999", null, 1, 10), 10);
+    }
+    
+    @Test
+    public void testMatchPattern() {
+        Assert.assertTrue(ConfigSearchIndex.matchPattern("a*b*c", "aXbYc"));
+        Assert.assertTrue(ConfigSearchIndex.matchPattern("*", ""));
+        Assert.assertFalse(ConfigSearchIndex.matchPattern("ab*ba", "aba"));
+        Assert.assertFalse(ConfigSearchIndex.matchPattern("a*c", "abcd"));
+    }
+    
+    private void assertIds(Page<ConfigSearchIndex.Document> page, long... ids) {
+        List<ConfigSearchIndex.Document> docs = page.getPageItems();
+        Assert.assertEquals(ids.length, docs.size());
+        for (int i = 0; i < ids.length; i++) {
+            Assert.assertEquals(ids[i], docs.get(i).getId());
+        }
+    }
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright 1999-2020 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.nacos.config.server.service.search;
+
+import com.alibaba.nacos.config.server.model.ConfigAllInfo;
+import com.alibaba.nacos.config.server.model.ConfigInfo;
+import com.alibaba.nacos.config.server.model.ConfigInfoWrapper;
+import com.alibaba.nacos.config.server.model.Page;
+import com.alibaba.nacos.config.server.model.event.ConfigDumpedEvent;
+import com.alibaba.nacos.config.server.service.repository.PersistService;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+public class ConfigSearchIndexerTest {
+    
+    private PersistService persistService;
+    
+    private ConfigSearchIndexer indexer;
+    
+    @Before
+    public void setUp() {
+        persistService = Mockito.mock(PersistService.class);
+        Page<ConfigInfoWrapper> page = new Page<ConfigInfoWrapper>();
+        page.setPageItems(Arrays.asList(wrapper(1L, "a.yaml", "app"), wrapper(2L, "b.yaml", "app")));
+        Mockito.when(persistService.findAllConfigInfoBaseFragment(0L, 1000)).thenReturn(page);
+        Mockito.when(persistService.findAllConfigInfoBaseFragment(2L, 1000)).thenReturn(new Page<ConfigInfoWrapper>());
+        Mockito.when(persistService.selectTagByConfigIds(Mockito.anyList())).thenReturn(Collections.emptyMap());
+        indexer = new ConfigSearchIndexer(persistService);
+        indexer.rebuild();
+    }
+    
+    @Test
+    public void testFlushLooksUpIndexedConfigsById() {
+        ConfigInfo updated = new ConfigInfo("a.yaml", "DEFAULT_GROUP", "", "other", "content");
+        updated.setId(1L);
+        Mockito.when(persistService.findConfigInfosByIds("1")).thenReturn(Collections.singletonList(updated));
+        ConfigAllInfo created = new ConfigAllInfo();
+        created.setId(3L);
+        created.setDataId("c.yaml");
+        created.setGroup("DEFAULT_GROUP");
+        created.setTenant("");
+        created.setAppName("app");
+        Mockito.when(persistService.findConfigAllInfo("c.yaml", "DEFAULT_GROUP", "")).thenReturn(created);
+        
+        indexer.onEvent(new ConfigDumpedEvent("a.yaml", "DEFAULT_GROUP", "", false));
+        indexer.onEvent(new ConfigDumpedEvent("a.yaml", "DEFAULT_GROUP", "", false));
+        indexer.onEvent(new ConfigDumpedEvent("b.yaml", "DEFAULT_GROUP", "", true));
+        indexer.onEvent(new ConfigDumpedEvent("c.yaml", "DEFAULT_GROUP", "", false));
+        indexer.flush();
+        
+        Mockito.verify(persistService).findConfigInfosByIds("1");
+        Mockito.verify(persistService, Mockito.never()).findConfigAllInfo("a.yaml", "DEFAULT_GROUP", "");
+        Mockito.verify(persistService).findConfigAllInfo("c.yaml", "DEFAULT_GROUP", "");
+        Mockito.when(persistService.findConfigInfosByIds("1,3")).thenReturn(Collections.singletonList(updated));
+        Page<ConfigInfo> result = indexer.findConfigInfoLike4Page(1, 10, "*.yaml", null, "", null);
+        Assert.assertEquals(2, result.getTotalCount());
+        List<ConfigInfo> items = result.getPageItems();
+        Assert.assertEquals("other", items.get(0).getAppName());
+        Assert.assertEquals("content", items.get(0).getContent());
+        Assert.assertEquals("c.yaml", items.get(1).getDataId());
+        Assert.assertNull(items.get(1).getContent());
+    }
+    
+    private static ConfigInfoWrapper wrapper(long id, String dataId, String appName) {
+        ConfigInfoWrapper config = new ConfigInfoWrapper();
+        config.setId(id);
+        config.setDataId(dataId);
+        config.setGroup("DEFAULT_GROUP");
+        config.setTenant("");
+        config.setAppName(appName);
+        return config;
+    }
+}
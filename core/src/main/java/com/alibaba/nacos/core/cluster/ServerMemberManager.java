@@ -172,6 +172,7 @@ public class ServerMemberManager implements ApplicationListener<WebServerInitial
         serverAbilities.getRemoteAbility().setSupportRemoteConnection(true);
         // TODO naming and config ability should build and init by sub module.
         serverAbilities.getNamingAbility().setSupportJraft(true);
+        serverAbilities.getConfigAbility().setSupportBatchClusterSync(true);
         return serverAbilities;
     }
     
@@ -40,6 +40,12 @@ public class DistroConfig {
     
     private long loadDataRetryDelayMillis = DistroConstants.DEFAULT_DATA_LOAD_RETRY_DELAY_MILLISECONDS;
     
+    private int snapshotPageSize = DistroConstants.DEFAULT_DATA_SNAPSHOT_PAGE_SIZE;
+    
+    private boolean verifyDigestEnabled = DistroConstants.DEFAULT_DATA_VERIFY_DIGEST_ENABLED;
+    
+    private int verifyDigestBuckets = DistroConstants.DEFAULT_DATA_VERIFY_DIGEST_BUCKETS;
+    
     private DistroConfig() {
         try {
             getDistroConfigFromEnv();
@@ -61,6 +67,12 @@ public class DistroConfig {
                 DistroConstants.DEFAULT_DATA_VERIFY_TIMEOUT_MILLISECONDS);
         loadDataRetryDelayMillis = EnvUtil.getProperty(DistroConstants.DATA_LOAD_RETRY_DELAY_MILLISECONDS, Long.class,
                 DistroConstants.DEFAULT_DATA_LOAD_RETRY_DELAY_MILLISECONDS);
+        snapshotPageSize = EnvUtil.getProperty(DistroConstants.DATA_SNAPSHOT_PAGE_SIZE, Integer.class,
+                DistroConstants.DEFAULT_DATA_SNAPSHOT_PAGE_SIZE);
+        verifyDigestEnabled = EnvUtil.getProperty(DistroConstants.DATA_VERIFY_DIGEST_ENABLED, Boolean.class,
+                DistroConstants.DEFAULT_DATA_VERIFY_DIGEST_ENABLED);
+        verifyDigestBuckets = EnvUtil.getProperty(DistroConstants.DATA_VERIFY_DIGEST_BUCKETS, Integer.class,
+                DistroConstants.DEFAULT_DATA_VERIFY_DIGEST_BUCKETS);
     }
     
     public static DistroConfig getInstance() {
@@ -114,4 +126,28 @@ public class DistroConfig {
     public void setLoadDataRetryDelayMillis(long loadDataRetryDelayMillis) {
         this.loadDataRetryDelayMillis = loadDataRetryDelayMillis;
     }
+    
+    public int getSnapshotPageSize() {
+        return snapshotPageSize;
+    }
+    
+    public void setSnapshotPageSize(int snapshotPageSize) {
+        this.snapshotPageSize = snapshotPageSize;
+    }
+    
+    public boolean isVerifyDigestEnabled() {
+        return verifyDigestEnabled;
+    }
+    
+    public void setVerifyDigestEnabled(boolean verifyDigestEnabled) {
+        this.verifyDigestEnabled = verifyDigestEnabled;
+    }
+    
+    public int getVerifyDigestBuckets() {
+        return verifyDigestBuckets;
+    }
+    
+    public void setVerifyDigestBuckets(int verifyDigestBuckets) {
+        this.verifyDigestBuckets = verifyDigestBuckets;
+    }
 }
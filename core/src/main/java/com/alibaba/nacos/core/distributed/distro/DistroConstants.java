@@ -47,4 +47,16 @@ public class DistroConstants {
     
     public static final long DEFAULT_DATA_LOAD_RETRY_DELAY_MILLISECONDS = 30000L;
     
+    public static final String DATA_SNAPSHOT_PAGE_SIZE = "nacos.core.protocol.distro.data.snapshot.pageSize";
+    
+    public static final int DEFAULT_DATA_SNAPSHOT_PAGE_SIZE = 1000;
+    
+    public static final String DATA_VERIFY_DIGEST_ENABLED = "nacos.core.protocol.distro.data.verify.digest.enabled";
+    
+    public static final boolean DEFAULT_DATA_VERIFY_DIGEST_ENABLED = false;
+    
+    public static final String DATA_VERIFY_DIGEST_BUCKETS = "nacos.core.protocol.distro.data.verify.digest.buckets";
+    
+    public static final int DEFAULT_DATA_VERIFY_DIGEST_BUCKETS = 256;
+    
 }
@@ -224,4 +224,20 @@ public class DistroProtocol {
         }
         return distroDataStorage.getDatumSnapshot();
     }
+    
+    /**
+     * Query one page of datum snapshot.
+     *
+     * @param type   datum type
+     * @param cursor cursor returned by previous page, empty for first page
+     * @return one page of datum snapshot
+     */
+    public DistroData onSnapshot(String type, String cursor) {
+        DistroDataStorage distroDataStorage = distroComponentHolder.findDataStorage(type);
+        if (null == distroDataStorage) {
+            Loggers.DISTRO.warn("[DISTRO] Can't find data storage for received key {}", type);
+            return new DistroData(new DistroKey("snapshot", type), new byte[0]);
+        }
+        return distroDataStorage.getDatumSnapshot(cursor, DistroConfig.getInstance().getSnapshotPageSize());
+    }
 }
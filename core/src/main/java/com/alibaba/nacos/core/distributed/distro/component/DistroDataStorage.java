@@ -57,6 +57,20 @@ public interface DistroDataStorage {
      */
     DistroData getDatumSnapshot();
     
+    /**
+     * Get one page of distro datum snapshot.
+     *
+     * <p>Datum are paged by a cursor which is returned by {@link DistroData#getNextCursor()} of previous page. The
+     * last page returns {@code null} cursor. Storage which can't page datum returns all datum in one page.
+     *
+     * @param cursor   cursor returned by previous page, empty for first page
+     * @param pageSize max datum size of one page
+     * @return one page of datum
+     */
+    default DistroData getDatumSnapshot(String cursor, int pageSize) {
+        return getDatumSnapshot();
+    }
+    
     /**
      * Get verify datum.
      *
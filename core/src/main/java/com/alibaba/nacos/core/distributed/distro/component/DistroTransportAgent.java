@@ -89,4 +89,17 @@ public interface DistroTransportAgent {
      * @return distro data
      */
     DistroData getDatumSnapshot(String targetServer);
+    
+    /**
+     * Get one page of datum snapshot from target server.
+     *
+     * <p>Agent which can't request paged snapshot gets all datum in one page.
+     *
+     * @param targetServer target server.
+     * @param cursor       cursor returned by previous page, empty for first page
+     * @return one page of distro data, {@link DistroData#getNextCursor()} is {@code null} for last page
+     */
+    default DistroData getDatumSnapshot(String targetServer, String cursor) {
+        return getDatumSnapshot(targetServer);
+    }
 }
@@ -31,6 +31,8 @@ public class DistroData {
     
     private byte[] content;
     
+    private String nextCursor;
+    
     public DistroData() {
     }
     
@@ -62,4 +64,12 @@ public class DistroData {
     public void setContent(byte[] content) {
         this.content = content;
     }
+    
+    public String getNextCursor() {
+        return nextCursor;
+    }
+    
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
 }
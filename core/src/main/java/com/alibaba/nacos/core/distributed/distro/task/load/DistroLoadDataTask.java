@@ -16,6 +16,7 @@
 
 package com.alibaba.nacos.core.distributed.distro.task.load;
 
+import com.alibaba.nacos.common.utils.StringUtils;
 import com.alibaba.nacos.core.cluster.Member;
 import com.alibaba.nacos.core.cluster.ServerMemberManager;
 import com.alibaba.nacos.core.distributed.distro.DistroConfig;
@@ -100,8 +101,7 @@ public class DistroLoadDataTask implements Runnable {
         for (Member each : memberManager.allMembersWithoutSelf()) {
             try {
                 Loggers.DISTRO.info("[DISTRO-INIT] load snapshot {} from {}", resourceType, each.getAddress());
-                DistroData distroData = transportAgent.getDatumSnapshot(each.getAddress());
-                boolean result = dataProcessor.processSnapshot(distroData);
+                boolean result = loadSnapshotPages(transportAgent, dataProcessor, resourceType, each.getAddress());
                 Loggers.DISTRO
                         .info("[DISTRO-INIT] load snapshot {} from {} result: {}", resourceType, each.getAddress(),
                                 result);
@@ -116,6 +116,22 @@ public class DistroLoadDataTask implements Runnable {
         return false;
     }
     
+    private boolean loadSnapshotPages(DistroTransportAgent transportAgent, DistroDataProcessor dataProcessor,
+            String resourceType, String address) {
+        String cursor = StringUtils.EMPTY;
+        int pages = 0;
+        do {
+            DistroData distroData = transportAgent.getDatumSnapshot(address, cursor);
+            if (!dataProcessor.processSnapshot(distroData)) {
+                return false;
+            }
+            cursor = distroData.getNextCursor();
+            pages++;
+        } while (null != cursor);
+        Loggers.DISTRO.info("[DISTRO-INIT] load snapshot {} from {} with {} pages", resourceType, address, pages);
+        return true;
+    }
+    
     private boolean checkCompleted() {
         if (distroComponentHolder.getDataStorageTypes().size() != loadCompletedMap.size()) {
             return false;
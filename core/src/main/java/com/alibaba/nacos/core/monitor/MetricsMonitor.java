@@ -16,14 +16,18 @@
 
 package com.alibaba.nacos.core.monitor;
 
+import com.alibaba.nacos.sys.env.EnvUtil;
 import io.micrometer.core.instrument.DistributionSummary;
 import io.micrometer.core.instrument.ImmutableTag;
 import io.micrometer.core.instrument.Metrics;
 import io.micrometer.core.instrument.Tag;
 import io.micrometer.core.instrument.Timer;
 
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.atomic.AtomicInteger;
 
 /**
@@ -33,6 +37,8 @@ import java.util.concurrent.atomic.AtomicInteger;
  */
 public final class MetricsMonitor {
     
+    private static final String GRPC_PARSE_ALLOCATION_SAMPLE_INTERVAL_KEY = "nacos.remote.server.grpc.parse.allocation.sample.interval";
+    
     private static final DistributionSummary RAFT_READ_INDEX_FAILED;
     
     private static final DistributionSummary RAFT_FROM_LEADER;
@@ -41,6 +47,15 @@ public final class MetricsMonitor {
     
     private static final Timer RAFT_APPLY_READ_TIMER;
     
+    private static final DistributionSummary GRPC_REQUEST_PARSE_ALLOCATED;
+    
+    private static final com.sun.management.ThreadMXBean THREAD_ALLOCATION_BEAN;
+    
+    /**
+     * Record allocation of one in every interval grpc requests on average, 0 disables it. -1 means not resolved yet.
+     */
+    private static volatile int grpcParseAllocationSampleInterval = -1;
+    
     private static AtomicInteger longConnection = new AtomicInteger();
     
     static {
@@ -50,6 +65,9 @@ public final class MetricsMonitor {
         RAFT_APPLY_LOG_TIMER = NacosMeterRegistry.timer("protocol", "raft_apply_log_timer");
         RAFT_APPLY_READ_TIMER = NacosMeterRegistry.timer("protocol", "raft_apply_read_timer");
         
+        GRPC_REQUEST_PARSE_ALLOCATED = NacosMeterRegistry.summary("remote", "grpc_request_parse_allocated_bytes");
+        THREAD_ALLOCATION_BEAN = getThreadAllocationBean();
+        
         List<Tag> tags = new ArrayList<Tag>();
         tags.add(new ImmutableTag("module", "config"));
         tags.add(new ImmutableTag("name", "longConnection"));
@@ -76,4 +94,67 @@ public final class MetricsMonitor {
     public static Timer getRaftApplyReadTimer() {
         return RAFT_APPLY_READ_TIMER;
     }
+    
+    /**
+     * Get bytes allocated by current thread so far.
+     *
+     * @return allocated bytes, or -1 if thread allocation measurement is not supported or disabled
+     */
+    public static long getCurrentThreadAllocatedBytes() {
+        if (null == THREAD_ALLOCATION_BEAN || !THREAD_ALLOCATION_BEAN.isThreadAllocatedMemoryEnabled()) {
+            return -1L;
+        }
+        return THREAD_ALLOCATION_BEAN.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+    
+    /**
+     * Start measuring bytes allocated by current thread while parsing a grpc request, if this request is sampled.
+     *
+     * @return allocated bytes of current thread before parsing, or -1 if this request is not measured
+     */
+    public static long startGrpcRequestParseAllocated() {
+        int interval = getGrpcParseAllocationSampleInterval();
+        boolean sampled = interval == 1 || interval > 1 && ThreadLocalRandom.current().nextInt(interval) == 0;
+        if (!sampled) {
+            return -1L;
+        }
+        return getCurrentThreadAllocatedBytes();
+    }
+    
+    /**
+     * Record bytes allocated by current thread while parsing a grpc request.
+     *
+     * @param startAllocatedBytes allocated bytes of current thread before parsing, from {@link
+     *                            #startGrpcRequestParseAllocated()}
+     */
+    public static void recordGrpcRequestParseAllocated(long startAllocatedBytes) {
+        if (startAllocatedBytes < 0) {
+            return;
+        }
+        long endAllocatedBytes = getCurrentThreadAllocatedBytes();
+        if (endAllocatedBytes >= startAllocatedBytes) {
+            GRPC_REQUEST_PARSE_ALLOCATED.record(endAllocatedBytes - startAllocatedBytes);
+        }
+    }
+    
+    private static int getGrpcParseAllocationSampleInterval() {
+        int interval = grpcParseAllocationSampleInterval;
+        if (interval < 0) {
+            if (null == EnvUtil.getEnvironment()) {
+                return 0;
+            }
+            interval = Math.max(0, EnvUtil.getProperty(GRPC_PARSE_ALLOCATION_SAMPLE_INTERVAL_KEY, Integer.class, 0));
+            grpcParseAllocationSampleInterval = interval;
+        }
+        return interval;
+    }
+    
+    private static com.sun.management.ThreadMXBean getThreadAllocationBean() {
+        ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+        if (!(threadBean instanceof com.sun.management.ThreadMXBean)) {
+            return null;
+        }
+        com.sun.management.ThreadMXBean allocationBean = (com.sun.management.ThreadMXBean) threadBean;
+        return allocationBean.isThreadAllocatedMemorySupported() ? allocationBean : null;
+    }
 }
@@ -19,6 +19,8 @@ package com.alibaba.nacos.core.remote;
 import com.alibaba.nacos.api.remote.request.RequestMeta;
 import com.alibaba.nacos.api.remote.request.HealthCheckRequest;
 import com.alibaba.nacos.api.remote.response.HealthCheckResponse;
+import com.alibaba.nacos.core.remote.control.ConcurrencyLimit;
+import com.alibaba.nacos.core.remote.control.RequestPriority;
 import com.alibaba.nacos.core.remote.control.TpsControl;
 import org.springframework.stereotype.Component;
 
@@ -33,6 +35,7 @@ public class HealthCheckRequestHandler extends RequestHandler<HealthCheckRequest
     
     @Override
     @TpsControl(pointName = "HealthCheck")
+    @ConcurrencyLimit(priority = RequestPriority.HIGH)
     public HealthCheckResponse handle(HealthCheckRequest request, RequestMeta meta) {
         return new HealthCheckResponse();
     }
@@ -0,0 +1,79 @@
+/*
+ * Copyright 1999-2020 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.nacos.core.remote;
+
+import com.alibaba.nacos.api.remote.request.ServerRequest;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Server request which is pushed to many connections, so that it only needs to be encoded once.
+ *
+ * <p>Connections get the encoded form by {@link #getEncoded(String, Function)} and fill in their own request id, the
+ * request is encoded once for each payload codec, and should not be modified after the first encoding.
+ *
+ * @author Nacos
+ */
+public class PreparedServerRequest extends ServerRequest {
+    
+    private final ServerRequest request;
+    
+    private final Map<String, Object> encoded = new ConcurrentHashMap<>(2);
+    
+    public PreparedServerRequest(ServerRequest request) {
+        this.request = request;
+    }
+    
+    public ServerRequest getRequest() {
+        return request;
+    }
+    
+    @Override
+    public String getModule() {
+        return request.getModule();
+    }
+    
+    /**
+     * Get the encoded request of the format, encode it at the first time.
+     *
+     * @param format  format of encoded request, such as name of payload codec
+     * @param encoder encoder of request
+     * @param <T>     type of encoded request
+     * @return encoded request
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T getEncoded(String format, Function<ServerRequest, T> encoder) {
+        Object result = encoded.get(format);
+        if (null == result) {
+            synchronized (this) {
+                result = encoded.get(format);
+                if (null == result) {
+                    result = encoder.apply(request);
+                    encoded.put(format, result);
+                }
+            }
+        }
+        return (T) result;
+    }
+    
+    @Override
+    public String toString() {
+        return request.toString();
+    }
+}
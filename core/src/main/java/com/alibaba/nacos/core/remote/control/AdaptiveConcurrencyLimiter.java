@@ -0,0 +1,160 @@
+/*
+ * Copyright 1999-2020 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.nacos.core.remote.control;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Gradient based adaptive concurrency limiter.
+ *
+ * <p>Each handler keeps a long term average latency as its baseline. When a sampled latency is higher than the
+ * tolerated baseline, the limit shrinks by the gradient {@code baseline / latency}, otherwise it grows by the square
+ * root of itself. Requests are rejected when inflight and queued requests exceed the share of limit of their
+ * priority.
+ *
+ * @author Nacos
+ */
+public class AdaptiveConcurrencyLimiter {
+    
+    private static final double MIN_GRADIENT = 0.5D;
+    
+    private static final double MAX_GRADIENT = 1.0D;
+    
+    private static final double LATENCY_TOLERANCE = 1.5D;
+    
+    private static final double LIMIT_SMOOTHING = 0.2D;
+    
+    private static final double BASELINE_SMOOTHING = 0.01D;
+    
+    private static final int APP_LIMITED_DIVISOR = 2;
+    
+    private final int minLimit;
+    
+    private final int maxLimit;
+    
+    private final AtomicInteger inflight = new AtomicInteger();
+    
+    private final Map<Object, LatencyBaseline> baselines = new ConcurrentHashMap<Object, LatencyBaseline>(32);
+    
+    private final ReentrantLock updateLock = new ReentrantLock();
+    
+    private volatile double limit;
+    
+    public AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit) {
+        if (minLimit <= 0 || minLimit > maxLimit) {
+            throw new IllegalArgumentException("Illegal concurrency limit range [" + minLimit + ", " + maxLimit + "]");
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.limit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+    }
+    
+    /**
+     * Try to acquire a permit for request.
+     *
+     * @param priority priority of request
+     * @param queued   requests waiting for executing, counted as inflight
+     * @return true if acquired, caller must {@link #release(Object, long, boolean)} after request finished
+     */
+    public boolean tryAcquire(RequestPriority priority, int queued) {
+        if (RequestPriority.HIGH == priority) {
+            inflight.incrementAndGet();
+            return true;
+        }
+        double threshold = limit * priority.getLimitShare();
+        while (true) {
+            int current = inflight.get();
+            if (current + queued >= threshold) {
+                return false;
+            }
+            if (inflight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+    
+    /**
+     * Release permit and sample latency of request.
+     *
+     * @param handler      handler of request, latency baseline is kept per handler
+     * @param latencyNanos latency of request
+     * @param sample       whether use the latency to update limit, failed requests should not be sampled
+     */
+    public void release(Object handler, long latencyNanos, boolean sample) {
+        int current = inflight.getAndDecrement();
+        if (!sample || latencyNanos <= 0) {
+            return;
+        }
+        double baseline = getBaseline(handler).update(latencyNanos);
+        if (!updateLock.tryLock()) {
+            // other thread is updating, skip this sample.
+            return;
+        }
+        try {
+            double gradient = Math
+                    .max(MIN_GRADIENT, Math.min(MAX_GRADIENT, LATENCY_TOLERANCE * baseline / latencyNanos));
+            double currentLimit = limit;
+            if (gradient >= MAX_GRADIENT && current < currentLimit / APP_LIMITED_DIVISOR) {
+                // limit is far from used, don't grow it.
+                return;
+            }
+            double newLimit = currentLimit * gradient + Math.sqrt(currentLimit);
+            newLimit = currentLimit * (1 - LIMIT_SMOOTHING) + newLimit * LIMIT_SMOOTHING;
+            limit = Math.max(minLimit, Math.min(maxLimit, newLimit));
+        } finally {
+            updateLock.unlock();
+        }
+    }
+    
+    private LatencyBaseline getBaseline(Object handler) {
+        LatencyBaseline result = baselines.get(handler);
+        if (null == result) {
+            result = new LatencyBaseline();
+            LatencyBaseline previous = baselines.putIfAbsent(handler, result);
+            if (null != previous) {
+                result = previous;
+            }
+        }
+        return result;
+    }
+    
+    public int getLimit() {
+        return (int) limit;
+    }
+    
+    public int getInflight() {
+        return inflight.get();
+    }
+    
+    /**
+     * Long term exponential moving average of latency, races between updates only lose some samples.
+     */
+    private static class LatencyBaseline {
+        
+        private volatile double average;
+        
+        private double update(long latencyNanos) {
+            double current = average;
+            double result = current <= 0 ? latencyNanos : current + (latencyNanos - current) * BASELINE_SMOOTHING;
+            average = result;
+            return result;
+        }
+    }
+}
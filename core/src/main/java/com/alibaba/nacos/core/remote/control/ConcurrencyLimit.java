@@ -0,0 +1,38 @@
+/*
+ * Copyright 1999-2020 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.nacos.core.remote.control;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+
+/**
+ * Concurrency limit config of request handler, handlers without this annotation are in {@link
+ * RequestPriority#NORMAL}.
+ *
+ * @author Nacos
+ */
+@Retention(RetentionPolicy.RUNTIME)
+public @interface ConcurrencyLimit {
+    
+    /**
+     * Priority of the request when concurrency is limited.
+     *
+     * @return priority, default NORMAL
+     */
+    RequestPriority priority() default RequestPriority.NORMAL;
+    
+}
@@ -0,0 +1,146 @@
+/*
+ * Copyright 1999-2020 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.nacos.core.remote.control;
+
+import com.alibaba.nacos.api.exception.NacosException;
+import com.alibaba.nacos.api.remote.RemoteConstants;
+import com.alibaba.nacos.api.remote.request.Request;
+import com.alibaba.nacos.api.remote.request.RequestMeta;
+import com.alibaba.nacos.api.remote.response.Response;
+import com.alibaba.nacos.core.remote.AbstractRequestFilter;
+import com.alibaba.nacos.core.utils.GlobalExecutor;
+import com.alibaba.nacos.core.utils.Loggers;
+import com.alibaba.nacos.sys.env.EnvUtil;
+import io.micrometer.core.instrument.ImmutableTag;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Tag;
+import org.springframework.stereotype.Service;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * Adaptive concurrency limit of grpc requests.
+ *
+ * <p>Permit acquired in this filter is released by {@link #release(Class, long, boolean)} with the latency of request
+ * after request handled, so that overload is detected by latency and queued requests before tps rules trip. It is
+ * disabled by default, enable it by {@code nacos.remote.server.concurrency.limit.enabled=true}.
+ *
+ * @author Nacos
+ */
+@Service
+public class ConcurrencyLimitRequestFilter extends AbstractRequestFilter {
+    
+    private static final String ENABLED_KEY = "nacos.remote.server.concurrency.limit.enabled";
+    
+    private static final String MIN_LIMIT_KEY = "nacos.remote.server.concurrency.limit.min";
+    
+    private static final String MAX_LIMIT_KEY = "nacos.remote.server.concurrency.limit.max";
+    
+    private static final int DEFAULT_MIN_LIMIT = 16;
+    
+    private static final ThreadLocal<Boolean> ACQUIRED = new ThreadLocal<Boolean>();
+    
+    private final Map<Class, RequestPriority> priorities = new ConcurrentHashMap<Class, RequestPriority>(32);
+    
+    private final boolean enabled;
+    
+    private final AdaptiveConcurrencyLimiter limiter;
+    
+    public ConcurrencyLimitRequestFilter() {
+        int executorSize = GlobalExecutor.sdkRpcExecutor.getMaximumPoolSize();
+        int maxLimit = executorSize + GlobalExecutor.sdkRpcExecutor.getQueue().remainingCapacity();
+        this.enabled = EnvUtil.getProperty(ENABLED_KEY, Boolean.class, false);
+        int minLimit = EnvUtil.getProperty(MIN_LIMIT_KEY, Integer.class, Math.min(DEFAULT_MIN_LIMIT, executorSize));
+        maxLimit = EnvUtil.getProperty(MAX_LIMIT_KEY, Integer.class, maxLimit);
+        this.limiter = new AdaptiveConcurrencyLimiter(executorSize, minLimit, maxLimit);
+        List<Tag> tags = new ArrayList<Tag>();
+        tags.add(new ImmutableTag("module", "core"));
+        tags.add(new ImmutableTag("name", "grpcConcurrencyLimit"));
+        Metrics.gauge("nacos_monitor", tags, limiter, AdaptiveConcurrencyLimiter::getLimit);
+        tags = new ArrayList<Tag>();
+        tags.add(new ImmutableTag("module", "core"));
+        tags.add(new ImmutableTag("name", "grpcConcurrencyInflight"));
+        Metrics.gauge("nacos_monitor", tags, limiter, AdaptiveConcurrencyLimiter::getInflight);
+    }
+    
+    @Override
+    protected Response filter(Request request, RequestMeta meta, Class handlerClazz) {
+        if (!enabled || Boolean.TRUE.equals(ACQUIRED.get())) {
+            return null;
+        }
+        RequestPriority priority = getPriority(handlerClazz);
+        if (limiter.tryAcquire(priority, getRpcExecutor(meta).getQueue().size())) {
+            ACQUIRED.set(Boolean.TRUE);
+            return null;
+        }
+        Loggers.TPS_CONTROL_DETAIL
+                .info("[{}]Concurrency over limit ,request=[{}],priority={},limit={},inflight={}", meta.getConnectionId(),
+                        request.getClass().getSimpleName(), priority, limiter.getLimit(), limiter.getInflight());
+        try {
+            Response response = super.getDefaultResponseInstance(handlerClazz);
+            response.setErrorInfo(NacosException.OVER_THRESHOLD, "Concurrency limit restricted");
+            return response;
+        } catch (Exception e) {
+            Loggers.TPS_CONTROL_DETAIL
+                    .warn("Concurrency limit fail , request: {},exception:{}", request.getClass().getSimpleName(), e);
+            return null;
+        }
+    }
+    
+    /**
+     * Release permit acquired by current thread, do nothing if no permit acquired.
+     *
+     * @param handlerClazz request handler clazz
+     * @param costNanos    cost of handling request
+     * @param success      whether request handled successfully, only successful requests are sampled
+     */
+    public void release(Class handlerClazz, long costNanos, boolean success) {
+        if (!Boolean.TRUE.equals(ACQUIRED.get())) {
+            return;
+        }
+        ACQUIRED.remove();
+        limiter.release(handlerClazz, costNanos, success);
+    }
+    
+    private ThreadPoolExecutor getRpcExecutor(RequestMeta meta) {
+        String source = null == meta.getLabels() ? null : meta.getLabels().get(RemoteConstants.LABEL_SOURCE);
+        return RemoteConstants.LABEL_SOURCE_CLUSTER.equals(source) ? GlobalExecutor.clusterRpcExecutor
+                : GlobalExecutor.sdkRpcExecutor;
+    }
+    
+    private RequestPriority getPriority(Class handlerClazz) {
+        RequestPriority result = priorities.get(handlerClazz);
+        if (null == result) {
+            result = RequestPriority.NORMAL;
+            try {
+                Method method = getHandleMethod(handlerClazz);
+                if (method.isAnnotationPresent(ConcurrencyLimit.class)) {
+                    result = method.getAnnotation(ConcurrencyLimit.class).priority();
+                }
+            } catch (NacosException ignored) {
+                // use normal priority.
+            }
+            priorities.put(handlerClazz, result);
+        }
+        return result;
+    }
+}
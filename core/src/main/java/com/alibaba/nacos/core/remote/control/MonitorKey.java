@@ -29,6 +29,8 @@ public abstract class MonitorKey {
     
     String key;
     
+    private String builtKey;
+    
     public MonitorKey() {
     
     }
@@ -50,9 +52,20 @@ public abstract class MonitorKey {
     
     public void setKey(String key) {
         this.key = key;
+        this.builtKey = null;
     }
     
+    /**
+     * Build monitor key string with type, the result is cached until key changed.
+     *
+     * @return monitor key string like {@code type:key}
+     */
     public String build() {
-        return this.getType() + Constants.COLON + this.getKey();
+        String result = builtKey;
+        if (null == result) {
+            result = this.getType() + Constants.COLON + this.getKey();
+            builtKey = result;
+        }
+        return result;
     }
 }
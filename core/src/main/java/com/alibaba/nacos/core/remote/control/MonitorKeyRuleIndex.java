@@ -0,0 +1,214 @@
+/*
+ * Copyright 1999-2020 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.nacos.core.remote.control;
+
+import com.alibaba.nacos.api.common.Constants;
+import com.alibaba.nacos.core.utils.Loggers;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Monitor key rules of a tps monitor point, compiled when rules are applied.
+ *
+ * <p>Rules without wildcard are matched by hash, prefix rules like {@code type:abc*} by a prefix trie and rules like
+ * {@code type:a*b} one by one, which follows {@link MonitorKeyMatcher#matchWithType(String, String)} without splitting
+ * or concatenating strings for each monitor key.
+ *
+ * @author Nacos
+ */
+final class MonitorKeyRuleIndex {
+    
+    static final MonitorKeyRuleIndex EMPTY = new MonitorKeyRuleIndex(Collections.<String, TpsRecorder>emptyMap());
+    
+    private static final String WILDCARD_REGEX = "\\" + Constants.ALL_PATTERN;
+    
+    private static final int WILDCARD_PARTS = 2;
+    
+    /**
+     * Same as {@link String#trim()}, characters not greater than space are trimmed.
+     */
+    private static final char MAX_TRIMMED_CHAR = ' ';
+    
+    private final Map<String, List<MatchedRule>> exactRules = new HashMap<String, List<MatchedRule>>();
+    
+    private final PrefixNode prefixRoot;
+    
+    private final List<WildcardRule> wildcardRules = new ArrayList<WildcardRule>();
+    
+    private final boolean empty;
+    
+    MonitorKeyRuleIndex(Map<String, TpsRecorder> monitorKeysRecorder) {
+        PrefixNodeBuilder prefixRootBuilder = new PrefixNodeBuilder();
+        for (Map.Entry<String, TpsRecorder> entry : monitorKeysRecorder.entrySet()) {
+            String pattern = entry.getKey();
+            int typeEnd = pattern.indexOf(Constants.COLON);
+            if (typeEnd < 0) {
+                Loggers.TPS_CONTROL.warn("Invalid monitor key pattern without type, pattern=[{}], ignore it.", pattern);
+                continue;
+            }
+            MatchedRule rule = new MatchedRule(pattern, entry.getValue());
+            String type = pattern.substring(0, typeEnd);
+            String value = pattern.substring(typeEnd).trim();
+            if (!value.contains(Constants.ALL_PATTERN)) {
+                exactRules.computeIfAbsent(type + value, key -> new ArrayList<MatchedRule>(1)).add(rule);
+                continue;
+            }
+            String[] parts = value.split(WILDCARD_REGEX);
+            if (parts.length == 1) {
+                prefixRootBuilder.add(type + parts[0], rule);
+            } else if (parts.length == WILDCARD_PARTS) {
+                wildcardRules.add(new WildcardRule(type + parts[0], parts[1], rule));
+            } else {
+                Loggers.TPS_CONTROL.warn("Unsupported monitor key pattern, pattern=[{}], ignore it.", pattern);
+            }
+        }
+        this.prefixRoot = prefixRootBuilder.build();
+        this.empty = exactRules.isEmpty() && prefixRoot.isEmpty() && wildcardRules.isEmpty();
+    }
+    
+    boolean isEmpty() {
+        return empty;
+    }
+    
+    /**
+     * Collect rules matching the monitor key into matched list.
+     *
+     * @param monitorKey monitor key built by {@link MonitorKey#build()}
+     * @param matched    list to add matched rules
+     */
+    void match(String monitorKey, List<MatchedRule> matched) {
+        if (empty) {
+            return;
+        }
+        String key = trimTail(monitorKey);
+        List<MatchedRule> exact = exactRules.get(key);
+        if (null != exact) {
+            addAll(exact, matched);
+        }
+        PrefixNode node = prefixRoot;
+        for (int i = 0; i < key.length() && null != node; i++) {
+            node = node.child(key.charAt(i));
+            if (null != node) {
+                addAll(node.rules, matched);
+            }
+        }
+        for (int i = 0; i < wildcardRules.size(); i++) {
+            WildcardRule each = wildcardRules.get(i);
+            if (key.startsWith(each.prefix) && key.endsWith(each.suffix)) {
+                matched.add(each.rule);
+            }
+        }
+    }
+    
+    private static void addAll(List<MatchedRule> rules, List<MatchedRule> matched) {
+        for (int i = 0; i < rules.size(); i++) {
+            matched.add(rules.get(i));
+        }
+    }
+    
+    private static String trimTail(String monitorKey) {
+        int end = monitorKey.length();
+        while (end > 0 && monitorKey.charAt(end - 1) <= MAX_TRIMMED_CHAR) {
+            end--;
+        }
+        return end == monitorKey.length() ? monitorKey : monitorKey.substring(0, end);
+    }
+    
+    static class MatchedRule {
+        
+        final String pattern;
+        
+        final TpsRecorder recorder;
+        
+        MatchedRule(String pattern, TpsRecorder recorder) {
+            this.pattern = pattern;
+            this.recorder = recorder;
+        }
+    }
+    
+    private static class WildcardRule {
+        
+        private final String prefix;
+        
+        private final String suffix;
+        
+        private final MatchedRule rule;
+        
+        private WildcardRule(String prefix, String suffix, MatchedRule rule) {
+            this.prefix = prefix;
+            this.suffix = suffix;
+            this.rule = rule;
+        }
+    }
+    
+    private static class PrefixNode {
+        
+        private final char[] chars;
+        
+        private final PrefixNode[] children;
+        
+        private final List<MatchedRule> rules;
+        
+        private PrefixNode(char[] chars, PrefixNode[] children, List<MatchedRule> rules) {
+            this.chars = chars;
+            this.children = children;
+            this.rules = rules;
+        }
+        
+        private PrefixNode child(char c) {
+            int index = Arrays.binarySearch(chars, c);
+            return index < 0 ? null : children[index];
+        }
+        
+        private boolean isEmpty() {
+            return chars.length == 0 && rules.isEmpty();
+        }
+    }
+    
+    private static class PrefixNodeBuilder {
+        
+        private final TreeMap<Character, PrefixNodeBuilder> children = new TreeMap<Character, PrefixNodeBuilder>();
+        
+        private final List<MatchedRule> rules = new ArrayList<MatchedRule>(1);
+        
+        private void add(String prefix, MatchedRule rule) {
+            PrefixNodeBuilder node = this;
+            for (int i = 0; i < prefix.length(); i++) {
+                node = node.children.computeIfAbsent(prefix.charAt(i), c -> new PrefixNodeBuilder());
+            }
+            node.rules.add(rule);
+        }
+        
+        private PrefixNode build() {
+            char[] chars = new char[children.size()];
+            PrefixNode[] nodes = new PrefixNode[children.size()];
+            int index = 0;
+            for (Map.Entry<Character, PrefixNodeBuilder> entry : children.entrySet()) {
+                chars[index] = entry.getKey();
+                nodes[index] = entry.getValue().build();
+                index++;
+            }
+            return new PrefixNode(chars, nodes, rules);
+        }
+    }
+}
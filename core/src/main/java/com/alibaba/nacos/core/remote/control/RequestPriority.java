@@ -0,0 +1,51 @@
+/*
+ * Copyright 1999-2020 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.nacos.core.remote.control;
+
+/**
+ * Priority of request handlers for concurrency limit, lower priority requests are rejected earlier when inflight
+ * requests grow to the limit.
+ *
+ * @author Nacos
+ */
+public enum RequestPriority {
+    
+    /**
+     * Health check and cluster sync requests, never rejected by concurrency limit.
+     */
+    HIGH(1.0D),
+    
+    /**
+     * Query requests, rejected when inflight requests reach 90% of limit.
+     */
+    NORMAL(0.9D),
+    
+    /**
+     * Registration and publish requests, rejected when inflight requests reach 70% of limit.
+     */
+    LOW(0.7D);
+    
+    private final double limitShare;
+    
+    RequestPriority(double limitShare) {
+        this.limitShare = limitShare;
+    }
+    
+    public double getLimitShare() {
+        return limitShare;
+    }
+}
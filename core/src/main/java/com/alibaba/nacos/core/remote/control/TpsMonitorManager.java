@@ -216,8 +216,8 @@ public class TpsMonitorManager extends Subscriber<TpsControlRuleChangeEvent> {
                     tempSecond = pointSlot.time;
                     stringBuilder.append(point).append("|").append("point|").append(value.getTpsRecorder().period)
                             .append("|").append(formatString).append("|")
-                            .append(pointSlot.getCountHolder(point).count.get()).append("|")
-                            .append(pointSlot.getCountHolder(point).interceptedCount.get()).append("\n");
+                            .append(pointSlot.getCountHolder(point).count.sum()).append("|")
+                            .append(pointSlot.getCountHolder(point).interceptedCount.sum()).append("\n");
                     for (Map.Entry<String, TpsRecorder> monitorKeyEntry : value.monitorKeysRecorder.entrySet()) {
                         String monitorPattern = monitorKeyEntry.getKey();
                         TpsRecorder ipRecord = monitorKeyEntry.getValue();
@@ -251,8 +251,8 @@ public class TpsMonitorManager extends Subscriber<TpsControlRuleChangeEvent> {
                         } else {
                             stringBuilder.append(point).append("|").append(monitorPattern).append("|")
                                     .append(ipRecord.period).append("|").append(timeFormatOfSecond).append("|")
-                                    .append(keySlot.getCountHolder(point).count.get()).append("|")
-                                    .append(keySlot.getCountHolder(point).interceptedCount.get()).append("\n");
+                                    .append(keySlot.getCountHolder(point).count.sum()).append("|")
+                                    .append(keySlot.getCountHolder(point).interceptedCount.sum()).append("\n");
                         }
                     }
                 }
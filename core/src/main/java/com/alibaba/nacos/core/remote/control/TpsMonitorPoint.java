@@ -40,6 +40,12 @@ public class TpsMonitorPoint {
     
     private static final String DATETIME_PATTERN = "yyyy-MM-dd HH:mm:ss";
     
+    private static final ThreadLocal<List<MonitorKeyRuleIndex.MatchedRule>> MATCHED_RULES = ThreadLocal
+            .withInitial(ArrayList::new);
+    
+    private static final ThreadLocal<List<TpsRecorder.SlotCountHolder>> PASSED_SLOTS = ThreadLocal
+            .withInitial(ArrayList::new);
+    
     private long startTime;
     
     private String pointName;
@@ -48,6 +54,11 @@ public class TpsMonitorPoint {
     
     public Map<String, TpsRecorder> monitorKeysRecorder = new HashMap<String, TpsRecorder>();
     
+    /**
+     * Compiled from monitorKeysRecorder whenever rule applied, used by {@link #applyTps(String, List)}.
+     */
+    private volatile MonitorKeyRuleIndex monitorKeyRuleIndex = MonitorKeyRuleIndex.EMPTY;
+    
     public TpsMonitorPoint(String pointName) {
         this(pointName, -1, "monitor");
     }
@@ -111,6 +122,11 @@ public class TpsMonitorPoint {
     
     private void stopAllMonitorClient() {
         monitorKeysRecorder.clear();
+        refreshRuleIndex();
+    }
+    
+    private void refreshRuleIndex() {
+        this.monitorKeyRuleIndex = new MonitorKeyRuleIndex(monitorKeysRecorder);
     }
     
     /**
@@ -124,52 +140,65 @@ public class TpsMonitorPoint {
         long now = System.currentTimeMillis();
         TpsRecorder.TpsSlot currentTps = tpsRecorder.createSlotIfAbsent(now);
         
-        //1.check monitor keys.
-        List<TpsRecorder.SlotCountHolder> passedSlots = new ArrayList<>();
-        for (MonitorKey monitorKey : monitorKeys) {
-            for (Map.Entry<String, TpsRecorder> entry : monitorKeysRecorder.entrySet()) {
-                if (MonitorKeyMatcher.matchWithType(entry.getKey(), monitorKey.build())) {
-                    TpsRecorder tpsRecorderKey = entry.getValue();
-                    TpsRecorder.TpsSlot currentKeySlot = tpsRecorderKey.createSlotIfAbsent(now);
-                    long maxTpsCount = tpsRecorderKey.getMaxCount();
-                    TpsRecorder.SlotCountHolder countHolder = currentKeySlot.getCountHolder(monitorKey.build());
-                    boolean overLimit = maxTpsCount >= 0 && countHolder.count.longValue() >= maxTpsCount;
-                    if (overLimit) {
-                        Loggers.TPS_CONTROL_DETAIL
-                                .info("[{}]Tps over limit ,pointName=[{}],barrier=[{}]，monitorModel={},maxTps={}",
-                                        connectionId, this.getPointName(), entry.getKey(),
-                                        tpsRecorderKey.getMonitorType(), maxTpsCount + "/" + tpsRecorderKey.period);
-                        if (tpsRecorderKey.isInterceptMode()) {
-                            currentKeySlot.getCountHolder(monitorKey.build()).interceptedCount.incrementAndGet();
-                            currentTps.getCountHolder(monitorKey.build()).interceptedCount.incrementAndGet();
-                            return false;
+        MonitorKeyRuleIndex ruleIndex = this.monitorKeyRuleIndex;
+        List<MonitorKeyRuleIndex.MatchedRule> matchedRules = MATCHED_RULES.get();
+        List<TpsRecorder.SlotCountHolder> passedSlots = PASSED_SLOTS.get();
+        try {
+            //1.check monitor keys.
+            if (!ruleIndex.isEmpty()) {
+                for (MonitorKey monitorKey : monitorKeys) {
+                    String monitorKeyString = monitorKey.build();
+                    matchedRules.clear();
+                    ruleIndex.match(monitorKeyString, matchedRules);
+                    for (int i = 0; i < matchedRules.size(); i++) {
+                        MonitorKeyRuleIndex.MatchedRule matchedRule = matchedRules.get(i);
+                        TpsRecorder tpsRecorderKey = matchedRule.recorder;
+                        TpsRecorder.TpsSlot currentKeySlot = tpsRecorderKey.createSlotIfAbsent(now);
+                        long maxTpsCount = tpsRecorderKey.getMaxCount();
+                        TpsRecorder.SlotCountHolder countHolder = currentKeySlot.getCountHolder(monitorKeyString);
+                        boolean overLimit = maxTpsCount >= 0 && countHolder.count.sum() >= maxTpsCount;
+                        if (overLimit) {
+                            Loggers.TPS_CONTROL_DETAIL
+                                    .info("[{}]Tps over limit ,pointName=[{}],barrier=[{}]，monitorModel={},maxTps={}",
+                                            connectionId, this.getPointName(), matchedRule.pattern,
+                                            tpsRecorderKey.getMonitorType(),
+                                            maxTpsCount + "/" + tpsRecorderKey.period);
+                            if (tpsRecorderKey.isInterceptMode()) {
+                                countHolder.interceptedCount.increment();
+                                currentTps.getCountHolder(monitorKeyString).interceptedCount.increment();
+                                return false;
+                            }
+                        } else {
+                            passedSlots.add(countHolder);
                         }
-                    } else {
-                        passedSlots.add(countHolder);
                     }
                 }
             }
-        }
-        
-        //2.check total tps.
-        long maxTps = tpsRecorder.getMaxCount();
-        boolean overLimit = maxTps >= 0 && currentTps.getCountHolder(pointName).count.longValue() >= maxTps;
-        if (overLimit) {
-            Loggers.TPS_CONTROL_DETAIL
-                    .info("[{}]Tps over limit ,pointName=[{}],barrier=[{}]，monitorType={}", connectionId,
-                            this.getPointName(), "pointRule", tpsRecorder.getMonitorType());
-            if (tpsRecorder.isInterceptMode()) {
-                currentTps.getCountHolder(pointName).interceptedCount.incrementAndGet();
-                return false;
+            
+            //2.check total tps.
+            long maxTps = tpsRecorder.getMaxCount();
+            TpsRecorder.SlotCountHolder pointCountHolder = currentTps.getCountHolder(pointName);
+            boolean overLimit = maxTps >= 0 && pointCountHolder.count.sum() >= maxTps;
+            if (overLimit) {
+                Loggers.TPS_CONTROL_DETAIL
+                        .info("[{}]Tps over limit ,pointName=[{}],barrier=[{}]，monitorType={}", connectionId,
+                                this.getPointName(), "pointRule", tpsRecorder.getMonitorType());
+                if (tpsRecorder.isInterceptMode()) {
+                    pointCountHolder.interceptedCount.increment();
+                    return false;
+                }
             }
+            
+            pointCountHolder.count.increment();
+            for (int i = 0; i < passedSlots.size(); i++) {
+                passedSlots.get(i).count.increment();
+            }
+            //3.check pass.
+            return true;
+        } finally {
+            matchedRules.clear();
+            passedSlots.clear();
         }
-        
-        currentTps.getCountHolder(pointName).count.incrementAndGet();
-        for (TpsRecorder.SlotCountHolder passedTpsSlot : passedSlots) {
-            passedTpsSlot.count.incrementAndGet();
-        }
-        //3.check pass.
-        return true;
     }
     
     public TpsRecorder getTpsRecorder() {
@@ -290,6 +319,7 @@ public class TpsMonitorPoint {
                     iteratorCurrent.remove();
                 }
             }
+            refreshRuleIndex();
             
         }
         
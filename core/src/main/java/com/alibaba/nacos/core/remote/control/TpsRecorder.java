@@ -17,11 +17,11 @@
 package com.alibaba.nacos.core.remote.control;
 
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
-import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * tps record.
@@ -156,8 +156,8 @@ public class TpsRecorder {
             synchronized (this) {
                 if (this.time != second) {
                     this.time = second;
-                    countHolder.count.set(0L);
-                    countHolder.interceptedCount.set(0);
+                    countHolder.count.reset();
+                    countHolder.interceptedCount.reset();
                 }
             }
         }
@@ -171,14 +171,19 @@ public class TpsRecorder {
     
     static class MultiKeyTpsSlot extends TpsSlot {
         
-        Map<String, SlotCountHolder> keySlots = new HashMap<>(16);
+        Map<String, SlotCountHolder> keySlots = new ConcurrentHashMap<>(16);
         
         @Override
         public SlotCountHolder getCountHolder(String key) {
-            if (!keySlots.containsKey(key)) {
-                keySlots.putIfAbsent(key, new SlotCountHolder());
+            SlotCountHolder countHolder = keySlots.get(key);
+            if (null == countHolder) {
+                countHolder = new SlotCountHolder();
+                SlotCountHolder previous = keySlots.putIfAbsent(key, countHolder);
+                if (null != previous) {
+                    countHolder = previous;
+                }
             }
-            return keySlots.get(key);
+            return countHolder;
         }
         
         public Map<String, SlotCountHolder> getKeySlots() {
@@ -204,9 +209,9 @@ public class TpsRecorder {
     
     static class SlotCountHolder {
         
-        AtomicLong count = new AtomicLong();
+        LongAdder count = new LongAdder();
         
-        AtomicLong interceptedCount = new AtomicLong();
+        LongAdder interceptedCount = new LongAdder();
         
         @Override
         public String toString() {
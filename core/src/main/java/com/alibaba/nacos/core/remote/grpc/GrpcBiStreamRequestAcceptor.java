@@ -24,11 +24,13 @@ import com.alibaba.nacos.api.remote.request.ConnectionSetupRequest;
 import com.alibaba.nacos.api.remote.response.Response;
 import com.alibaba.nacos.common.remote.ConnectionType;
 import com.alibaba.nacos.common.remote.client.grpc.GrpcUtils;
-import com.alibaba.nacos.core.remote.Connection;
+import com.alibaba.nacos.common.remote.codec.PayloadCodecFactory;
+import com.alibaba.nacos.core.monitor.MetricsMonitor;
 import com.alibaba.nacos.core.remote.ConnectionManager;
 import com.alibaba.nacos.core.remote.ConnectionMeta;
 import com.alibaba.nacos.core.remote.RpcAckCallbackSynchronizer;
 import com.alibaba.nacos.core.utils.Loggers;
+import com.alibaba.nacos.core.utils.RemoteUtils;
 import com.alibaba.nacos.sys.utils.ApplicationUtils;
 import io.grpc.stub.ServerCallStreamObserver;
 import io.grpc.stub.StreamObserver;
@@ -82,6 +84,9 @@ public class GrpcBiStreamRequestAcceptor extends BiRequestStreamGrpc.BiRequestSt
             
             final int remotePort = CONTEXT_KEY_CONN_REMOTE_PORT.get();
             
+            final GrpcOutboundQueue outboundQueue = new GrpcOutboundQueue(responseObserver,
+                    RemoteUtils.getRemoteConnectionMaxOutboundBytes(), true);
+            
             String remoteIp = CONTEXT_KEY_CONN_REMOTE_IP.get();
             
             String clientIp = "";
@@ -94,7 +99,9 @@ public class GrpcBiStreamRequestAcceptor extends BiRequestStreamGrpc.BiRequestSt
                 
                 Object parseObj;
                 try {
+                    long allocatedBytes = MetricsMonitor.startGrpcRequestParseAllocated();
                     parseObj = GrpcUtils.parse(payload);
+                    MetricsMonitor.recordGrpcRequestParseAllocated(allocatedBytes);
                 } catch (Throwable throwable) {
                     Loggers.REMOTE_DIGEST
                             .warn("[{}]Grpc request bi stream,payload parse error={}", connectionId, throwable);
@@ -119,8 +126,10 @@ public class GrpcBiStreamRequestAcceptor extends BiRequestStreamGrpc.BiRequestSt
                             remoteIp, remotePort, localPort, ConnectionType.GRPC.getType(),
                             setUpRequest.getClientVersion(), appName, setUpRequest.getLabels());
                     metaInfo.setTenant(setUpRequest.getTenant());
-                    Connection connection = new GrpcConnection(metaInfo, responseObserver, CONTEXT_KEY_CHANNEL.get());
+                    GrpcConnection connection = new GrpcConnection(metaInfo, outboundQueue, responseObserver,
+                            CONTEXT_KEY_CHANNEL.get());
                     connection.setAbilities(setUpRequest.getAbilities());
+                    connection.setPayloadCodec(PayloadCodecFactory.negotiate(setUpRequest.getPayloadCodecs()));
                     boolean rejectSdkOnStarting = metaInfo.isSdkSource() && !ApplicationUtils.isStarted();
                     
                     if (rejectSdkOnStarting || !connectionManager.register(connectionId, connection)) {
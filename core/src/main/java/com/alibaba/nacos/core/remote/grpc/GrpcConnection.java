@@ -24,12 +24,14 @@ import com.alibaba.nacos.api.remote.RequestFuture;
 import com.alibaba.nacos.api.remote.request.Request;
 import com.alibaba.nacos.api.remote.response.Response;
 import com.alibaba.nacos.common.remote.client.grpc.GrpcUtils;
-import com.alibaba.nacos.common.remote.exception.ConnectionAlreadyClosedException;
+import com.alibaba.nacos.common.remote.codec.PayloadCodec;
+import com.alibaba.nacos.common.remote.codec.PayloadCodecFactory;
 import com.alibaba.nacos.core.remote.Connection;
 import com.alibaba.nacos.core.remote.ConnectionMeta;
+import com.alibaba.nacos.core.remote.PreparedServerRequest;
 import com.alibaba.nacos.core.remote.RpcAckCallbackSynchronizer;
 import com.alibaba.nacos.core.utils.Loggers;
-import io.grpc.StatusRuntimeException;
+import com.alibaba.nacos.core.utils.RemoteUtils;
 import io.grpc.netty.shaded.io.netty.channel.Channel;
 import io.grpc.stub.ServerCallStreamObserver;
 import io.grpc.stub.StreamObserver;
@@ -44,29 +46,48 @@ public class GrpcConnection extends Connection {
     
     private StreamObserver streamObserver;
     
+    private GrpcOutboundQueue outboundQueue;
+    
     private Channel channel;
     
+    private volatile PayloadCodec payloadCodec = PayloadCodecFactory.getJsonCodec();
+    
     public GrpcConnection(ConnectionMeta metaInfo, StreamObserver streamObserver, Channel channel) {
+        this(metaInfo, new GrpcOutboundQueue(streamObserver, RemoteUtils.getRemoteConnectionMaxOutboundBytes(), false),
+                streamObserver, channel);
+    }
+    
+    public GrpcConnection(ConnectionMeta metaInfo, GrpcOutboundQueue outboundQueue, StreamObserver streamObserver,
+            Channel channel) {
         super(metaInfo);
         this.streamObserver = streamObserver;
+        this.outboundQueue = outboundQueue;
         this.channel = channel;
     }
     
-    private void sendRequestNoAck(Request request) throws NacosException {
-        try {
-            //StreamObserver#onNext() is not thread-safe,synchronized is required to avoid direct memory leak.
-            synchronized (streamObserver) {
-                
-                Payload payload = GrpcUtils.convert(request);
-                traceIfNecessary(payload);
-                streamObserver.onNext(payload);
-            }
-        } catch (Exception e) {
-            if (e instanceof StatusRuntimeException) {
-                throw new ConnectionAlreadyClosedException(e);
-            }
-            throw e;
+    private void sendRequestNoAck(Request request, String requestId) throws NacosException {
+        // encode out of any lock, StreamObserver#onNext() is not thread-safe and only called by the queue drainer.
+        Payload payload = convert(request, requestId);
+        traceIfNecessary(payload);
+        outboundQueue.send(payload);
+    }
+    
+    private Payload convert(Request request, String requestId) {
+        if (request instanceof PreparedServerRequest) {
+            final PayloadCodec codec = payloadCodec;
+            GrpcUtils.PayloadTemplate template = ((PreparedServerRequest) request)
+                    .getEncoded(codec.name(), each -> GrpcUtils.convertToTemplate(each, codec));
+            return template.toPayload(requestId);
         }
+        return GrpcUtils.convert(request, payloadCodec);
+    }
+    
+    public PayloadCodec getPayloadCodec() {
+        return payloadCodec;
+    }
+    
+    public void setPayloadCodec(PayloadCodec payloadCodec) {
+        this.payloadCodec = payloadCodec;
     }
     
     private void traceIfNecessary(Payload payload) {
@@ -91,7 +112,7 @@ public class GrpcConnection extends Connection {
                 callBack, () -> RpcAckCallbackSynchronizer.clearFuture(getMetaInfo().getConnectionId(), requestId));
         
         RpcAckCallbackSynchronizer.syncCallback(getMetaInfo().getConnectionId(), requestId, defaultPushFuture);
-        sendRequestNoAck(request);
+        sendRequestNoAck(request, requestId);
         return defaultPushFuture;
     }
     
@@ -128,6 +149,7 @@ public class GrpcConnection extends Connection {
                 Loggers.REMOTE_DIGEST.warn("[{}] try to close connection ", connectionId);
             }
             
+            outboundQueue.close();
             closeBiStream();
             channel.close();
             
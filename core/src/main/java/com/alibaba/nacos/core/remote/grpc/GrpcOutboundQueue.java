@@ -0,0 +1,153 @@
+/*
+ * Copyright 1999-2020 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.nacos.core.remote.grpc;
+
+import com.alibaba.nacos.api.grpc.auto.Payload;
+import com.alibaba.nacos.common.remote.exception.ConnectionAlreadyClosedException;
+import com.alibaba.nacos.core.utils.Loggers;
+import io.grpc.stub.ServerCallStreamObserver;
+import io.grpc.stub.StreamObserver;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Outbound payload queue of a grpc bi stream.
+ *
+ * <p>Senders only enqueue encoded payloads, one of them becomes the drainer and calls {@link StreamObserver#onNext}
+ * for all queued payloads, so that {@link StreamObserver#onNext} which is not thread-safe is called by one thread at a
+ * time without lock. When flow control is enabled, draining pauses while the stream is not ready and resumes on ready.
+ * The queue is closed when queued bytes exceed the limit, so that slow consumers can't exhaust server memory.
+ *
+ * @author Nacos
+ */
+public class GrpcOutboundQueue {
+    
+    private final StreamObserver<Payload> streamObserver;
+    
+    private final long maxQueuedBytes;
+    
+    private final Queue<Payload> queue = new ConcurrentLinkedQueue<Payload>();
+    
+    private final AtomicLong queuedBytes = new AtomicLong();
+    
+    private final AtomicInteger wip = new AtomicInteger();
+    
+    private final ServerCallStreamObserver<Payload> flowControlledObserver;
+    
+    private volatile boolean closed;
+    
+    /**
+     * Create outbound queue of stream.
+     *
+     * @param streamObserver stream observer to send payload
+     * @param maxQueuedBytes max bytes of queued payloads
+     * @param flowControl    whether pause sending while stream is not ready, which registers on ready handler to the
+     *                       stream and should only be used before the bi stream call returns
+     */
+    public GrpcOutboundQueue(StreamObserver<Payload> streamObserver, long maxQueuedBytes, boolean flowControl) {
+        this.streamObserver = streamObserver;
+        this.maxQueuedBytes = maxQueuedBytes;
+        if (flowControl && streamObserver instanceof ServerCallStreamObserver) {
+            this.flowControlledObserver = (ServerCallStreamObserver<Payload>) streamObserver;
+            this.flowControlledObserver.setOnReadyHandler(this::drainQuietly);
+        } else {
+            this.flowControlledObserver = null;
+        }
+    }
+    
+    /**
+     * Send payload, the payload may be sent by other thread later.
+     *
+     * @param payload payload
+     * @throws ConnectionAlreadyClosedException if stream is closed or queued bytes exceed the limit
+     */
+    public void send(Payload payload) throws ConnectionAlreadyClosedException {
+        if (closed) {
+            throw new ConnectionAlreadyClosedException("Outbound queue is closed");
+        }
+        int size = payload.getSerializedSize();
+        if (queuedBytes.addAndGet(size) > maxQueuedBytes) {
+            Loggers.REMOTE_DIGEST.warn("Outbound queue overflow, queued bytes={}, max bytes={}, close it.",
+                    queuedBytes.get(), maxQueuedBytes);
+            close();
+            throw new ConnectionAlreadyClosedException("Outbound queue overflow");
+        }
+        queue.offer(payload);
+        try {
+            drain();
+        } catch (RuntimeException e) {
+            throw new ConnectionAlreadyClosedException(e);
+        }
+    }
+    
+    public long getQueuedBytes() {
+        return queuedBytes.get();
+    }
+    
+    public boolean isClosed() {
+        return closed;
+    }
+    
+    /**
+     * Close the queue and discard queued payloads.
+     */
+    public void close() {
+        closed = true;
+        queue.clear();
+        queuedBytes.set(0L);
+    }
+    
+    private void drainQuietly() {
+        try {
+            drain();
+        } catch (RuntimeException e) {
+            Loggers.REMOTE_DIGEST.warn("Drain outbound queue on ready failed, error={}", e);
+        }
+    }
+    
+    private void drain() {
+        if (wip.getAndIncrement() != 0) {
+            // current drainer will drain the payload.
+            return;
+        }
+        int missed = 1;
+        try {
+            do {
+                while (!closed && isWritable()) {
+                    Payload payload = queue.poll();
+                    if (null == payload) {
+                        break;
+                    }
+                    queuedBytes.addAndGet(-payload.getSerializedSize());
+                    streamObserver.onNext(payload);
+                }
+                missed = wip.addAndGet(-missed);
+            } while (missed != 0);
+        } catch (RuntimeException e) {
+            close();
+            wip.set(0);
+            throw e;
+        }
+    }
+    
+    private boolean isWritable() {
+        return null == flowControlledObserver || flowControlledObserver.isReady();
+    }
+}
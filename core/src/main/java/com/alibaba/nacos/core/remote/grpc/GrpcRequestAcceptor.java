@@ -27,10 +27,13 @@ import com.alibaba.nacos.api.remote.response.Response;
 import com.alibaba.nacos.api.remote.response.ResponseCode;
 import com.alibaba.nacos.api.remote.response.ServerCheckResponse;
 import com.alibaba.nacos.common.remote.client.grpc.GrpcUtils;
+import com.alibaba.nacos.common.remote.codec.PayloadCodecFactory;
+import com.alibaba.nacos.core.monitor.MetricsMonitor;
 import com.alibaba.nacos.core.remote.Connection;
 import com.alibaba.nacos.core.remote.ConnectionManager;
 import com.alibaba.nacos.core.remote.RequestHandler;
 import com.alibaba.nacos.core.remote.RequestHandlerRegistry;
+import com.alibaba.nacos.core.remote.control.ConcurrencyLimitRequestFilter;
 import com.alibaba.nacos.core.utils.Loggers;
 import com.alibaba.nacos.sys.utils.ApplicationUtils;
 import io.grpc.stub.StreamObserver;
@@ -54,6 +57,9 @@ public class GrpcRequestAcceptor extends RequestGrpc.RequestImplBase {
     @Autowired
     private ConnectionManager connectionManager;
     
+    @Autowired
+    private ConcurrencyLimitRequestFilter concurrencyLimitRequestFilter;
+    
     private void traceIfNecessary(Payload grpcRequest, boolean receive) {
         String clientIp = grpcRequest.getMetadata().getClientIp();
         String connectionId = CONTEXT_KEY_CONN_ID.get();
@@ -89,7 +95,9 @@ public class GrpcRequestAcceptor extends RequestGrpc.RequestImplBase {
         
         // server check.
         if (ServerCheckRequest.class.getSimpleName().equals(type)) {
-            Payload serverCheckResponseP = GrpcUtils.convert(new ServerCheckResponse(CONTEXT_KEY_CONN_ID.get()));
+            ServerCheckResponse serverCheckResponse = new ServerCheckResponse(CONTEXT_KEY_CONN_ID.get());
+            serverCheckResponse.setPayloadCodecs(PayloadCodecFactory.getSupportedCodecs());
+            Payload serverCheckResponseP = GrpcUtils.convert(serverCheckResponse);
             traceIfNecessary(serverCheckResponseP, false);
             responseObserver.onNext(serverCheckResponseP);
             responseObserver.onCompleted();
@@ -124,7 +132,9 @@ public class GrpcRequestAcceptor extends RequestGrpc.RequestImplBase {
         
         Object parseObj = null;
         try {
+            long allocatedBytes = MetricsMonitor.startGrpcRequestParseAllocated();
             parseObj = GrpcUtils.parse(grpcRequest);
+            MetricsMonitor.recordGrpcRequestParseAllocated(allocatedBytes);
         } catch (Exception e) {
             Loggers.REMOTE_DIGEST
                     .warn("[{}] Invalid request receive from connection [{}] ,error={}", "grpc", connectionId, e);
@@ -157,6 +167,8 @@ public class GrpcRequestAcceptor extends RequestGrpc.RequestImplBase {
         }
         
         Request request = (Request) parseObj;
+        final long startNanos = System.nanoTime();
+        boolean success = false;
         try {
             Connection connection = connectionManager.getConnection(CONTEXT_KEY_CONN_ID.get());
             RequestMeta requestMeta = new RequestMeta();
@@ -166,6 +178,7 @@ public class GrpcRequestAcceptor extends RequestGrpc.RequestImplBase {
             requestMeta.setLabels(connection.getMetaInfo().getLabels());
             connectionManager.refreshActiveTime(requestMeta.getConnectionId());
             Response response = requestHandler.handleRequest(request, requestMeta);
+            success = null != response && response.isSuccess();
             Payload payloadResponse = GrpcUtils.convert(response);
             traceIfNecessary(payloadResponse, false);
             responseObserver.onNext(payloadResponse);
@@ -180,6 +193,9 @@ public class GrpcRequestAcceptor extends RequestGrpc.RequestImplBase {
             traceIfNecessary(payloadResponse, false);
             responseObserver.onNext(payloadResponse);
             responseObserver.onCompleted();
+        } finally {
+            concurrencyLimitRequestFilter
+                    .release(requestHandler.getClass(), System.nanoTime() - startNanos, success);
         }
         
     }
@@ -38,6 +38,11 @@ public class RemoteUtils {
      */
     private static final int REMOTE_EXECUTOR_QUEUE_SIZE = 1 << 14;
     
+    /**
+     * Default max bytes of payloads waiting for sending to one connection: 32MB.
+     */
+    private static final long REMOTE_CONNECTION_MAX_OUTBOUND_BYTES = 1L << 25;
+    
     /**
      * get remote executors thread times of processors,default is 64. see the usage of this method for detail.
      *
@@ -62,4 +67,19 @@ public class RemoteUtils {
             return REMOTE_EXECUTOR_QUEUE_SIZE;
         }
     }
+    
+    /**
+     * get max bytes of payloads waiting for sending to one connection, connection will be closed if exceeded.
+     *
+     * @return max outbound bytes.
+     */
+    public static long getRemoteConnectionMaxOutboundBytes() {
+        String bytesString = System.getProperty("remote.connection.max.outbound.bytes");
+        if (NumberUtil.isDigits(bytesString)) {
+            long bytes = Long.parseLong(bytesString);
+            return bytes > 0 ? bytes : REMOTE_CONNECTION_MAX_OUTBOUND_BYTES;
+        } else {
+            return REMOTE_CONNECTION_MAX_OUTBOUND_BYTES;
+        }
+    }
 }
@@ -40,6 +40,7 @@ import org.springframework.test.util.ReflectionTestUtils;
 import java.util.Map;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -90,7 +91,7 @@ public class DistroLoadDataTaskTest extends TestCase {
         componentHolder.registerFailedTaskHandler(type, distroFailedTaskHandler);
         when(distroDataProcessor.processType()).thenReturn(type);
         componentHolder.registerDataProcessor(distroDataProcessor);
-        when(distroTransportAgent.getDatumSnapshot(any(String.class))).thenReturn(distroData);
+        when(distroTransportAgent.getDatumSnapshot(any(String.class), any(String.class))).thenReturn(distroData);
         when(distroDataProcessor.processSnapshot(distroData)).thenReturn(true);
         distroLoadDataTask = new DistroLoadDataTask(memberManager, componentHolder, distroConfig, loadCallback);
     }
@@ -101,6 +102,20 @@ public class DistroLoadDataTaskTest extends TestCase {
         Map<String, Boolean> loadCompletedMap = (Map<String, Boolean>) ReflectionTestUtils.getField(distroLoadDataTask, "loadCompletedMap");
         assertNotNull(loadCompletedMap);
         assertTrue(loadCompletedMap.containsKey(type));
-        verify(distroTransportAgent).getDatumSnapshot(any(String.class));
+        verify(distroTransportAgent).getDatumSnapshot(any(String.class), any(String.class));
+    }
+    
+    @Test
+    public void testRunWithSnapshotPages() {
+        DistroData firstPage = new DistroData();
+        firstPage.setNextCursor("client1");
+        when(distroTransportAgent.getDatumSnapshot(any(String.class), eq(""))).thenReturn(firstPage);
+        when(distroTransportAgent.getDatumSnapshot(any(String.class), eq("client1"))).thenReturn(distroData);
+        when(distroDataProcessor.processSnapshot(firstPage)).thenReturn(true);
+        distroLoadDataTask.run();
+        verify(distroDataProcessor).processSnapshot(firstPage);
+        verify(distroDataProcessor).processSnapshot(distroData);
+        verify(distroDataStorage).finishInitial();
+        verify(loadCallback).onSuccess();
     }
 }
\ No newline at end of file
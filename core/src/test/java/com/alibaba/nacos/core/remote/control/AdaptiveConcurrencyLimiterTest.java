@@ -0,0 +1,98 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.nacos.core.remote.control;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+public class AdaptiveConcurrencyLimiterTest {
+    
+    private static final long FAST = TimeUnit.MILLISECONDS.toNanos(1);
+    
+    private static final long SLOW = TimeUnit.MILLISECONDS.toNanos(100);
+    
+    @Test
+    public void testRejectByPriority() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(10, 1, 100);
+        for (int i = 0; i < 7; i++) {
+            Assert.assertTrue(limiter.tryAcquire(RequestPriority.LOW, 0));
+        }
+        Assert.assertFalse(limiter.tryAcquire(RequestPriority.LOW, 0));
+        Assert.assertTrue(limiter.tryAcquire(RequestPriority.NORMAL, 0));
+        Assert.assertTrue(limiter.tryAcquire(RequestPriority.NORMAL, 0));
+        Assert.assertFalse(limiter.tryAcquire(RequestPriority.NORMAL, 0));
+        Assert.assertTrue(limiter.tryAcquire(RequestPriority.HIGH, 0));
+        Assert.assertEquals(10, limiter.getInflight());
+        limiter.release("handler", FAST, false);
+        Assert.assertEquals(9, limiter.getInflight());
+    }
+    
+    @Test
+    public void testQueuedCountedAsInflight() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(10, 1, 100);
+        Assert.assertFalse(limiter.tryAcquire(RequestPriority.NORMAL, 9));
+        Assert.assertTrue(limiter.tryAcquire(RequestPriority.NORMAL, 8));
+        Assert.assertTrue(limiter.tryAcquire(RequestPriority.HIGH, 100));
+    }
+    
+    @Test
+    public void testLimitShrinkWhenLatencyIncrease() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(50, 5, 100);
+        for (int i = 0; i < 100; i++) {
+            limiter.tryAcquire(RequestPriority.HIGH, 0);
+            limiter.release("handler", FAST, true);
+        }
+        int limitBeforeSlow = limiter.getLimit();
+        for (int i = 0; i < 20; i++) {
+            limiter.tryAcquire(RequestPriority.HIGH, 0);
+            limiter.release("handler", SLOW, true);
+        }
+        Assert.assertTrue(limiter.getLimit() < limitBeforeSlow);
+        Assert.assertTrue(limiter.getLimit() >= 5);
+    }
+    
+    @Test
+    public void testLimitGrowWhenBusyAndLatencyStable() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(10, 5, 100);
+        for (int i = 0; i < 8; i++) {
+            limiter.tryAcquire(RequestPriority.HIGH, 0);
+        }
+        for (int i = 0; i < 20; i++) {
+            limiter.tryAcquire(RequestPriority.HIGH, 0);
+            limiter.release("handler", FAST, true);
+        }
+        Assert.assertTrue(limiter.getLimit() > 10);
+        Assert.assertTrue(limiter.getLimit() <= 100);
+    }
+    
+    @Test
+    public void testLatencyBaselinePerHandler() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(10, 5, 100);
+        for (int i = 0; i < 8; i++) {
+            limiter.tryAcquire(RequestPriority.HIGH, 0);
+        }
+        for (int i = 0; i < 20; i++) {
+            limiter.tryAcquire(RequestPriority.HIGH, 0);
+            limiter.release("fastHandler", FAST, true);
+            limiter.tryAcquire(RequestPriority.HIGH, 0);
+            limiter.release("slowHandler", SLOW, true);
+        }
+        Assert.assertTrue(limiter.getLimit() > 10);
+    }
+}
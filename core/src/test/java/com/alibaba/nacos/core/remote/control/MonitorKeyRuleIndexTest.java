@@ -0,0 +1,91 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.nacos.core.remote.control;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+public class MonitorKeyRuleIndexTest {
+    
+    private static final List<String> PATTERNS = Arrays
+            .asList("clientIp:1.1.1.1", "clientIp:1.1.1.1 ", "clientIp:1.1.*", "clientIp:*", "clientIp:*.1",
+                    "connectionId:*", "groupKey:a*b", "groupKey:ab*", "groupKey:a*b*c", "groupKey:*a");
+    
+    private static final List<String> KEYS = Arrays
+            .asList("clientIp:1.1.1.1", "clientIp:1.1.2.1", "clientIp:2.2.2.2", "clientIp:1.1.1.1  ",
+                    "connectionId:123_1.1.1.1", "groupKey:ab", "groupKey:acb", "groupKey:abc", "groupKey:a",
+                    "groupKey:ba", "unknown:ab");
+    
+    @Test
+    public void testMatchSameAsMonitorKeyMatcher() {
+        Map<String, TpsRecorder> recorders = new HashMap<String, TpsRecorder>();
+        for (String each : PATTERNS) {
+            recorders.put(each, new TpsRecorder(0L, TimeUnit.SECONDS, TpsControlRule.Rule.MODEL_FUZZY, 1));
+        }
+        MonitorKeyRuleIndex index = new MonitorKeyRuleIndex(recorders);
+        List<MonitorKeyRuleIndex.MatchedRule> matched = new ArrayList<MonitorKeyRuleIndex.MatchedRule>();
+        for (String key : KEYS) {
+            matched.clear();
+            index.match(key, matched);
+            List<String> actual = new ArrayList<String>();
+            for (MonitorKeyRuleIndex.MatchedRule each : matched) {
+                Assert.assertSame(recorders.get(each.pattern), each.recorder);
+                actual.add(each.pattern);
+            }
+            List<String> expected = new ArrayList<String>();
+            for (String pattern : PATTERNS) {
+                if (MonitorKeyMatcher.matchWithType(pattern, key)) {
+                    expected.add(pattern);
+                }
+            }
+            actual.sort(null);
+            expected.sort(null);
+            Assert.assertEquals(key, expected, actual);
+        }
+    }
+    
+    @Test
+    public void testEmptyIndex() {
+        List<MonitorKeyRuleIndex.MatchedRule> matched = new ArrayList<MonitorKeyRuleIndex.MatchedRule>();
+        MonitorKeyRuleIndex.EMPTY.match("clientIp:1.1.1.1", matched);
+        Assert.assertTrue(MonitorKeyRuleIndex.EMPTY.isEmpty());
+        Assert.assertTrue(matched.isEmpty());
+    }
+    
+    @Test
+    public void testApplyTpsWithCompiledRules() {
+        TpsMonitorPoint point = new TpsMonitorPoint("test");
+        TpsControlRule rule = new TpsControlRule();
+        rule.getMonitorKeyRule().put("clientIp:1.1.*", new TpsControlRule.Rule(2, TimeUnit.MINUTES, "SUM", "intercept"));
+        point.applyRule(rule);
+        List<MonitorKey> limited = Arrays.<MonitorKey>asList(new ClientIpMonitorKey("1.1.1.1"));
+        List<MonitorKey> other = Arrays.<MonitorKey>asList(new ClientIpMonitorKey("2.2.2.2"));
+        Assert.assertTrue(point.applyTps("conn", limited));
+        Assert.assertTrue(point.applyTps("conn", limited));
+        Assert.assertFalse(point.applyTps("conn", limited));
+        Assert.assertTrue(point.applyTps("conn", other));
+        point.applyRule(null);
+        Assert.assertTrue(point.applyTps("conn", limited));
+    }
+}
@@ -0,0 +1,140 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.nacos.core.remote.grpc;
+
+import com.alibaba.nacos.api.grpc.auto.Metadata;
+import com.alibaba.nacos.api.grpc.auto.Payload;
+import com.alibaba.nacos.common.remote.exception.ConnectionAlreadyClosedException;
+import io.grpc.Status;
+import io.grpc.stub.ServerCallStreamObserver;
+import io.grpc.stub.StreamObserver;
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class GrpcOutboundQueueTest {
+    
+    private static Payload payload(String type) {
+        return Payload.newBuilder().setMetadata(Metadata.newBuilder().setType(type).build()).build();
+    }
+    
+    @Test
+    public void testSendInOrder() throws Exception {
+        StreamObserver<Payload> observer = Mockito.mock(StreamObserver.class);
+        GrpcOutboundQueue queue = new GrpcOutboundQueue(observer, 1024L, false);
+        queue.send(payload("a"));
+        queue.send(payload("b"));
+        ArgumentCaptor<Payload> captor = ArgumentCaptor.forClass(Payload.class);
+        Mockito.verify(observer, Mockito.times(2)).onNext(captor.capture());
+        Assert.assertEquals("a", captor.getAllValues().get(0).getMetadata().getType());
+        Assert.assertEquals("b", captor.getAllValues().get(1).getMetadata().getType());
+        Assert.assertEquals(0L, queue.getQueuedBytes());
+    }
+    
+    @Test
+    public void testConcurrentSendNotOverlap() throws Exception {
+        final AtomicInteger active = new AtomicInteger();
+        final AtomicInteger overlapped = new AtomicInteger();
+        final AtomicInteger sent = new AtomicInteger();
+        StreamObserver<Payload> observer = new StreamObserver<Payload>() {
+            @Override
+            public void onNext(Payload value) {
+                if (active.incrementAndGet() > 1) {
+                    overlapped.incrementAndGet();
+                }
+                sent.incrementAndGet();
+                active.decrementAndGet();
+            }
+            
+            @Override
+            public void onError(Throwable t) {
+            }
+            
+            @Override
+            public void onCompleted() {
+            }
+        };
+        final GrpcOutboundQueue queue = new GrpcOutboundQueue(observer, Long.MAX_VALUE, false);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        final CountDownLatch latch = new CountDownLatch(4);
+        for (int i = 0; i < 4; i++) {
+            executor.execute(() -> {
+                for (int j = 0; j < 1000; j++) {
+                    queue.send(payload("p"));
+                }
+                latch.countDown();
+            });
+        }
+        Assert.assertTrue(latch.await(10, TimeUnit.SECONDS));
+        executor.shutdown();
+        Assert.assertEquals(4000, sent.get());
+        Assert.assertEquals(0, overlapped.get());
+    }
+    
+    @Test
+    public void testPauseWhenNotReady() throws Exception {
+        ServerCallStreamObserver<Payload> observer = Mockito.mock(ServerCallStreamObserver.class);
+        ArgumentCaptor<Runnable> onReady = ArgumentCaptor.forClass(Runnable.class);
+        Mockito.when(observer.isReady()).thenReturn(false);
+        GrpcOutboundQueue queue = new GrpcOutboundQueue(observer, 1024L, true);
+        Mockito.verify(observer).setOnReadyHandler(onReady.capture());
+        queue.send(payload("a"));
+        Mockito.verify(observer, Mockito.never()).onNext(Mockito.any());
+        Assert.assertTrue(queue.getQueuedBytes() > 0);
+        Mockito.when(observer.isReady()).thenReturn(true);
+        onReady.getValue().run();
+        Mockito.verify(observer).onNext(Mockito.any());
+        Assert.assertEquals(0L, queue.getQueuedBytes());
+    }
+    
+    @Test
+    public void testOverflowClose() {
+        ServerCallStreamObserver<Payload> observer = Mockito.mock(ServerCallStreamObserver.class);
+        Mockito.when(observer.isReady()).thenReturn(false);
+        Payload payload = payload("overflow");
+        GrpcOutboundQueue queue = new GrpcOutboundQueue(observer, payload.getSerializedSize() * 2L, true);
+        queue.send(payload);
+        queue.send(payload);
+        try {
+            queue.send(payload);
+            Assert.fail();
+        } catch (ConnectionAlreadyClosedException e) {
+            Assert.assertTrue(queue.isClosed());
+        }
+        Assert.assertEquals(0L, queue.getQueuedBytes());
+    }
+    
+    @Test(expected = ConnectionAlreadyClosedException.class)
+    public void testStreamClosed() {
+        StreamObserver<Payload> observer = Mockito.mock(StreamObserver.class);
+        Mockito.doThrow(Status.CANCELLED.asRuntimeException()).when(observer).onNext(Mockito.any());
+        GrpcOutboundQueue queue = new GrpcOutboundQueue(observer, 1024L, false);
+        try {
+            queue.send(payload("a"));
+        } catch (ConnectionAlreadyClosedException e) {
+            Assert.assertTrue(queue.isClosed());
+        }
+        queue.send(payload("b"));
+    }
+}
@@ -0,0 +1,45 @@
+/*
+ * Copyright 1999-2020 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.nacos.naming.consistency.ephemeral.distro.v2;
+
+import java.io.Serializable;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Client ids grouped by digest bucket.
+ *
+ * <p>Used as the answer of a digest verify, which carries the inconsistent buckets, as the request to verify the
+ * clients of these buckets and as the answer of it, which carries the clients not found in target server.
+ *
+ * @author Nacos
+ */
+public class DistroClientBucketVerifyInfo implements Serializable {
+    
+    private static final long serialVersionUID = 6412907741863563301L;
+    
+    private Map<Integer, List<String>> bucketClients = new HashMap<>();
+    
+    public Map<Integer, List<String>> getBucketClients() {
+        return bucketClients;
+    }
+    
+    public void setBucketClients(Map<Integer, List<String>> bucketClients) {
+        this.bucketClients = bucketClients;
+    }
+}
@@ -51,10 +51,12 @@ public class DistroClientComponentRegistry {
     
     private final UpgradeJudgement upgradeJudgement;
     
+    private final DistroClientVerifyDigester verifyDigester;
+    
     public DistroClientComponentRegistry(ServerMemberManager serverMemberManager, DistroProtocol distroProtocol,
             DistroComponentHolder componentHolder, DistroTaskEngineHolder taskEngineHolder,
             ClientManagerDelegate clientManager, ClusterRpcClientProxy clusterRpcClientProxy,
-            UpgradeJudgement upgradeJudgement) {
+            UpgradeJudgement upgradeJudgement, DistroClientVerifyDigester verifyDigester) {
         this.serverMemberManager = serverMemberManager;
         this.distroProtocol = distroProtocol;
         this.componentHolder = componentHolder;
@@ -62,6 +64,7 @@ public class DistroClientComponentRegistry {
         this.clientManager = clientManager;
         this.clusterRpcClientProxy = clusterRpcClientProxy;
         this.upgradeJudgement = upgradeJudgement;
+        this.verifyDigester = verifyDigester;
     }
     
     /**
@@ -71,9 +74,9 @@ public class DistroClientComponentRegistry {
     @PostConstruct
     public void doRegister() {
         DistroClientDataProcessor dataProcessor = new DistroClientDataProcessor(clientManager, distroProtocol,
-                upgradeJudgement);
+                upgradeJudgement, verifyDigester);
         DistroTransportAgent transportAgent = new DistroClientTransportAgent(clusterRpcClientProxy,
-                serverMemberManager);
+                serverMemberManager, verifyDigester);
         DistroClientTaskFailedHandler taskFailedHandler = new DistroClientTaskFailedHandler(taskEngineHolder);
         componentHolder.registerDataStorage(DistroClientDataProcessor.TYPE, dataProcessor);
         componentHolder.registerDataProcessor(dataProcessor);
@@ -19,7 +19,9 @@ package com.alibaba.nacos.naming.consistency.ephemeral.distro.v2;
 import com.alibaba.nacos.common.notify.Event;
 import com.alibaba.nacos.common.notify.NotifyCenter;
 import com.alibaba.nacos.common.notify.listener.SmartSubscriber;
+import com.alibaba.nacos.common.utils.StringUtils;
 import com.alibaba.nacos.consistency.DataOperation;
+import com.alibaba.nacos.core.distributed.distro.DistroConfig;
 import com.alibaba.nacos.core.distributed.distro.DistroProtocol;
 import com.alibaba.nacos.core.distributed.distro.component.DistroDataProcessor;
 import com.alibaba.nacos.core.distributed.distro.component.DistroDataStorage;
@@ -40,6 +42,9 @@ import com.alibaba.nacos.naming.misc.Loggers;
 import com.alibaba.nacos.sys.env.EnvUtil;
 import com.alibaba.nacos.sys.utils.ApplicationUtils;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
@@ -54,19 +59,26 @@ public class DistroClientDataProcessor extends SmartSubscriber implements Distro
     
     public static final String TYPE = "Nacos:Naming:v2:ClientData";
     
+    private static final long SORTED_CLIENT_IDS_EXPIRE_MILLIS = 30000L;
+    
     private final ClientManager clientManager;
     
     private final DistroProtocol distroProtocol;
     
     private final UpgradeJudgement upgradeJudgement;
     
+    private final DistroClientVerifyDigester verifyDigester;
+    
     private volatile boolean isFinishInitial;
     
+    private volatile SortedClientIds sortedClientIds;
+    
     public DistroClientDataProcessor(ClientManager clientManager, DistroProtocol distroProtocol,
-            UpgradeJudgement upgradeJudgement) {
+            UpgradeJudgement upgradeJudgement, DistroClientVerifyDigester verifyDigester) {
         this.clientManager = clientManager;
         this.distroProtocol = distroProtocol;
         this.upgradeJudgement = upgradeJudgement;
+        this.verifyDigester = verifyDigester;
         NotifyCenter.registerSubscriber(this);
     }
     
@@ -188,6 +200,9 @@ public class DistroClientDataProcessor extends SmartSubscriber implements Distro
     
     @Override
     public boolean processVerifyData(DistroData distroData, String sourceAddress) {
+        if (verifyDigester.isDigestVerifyData(distroData)) {
+            return null == verifyDigester.processVerifyData(distroData, sourceAddress);
+        }
         DistroClientVerifyInfo verifyData = ApplicationUtils.getBean(Serializer.class)
                 .deserialize(distroData.getContent(), DistroClientVerifyInfo.class);
         if (clientManager.verifyClient(verifyData.getClientId())) {
@@ -233,8 +248,55 @@ public class DistroClientDataProcessor extends SmartSubscriber implements Distro
         return new DistroData(new DistroKey(DataOperation.SNAPSHOT.name(), TYPE), data);
     }
     
+    @Override
+    public DistroData getDatumSnapshot(String cursor, int pageSize) {
+        String[] clientIds = getSortedClientIds(cursor);
+        int from = 0;
+        if (StringUtils.isNotEmpty(cursor)) {
+            int index = Arrays.binarySearch(clientIds, cursor);
+            from = index >= 0 ? index + 1 : -index - 1;
+        }
+        int to = Math.min(clientIds.length, from + Math.max(1, pageSize));
+        String nextCursor = to < clientIds.length ? clientIds[to - 1] : null;
+        List<String> pageIds = Arrays.asList(clientIds).subList(from, to);
+        List<ClientSyncData> datum = new ArrayList<>(pageIds.size());
+        for (String each : pageIds) {
+            Client client = clientManager.getClient(each);
+            if (null == client || !client.isEphemeral()) {
+                continue;
+            }
+            datum.add(client.generateSyncData());
+        }
+        ClientSyncDatumSnapshot snapshot = new ClientSyncDatumSnapshot();
+        snapshot.setClientSyncDataList(datum);
+        byte[] data = ApplicationUtils.getBean(Serializer.class).serialize(snapshot);
+        DistroData result = new DistroData(new DistroKey(DataOperation.SNAPSHOT.name(), TYPE), data);
+        result.setNextCursor(nextCursor);
+        return result;
+    }
+    
+    /**
+     * Sorted client ids to page the snapshot through. A load starts with an empty cursor, which takes a new sorted
+     * copy of the client ids; the following pages reuse it, so every page only costs a binary search. Ids are compared
+     * with the cursor, so a page served from a newer copy is still correct.
+     */
+    private String[] getSortedClientIds(String cursor) {
+        SortedClientIds current = sortedClientIds;
+        if (StringUtils.isEmpty(cursor) || null == current || current.isExpired()) {
+            String[] clientIds = clientManager.allClientId().toArray(new String[0]);
+            Arrays.sort(clientIds);
+            current = new SortedClientIds(clientIds);
+            sortedClientIds = current;
+        }
+        return current.clientIds;
+    }
+    
     @Override
     public List<DistroData> getVerifyData() {
+        if (DistroConfig.getInstance().isVerifyDigestEnabled()) {
+            DistroData digest = verifyDigester.buildVerifyDigest();
+            return null == digest ? Collections.emptyList() : Collections.singletonList(digest);
+        }
         List<DistroData> result = new LinkedList<>();
         for (String each : clientManager.allClientId()) {
             Client client = clientManager.getClient(each);
@@ -253,4 +315,20 @@ public class DistroClientDataProcessor extends SmartSubscriber implements Distro
         }
         return result;
     }
+    
+    private static class SortedClientIds {
+        
+        private final String[] clientIds;
+        
+        private final long createTime;
+        
+        private SortedClientIds(String[] clientIds) {
+            this.clientIds = clientIds;
+            this.createTime = System.currentTimeMillis();
+        }
+        
+        private boolean isExpired() {
+            return System.currentTimeMillis() - createTime > SORTED_CLIENT_IDS_EXPIRE_MILLIS;
+        }
+    }
 }
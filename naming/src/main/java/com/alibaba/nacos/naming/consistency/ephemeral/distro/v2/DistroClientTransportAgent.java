@@ -34,11 +34,14 @@ import com.alibaba.nacos.core.distributed.distro.entity.DistroKey;
 import com.alibaba.nacos.core.distributed.distro.exception.DistroException;
 import com.alibaba.nacos.naming.cluster.remote.request.DistroDataRequest;
 import com.alibaba.nacos.naming.cluster.remote.response.DistroDataResponse;
+import com.alibaba.nacos.naming.cluster.transport.Serializer;
 import com.alibaba.nacos.naming.core.v2.event.client.ClientEvent;
 import com.alibaba.nacos.naming.misc.GlobalExecutor;
 import com.alibaba.nacos.naming.misc.Loggers;
 import com.alibaba.nacos.naming.monitor.NamingTpsMonitor;
+import com.alibaba.nacos.sys.utils.ApplicationUtils;
 
+import java.util.List;
 import java.util.concurrent.Executor;
 
 /**
@@ -52,10 +55,13 @@ public class DistroClientTransportAgent implements DistroTransportAgent {
     
     private final ServerMemberManager memberManager;
     
+    private final DistroClientVerifyDigester verifyDigester;
+    
     public DistroClientTransportAgent(ClusterRpcClientProxy clusterRpcClientProxy,
-            ServerMemberManager serverMemberManager) {
+            ServerMemberManager serverMemberManager, DistroClientVerifyDigester verifyDigester) {
         this.clusterRpcClientProxy = clusterRpcClientProxy;
         this.memberManager = serverMemberManager;
+        this.verifyDigester = verifyDigester;
     }
     
     @Override
@@ -128,6 +134,10 @@ public class DistroClientTransportAgent implements DistroTransportAgent {
         }
         DistroDataRequest request = new DistroDataRequest(verifyData, DataOperation.VERIFY);
         Member member = memberManager.find(targetServer);
+        if (verifyDigester.isDigestVerifyData(verifyData)) {
+            syncVerifyDigest(request, member, callback);
+            return;
+        }
         try {
             DistroVerifyCallbackWrapper wrapper = new DistroVerifyCallbackWrapper(targetServer,
                     verifyData.getDistroKey().getResourceKey(), callback, member);
@@ -137,6 +147,16 @@ public class DistroClientTransportAgent implements DistroTransportAgent {
         }
     }
     
+    private void syncVerifyDigest(DistroDataRequest request, Member member, DistroCallback callback) {
+        // digest verify data is compared with the view of source server, so target server need the source address.
+        request.getDistroData().getDistroKey().setTargetServer(memberManager.getSelf().getAddress());
+        try {
+            clusterRpcClientProxy.asyncRequest(member, request, new DistroDigestVerifyCallbackWrapper(callback, member));
+        } catch (NacosException nacosException) {
+            callback.onFailed(nacosException);
+        }
+    }
+    
     @Override
     public DistroData getData(DistroKey key, String targetServer) {
         Member member = memberManager.find(targetServer);
@@ -166,13 +186,25 @@ public class DistroClientTransportAgent implements DistroTransportAgent {
     
     @Override
     public DistroData getDatumSnapshot(String targetServer) {
+        DistroDataRequest request = new DistroDataRequest();
+        request.setDataOperation(DataOperation.SNAPSHOT);
+        return getDatumSnapshot(targetServer, request);
+    }
+    
+    @Override
+    public DistroData getDatumSnapshot(String targetServer, String cursor) {
+        DistroKey distroKey = new DistroKey(cursor, DistroClientDataProcessor.TYPE);
+        DistroData cursorData = new DistroData(distroKey, new byte[0]);
+        DistroDataRequest request = new DistroDataRequest(cursorData, DataOperation.SNAPSHOT);
+        return getDatumSnapshot(targetServer, request);
+    }
+    
+    private DistroData getDatumSnapshot(String targetServer, DistroDataRequest request) {
         Member member = memberManager.find(targetServer);
         if (checkTargetServerStatusUnhealthy(member)) {
             throw new DistroException(
                     String.format("[DISTRO] Cancel get snapshot caused by target server %s unhealthy", targetServer));
         }
-        DistroDataRequest request = new DistroDataRequest();
-        request.setDataOperation(DataOperation.SNAPSHOT);
         try {
             Response response = clusterRpcClientProxy.sendRequest(member, request);
             if (checkResponse(response)) {
@@ -283,4 +315,70 @@ public class DistroClientTransportAgent implements DistroTransportAgent {
             distroCallback.onFailed(e);
         }
     }
+    
+    private class DistroDigestVerifyCallbackWrapper implements RequestCallBack<Response> {
+        
+        private final DistroCallback distroCallback;
+        
+        private final Member member;
+        
+        private DistroDigestVerifyCallbackWrapper(DistroCallback distroCallback, Member member) {
+            this.distroCallback = distroCallback;
+            this.member = member;
+        }
+        
+        @Override
+        public Executor getExecutor() {
+            return GlobalExecutor.getCallbackExecutor();
+        }
+        
+        @Override
+        public long getTimeout() {
+            return DistroConfig.getInstance().getVerifyTimeoutMillis();
+        }
+        
+        @Override
+        public void onResponse(Response response) {
+            if (!checkResponse(response)) {
+                NamingTpsMonitor.distroVerifyFail(member.getAddress(), member.getIp());
+                distroCallback.onFailed(null);
+                return;
+            }
+            NamingTpsMonitor.distroVerifySuccess(member.getAddress(), member.getIp());
+            DistroData inconsistent = ((DistroDataResponse) response).getDistroData();
+            if (null == inconsistent) {
+                distroCallback.onSuccess();
+            } else if (DistroClientVerifyDigester.DIGEST_KEY.equals(inconsistent.getDistroKey().getResourceKey())) {
+                syncInconsistentBuckets(inconsistent);
+            } else {
+                publishVerifyFailed(inconsistent);
+            }
+        }
+        
+        private void syncInconsistentBuckets(DistroData inconsistent) {
+            DistroClientBucketVerifyInfo buckets = ApplicationUtils.getBean(Serializer.class)
+                    .deserialize(inconsistent.getContent(), DistroClientBucketVerifyInfo.class);
+            Loggers.DISTRO.info("Target {} verify digest failed for {} buckets, verify clients of these buckets",
+                    member.getAddress(), buckets.getBucketClients().size());
+            DistroData bucketVerifyData = verifyDigester.buildBucketVerifyData(buckets);
+            syncVerifyDigest(new DistroDataRequest(bucketVerifyData, DataOperation.VERIFY), member, distroCallback);
+        }
+        
+        private void publishVerifyFailed(DistroData inconsistent) {
+            DistroClientBucketVerifyInfo missing = ApplicationUtils.getBean(Serializer.class)
+                    .deserialize(inconsistent.getContent(), DistroClientBucketVerifyInfo.class);
+            for (List<String> clientIds : missing.getBucketClients().values()) {
+                for (String each : clientIds) {
+                    Loggers.DISTRO.info("Target {} verify client {} failed, sync new client", member.getAddress(), each);
+                    NotifyCenter.publishEvent(new ClientEvent.ClientVerifyFailedEvent(each, member.getAddress()));
+                }
+            }
+            distroCallback.onFailed(null);
+        }
+        
+        @Override
+        public void onException(Throwable e) {
+            distroCallback.onFailed(e);
+        }
+    }
 }
@@ -0,0 +1,49 @@
+/*
+ * Copyright 1999-2020 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.nacos.naming.consistency.ephemeral.distro.v2;
+
+import java.io.Serializable;
+
+/**
+ * Bucketed digest of the clients which a server is responsible for.
+ *
+ * <p>Each bucket digest is the sum of the client id hashes in that bucket, so the digest doesn't depend on iteration
+ * order and can be compared bucket by bucket.
+ *
+ * @author Nacos
+ */
+public class DistroClientVerifyDigest implements Serializable {
+    
+    private static final long serialVersionUID = -4283596512624958125L;
+    
+    private long[] bucketDigests;
+    
+    public DistroClientVerifyDigest() {
+    }
+    
+    public DistroClientVerifyDigest(long[] bucketDigests) {
+        this.bucketDigests = bucketDigests;
+    }
+    
+    public long[] getBucketDigests() {
+        return bucketDigests;
+    }
+    
+    public void setBucketDigests(long[] bucketDigests) {
+        this.bucketDigests = bucketDigests;
+    }
+}
@@ -0,0 +1,281 @@
+/*
+ * Copyright 1999-2020 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.nacos.naming.consistency.ephemeral.distro.v2;
+
+import com.alibaba.nacos.consistency.DataOperation;
+import com.alibaba.nacos.core.distributed.distro.DistroConfig;
+import com.alibaba.nacos.core.distributed.distro.entity.DistroData;
+import com.alibaba.nacos.core.distributed.distro.entity.DistroKey;
+import com.alibaba.nacos.naming.cluster.transport.Serializer;
+import com.alibaba.nacos.naming.core.v2.client.Client;
+import com.alibaba.nacos.naming.core.v2.client.manager.ClientManager;
+import com.alibaba.nacos.naming.core.v2.client.manager.ClientManagerDelegate;
+import com.alibaba.nacos.sys.utils.ApplicationUtils;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Digest based distro verification for v2 clients.
+ *
+ * <p>Instead of one verify message per responsible client, the responsible server sends the bucket digests of its
+ * clients. Target server compares them with the clients it has confirmed for this source server before, renews
+ * the clients of consistent buckets locally and only asks the client ids of inconsistent buckets.
+ *
+ * @author Nacos
+ */
+@Component
+public class DistroClientVerifyDigester {
+    
+    public static final String DIGEST_KEY = "Nacos:Naming:v2:VerifyDigest";
+    
+    public static final String BUCKETS_KEY = "Nacos:Naming:v2:VerifyBuckets";
+    
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+    
+    private static final long FNV_PRIME = 0x100000001b3L;
+    
+    private final ClientManager clientManager;
+    
+    /**
+     * Clients confirmed for each source server, key is address of source server.
+     */
+    private final ConcurrentMap<String, SourceView> sourceViews = new ConcurrentHashMap<>();
+    
+    public DistroClientVerifyDigester(ClientManagerDelegate clientManager) {
+        this.clientManager = clientManager;
+    }
+    
+    /**
+     * Whether the distro data is digest verify data.
+     *
+     * @param distroData distro data
+     * @return {@code true} if the data is digest or bucket verify data
+     */
+    public boolean isDigestVerifyData(DistroData distroData) {
+        String resourceKey = distroData.getDistroKey().getResourceKey();
+        return DIGEST_KEY.equals(resourceKey) || BUCKETS_KEY.equals(resourceKey);
+    }
+    
+    /**
+     * Build digest verify data for responsible clients.
+     *
+     * @return digest verify data, {@code null} if there is no responsible client
+     */
+    public DistroData buildVerifyDigest() {
+        int bucketCount = getBucketCount();
+        long[] digests = new long[bucketCount];
+        boolean hasClient = false;
+        for (String each : clientManager.allClientId()) {
+            Client client = clientManager.getClient(each);
+            if (null == client || !client.isEphemeral() || !clientManager.isResponsibleClient(client)) {
+                continue;
+            }
+            digests[bucketOf(each, bucketCount)] += digestOf(each);
+            hasClient = true;
+        }
+        if (!hasClient) {
+            return null;
+        }
+        return buildVerifyData(DIGEST_KEY, new DistroClientVerifyDigest(digests));
+    }
+    
+    /**
+     * Build bucket verify data with responsible client ids of the inconsistent buckets.
+     *
+     * @param inconsistent inconsistent buckets answered by target server
+     * @return bucket verify data
+     */
+    public DistroData buildBucketVerifyData(DistroClientBucketVerifyInfo inconsistent) {
+        int bucketCount = getBucketCount();
+        DistroClientBucketVerifyInfo result = new DistroClientBucketVerifyInfo();
+        for (Integer each : inconsistent.getBucketClients().keySet()) {
+            result.getBucketClients().put(each, new LinkedList<>());
+        }
+        for (String each : clientManager.allClientId()) {
+            List<String> clientIds = result.getBucketClients().get(bucketOf(each, bucketCount));
+            if (null == clientIds) {
+                continue;
+            }
+            Client client = clientManager.getClient(each);
+            if (null != client && client.isEphemeral() && clientManager.isResponsibleClient(client)) {
+                clientIds.add(each);
+            }
+        }
+        return buildVerifyData(BUCKETS_KEY, result);
+    }
+    
+    private DistroData buildVerifyData(String resourceKey, Object content) {
+        DistroKey distroKey = new DistroKey(resourceKey, DistroClientDataProcessor.TYPE);
+        DistroData result = new DistroData(distroKey, ApplicationUtils.getBean(Serializer.class).serialize(content));
+        result.setType(DataOperation.VERIFY);
+        return result;
+    }
+    
+    /**
+     * Handle digest or bucket verify data from source server.
+     *
+     * @param distroData    digest or bucket verify data
+     * @param sourceAddress address of source server
+     * @return inconsistent buckets for digest verify data, or not found client ids for bucket verify data. {@code
+     * null} if all consistent.
+     */
+    public DistroData processVerifyData(DistroData distroData, String sourceAddress) {
+        DistroClientBucketVerifyInfo result;
+        if (DIGEST_KEY.equals(distroData.getDistroKey().getResourceKey())) {
+            DistroClientVerifyDigest digest = ApplicationUtils.getBean(Serializer.class)
+                    .deserialize(distroData.getContent(), DistroClientVerifyDigest.class);
+            result = verifyDigest(digest, sourceAddress);
+        } else {
+            DistroClientBucketVerifyInfo buckets = ApplicationUtils.getBean(Serializer.class)
+                    .deserialize(distroData.getContent(), DistroClientBucketVerifyInfo.class);
+            result = verifyBuckets(buckets, sourceAddress);
+        }
+        if (result.getBucketClients().isEmpty()) {
+            return null;
+        }
+        return buildVerifyData(distroData.getDistroKey().getResourceKey(), result);
+    }
+    
+    /**
+     * Verify the bucket digests of source server with the clients confirmed before.
+     *
+     * <p>Clients of consistent buckets are renewed, inconsistent buckets are cleared and returned so that source
+     * server sends their client ids.
+     *
+     * @param digest        bucket digests of source server
+     * @param sourceAddress address of source server
+     * @return inconsistent buckets
+     */
+    public DistroClientBucketVerifyInfo verifyDigest(DistroClientVerifyDigest digest, String sourceAddress) {
+        long[] digests = digest.getBucketDigests();
+        DistroClientBucketVerifyInfo result = new DistroClientBucketVerifyInfo();
+        SourceView view = getSourceView(sourceAddress, digests.length);
+        synchronized (view) {
+            for (int i = 0; i < digests.length; i++) {
+                if (digests[i] != view.digests[i] || !renewClients(view.clients[i])) {
+                    view.clear(i);
+                    result.getBucketClients().put(i, new ArrayList<>(0));
+                }
+            }
+        }
+        return result;
+    }
+    
+    /**
+     * Verify the client ids of inconsistent buckets and rebuild confirmed clients for them.
+     *
+     * @param buckets       client ids of inconsistent buckets from source server
+     * @param sourceAddress address of source server
+     * @return client ids not found in current server
+     */
+    public DistroClientBucketVerifyInfo verifyBuckets(DistroClientBucketVerifyInfo buckets, String sourceAddress) {
+        DistroClientBucketVerifyInfo result = new DistroClientBucketVerifyInfo();
+        SourceView view = sourceViews.computeIfAbsent(sourceAddress, key -> new SourceView(getBucketCount()));
+        synchronized (view) {
+            for (Map.Entry<Integer, List<String>> entry : buckets.getBucketClients().entrySet()) {
+                int bucket = entry.getKey();
+                if (bucket < 0 || bucket >= view.clients.length) {
+                    continue;
+                }
+                view.clear(bucket);
+                List<String> missing = new LinkedList<>();
+                for (String each : entry.getValue()) {
+                    if (clientManager.verifyClient(each)) {
+                        view.add(bucket, each);
+                    } else {
+                        missing.add(each);
+                    }
+                }
+                if (!missing.isEmpty()) {
+                    result.getBucketClients().put(bucket, missing);
+                }
+            }
+        }
+        return result;
+    }
+    
+    private boolean renewClients(Set<String> clientIds) {
+        for (String each : clientIds) {
+            if (!clientManager.verifyClient(each)) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    private SourceView getSourceView(String sourceAddress, int bucketCount) {
+        SourceView result = sourceViews.computeIfAbsent(sourceAddress, key -> new SourceView(bucketCount));
+        if (result.clients.length != bucketCount) {
+            // Bucket count changed in source server, all confirmed clients are useless.
+            result = new SourceView(bucketCount);
+            sourceViews.put(sourceAddress, result);
+        }
+        return result;
+    }
+    
+    private int getBucketCount() {
+        return Math.max(1, DistroConfig.getInstance().getVerifyDigestBuckets());
+    }
+    
+    static int bucketOf(String clientId, int bucketCount) {
+        return (clientId.hashCode() & Integer.MAX_VALUE) % bucketCount;
+    }
+    
+    static long digestOf(String clientId) {
+        long result = FNV_OFFSET_BASIS;
+        for (int i = 0; i < clientId.length(); i++) {
+            result ^= clientId.charAt(i);
+            result *= FNV_PRIME;
+        }
+        return result;
+    }
+    
+    private static class SourceView {
+        
+        private final Set<String>[] clients;
+        
+        private final long[] digests;
+        
+        @SuppressWarnings("unchecked")
+        private SourceView(int bucketCount) {
+            clients = new Set[bucketCount];
+            digests = new long[bucketCount];
+            for (int i = 0; i < bucketCount; i++) {
+                clients[i] = new HashSet<>();
+            }
+        }
+        
+        private void add(int bucket, String clientId) {
+            if (clients[bucket].add(clientId)) {
+                digests[bucket] += digestOf(clientId);
+            }
+        }
+        
+        private void clear(int bucket) {
+            clients[bucket].clear();
+            digests[bucket] = 0L;
+        }
+    }
+}
@@ -0,0 +1,540 @@
+/*
+ * Copyright 1999-2020 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.nacos.naming.consistency.persistent.raft;
+
+import com.alibaba.nacos.naming.misc.Loggers;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only write ahead log of raft datums.
+ *
+ * <p>Datum changes are appended to segment files named {@code wal-<index>.log}. Concurrent writers are flushed
+ * together by one {@code force} (group commit). Compaction rolls a new segment, merges the snapshot and all
+ * older segments into a new {@code snapshot} file and deletes the merged segments, so the log can be loaded by
+ * sequential reading at startup.
+ *
+ * <p>Record layout: {@code [length][crc32][op][keyLength][key][value]}. A broken tail of the last segment, which
+ * is left by a crash during writing, is truncated when the log is opened.
+ *
+ * @author Nacos
+ * @deprecated will remove with old raft
+ */
+@Deprecated
+public class DatumWriteAheadLog {
+    
+    private static final String SNAPSHOT_FILE_NAME = "snapshot";
+    
+    private static final String SNAPSHOT_TMP_FILE_NAME = "snapshot.tmp";
+    
+    private static final String SEGMENT_PREFIX = "wal-";
+    
+    private static final String SEGMENT_SUFFIX = ".log";
+    
+    private static final byte OP_PUT = 1;
+    
+    private static final byte OP_DELETE = 2;
+    
+    private static final int RECORD_HEADER_LENGTH = 8;
+    
+    private static final int PAYLOAD_HEADER_LENGTH = 5;
+    
+    private static final int MAX_RECORD_LENGTH = 64 * 1024 * 1024;
+    
+    private final File baseDir;
+    
+    private final Object lock = new Object();
+    
+    private final Object compactLock = new Object();
+    
+    private List<PendingRecord> pendingRecords = new ArrayList<>();
+    
+    private boolean flushing;
+    
+    private FileChannel channel;
+    
+    private long segmentIndex;
+    
+    private volatile long segmentSize;
+    
+    public DatumWriteAheadLog(File baseDir) {
+        this.baseDir = baseDir;
+    }
+    
+    /**
+     * Open log for appending and load all entries, the log is reopened if it is already opened.
+     *
+     * @return all entries by key in order of first written
+     * @throws IOException any exception during reading or opening
+     */
+    public Map<String, byte[]> open() throws IOException {
+        makeBaseDir();
+        synchronized (compactLock) {
+            Map<String, byte[]> entries = new LinkedHashMap<>();
+            long snapshotIndex = readSnapshot(entries);
+            long lastIndex = snapshotIndex;
+            long lastValidLength = 0L;
+            for (Map.Entry<Long, File> entry : listSegments().entrySet()) {
+                if (entry.getKey() <= snapshotIndex) {
+                    // already merged into snapshot, crashed before delete.
+                    deleteFile(entry.getValue());
+                    continue;
+                }
+                lastIndex = entry.getKey();
+                lastValidLength = readRecords(entry.getValue(), entries);
+            }
+            synchronized (lock) {
+                waitFlushFinished();
+                if (null != channel) {
+                    channel.close();
+                }
+                if (lastIndex == snapshotIndex) {
+                    openSegment(snapshotIndex + 1, 0L);
+                } else {
+                    openSegment(lastIndex, lastValidLength);
+                }
+            }
+            return entries;
+        }
+    }
+    
+    /**
+     * Read current value of key. The whole log will be read, only used by rare cases.
+     *
+     * @param key datum key
+     * @return value or {@code null} if not exist
+     * @throws IOException any exception during reading
+     */
+    public byte[] read(String key) throws IOException {
+        synchronized (compactLock) {
+            Map<String, byte[]> entries = new LinkedHashMap<>();
+            readSnapshot(entries);
+            for (File segment : listSegments().values()) {
+                readRecords(segment, entries);
+            }
+            return entries.get(key);
+        }
+    }
+    
+    /**
+     * Append a put record and wait until it is flushed to disk.
+     *
+     * @param key   datum key
+     * @param value datum value
+     * @throws IOException any exception during writing
+     */
+    public void put(String key, byte[] value) throws IOException {
+        append(encode(OP_PUT, key, value));
+    }
+    
+    /**
+     * Append a delete record and wait until it is flushed to disk.
+     *
+     * @param key datum key
+     * @throws IOException any exception during writing
+     */
+    public void delete(String key) throws IOException {
+        append(encode(OP_DELETE, key, new byte[0]));
+    }
+    
+    /**
+     * Whether log is opened for appending.
+     *
+     * @return true if opened and not closed
+     */
+    public boolean isOpened() {
+        synchronized (lock) {
+            return null != channel;
+        }
+    }
+    
+    public long getSegmentSize() {
+        return segmentSize;
+    }
+    
+    /**
+     * Merge snapshot and all written segments into a new snapshot.
+     *
+     * @throws IOException any exception during compaction
+     */
+    public void compact() throws IOException {
+        doCompact(null);
+    }
+    
+    /**
+     * Replace all contents of log by entries. If the log is not opened yet, no segment is created.
+     *
+     * @param entries new entries
+     * @throws IOException any exception during writing
+     */
+    public void reset(Map<String, byte[]> entries) throws IOException {
+        makeBaseDir();
+        doCompact(entries);
+    }
+    
+    /**
+     * Close log.
+     *
+     * @throws IOException any exception during closing
+     */
+    public void close() throws IOException {
+        synchronized (lock) {
+            waitFlushFinished();
+            if (null != channel) {
+                channel.close();
+                channel = null;
+            }
+        }
+    }
+    
+    private void makeBaseDir() throws IOException {
+        if (!baseDir.exists() && !baseDir.mkdirs()) {
+            throw new IOException("can not make wal directory: " + baseDir.getAbsolutePath());
+        }
+    }
+    
+    private void doCompact(Map<String, byte[]> entries) throws IOException {
+        synchronized (compactLock) {
+            final long start = System.currentTimeMillis();
+            long mergedIndex = rollSegment();
+            Map<String, byte[]> merged = entries;
+            if (null == merged) {
+                merged = new LinkedHashMap<>();
+                readSnapshot(merged);
+                for (Map.Entry<Long, File> entry : listSegments().entrySet()) {
+                    if (entry.getKey() <= mergedIndex) {
+                        readRecords(entry.getValue(), merged);
+                    }
+                }
+            }
+            writeSnapshot(merged, mergedIndex);
+            for (Map.Entry<Long, File> entry : listSegments().entrySet()) {
+                if (entry.getKey() <= mergedIndex) {
+                    deleteFile(entry.getValue());
+                }
+            }
+            Loggers.RAFT.info("[RAFT-WAL] compacted, size: {}, segment: {}, cost {} ms.", merged.size(), mergedIndex,
+                    System.currentTimeMillis() - start);
+        }
+    }
+    
+    private long rollSegment() throws IOException {
+        synchronized (lock) {
+            if (null == channel) {
+                // not opened, nothing is being appended, so all existing segments are merged.
+                return lastSegmentIndex();
+            }
+            waitFlushFinished();
+            long mergedIndex = segmentIndex;
+            channel.close();
+            openSegment(segmentIndex + 1, 0L);
+            return mergedIndex;
+        }
+    }
+    
+    private void append(byte[] record) throws IOException {
+        PendingRecord pendingRecord = new PendingRecord(record);
+        List<PendingRecord> batch;
+        FileChannel target;
+        synchronized (lock) {
+            pendingRecords.add(pendingRecord);
+            while (flushing && !pendingRecord.done) {
+                waitLock();
+            }
+            if (pendingRecord.done) {
+                pendingRecord.checkError();
+                return;
+            }
+            // this thread becomes the flusher of all pending records.
+            flushing = true;
+            batch = pendingRecords;
+            pendingRecords = new ArrayList<>();
+            target = channel;
+        }
+        IOException error = null;
+        long written = 0L;
+        try {
+            written = writeBatch(target, batch);
+        } catch (IOException e) {
+            error = e;
+        }
+        synchronized (lock) {
+            if (null == error) {
+                segmentSize += written;
+            }
+            for (PendingRecord each : batch) {
+                each.error = error;
+                each.done = true;
+            }
+            flushing = false;
+            lock.notifyAll();
+        }
+        pendingRecord.checkError();
+    }
+    
+    private long writeBatch(FileChannel target, List<PendingRecord> batch) throws IOException {
+        if (null == target) {
+            throw new IOException("wal is not opened or already closed");
+        }
+        int length = 0;
+        for (PendingRecord each : batch) {
+            length += each.data.length;
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        for (PendingRecord each : batch) {
+            buffer.put(each.data);
+        }
+        buffer.flip();
+        long position = target.position();
+        try {
+            while (buffer.hasRemaining()) {
+                target.write(buffer);
+            }
+            target.force(false);
+        } catch (IOException e) {
+            // drop the partial batch so that later records are not appended after a broken one.
+            target.truncate(position);
+            target.position(position);
+            throw e;
+        }
+        return length;
+    }
+    
+    private void waitFlushFinished() throws IOException {
+        while (flushing) {
+            waitLock();
+        }
+    }
+    
+    private void waitLock() throws IOException {
+        try {
+            lock.wait();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("interrupted while waiting wal flush");
+        }
+    }
+    
+    private void openSegment(long index, long validLength) throws IOException {
+        File segment = segmentFile(index);
+        FileChannel fileChannel = FileChannel
+                .open(segment.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        if (fileChannel.size() > validLength) {
+            Loggers.RAFT.warn("[RAFT-WAL] truncate broken tail of {} from {} to {}", segment.getName(),
+                    fileChannel.size(), validLength);
+            fileChannel.truncate(validLength);
+            fileChannel.force(true);
+        }
+        fileChannel.position(validLength);
+        channel = fileChannel;
+        segmentIndex = index;
+        segmentSize = validLength;
+    }
+    
+    private long readSnapshot(Map<String, byte[]> entries) throws IOException {
+        File snapshot = new File(baseDir, SNAPSHOT_FILE_NAME);
+        if (!snapshot.exists()) {
+            return 0L;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(snapshot)))) {
+            long snapshotIndex = in.readLong();
+            long count = in.readLong();
+            for (long i = 0; i < count; i++) {
+                if (!readRecord(in, entries)) {
+                    throw new IOException("broken wal snapshot: " + snapshot.getAbsolutePath());
+                }
+            }
+            return snapshotIndex;
+        }
+    }
+    
+    private long lastSegmentIndex() throws IOException {
+        long snapshotIndex = 0L;
+        File snapshot = new File(baseDir, SNAPSHOT_FILE_NAME);
+        if (snapshot.exists()) {
+            try (DataInputStream in = new DataInputStream(new FileInputStream(snapshot))) {
+                snapshotIndex = in.readLong();
+            }
+        }
+        TreeMap<Long, File> segments = listSegments();
+        return segments.isEmpty() ? snapshotIndex : Math.max(snapshotIndex, segments.lastKey());
+    }
+    
+    private void writeSnapshot(Map<String, byte[]> entries, long snapshotIndex) throws IOException {
+        File tmp = new File(baseDir, SNAPSHOT_TMP_FILE_NAME);
+        try (FileOutputStream fileOut = new FileOutputStream(tmp, false);
+                DataOutputStream out = new DataOutputStream(new BufferedOutputStream(fileOut))) {
+            out.writeLong(snapshotIndex);
+            out.writeLong(entries.size());
+            for (Map.Entry<String, byte[]> entry : entries.entrySet()) {
+                out.write(encode(OP_PUT, entry.getKey(), entry.getValue()));
+            }
+            out.flush();
+            fileOut.getFD().sync();
+        }
+        Files.move(tmp.toPath(), new File(baseDir, SNAPSHOT_FILE_NAME).toPath(), StandardCopyOption.ATOMIC_MOVE,
+                StandardCopyOption.REPLACE_EXISTING);
+    }
+    
+    /**
+     * Read records of segment into entries.
+     *
+     * @return length of valid records
+     */
+    private long readRecords(File segment, Map<String, byte[]> entries) throws IOException {
+        long validLength = 0L;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(segment)))) {
+            while (true) {
+                int length;
+                try {
+                    length = in.readInt();
+                } catch (EOFException e) {
+                    return validLength;
+                }
+                if (!readRecord(length, in, entries)) {
+                    Loggers.RAFT.warn("[RAFT-WAL] broken record in {} at {}", segment.getName(), validLength);
+                    return validLength;
+                }
+                validLength += RECORD_HEADER_LENGTH + length;
+            }
+        }
+    }
+    
+    private boolean readRecord(DataInputStream in, Map<String, byte[]> entries) throws IOException {
+        try {
+            return readRecord(in.readInt(), in, entries);
+        } catch (EOFException e) {
+            return false;
+        }
+    }
+    
+    private boolean readRecord(int length, DataInputStream in, Map<String, byte[]> entries) throws IOException {
+        if (length < PAYLOAD_HEADER_LENGTH || length > MAX_RECORD_LENGTH) {
+            return false;
+        }
+        byte[] payload = new byte[length];
+        try {
+            int crc = in.readInt();
+            in.readFully(payload);
+            if (crc != crc32(payload)) {
+                return false;
+            }
+        } catch (EOFException e) {
+            return false;
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(payload);
+        byte op = buffer.get();
+        int keyLength = buffer.getInt();
+        if (keyLength < 0 || keyLength > buffer.remaining()) {
+            return false;
+        }
+        String key = new String(payload, buffer.position(), keyLength, StandardCharsets.UTF_8);
+        if (OP_DELETE == op) {
+            entries.remove(key);
+        } else {
+            entries.put(key, Arrays.copyOfRange(payload, buffer.position() + keyLength, payload.length));
+        }
+        return true;
+    }
+    
+    private static byte[] encode(byte op, String key, byte[] value) {
+        byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+        int length = PAYLOAD_HEADER_LENGTH + keyBytes.length + value.length;
+        ByteBuffer payload = ByteBuffer.allocate(length);
+        payload.put(op).putInt(keyBytes.length).put(keyBytes).put(value);
+        ByteBuffer record = ByteBuffer.allocate(RECORD_HEADER_LENGTH + length);
+        record.putInt(length).putInt(crc32(payload.array())).put(payload.array());
+        return record.array();
+    }
+    
+    private static int crc32(byte[] data) {
+        CRC32 crc32 = new CRC32();
+        crc32.update(data, 0, data.length);
+        return (int) crc32.getValue();
+    }
+    
+    private TreeMap<Long, File> listSegments() {
+        TreeMap<Long, File> result = new TreeMap<>();
+        File[] files = baseDir.listFiles();
+        if (null == files) {
+            return result;
+        }
+        for (File each : files) {
+            String name = each.getName();
+            if (name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX)) {
+                try {
+                    result.put(Long.parseLong(
+                            name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length())), each);
+                } catch (NumberFormatException ignored) {
+                    Loggers.RAFT.warn("[RAFT-WAL] unknown file in wal directory: {}", name);
+                }
+            }
+        }
+        return result;
+    }
+    
+    private File segmentFile(long index) {
+        return new File(baseDir, String.format("%s%020d%s", SEGMENT_PREFIX, index, SEGMENT_SUFFIX));
+    }
+    
+    private static void deleteFile(File file) {
+        if (file.exists() && !file.delete()) {
+            Loggers.RAFT.warn("[RAFT-WAL] failed to delete {}", file.getAbsolutePath());
+        }
+    }
+    
+    private static class PendingRecord {
+        
+        private final byte[] data;
+        
+        private boolean done;
+        
+        private IOException error;
+        
+        private PendingRecord(byte[] data) {
+            this.data = data;
+        }
+        
+        private void checkError() throws IOException {
+            if (null != error) {
+                throw new IOException("failed to write wal", error);
+            }
+        }
+    }
+}
@@ -29,9 +29,11 @@ import com.alibaba.nacos.naming.consistency.persistent.PersistentNotifier;
 import com.alibaba.nacos.naming.core.Instance;
 import com.alibaba.nacos.naming.core.Instances;
 import com.alibaba.nacos.naming.core.Service;
+import com.alibaba.nacos.naming.misc.GlobalExecutor;
 import com.alibaba.nacos.naming.misc.Loggers;
 import com.alibaba.nacos.naming.misc.SwitchDomain;
 import com.alibaba.nacos.naming.monitor.MetricsMonitor;
+import com.alibaba.nacos.sys.env.EnvUtil;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.JsonNode;
 import org.apache.commons.lang3.StringUtils;
@@ -44,9 +46,12 @@ import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.nio.channels.FileChannel;
 import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Properties;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
 
 import static com.alibaba.nacos.naming.misc.UtilsAndCommons.DATA_BASE_DIR;
 
@@ -64,23 +69,95 @@ public class RaftStore implements Closeable {
     
     private static final String META_FILE_NAME = DATA_BASE_DIR + File.separator + "meta.properties";
     
-    private static final String CACHE_DIR = DATA_BASE_DIR + File.separator + "data";
+    private static final String CACHE_DIR_NAME = "data";
+    
+    private static final String MIGRATED_CACHE_DIR_NAME = CACHE_DIR_NAME + ".migrated";
+    
+    private static final String WAL_DIR_NAME = "wal";
+    
+    private static final String WAL_COMPACT_THRESHOLD = "nacos.naming.raft.wal.compactThresholdBytes";
+    
+    private static final long DEFAULT_WAL_COMPACT_THRESHOLD = 64L * 1024 * 1024;
+    
+    private static final long WAL_COMPACT_CHECK_INTERVAL_MS = TimeUnit.MINUTES.toMillis(1L);
+    
+    private final File cacheDir;
+    
+    private final File migratedCacheDir;
+    
+    private final DatumWriteAheadLog wal;
+    
+    private ScheduledFuture<?> compactionTask;
+    
+    public RaftStore() {
+        this(new File(DATA_BASE_DIR));
+    }
+    
+    RaftStore(File baseDir) {
+        this.cacheDir = new File(baseDir, CACHE_DIR_NAME);
+        this.migratedCacheDir = new File(baseDir, MIGRATED_CACHE_DIR_NAME);
+        this.wal = new DatumWriteAheadLog(new File(baseDir, WAL_DIR_NAME));
+    }
     
     /**
-     * Load datum from cache file.
+     * Load datum from write ahead log, datum in legacy cache files will be migrated into log at the first time.
+     *
+     * <p>Legacy cache files are migrated as long as their directory exists, and the log is not opened until the
+     * migration finished, so an interrupted migration is done again at next start.
      *
      * @param notifier raft notifier
      * @param datums   cached datum map
      * @throws Exception any exception during load
      */
     public synchronized void loadDatums(PersistentNotifier notifier, Map<String, Datum> datums) throws Exception {
-        
+        final long start = System.currentTimeMillis();
+        loadLegacyDatums(notifier, datums);
+        if (!datums.isEmpty()) {
+            migrateLegacyDatums(datums);
+            wal.open();
+        } else {
+            Map<String, byte[]> entries = wal.open();
+            for (Map.Entry<String, byte[]> entry : entries.entrySet()) {
+                Datum datum = readDatum(encodeDatumKey(entry.getKey()),
+                        new String(entry.getValue(), StandardCharsets.UTF_8));
+                if (datum != null) {
+                    datums.put(datum.key, datum);
+                    if (notifier != null) {
+                        NotifyCenter.publishEvent(
+                                ValueChangeEvent.builder().key(datum.key).action(DataOperation.CHANGE).build());
+                    }
+                }
+            }
+        }
+        scheduleCompaction();
+        Loggers.RAFT.info("finish loading all datums, size: {} cost {} ms.", datums.size(),
+                (System.currentTimeMillis() - start));
+    }
+    
+    private void migrateLegacyDatums(Map<String, Datum> datums) throws IOException {
+        Map<String, byte[]> entries = new LinkedHashMap<>();
+        for (Datum datum : datums.values()) {
+            entries.put(datum.key, JacksonUtils.toJson(datum).getBytes(StandardCharsets.UTF_8));
+        }
+        wal.reset(entries);
+        if (!cacheDir.renameTo(migratedCacheDir)) {
+            throw new IOException(
+                    "failed to rename migrated cache dir " + cacheDir.getAbsolutePath() + " to " + migratedCacheDir
+                            .getAbsolutePath());
+        }
+        Loggers.RAFT.info("migrate {} datums from cache files to wal.", entries.size());
+    }
+    
+    private void loadLegacyDatums(PersistentNotifier notifier, Map<String, Datum> datums) throws Exception {
+        File[] caches = cacheDir.listFiles();
+        if (null == caches) {
+            return;
+        }
         Datum datum;
-        long start = System.currentTimeMillis();
-        for (File cache : listCaches()) {
+        for (File cache : caches) {
             if (cache.isDirectory() && cache.listFiles() != null) {
                 for (File datumFile : cache.listFiles()) {
-                    datum = readDatum(datumFile, cache.getName());
+                    datum = readDatum(datumFile);
                     if (datum != null) {
                         datums.put(datum.key, datum);
                         if (notifier != null) {
@@ -91,14 +168,29 @@ public class RaftStore implements Closeable {
                 }
                 continue;
             }
-            datum = readDatum(cache, StringUtils.EMPTY);
+            datum = readDatum(cache);
             if (datum != null) {
                 datums.put(datum.key, datum);
             }
         }
-        
-        Loggers.RAFT.info("finish loading all datums, size: {} cost {} ms.", datums.size(),
-                (System.currentTimeMillis() - start));
+    }
+    
+    private void scheduleCompaction() {
+        if (null != compactionTask) {
+            return;
+        }
+        final long threshold = EnvUtil.getProperty(WAL_COMPACT_THRESHOLD, Long.class, DEFAULT_WAL_COMPACT_THRESHOLD);
+        compactionTask = GlobalExecutor.scheduleRaftWalCompaction(() -> {
+            if (wal.getSegmentSize() < threshold) {
+                return;
+            }
+            try {
+                wal.compact();
+            } catch (Exception e) {
+                MetricsMonitor.getDiskException().increment();
+                Loggers.RAFT.error("[RAFT-WAL] compact failed.", e);
+            }
+        }, WAL_COMPACT_CHECK_INTERVAL_MS);
     }
     
     /**
@@ -120,32 +212,23 @@ public class RaftStore implements Closeable {
     }
     
     /**
-     * Load datum from cache file by key.
+     * Load datum from write ahead log by key.
      *
      * @param key datum key
      * @return datum
      * @throws Exception any exception during load
      */
-    public synchronized Datum load(String key) throws Exception {
+    public Datum load(String key) throws Exception {
         long start = System.currentTimeMillis();
-        // load data
-        for (File cache : listCaches()) {
-            if (!cache.isFile()) {
-                Loggers.RAFT.warn("warning: encountered directory in cache dir: {}", cache.getAbsolutePath());
-            }
-            
-            if (!StringUtils.equals(cache.getName(), encodeDatumKey(key))) {
-                continue;
-            }
-            
-            Loggers.RAFT.info("finish loading datum, key: {} cost {} ms.", key, (System.currentTimeMillis() - start));
-            return readDatum(cache, StringUtils.EMPTY);
+        byte[] value = wal.read(key);
+        if (null == value) {
+            return null;
         }
-        
-        return null;
+        Loggers.RAFT.info("finish loading datum, key: {} cost {} ms.", key, (System.currentTimeMillis() - start));
+        return readDatum(encodeDatumKey(key), new String(value, StandardCharsets.UTF_8));
     }
     
-    private synchronized Datum readDatum(File file, String namespaceId) throws IOException {
+    private Datum readDatum(File file) throws IOException {
         if (!KeyBuilder.isDatumCacheFile(file.getName())) {
             return null;
         }
@@ -153,14 +236,15 @@ public class RaftStore implements Closeable {
         try (FileChannel fc = new FileInputStream(file).getChannel()) {
             buffer = ByteBuffer.allocate((int) file.length());
             fc.read(buffer);
-            
-            String json = new String(buffer.array(), StandardCharsets.UTF_8);
-            if (StringUtils.isBlank(json)) {
-                return null;
-            }
-            
-            final String fileName = file.getName();
-            
+        }
+        return readDatum(file.getName(), new String(buffer.array(), StandardCharsets.UTF_8));
+    }
+    
+    private Datum readDatum(String fileName, String json) {
+        if (StringUtils.isBlank(json)) {
+            return null;
+        }
+        try {
             if (KeyBuilder.matchSwitchKey(fileName)) {
                 return JacksonUtils.toObj(json, new TypeReference<Datum<SwitchDomain>>() {
                 });
@@ -228,93 +312,40 @@ public class RaftStore implements Closeable {
             return JacksonUtils.toObj(json, Datum.class);
             
         } catch (Exception e) {
-            Loggers.RAFT.warn("waning: failed to deserialize key: {}", file.getName());
+            Loggers.RAFT.warn("waning: failed to deserialize key: {}", fileName);
             throw e;
         }
     }
     
-    private String cacheFileName(String namespaceId, String datumKey) {
-        String fileName;
-        if (StringUtils.isNotBlank(namespaceId)) {
-            fileName = CACHE_DIR + File.separator + namespaceId + File.separator + encodeDatumKey(datumKey);
-        } else {
-            fileName = CACHE_DIR + File.separator + encodeDatumKey(datumKey);
-        }
-        return fileName;
-    }
-    
     /**
-     * Write datum to cache file.
+     * Write datum to write ahead log, concurrent writes will be flushed to disk together.
      *
      * @param datum datum
      * @throws Exception any exception during writing
      */
-    public synchronized void write(final Datum datum) throws Exception {
-        
-        String namespaceId = KeyBuilder.getNamespace(datum.key);
-        
-        File cacheFile = new File(cacheFileName(namespaceId, datum.key));
-        
-        if (!cacheFile.exists() && !cacheFile.getParentFile().mkdirs() && !cacheFile.createNewFile()) {
-            MetricsMonitor.getDiskException().increment();
-            
-            throw new IllegalStateException("can not make cache file: " + cacheFile.getName());
-        }
-        
-        ByteBuffer data;
-        
-        data = ByteBuffer.wrap(JacksonUtils.toJson(datum).getBytes(StandardCharsets.UTF_8));
-        
-        try (FileChannel fc = new FileOutputStream(cacheFile, false).getChannel()) {
-            fc.write(data, data.position());
-            fc.force(true);
+    public void write(final Datum datum) throws Exception {
+        try {
+            openIfNecessary();
+            wal.put(datum.key, JacksonUtils.toJson(datum).getBytes(StandardCharsets.UTF_8));
         } catch (Exception e) {
             MetricsMonitor.getDiskException().increment();
             throw e;
         }
-        
-        // remove old format file:
-        if (StringUtils.isNoneBlank(namespaceId)) {
-            if (datum.key.contains(Constants.DEFAULT_GROUP + Constants.SERVICE_INFO_SPLITER)) {
-                String oldDatumKey = datum.key
-                        .replace(Constants.DEFAULT_GROUP + Constants.SERVICE_INFO_SPLITER, StringUtils.EMPTY);
-                
-                cacheFile = new File(cacheFileName(namespaceId, oldDatumKey));
-                if (cacheFile.exists() && !cacheFile.delete()) {
-                    Loggers.RAFT.error("[RAFT-DELETE] failed to delete old format datum: {}, value: {}", datum.key,
-                            datum.value);
-                    throw new IllegalStateException("failed to delete old format datum: " + datum.key);
-                }
-            }
-        }
-    }
-    
-    private File[] listCaches() throws Exception {
-        File cacheDir = new File(CACHE_DIR);
-        if (!cacheDir.exists() && !cacheDir.mkdirs()) {
-            throw new IllegalStateException("cloud not make out directory: " + cacheDir.getName());
-        }
-        
-        return cacheDir.listFiles();
     }
     
     /**
-     * Delete datum from cache file.
+     * Delete datum from write ahead log.
      *
      * @param datum datum
      */
     public void delete(Datum datum) {
-        
-        // datum key contains namespace info:
-        String namespaceId = KeyBuilder.getNamespace(datum.key);
-        
-        if (StringUtils.isNotBlank(namespaceId)) {
-            
-            File cacheFile = new File(cacheFileName(namespaceId, datum.key));
-            if (cacheFile.exists() && !cacheFile.delete()) {
-                Loggers.RAFT.error("[RAFT-DELETE] failed to delete datum: {}, value: {}", datum.key, datum.value);
-                throw new IllegalStateException("failed to delete datum: " + datum.key);
-            }
+        try {
+            openIfNecessary();
+            wal.delete(datum.key);
+        } catch (IOException e) {
+            MetricsMonitor.getDiskException().increment();
+            Loggers.RAFT.error("[RAFT-DELETE] failed to delete datum: {}, value: {}", datum.key, datum.value, e);
+            throw new IllegalStateException("failed to delete datum: " + datum.key, e);
         }
     }
     
@@ -337,16 +368,31 @@ public class RaftStore implements Closeable {
         }
     }
     
-    private static String encodeDatumKey(String datumKey) {
-        return datumKey.replace(':', '#');
+    private void openIfNecessary() throws IOException {
+        if (wal.isOpened()) {
+            return;
+        }
+        synchronized (this) {
+            if (!wal.isOpened()) {
+                // written before datums are loaded, legacy cache files will still be migrated at loading.
+                wal.open();
+            }
+        }
     }
     
-    private static String decodeDatumKey(String datumKey) {
-        return datumKey.replace("#", ":");
+    private static String encodeDatumKey(String datumKey) {
+        return datumKey.replace(':', '#');
     }
     
     @Override
     public void shutdown() throws NacosException {
-    
+        if (null != compactionTask) {
+            compactionTask.cancel(false);
+        }
+        try {
+            wal.close();
+        } catch (IOException e) {
+            throw new NacosException(NacosException.SERVER_ERROR, e);
+        }
     }
 }
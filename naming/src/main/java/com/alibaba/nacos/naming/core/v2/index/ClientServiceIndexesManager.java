@@ -19,12 +19,16 @@ package com.alibaba.nacos.naming.core.v2.index;
 import com.alibaba.nacos.common.notify.Event;
 import com.alibaba.nacos.common.notify.NotifyCenter;
 import com.alibaba.nacos.common.notify.listener.SmartSubscriber;
+import com.alibaba.nacos.common.task.AbstractExecuteTask;
+import com.alibaba.nacos.common.task.engine.NacosExecuteTaskExecuteEngine;
 import com.alibaba.nacos.common.utils.ConcurrentHashSet;
 import com.alibaba.nacos.naming.core.v2.client.Client;
 import com.alibaba.nacos.naming.core.v2.event.client.ClientEvent;
 import com.alibaba.nacos.naming.core.v2.event.client.ClientOperationEvent;
 import com.alibaba.nacos.naming.core.v2.event.service.ServiceEvent;
 import com.alibaba.nacos.naming.core.v2.pojo.Service;
+import com.alibaba.nacos.naming.misc.Loggers;
+import com.alibaba.nacos.naming.monitor.MetricsMonitor;
 import org.springframework.stereotype.Component;
 
 import java.util.Collection;
@@ -37,16 +41,25 @@ import java.util.concurrent.ConcurrentMap;
 /**
  * Client and service index manager.
  *
+ * <p>Index updates are executed by worker lanes partitioned by {@link Service}, so updates of one service keep their
+ * order while different services are updated in parallel. Lanes are bounded, a full lane blocks the event publisher,
+ * which in turn makes {@link NotifyCenter#publishEvent(Event)} handle events in caller threads.
+ *
  * @author xiweng.yy
  */
 @Component
 public class ClientServiceIndexesManager extends SmartSubscriber {
     
+    private static final String INDEX_UPDATE_ENGINE_NAME = "com.alibaba.nacos.naming.client.index.updater";
+    
     private final ConcurrentMap<Service, Set<String>> publisherIndexes = new ConcurrentHashMap<>();
     
     private final ConcurrentMap<Service, Set<String>> subscriberIndexes = new ConcurrentHashMap<>();
     
+    private final NacosExecuteTaskExecuteEngine indexUpdateEngine;
+    
     public ClientServiceIndexesManager() {
+        indexUpdateEngine = new NacosExecuteTaskExecuteEngine(INDEX_UPDATE_ENGINE_NAME, Loggers.SRV_LOG);
         NotifyCenter.registerSubscriber(this);
     }
     
@@ -95,11 +108,12 @@ public class ClientServiceIndexesManager extends SmartSubscriber {
     
     private void handleClientDisconnect(ClientEvent.ClientDisconnectEvent event) {
         Client client = event.getClient();
+        String clientId = client.getClientId();
         for (Service each : client.getAllSubscribeService()) {
-            removeSubscriberIndexes(each, client.getClientId());
+            dispatch(each, () -> removeSubscriberIndexes(each, clientId));
         }
         for (Service each : client.getAllPublishedService()) {
-            removePublisherIndexes(each, client.getClientId());
+            dispatch(each, () -> removePublisherIndexes(each, clientId));
         }
     }
     
@@ -107,16 +121,21 @@ public class ClientServiceIndexesManager extends SmartSubscriber {
         Service service = event.getService();
         String clientId = event.getClientId();
         if (event instanceof ClientOperationEvent.ClientRegisterServiceEvent) {
-            addPublisherIndexes(service, clientId);
+            dispatch(service, () -> addPublisherIndexes(service, clientId));
         } else if (event instanceof ClientOperationEvent.ClientDeregisterServiceEvent) {
-            removePublisherIndexes(service, clientId);
+            dispatch(service, () -> removePublisherIndexes(service, clientId));
         } else if (event instanceof ClientOperationEvent.ClientSubscribeServiceEvent) {
-            addSubscriberIndexes(service, clientId);
+            dispatch(service, () -> addSubscriberIndexes(service, clientId));
         } else if (event instanceof ClientOperationEvent.ClientUnsubscribeServiceEvent) {
-            removeSubscriberIndexes(service, clientId);
+            dispatch(service, () -> removeSubscriberIndexes(service, clientId));
         }
     }
     
+    private void dispatch(Service service, Runnable indexUpdate) {
+        MetricsMonitor.getClientIndexPendingMonitor().incrementAndGet();
+        indexUpdateEngine.addTask(service, new IndexUpdateTask(indexUpdate));
+    }
+    
     private void addPublisherIndexes(Service service, String clientId) {
         publisherIndexes.computeIfAbsent(service, (key) -> new ConcurrentHashSet<>());
         publisherIndexes.get(service).add(clientId);
@@ -148,4 +167,26 @@ public class ClientServiceIndexesManager extends SmartSubscriber {
             subscriberIndexes.remove(service);
         }
     }
+    
+    private static class IndexUpdateTask extends AbstractExecuteTask {
+        
+        private final Runnable indexUpdate;
+        
+        private final long createTime;
+        
+        private IndexUpdateTask(Runnable indexUpdate) {
+            this.indexUpdate = indexUpdate;
+            this.createTime = System.currentTimeMillis();
+        }
+        
+        @Override
+        public void run() {
+            MetricsMonitor.getClientIndexLagMonitor().set(System.currentTimeMillis() - createTime);
+            try {
+                indexUpdate.run();
+            } finally {
+                MetricsMonitor.getClientIndexPendingMonitor().decrementAndGet();
+            }
+        }
+    }
 }
@@ -30,9 +30,14 @@ import com.alibaba.nacos.naming.misc.SwitchDomain;
 import com.alibaba.nacos.naming.utils.InstanceUtil;
 import org.springframework.stereotype.Component;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
-import java.util.LinkedList;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
@@ -58,6 +63,8 @@ public class ServiceStorage {
     
     private final ConcurrentMap<Service, Set<String>> serviceClusterIndex;
     
+    private final ConcurrentMap<Service, ServiceView> serviceViews;
+    
     public ServiceStorage(ClientServiceIndexesManager serviceIndexesManager, ClientManagerDelegate clientManager,
             SwitchDomain switchDomain, NamingMetadataManager metadataManager) {
         this.serviceIndexesManager = serviceIndexesManager;
@@ -66,6 +73,7 @@ public class ServiceStorage {
         this.metadataManager = metadataManager;
         this.serviceDataIndexes = new ConcurrentHashMap<>();
         this.serviceClusterIndex = new ConcurrentHashMap<>();
+        this.serviceViews = new ConcurrentHashMap<>();
     }
     
     public Set<String> getClusters(Service service) {
@@ -86,9 +94,26 @@ public class ServiceStorage {
         return result;
     }
     
+    /**
+     * Get the revision of the instance view of service, which is increased every time the instances change.
+     *
+     * @param service service
+     * @return revision of instance view, {@code 0} if no view has been built for this service
+     */
+    public long getRevision(Service service) {
+        ServiceView view = serviceViews.get(service);
+        return null == view ? 0L : view.revision;
+    }
+    
+    /**
+     * Remove cached data and instance view of service.
+     *
+     * @param service service
+     */
     public void removeData(Service service) {
         serviceDataIndexes.remove(service);
         serviceClusterIndex.remove(service);
+        serviceViews.remove(service);
     }
     
     private ServiceInfo emptyServiceInfo(Service service) {
@@ -101,19 +126,42 @@ public class ServiceStorage {
     }
     
     private List<Instance> getAllInstancesFromIndex(Service service) {
-        Set<Instance> result = new HashSet<>();
-        Set<String> clusters = new HashSet<>();
-        for (String each : serviceIndexesManager.getAllClientsRegisteredService(service)) {
-            Optional<InstancePublishInfo> instancePublishInfo = getInstanceInfo(each, service);
-            if (instancePublishInfo.isPresent()) {
-                Instance instance = parseInstance(service, instancePublishInfo.get());
-                result.add(instance);
-                clusters.add(instance.getClusterName());
+        ServiceView view = serviceViews.computeIfAbsent(service, key -> new ServiceView());
+        synchronized (view) {
+            Collection<String> clientIds = serviceIndexesManager.getAllClientsRegisteredService(service);
+            boolean changed = view.instances.keySet().retainAll(clientIds);
+            for (String each : clientIds) {
+                changed |= updateInstanceView(view, each, service);
+            }
+            if (changed || null == view.hosts) {
+                view.rebuild();
             }
+            // cache clusters of this service
+            serviceClusterIndex.put(service, view.clusters);
+            return view.hosts;
+        }
+    }
+    
+    /**
+     * Update the cached instance of one client, the instance is only parsed again when the published info, its healthy
+     * status or its metadata changed since last time.
+     *
+     * @return {@code true} if the view of service is changed
+     */
+    private boolean updateInstanceView(ServiceView view, String clientId, Service service) {
+        Optional<InstancePublishInfo> instancePublishInfo = getInstanceInfo(clientId, service);
+        if (!instancePublishInfo.isPresent()) {
+            return null != view.instances.remove(clientId);
+        }
+        InstancePublishInfo publishInfo = instancePublishInfo.get();
+        InstanceMetadata metadata = metadataManager.getInstanceMetadata(service, publishInfo.getMetadataId())
+                .orElse(null);
+        InstanceView cached = view.instances.get(clientId);
+        if (null != cached && cached.isUpToDate(publishInfo, metadata)) {
+            return false;
         }
-        // cache clusters of this service
-        serviceClusterIndex.put(service, clusters);
-        return new LinkedList<>(result);
+        view.instances.put(clientId, new InstanceView(publishInfo, metadata, parseInstance(service, publishInfo)));
+        return true;
     }
     
     private Optional<InstancePublishInfo> getInstanceInfo(String clientId, Service service) {
@@ -131,4 +179,58 @@ public class ServiceStorage {
         metadata.ifPresent(instanceMetadata -> InstanceUtil.updateInstanceMetadata(result, instanceMetadata));
         return result;
     }
+    
+    /**
+     * Materialized instances view of one service, which is updated in place by the difference to the indexes and only
+     * creates a new immutable snapshot when something changed.
+     */
+    private static class ServiceView {
+        
+        private final Map<String, InstanceView> instances = new HashMap<>();
+        
+        private volatile long revision;
+        
+        private volatile List<Instance> hosts;
+        
+        private volatile Set<String> clusters;
+        
+        private void rebuild() {
+            Set<Instance> result = new LinkedHashSet<>(instances.size());
+            Set<String> newClusters = new HashSet<>();
+            for (InstanceView each : instances.values()) {
+                result.add(each.instance);
+                newClusters.add(each.instance.getClusterName());
+            }
+            hosts = Collections.unmodifiableList(new ArrayList<>(result));
+            clusters = newClusters;
+            revision++;
+        }
+    }
+    
+    private static class InstanceView {
+        
+        private final InstancePublishInfo publishInfo;
+        
+        private final boolean healthy;
+        
+        private final InstanceMetadata metadata;
+        
+        private final Instance instance;
+        
+        private InstanceView(InstancePublishInfo publishInfo, InstanceMetadata metadata, Instance instance) {
+            this.publishInfo = publishInfo;
+            this.healthy = publishInfo.isHealthy();
+            this.metadata = metadata;
+            this.instance = instance;
+        }
+        
+        /**
+         * Published info and metadata are replaced rather than modified when updated, but healthy status is changed in
+         * place by health checkers, so it should be compared by value.
+         */
+        private boolean isUpToDate(InstancePublishInfo publishInfo, InstanceMetadata metadata) {
+            return this.publishInfo == publishInfo && this.healthy == publishInfo.isHealthy()
+                    && this.metadata == metadata;
+        }
+    }
 }
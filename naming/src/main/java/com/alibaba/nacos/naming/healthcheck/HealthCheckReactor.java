@@ -20,7 +20,8 @@ import com.alibaba.nacos.naming.healthcheck.heartbeat.BeatCheckTask;
 import com.alibaba.nacos.naming.healthcheck.interceptor.HealthCheckTaskInterceptWrapper;
 import com.alibaba.nacos.naming.healthcheck.v2.HealthCheckTaskV2;
 import com.alibaba.nacos.naming.misc.GlobalExecutor;
-import com.alibaba.nacos.naming.misc.Loggers;
+import com.alibaba.nacos.naming.misc.HashedWheelTimer;
+import com.alibaba.nacos.naming.monitor.MetricsMonitor;
 
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
@@ -35,7 +36,27 @@ import java.util.concurrent.TimeUnit;
 @SuppressWarnings("PMD.ThreadPoolCreationRule")
 public class HealthCheckReactor {
     
-    private static Map<String, ScheduledFuture> futureMap = new ConcurrentHashMap<>();
+    private static final long TIMER_TICK_MILLIS = 100L;
+    
+    private static final int TIMER_WHEEL_SIZE = 512;
+    
+    private static final int TIMER_BATCH_SIZE = 128;
+    
+    private static final long BEAT_CHECK_INTERVAL = 5000L;
+    
+    /**
+     * Beat checks and health checks of all ip port based clients are scheduled by this timer instead of one future
+     * for each task.
+     */
+    private static final HashedWheelTimer TIMER = new HashedWheelTimer(TIMER_TICK_MILLIS, TIMER_WHEEL_SIZE,
+            TIMER_BATCH_SIZE, GlobalExecutor::executeNamingHealth, MetricsMonitor.getHealthCheckScheduledMonitor(),
+            MetricsMonitor.getHealthCheckQueuedMonitor());
+    
+    private static Map<String, HashedWheelTimer.Timeout> futureMap = new ConcurrentHashMap<>();
+    
+    static {
+        GlobalExecutor.scheduleNamingHealthTimer(TIMER::tick, TIMER_TICK_MILLIS, TimeUnit.MILLISECONDS);
+    }
     
     /**
      * Schedule health check task.
@@ -56,7 +77,7 @@ public class HealthCheckReactor {
     public static void scheduleCheck(HealthCheckTaskV2 task) {
         task.setStartTime(System.currentTimeMillis());
         Runnable wrapperTask = new HealthCheckTaskInterceptWrapper(task);
-        GlobalExecutor.scheduleNamingHealth(wrapperTask, task.getCheckRtNormalized(), TimeUnit.MILLISECONDS);
+        TIMER.schedule(wrapperTask, task.getCheckRtNormalized());
     }
     
     /**
@@ -69,7 +90,7 @@ public class HealthCheckReactor {
                 task instanceof NacosHealthCheckTask ? new HealthCheckTaskInterceptWrapper((NacosHealthCheckTask) task)
                         : task;
         futureMap.computeIfAbsent(task.taskKey(),
-                k -> GlobalExecutor.scheduleNamingHealth(wrapperTask, 5000, 5000, TimeUnit.MILLISECONDS));
+                k -> TIMER.scheduleWithFixedDelay(wrapperTask, BEAT_CHECK_INTERVAL, BEAT_CHECK_INTERVAL));
     }
     
     /**
@@ -78,18 +99,22 @@ public class HealthCheckReactor {
      * @param task client beat check task
      */
     public static void cancelCheck(BeatCheckTask task) {
-        ScheduledFuture scheduledFuture = futureMap.get(task.taskKey());
-        if (scheduledFuture == null) {
-            return;
-        }
-        try {
-            scheduledFuture.cancel(true);
-            futureMap.remove(task.taskKey());
-        } catch (Exception e) {
-            Loggers.EVT_LOG.error("[CANCEL-CHECK] cancel failed!", e);
+        HashedWheelTimer.Timeout timeout = futureMap.remove(task.taskKey());
+        if (timeout != null) {
+            timeout.cancel();
         }
     }
     
+    /**
+     * Schedule a task once with a delay by health check timer.
+     *
+     * @param task        task
+     * @param delayMillis delay in milliseconds
+     */
+    public static void scheduleDelayed(Runnable task, long delayMillis) {
+        TIMER.schedule(task, delayMillis);
+    }
+    
     /**
      * Schedule client beat check task without a delay.
      *
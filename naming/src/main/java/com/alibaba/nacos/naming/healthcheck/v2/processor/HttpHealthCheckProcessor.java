@@ -22,21 +22,24 @@ import com.alibaba.nacos.common.http.Callback;
 import com.alibaba.nacos.common.http.HttpUtils;
 import com.alibaba.nacos.common.http.client.NacosAsyncRestTemplate;
 import com.alibaba.nacos.common.http.param.Header;
-import com.alibaba.nacos.common.http.param.Query;
 import com.alibaba.nacos.common.model.RestResult;
 import com.alibaba.nacos.naming.core.v2.metadata.ClusterMetadata;
 import com.alibaba.nacos.naming.core.v2.pojo.HealthCheckInstancePublishInfo;
 import com.alibaba.nacos.naming.core.v2.pojo.Service;
+import com.alibaba.nacos.naming.healthcheck.HealthCheckReactor;
 import com.alibaba.nacos.naming.healthcheck.v2.HealthCheckTaskV2;
+import com.alibaba.nacos.naming.misc.GlobalExecutor;
 import com.alibaba.nacos.naming.misc.HttpClientManager;
 import com.alibaba.nacos.naming.misc.SwitchDomain;
 import com.alibaba.nacos.naming.monitor.MetricsMonitor;
+import com.alibaba.nacos.sys.env.EnvUtil;
 import org.springframework.stereotype.Component;
 
 import java.net.ConnectException;
 import java.net.HttpURLConnection;
 import java.net.URL;
 import java.util.Map;
+import java.util.function.Supplier;
 
 import static com.alibaba.nacos.naming.misc.Loggers.SRV_LOG;
 
@@ -52,6 +55,22 @@ public class HttpHealthCheckProcessor implements HealthCheckProcessorV2 {
     
     public static final String TYPE = HealthCheckType.HTTP.name();
     
+    private static final String MAX_IN_FLIGHT = "nacos.naming.health.http.maxInFlight";
+    
+    private static final String MAX_IN_FLIGHT_PER_CLUSTER = "nacos.naming.health.http.maxInFlightPerCluster";
+    
+    private static final String MAX_JITTER_MILLIS = "nacos.naming.health.http.maxJitterMs";
+    
+    private static final String MAX_WAITING_MILLIS = "nacos.naming.health.http.maxWaitingMs";
+    
+    private static final int DEFAULT_MAX_IN_FLIGHT = 1024;
+    
+    private static final int DEFAULT_MAX_IN_FLIGHT_PER_CLUSTER = 128;
+    
+    private static final long DEFAULT_MAX_JITTER_MILLIS = 500L;
+    
+    private static final long DEFAULT_MAX_WAITING_MILLIS = 5000L;
+    
     private static final NacosAsyncRestTemplate ASYNC_REST_TEMPLATE = HttpClientManager
             .getProcessorNacosAsyncRestTemplate();
     
@@ -59,9 +78,30 @@ public class HttpHealthCheckProcessor implements HealthCheckProcessorV2 {
     
     private final SwitchDomain switchDomain;
     
+    private final HttpProbeDispatcher probeDispatcher;
+    
     public HttpHealthCheckProcessor(HealthCheckCommonV2 healthCheckCommon, SwitchDomain switchDomain) {
         this.healthCheckCommon = healthCheckCommon;
         this.switchDomain = switchDomain;
+        this.probeDispatcher = createProbeDispatcher();
+    }
+    
+    private static HttpProbeDispatcher createProbeDispatcher() {
+        int maxInFlight = DEFAULT_MAX_IN_FLIGHT;
+        int maxInFlightPerCluster = DEFAULT_MAX_IN_FLIGHT_PER_CLUSTER;
+        long maxJitterMillis = DEFAULT_MAX_JITTER_MILLIS;
+        long maxWaitingMillis = DEFAULT_MAX_WAITING_MILLIS;
+        try {
+            maxInFlight = EnvUtil.getProperty(MAX_IN_FLIGHT, Integer.class, DEFAULT_MAX_IN_FLIGHT);
+            maxInFlightPerCluster = EnvUtil
+                    .getProperty(MAX_IN_FLIGHT_PER_CLUSTER, Integer.class, DEFAULT_MAX_IN_FLIGHT_PER_CLUSTER);
+            maxJitterMillis = EnvUtil.getProperty(MAX_JITTER_MILLIS, Long.class, DEFAULT_MAX_JITTER_MILLIS);
+            maxWaitingMillis = EnvUtil.getProperty(MAX_WAITING_MILLIS, Long.class, DEFAULT_MAX_WAITING_MILLIS);
+        } catch (Exception e) {
+            SRV_LOG.warn("Get http health check config from env failed, will use default value", e);
+        }
+        return new HttpProbeDispatcher(ASYNC_REST_TEMPLATE, maxInFlight, maxInFlightPerCluster, maxJitterMillis,
+                maxWaitingMillis, HealthCheckReactor::scheduleDelayed, GlobalExecutor::executeNamingHealth);
     }
     
     @Override
@@ -89,8 +129,9 @@ public class HttpHealthCheckProcessor implements HealthCheckProcessorV2 {
             Header header = Header.newInstance();
             header.addAll(customHeaders);
             
-            ASYNC_REST_TEMPLATE.get(target.toString(), header, Query.EMPTY, String.class,
-                    new HttpHealthCheckCallback(instance, task, service));
+            String clusterKey = service.getGroupedServiceName() + "@" + instance.getCluster();
+            Supplier<Callback<String>> callbackFactory = () -> new HttpHealthCheckCallback(instance, task, service);
+            probeDispatcher.probe(clusterKey, target.toString(), header, callbackFactory);
             MetricsMonitor.getHttpHealthCheckMonitor().incrementAndGet();
         } catch (Throwable e) {
             instance.setCheckRt(switchDomain.getHttpHealthParams().getMax());
@@ -171,7 +212,8 @@ public class HttpHealthCheckProcessor implements HealthCheckProcessorV2 {
         
         @Override
         public void onCancel() {
-        
+            // probe is dropped before sent, only finish this round of check.
+            instance.finishCheck();
         }
     }
 }
@@ -0,0 +1,263 @@
+/*
+ * Copyright 1999-2020 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.nacos.naming.healthcheck.v2.processor;
+
+import com.alibaba.nacos.api.naming.pojo.healthcheck.HealthCheckType;
+import com.alibaba.nacos.common.http.Callback;
+import com.alibaba.nacos.common.http.client.NacosAsyncRestTemplate;
+import com.alibaba.nacos.common.http.param.Header;
+import com.alibaba.nacos.common.http.param.Query;
+import com.alibaba.nacos.common.model.RestResult;
+import com.alibaba.nacos.naming.misc.Loggers;
+import com.alibaba.nacos.naming.monitor.MetricsMonitor;
+
+import java.net.HttpURLConnection;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+import java.util.function.Supplier;
+
+/**
+ * Dispatcher of HTTP health check probes.
+ *
+ * <p>Probes are started after a random jitter so that checks of one round are spread out, and are limited by a
+ * global and a per-cluster in-flight count. Probes over the limits wait in queue until other probes finished, and
+ * are cancelled if they waited too long. Callbacks are executed in batches by result executor instead of the IO
+ * thread of http client.
+ *
+ * @author Nacos
+ */
+public class HttpProbeDispatcher {
+    
+    private static final int MAX_WAITING_SCAN = 64;
+    
+    private final NacosAsyncRestTemplate restTemplate;
+    
+    private final int maxInFlight;
+    
+    private final int maxInFlightPerCluster;
+    
+    private final long maxJitterMillis;
+    
+    private final long maxWaitingMillis;
+    
+    private final BiConsumer<Runnable, Long> delayScheduler;
+    
+    private final Executor resultExecutor;
+    
+    private final AtomicInteger inFlight = new AtomicInteger();
+    
+    private final ConcurrentMap<String, AtomicInteger> clusterInFlight = new ConcurrentHashMap<>();
+    
+    private final Queue<Probe> waitingProbes = new ConcurrentLinkedQueue<>();
+    
+    private final Queue<Runnable> results = new ConcurrentLinkedQueue<>();
+    
+    private final AtomicBoolean handlingResults = new AtomicBoolean();
+    
+    public HttpProbeDispatcher(NacosAsyncRestTemplate restTemplate, int maxInFlight, int maxInFlightPerCluster,
+            long maxJitterMillis, long maxWaitingMillis, BiConsumer<Runnable, Long> delayScheduler,
+            Executor resultExecutor) {
+        this.restTemplate = restTemplate;
+        this.maxInFlight = Math.max(1, maxInFlight);
+        this.maxInFlightPerCluster = Math.max(1, maxInFlightPerCluster);
+        this.maxJitterMillis = maxJitterMillis;
+        this.maxWaitingMillis = maxWaitingMillis;
+        this.delayScheduler = delayScheduler;
+        this.resultExecutor = resultExecutor;
+    }
+    
+    /**
+     * Probe target url by HTTP GET.
+     *
+     * @param clusterKey      key of cluster which target belongs to, used for per-cluster limit
+     * @param url             target url
+     * @param header          request header
+     * @param callbackFactory factory of callback, called when the request is about to start so that response time
+     *                        measured by callback doesn't include jitter and waiting time
+     */
+    public void probe(String clusterKey, String url, Header header, Supplier<Callback<String>> callbackFactory) {
+        Probe probe = new Probe(clusterKey, url, header, callbackFactory);
+        long jitter = maxJitterMillis > 0 ? ThreadLocalRandom.current().nextLong(maxJitterMillis) : 0L;
+        if (jitter > 0) {
+            delayScheduler.accept(() -> submit(probe), jitter);
+        } else {
+            submit(probe);
+        }
+    }
+    
+    public int getInFlightCount() {
+        return inFlight.get();
+    }
+    
+    public int getWaitingCount() {
+        return waitingProbes.size();
+    }
+    
+    private void submit(Probe probe) {
+        probe.submitTime = System.currentTimeMillis();
+        if (tryAcquire(probe.clusterKey)) {
+            start(probe);
+            return;
+        }
+        waitingProbes.add(probe);
+        // all probes may finish before this one is queued, try again to avoid it waiting for nothing.
+        startWaitingProbes();
+    }
+    
+    private boolean tryAcquire(String clusterKey) {
+        if (inFlight.incrementAndGet() > maxInFlight) {
+            inFlight.decrementAndGet();
+            return false;
+        }
+        AtomicInteger cluster = clusterInFlight.computeIfAbsent(clusterKey, key -> new AtomicInteger());
+        if (cluster.incrementAndGet() > maxInFlightPerCluster) {
+            cluster.decrementAndGet();
+            inFlight.decrementAndGet();
+            return false;
+        }
+        return true;
+    }
+    
+    private void release(String clusterKey) {
+        clusterInFlight.get(clusterKey).decrementAndGet();
+        inFlight.decrementAndGet();
+        startWaitingProbes();
+    }
+    
+    private void startWaitingProbes() {
+        long now = System.currentTimeMillis();
+        for (int i = 0; i < MAX_WAITING_SCAN && inFlight.get() < maxInFlight; i++) {
+            Probe probe = waitingProbes.poll();
+            if (null == probe) {
+                return;
+            }
+            if (now - probe.submitTime > maxWaitingMillis) {
+                Callback<String> callback = probe.callbackFactory.get();
+                addResult(callback::onCancel);
+            } else if (tryAcquire(probe.clusterKey)) {
+                start(probe);
+            } else {
+                waitingProbes.add(probe);
+            }
+        }
+    }
+    
+    private void start(Probe probe) {
+        ProbeCallback probeCallback = new ProbeCallback(probe);
+        try {
+            restTemplate.get(probe.url, probe.header, Query.EMPTY, String.class, probeCallback);
+        } catch (Throwable e) {
+            probeCallback.onError(e);
+        }
+    }
+    
+    private void addResult(Runnable result) {
+        results.add(result);
+        if (handlingResults.compareAndSet(false, true)) {
+            resultExecutor.execute(this::handleResults);
+        }
+    }
+    
+    private void handleResults() {
+        do {
+            Runnable result;
+            while (null != (result = results.poll())) {
+                try {
+                    result.run();
+                } catch (Throwable e) {
+                    Loggers.SRV_LOG.error("[HEALTH-CHECK-V2] handle http probe result failed", e);
+                }
+            }
+            handlingResults.set(false);
+        } while (!results.isEmpty() && handlingResults.compareAndSet(false, true));
+    }
+    
+    private static class Probe {
+        
+        private final String clusterKey;
+        
+        private final String url;
+        
+        private final Header header;
+        
+        private final Supplier<Callback<String>> callbackFactory;
+        
+        private long submitTime;
+        
+        private Probe(String clusterKey, String url, Header header, Supplier<Callback<String>> callbackFactory) {
+            this.clusterKey = clusterKey;
+            this.url = url;
+            this.header = header;
+            this.callbackFactory = callbackFactory;
+        }
+    }
+    
+    private class ProbeCallback implements Callback<String> {
+        
+        private final Probe probe;
+        
+        private final Callback<String> callback;
+        
+        private final long startTime;
+        
+        private final AtomicBoolean finished = new AtomicBoolean();
+        
+        private ProbeCallback(Probe probe) {
+            this.probe = probe;
+            this.callback = probe.callbackFactory.get();
+            this.startTime = System.currentTimeMillis();
+        }
+        
+        @Override
+        public void onReceive(RestResult<String> result) {
+            if (finish(HttpURLConnection.HTTP_OK == result.getCode())) {
+                addResult(() -> callback.onReceive(result));
+            }
+        }
+        
+        @Override
+        public void onError(Throwable throwable) {
+            if (finish(false)) {
+                addResult(() -> callback.onError(throwable));
+            }
+        }
+        
+        @Override
+        public void onCancel() {
+            if (finish(false)) {
+                addResult(callback::onCancel);
+            }
+        }
+        
+        private boolean finish(boolean success) {
+            if (!finished.compareAndSet(false, true)) {
+                return false;
+            }
+            MetricsMonitor.recordHealthCheck(HealthCheckType.HTTP.name(), success,
+                    System.currentTimeMillis() - startTime);
+            release(probe.clusterKey);
+            return true;
+        }
+    }
+}
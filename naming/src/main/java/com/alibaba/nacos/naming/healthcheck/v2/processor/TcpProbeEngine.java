@@ -0,0 +1,343 @@
+/*
+ * Copyright 1999-2020 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.nacos.naming.healthcheck.v2.processor;
+
+import com.alibaba.nacos.common.executor.ExecutorFactory;
+import com.alibaba.nacos.common.executor.NameThreadFactory;
+import com.alibaba.nacos.common.utils.ClassUtils;
+import com.alibaba.nacos.naming.NamingApp;
+import com.alibaba.nacos.naming.misc.HashedWheelTimer;
+import com.alibaba.nacos.naming.misc.Loggers;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.InetSocketAddress;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Event loop based TCP connect probe engine.
+ *
+ * <p>Probes are spread over several event loops, each owns a selector and a {@link HashedWheelTimer} for connect
+ * timeouts which is ticked by the loop itself, so connecting, selecting and timing out never leave the loop thread.
+ * Results completed in one loop iteration are handed to the callback executor as one batch.
+ *
+ * @author Nacos
+ */
+public class TcpProbeEngine {
+    
+    private static final long TICK_MILLIS = 10L;
+    
+    private static final int WHEEL_SIZE = 128;
+    
+    private static final int TIMEOUT_BATCH_SIZE = 1024;
+    
+    private final EventLoop[] eventLoops;
+    
+    private final ExecutorService loopExecutor;
+    
+    private final Executor callbackExecutor;
+    
+    private final int maxInFlightPerLoop;
+    
+    private final AtomicInteger nextLoop = new AtomicInteger();
+    
+    private volatile boolean closed;
+    
+    public TcpProbeEngine(int eventLoopCount, int maxInFlight, Executor callbackExecutor) {
+        int loopCount = Math.max(1, eventLoopCount);
+        this.callbackExecutor = callbackExecutor;
+        this.maxInFlightPerLoop = Math.max(1, maxInFlight / loopCount);
+        this.eventLoops = new EventLoop[loopCount];
+        this.loopExecutor = ExecutorFactory.Managed
+                .newFixedExecutorService(ClassUtils.getCanonicalName(NamingApp.class), loopCount,
+                        new NameThreadFactory("com.alibaba.nacos.naming.tcp.probe.loop"));
+        try {
+            for (int i = 0; i < loopCount; i++) {
+                eventLoops[i] = new EventLoop();
+                loopExecutor.execute(eventLoops[i]);
+            }
+        } catch (IOException e) {
+            shutdown();
+            throw new IllegalStateException("Open selector for tcp probe engine failed.", e);
+        }
+    }
+    
+    /**
+     * Probe target address by TCP connect.
+     *
+     * @param address       target address
+     * @param timeoutMillis connect timeout in milliseconds
+     * @param callback      callback of probe result, executed by callback executor
+     */
+    public void probe(InetSocketAddress address, long timeoutMillis, ProbeCallback callback) {
+        int index = (nextLoop.getAndIncrement() & Integer.MAX_VALUE) % eventLoops.length;
+        eventLoops[index].pendingProbes.add(new Probe(address, timeoutMillis, callback));
+    }
+    
+    /**
+     * Count of probes waiting for connecting.
+     *
+     * @return pending probe count
+     */
+    public int pendingCount() {
+        int result = 0;
+        for (EventLoop each : eventLoops) {
+            result += null == each ? 0 : each.pendingProbes.size();
+        }
+        return result;
+    }
+    
+    /**
+     * Shutdown engine, uncompleted probes are dropped.
+     */
+    public void shutdown() {
+        closed = true;
+        for (EventLoop each : eventLoops) {
+            if (null != each) {
+                each.selector.wakeup();
+            }
+        }
+        loopExecutor.shutdown();
+    }
+    
+    /**
+     * Result type of probe.
+     */
+    public enum ProbeResult {
+        
+        /**
+         * Connected.
+         */
+        SUCCESS,
+        
+        /**
+         * Connection refused, the port may be not open.
+         */
+        REFUSED,
+        
+        /**
+         * Not connected before timeout.
+         */
+        TIMEOUT,
+        
+        /**
+         * Other errors.
+         */
+        ERROR
+    }
+    
+    /**
+     * Callback of probe.
+     */
+    public interface ProbeCallback {
+        
+        /**
+         * Probe completed.
+         *
+         * @param result   result type
+         * @param rtMillis time from connecting to completed in milliseconds
+         * @param message  detail message
+         */
+        void onComplete(ProbeResult result, long rtMillis, String message);
+    }
+    
+    private class EventLoop implements Runnable {
+        
+        private final Selector selector;
+        
+        private final Queue<Probe> pendingProbes = new ConcurrentLinkedQueue<>();
+        
+        private final HashedWheelTimer timer;
+        
+        private List<Probe> completed = new ArrayList<>();
+        
+        private int inFlight;
+        
+        private EventLoop() throws IOException {
+            selector = Selector.open();
+            timer = new HashedWheelTimer(TICK_MILLIS, WHEEL_SIZE, TIMEOUT_BATCH_SIZE, Runnable::run,
+                    new AtomicInteger(), new AtomicInteger());
+        }
+        
+        @Override
+        public void run() {
+            // an interrupted select returns at once, so the loop must stop on interrupt to not spin.
+            while (!closed && !Thread.currentThread().isInterrupted()) {
+                try {
+                    connectPendingProbes();
+                    if (selector.select(TICK_MILLIS) > 0) {
+                        processSelectedKeys();
+                    }
+                    timer.tick();
+                    dispatchCompleted();
+                } catch (Throwable e) {
+                    Loggers.SRV_LOG.error("[HEALTH-CHECK-V2] error while processing tcp probe loop", e);
+                }
+            }
+            closeSelector();
+        }
+        
+        private void connectPendingProbes() {
+            Probe probe;
+            while (inFlight < maxInFlightPerLoop && null != (probe = pendingProbes.poll())) {
+                connect(probe);
+            }
+        }
+        
+        private void connect(Probe probe) {
+            probe.eventLoop = this;
+            probe.startTime = System.currentTimeMillis();
+            try {
+                probe.channel = SocketChannel.open();
+                probe.channel.configureBlocking(false);
+                // only by setting this can we make the socket close event asynchronous
+                probe.channel.socket().setSoLinger(false, -1);
+                probe.channel.socket().setReuseAddress(true);
+                probe.channel.socket().setTcpNoDelay(true);
+                if (probe.channel.connect(probe.address)) {
+                    complete(probe, ProbeResult.SUCCESS, "tcp:ok+");
+                    return;
+                }
+                probe.key = probe.channel.register(selector, SelectionKey.OP_CONNECT, probe);
+                probe.timeout = timer.schedule(probe, probe.timeoutMillis);
+                inFlight++;
+            } catch (Exception e) {
+                complete(probe, ProbeResult.ERROR, "tcp:error:" + e.getMessage());
+            }
+        }
+        
+        private void processSelectedKeys() {
+            Iterator<SelectionKey> iterator = selector.selectedKeys().iterator();
+            while (iterator.hasNext()) {
+                SelectionKey key = iterator.next();
+                iterator.remove();
+                Probe probe = (Probe) key.attachment();
+                try {
+                    if (key.isValid() && key.isConnectable() && probe.channel.finishConnect()) {
+                        complete(probe, ProbeResult.SUCCESS, "tcp:ok+");
+                    }
+                } catch (ConnectException e) {
+                    complete(probe, ProbeResult.REFUSED, "tcp:unable2connect:" + e.getMessage());
+                } catch (Exception e) {
+                    complete(probe, ProbeResult.ERROR, "tcp:error:" + e.getMessage());
+                }
+            }
+        }
+        
+        private void complete(Probe probe, ProbeResult result, String message) {
+            if (probe.done) {
+                return;
+            }
+            probe.done = true;
+            probe.result = result;
+            probe.message = message;
+            probe.rt = System.currentTimeMillis() - probe.startTime;
+            if (null != probe.key) {
+                inFlight--;
+                probe.key.cancel();
+            }
+            if (null != probe.timeout) {
+                probe.timeout.cancel();
+            }
+            if (null != probe.channel) {
+                try {
+                    probe.channel.close();
+                } catch (IOException ignore) {
+                }
+            }
+            completed.add(probe);
+        }
+        
+        private void dispatchCompleted() {
+            if (completed.isEmpty()) {
+                return;
+            }
+            final List<Probe> batch = completed;
+            completed = new ArrayList<>();
+            callbackExecutor.execute(() -> {
+                for (Probe each : batch) {
+                    try {
+                        each.callback.onComplete(each.result, each.rt, each.message);
+                    } catch (Throwable e) {
+                        Loggers.SRV_LOG.error("[HEALTH-CHECK-V2] handle tcp probe result failed", e);
+                    }
+                }
+            });
+        }
+        
+        private void closeSelector() {
+            try {
+                for (SelectionKey each : selector.keys()) {
+                    each.channel().close();
+                }
+                selector.close();
+            } catch (IOException ignore) {
+            }
+        }
+    }
+    
+    private static class Probe implements Runnable {
+        
+        private final InetSocketAddress address;
+        
+        private final long timeoutMillis;
+        
+        private final ProbeCallback callback;
+        
+        private EventLoop eventLoop;
+        
+        private SocketChannel channel;
+        
+        private SelectionKey key;
+        
+        private HashedWheelTimer.Timeout timeout;
+        
+        private long startTime;
+        
+        private boolean done;
+        
+        private ProbeResult result;
+        
+        private long rt;
+        
+        private String message;
+        
+        private Probe(InetSocketAddress address, long timeoutMillis, ProbeCallback callback) {
+            this.address = address;
+            this.timeoutMillis = timeoutMillis;
+            this.callback = callback;
+        }
+        
+        /**
+         * Connect timeout, executed by the timer of event loop.
+         */
+        @Override
+        public void run() {
+            eventLoop.complete(this, ProbeResult.TIMEOUT, "tcp:timeout");
+        }
+    }
+}
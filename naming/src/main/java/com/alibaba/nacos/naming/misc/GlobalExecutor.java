@@ -124,6 +124,10 @@ public class GlobalExecutor {
                     Integer.max(Integer.getInteger("com.alibaba.nacos.naming.health.thread.num", DEFAULT_THREAD_COUNT),
                             1), new NameThreadFactory("com.alibaba.nacos.naming.health"));
     
+    private static final ScheduledExecutorService NAMING_HEALTH_TIMER_EXECUTOR = ExecutorFactory.Managed
+            .newSingleScheduledExecutorService(ClassUtils.getCanonicalName(NamingApp.class),
+                    new NameThreadFactory("com.alibaba.nacos.naming.health.timer"));
+    
     private static final ScheduledExecutorService RETRANSMITTER_EXECUTOR = ExecutorFactory.Managed
             .newSingleScheduledExecutorService(ClassUtils.getCanonicalName(NamingApp.class),
                     new NameThreadFactory("com.alibaba.nacos.naming.push.retransmitter"));
@@ -155,6 +159,19 @@ public class GlobalExecutor {
         return NAMING_TIMER_EXECUTOR.scheduleAtFixedRate(runnable, 0, TICK_PERIOD_MS, TimeUnit.MILLISECONDS);
     }
     
+    /**
+     * Register raft write ahead log compaction checker.
+     *
+     * @param runnable compaction checker
+     * @param period   check period in milliseconds
+     * @return future
+     * @deprecated will removed with old raft
+     */
+    @Deprecated
+    public static ScheduledFuture<?> scheduleRaftWalCompaction(Runnable runnable, long period) {
+        return NAMING_TIMER_EXECUTOR.scheduleWithFixedDelay(runnable, period, period, TimeUnit.MILLISECONDS);
+    }
+    
     public static void registerServerInfoUpdater(Runnable runnable) {
         NAMING_TIMER_EXECUTOR.scheduleAtFixedRate(runnable, 0, 2, TimeUnit.SECONDS);
     }
@@ -273,6 +290,14 @@ public class GlobalExecutor {
         return NAMING_HEALTH_EXECUTOR.scheduleWithFixedDelay(command, initialDelay, delay, unit);
     }
     
+    public static void executeNamingHealth(Runnable runnable) {
+        NAMING_HEALTH_EXECUTOR.execute(runnable);
+    }
+    
+    public static void scheduleNamingHealthTimer(Runnable runnable, long period, TimeUnit unit) {
+        NAMING_HEALTH_TIMER_EXECUTOR.scheduleAtFixedRate(runnable, period, period, unit);
+    }
+    
     public static void scheduleRetransmitter(Runnable runnable, long initialDelay, long delay, TimeUnit unit) {
         RETRANSMITTER_EXECUTOR.scheduleWithFixedDelay(runnable, initialDelay, delay, unit);
     }
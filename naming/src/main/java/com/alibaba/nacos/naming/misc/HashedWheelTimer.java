@@ -0,0 +1,311 @@
+/*
+ * Copyright 1999-2020 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.nacos.naming.misc;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Hashed wheel timer for large amount of short tasks with low precision, such as beat checks and health checks.
+ *
+ * <p>Scheduling and cancelling are O(1), they only put the timeout into a lock-free queue, and the queues are drained
+ * into the wheel by {@link #tick()}, which should be called by a single thread every tick. Expired tasks are submitted
+ * to the executor in batches instead of one by one.
+ *
+ * @author Nacos
+ */
+public class HashedWheelTimer {
+    
+    private static final int INIT = 0;
+    
+    private static final int CANCELLED = 1;
+    
+    private static final int EXPIRED = 2;
+    
+    private final long tickMillis;
+    
+    private final Bucket[] wheel;
+    
+    private final int mask;
+    
+    private final int batchSize;
+    
+    private final Executor executor;
+    
+    private final Queue<Timeout> pendingTimeouts = new ConcurrentLinkedQueue<>();
+    
+    private final Queue<Timeout> cancelledTimeouts = new ConcurrentLinkedQueue<>();
+    
+    /**
+     * Count of timeouts waiting for expiring.
+     */
+    private final AtomicInteger scheduledCount;
+    
+    /**
+     * Count of expired tasks waiting for executing or being executed.
+     */
+    private final AtomicInteger queuedCount;
+    
+    private final long startTime;
+    
+    private long currentTick;
+    
+    public HashedWheelTimer(long tickMillis, int wheelSize, int batchSize, Executor executor,
+            AtomicInteger scheduledCount, AtomicInteger queuedCount) {
+        this.tickMillis = tickMillis;
+        this.wheel = new Bucket[normalizeWheelSize(wheelSize)];
+        for (int i = 0; i < wheel.length; i++) {
+            wheel[i] = new Bucket();
+        }
+        this.mask = wheel.length - 1;
+        this.batchSize = batchSize;
+        this.executor = executor;
+        this.scheduledCount = scheduledCount;
+        this.queuedCount = queuedCount;
+        this.startTime = System.currentTimeMillis();
+    }
+    
+    private static int normalizeWheelSize(int wheelSize) {
+        int result = 1;
+        while (result < wheelSize) {
+            result <<= 1;
+        }
+        return result;
+    }
+    
+    /**
+     * Schedule task to execute once after delay.
+     *
+     * @param task        task
+     * @param delayMillis delay in milliseconds
+     * @return timeout which can be used to cancel the task
+     */
+    public Timeout schedule(Runnable task, long delayMillis) {
+        return addTimeout(new Timeout(this, task, 0L), delayMillis);
+    }
+    
+    /**
+     * Schedule task to execute repeatedly, the next execution is scheduled after current execution finished.
+     *
+     * @param task         task
+     * @param initialDelay delay of first execution in milliseconds
+     * @param delay        delay between the end of an execution and the start of next one in milliseconds
+     * @return timeout which can be used to cancel the task
+     */
+    public Timeout scheduleWithFixedDelay(Runnable task, long initialDelay, long delay) {
+        return addTimeout(new Timeout(this, task, delay), initialDelay);
+    }
+    
+    private Timeout addTimeout(Timeout timeout, long delayMillis) {
+        timeout.deadline = System.currentTimeMillis() + Math.max(delayMillis, 0L);
+        scheduledCount.incrementAndGet();
+        pendingTimeouts.add(timeout);
+        return timeout;
+    }
+    
+    /**
+     * Advance the wheel to current time and submit expired tasks.
+     */
+    public void tick() {
+        try {
+            tick(System.currentTimeMillis());
+        } catch (Throwable e) {
+            Loggers.SRV_LOG.error("[HASHED-WHEEL-TIMER] tick failed.", e);
+        }
+    }
+    
+    void tick(long now) {
+        transferPendingTimeouts();
+        removeCancelledTimeouts();
+        long targetTick = (now - startTime) / tickMillis;
+        List<Timeout> expired = new ArrayList<>();
+        while (currentTick <= targetTick) {
+            wheel[(int) (currentTick & mask)].expireTimeouts(expired);
+            currentTick++;
+        }
+        submit(expired);
+    }
+    
+    private void transferPendingTimeouts() {
+        Timeout timeout;
+        while (null != (timeout = pendingTimeouts.poll())) {
+            if (timeout.isCancelled()) {
+                scheduledCount.decrementAndGet();
+                continue;
+            }
+            long expectedTick = (timeout.deadline - startTime + tickMillis - 1) / tickMillis;
+            timeout.remainingRounds = (expectedTick - currentTick) / wheel.length;
+            long tick = Math.max(expectedTick, currentTick);
+            wheel[(int) (tick & mask)].add(timeout);
+        }
+    }
+    
+    private void removeCancelledTimeouts() {
+        Timeout timeout;
+        while (null != (timeout = cancelledTimeouts.poll())) {
+            if (null != timeout.bucket) {
+                timeout.bucket.remove(timeout);
+                scheduledCount.decrementAndGet();
+            }
+        }
+    }
+    
+    private void submit(List<Timeout> expired) {
+        if (expired.isEmpty()) {
+            return;
+        }
+        scheduledCount.addAndGet(-expired.size());
+        queuedCount.addAndGet(expired.size());
+        for (int i = 0; i < expired.size(); i += batchSize) {
+            List<Timeout> batch = expired.subList(i, Math.min(i + batchSize, expired.size()));
+            executor.execute(() -> runBatch(batch));
+        }
+    }
+    
+    private void runBatch(List<Timeout> batch) {
+        for (Timeout each : batch) {
+            try {
+                each.run();
+            } catch (Throwable e) {
+                Loggers.SRV_LOG.error("[HASHED-WHEEL-TIMER] execute task failed.", e);
+            } finally {
+                queuedCount.decrementAndGet();
+            }
+            each.rescheduleIfNecessary();
+        }
+    }
+    
+    /**
+     * Handle of a scheduled task.
+     */
+    public static class Timeout {
+        
+        private final HashedWheelTimer timer;
+        
+        private final Runnable task;
+        
+        private final long period;
+        
+        private final AtomicInteger state = new AtomicInteger(INIT);
+        
+        private long deadline;
+        
+        private long remainingRounds;
+        
+        private Bucket bucket;
+        
+        private Timeout prev;
+        
+        private Timeout next;
+        
+        private Timeout(HashedWheelTimer timer, Runnable task, long period) {
+            this.timer = timer;
+            this.task = task;
+            this.period = period;
+        }
+        
+        /**
+         * Cancel the task, a running task won't be interrupted but won't be scheduled again.
+         *
+         * @return {@code true} if cancelled by this call
+         */
+        public boolean cancel() {
+            if (!state.compareAndSet(INIT, CANCELLED)) {
+                return false;
+            }
+            timer.cancelledTimeouts.add(this);
+            return true;
+        }
+        
+        public boolean isCancelled() {
+            return CANCELLED == state.get();
+        }
+        
+        private void run() {
+            if (period <= 0 && !state.compareAndSet(INIT, EXPIRED)) {
+                return;
+            }
+            if (!isCancelled()) {
+                task.run();
+            }
+        }
+        
+        private void rescheduleIfNecessary() {
+            if (period > 0 && !isCancelled()) {
+                timer.addTimeout(this, period);
+            }
+        }
+    }
+    
+    /**
+     * Doubly linked timeouts in one slot of wheel, only accessed by the tick thread.
+     */
+    private static class Bucket {
+        
+        private Timeout head;
+        
+        private Timeout tail;
+        
+        private void add(Timeout timeout) {
+            timeout.bucket = this;
+            if (null == head) {
+                head = timeout;
+                tail = timeout;
+            } else {
+                tail.next = timeout;
+                timeout.prev = tail;
+                tail = timeout;
+            }
+        }
+        
+        private void expireTimeouts(List<Timeout> expired) {
+            Timeout timeout = head;
+            while (null != timeout) {
+                Timeout next = timeout.next;
+                if (timeout.remainingRounds <= 0) {
+                    remove(timeout);
+                    expired.add(timeout);
+                } else {
+                    timeout.remainingRounds--;
+                }
+                timeout = next;
+            }
+        }
+        
+        private void remove(Timeout timeout) {
+            if (null != timeout.prev) {
+                timeout.prev.next = timeout.next;
+            }
+            if (null != timeout.next) {
+                timeout.next.prev = timeout.prev;
+            }
+            if (timeout == head) {
+                head = timeout.next;
+            }
+            if (timeout == tail) {
+                tail = timeout.prev;
+            }
+            timeout.prev = null;
+            timeout.next = null;
+            timeout.bucket = null;
+        }
+    }
+}
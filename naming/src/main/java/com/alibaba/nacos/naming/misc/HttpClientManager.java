@@ -43,6 +43,10 @@ public class HttpClientManager {
     
     private static final int CON_TIME_OUT_MILLIS = 5000;
     
+    private static final int PROCESSOR_MAX_CONN_TOTAL = 1024;
+    
+    private static final int PROCESSOR_MAX_CONN_PER_ROUTE = 2;
+    
     private static final HttpClientFactory SYNC_HTTP_CLIENT_FACTORY = new SyncHttpClientFactory();
     
     private static final HttpClientFactory ASYNC_HTTP_CLIENT_FACTORY = new AsyncHttpClientFactory();
@@ -166,7 +170,8 @@ public class HttpClientManager {
         protected HttpClientConfig buildHttpClientConfig() {
             return HttpClientConfig.builder().setConnectionRequestTimeout(500).setReadTimeOutMillis(500)
                     .setConTimeOutMillis(500).setIoThreadCount(1).setContentCompressionEnabled(false).setMaxRedirects(0)
-                    .setMaxConnTotal(-1).setMaxConnPerRoute(-1).setUserAgent("VIPServer").build();
+                    .setMaxConnTotal(PROCESSOR_MAX_CONN_TOTAL).setMaxConnPerRoute(PROCESSOR_MAX_CONN_PER_ROUTE)
+                    .setUserAgent("VIPServer").build();
         }
         
         @Override
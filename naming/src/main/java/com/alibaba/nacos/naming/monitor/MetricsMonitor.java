@@ -21,10 +21,12 @@ import io.micrometer.core.instrument.Counter;
 import io.micrometer.core.instrument.ImmutableTag;
 import io.micrometer.core.instrument.Metrics;
 import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.Timer;
 
 import java.lang.reflect.Field;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
 
@@ -63,6 +65,14 @@ public class MetricsMonitor {
     
     private final AtomicInteger failedPush = new AtomicInteger();
     
+    private final AtomicInteger healthCheckScheduled = new AtomicInteger();
+    
+    private final AtomicInteger healthCheckQueued = new AtomicInteger();
+    
+    private final AtomicInteger clientIndexPending = new AtomicInteger();
+    
+    private final AtomicLong clientIndexLag = new AtomicLong();
+    
     private MetricsMonitor() {
         for (Field each : MetricsMonitor.class.getDeclaredFields()) {
             if (Number.class.isAssignableFrom(each.getType())) {
@@ -115,6 +125,22 @@ public class MetricsMonitor {
         return INSTANCE.avgPushCost;
     }
     
+    public static AtomicInteger getHealthCheckScheduledMonitor() {
+        return INSTANCE.healthCheckScheduled;
+    }
+    
+    public static AtomicInteger getHealthCheckQueuedMonitor() {
+        return INSTANCE.healthCheckQueued;
+    }
+    
+    public static AtomicInteger getClientIndexPendingMonitor() {
+        return INSTANCE.clientIndexPending;
+    }
+    
+    public static AtomicLong getClientIndexLagMonitor() {
+        return INSTANCE.clientIndexLag;
+    }
+    
     public static AtomicLong getLeaderStatusMonitor() {
         return INSTANCE.leaderStatus;
     }
@@ -168,6 +194,19 @@ public class MetricsMonitor {
         INSTANCE.subscriberCount.decrementAndGet();
     }
     
+    /**
+     * Record one health check with its response time, the count of the timer is the number of checks.
+     *
+     * @param type     health check type
+     * @param success  whether check passed
+     * @param rtMillis response time in milliseconds
+     */
+    public static void recordHealthCheck(String type, boolean success, long rtMillis) {
+        Timer.builder("nacos_naming_health_check").tag("module", "naming").tag("type", type)
+                .tag("result", success ? "success" : "fail").publishPercentileHistogram()
+                .register(Metrics.globalRegistry).record(rtMillis, TimeUnit.MILLISECONDS);
+    }
+    
     public static Counter getDiskException() {
         return Metrics.counter("nacos_exception", "module", "naming", "name", "disk");
     }
@@ -35,6 +35,10 @@ public class PushConfig {
     
     private long pushTaskRetryDelay = PushConstants.DEFAULT_PUSH_TASK_RETRY_DELAY;
     
+    private boolean deltaPushEnabled = PushConstants.DEFAULT_PUSH_DELTA_ENABLED;
+    
+    private int deltaPushHistorySize = PushConstants.DEFAULT_PUSH_DELTA_HISTORY_SIZE;
+    
     private PushConfig() {
         try {
             getPushConfigFromEnv();
@@ -50,6 +54,10 @@ public class PushConfig {
                 .getProperty(PushConstants.PUSH_TASK_TIMEOUT, Long.class, PushConstants.DEFAULT_PUSH_TASK_TIMEOUT);
         pushTaskRetryDelay = EnvUtil.getProperty(PushConstants.PUSH_TASK_RETRY_DELAY, Long.class,
                 PushConstants.DEFAULT_PUSH_TASK_RETRY_DELAY);
+        deltaPushEnabled = EnvUtil.getProperty(PushConstants.PUSH_DELTA_ENABLED, Boolean.class,
+                PushConstants.DEFAULT_PUSH_DELTA_ENABLED);
+        deltaPushHistorySize = EnvUtil.getProperty(PushConstants.PUSH_DELTA_HISTORY_SIZE, Integer.class,
+                PushConstants.DEFAULT_PUSH_DELTA_HISTORY_SIZE);
     }
     
     public static PushConfig getInstance() {
@@ -67,4 +75,12 @@ public class PushConfig {
     public long getPushTaskRetryDelay() {
         return pushTaskRetryDelay;
     }
+    
+    public boolean isDeltaPushEnabled() {
+        return deltaPushEnabled;
+    }
+    
+    public int getDeltaPushHistorySize() {
+        return deltaPushHistorySize;
+    }
 }
@@ -17,6 +17,7 @@
 package com.alibaba.nacos.naming.push.v2;
 
 import com.alibaba.nacos.api.naming.pojo.ServiceInfo;
+import com.alibaba.nacos.naming.core.v2.pojo.Service;
 
 import java.util.HashMap;
 import java.util.Map;
@@ -29,15 +30,26 @@ import java.util.Optional;
  */
 public class PushDataWrapper {
     
+    private final Service service;
+    
     private final ServiceInfo originalData;
     
     private final Map<String, Object> processedDatum;
     
     public PushDataWrapper(ServiceInfo originalData) {
+        this(null, originalData);
+    }
+    
+    public PushDataWrapper(Service service, ServiceInfo originalData) {
+        this.service = service;
         this.originalData = originalData;
         processedDatum = new HashMap<>(1);
     }
     
+    public Service getService() {
+        return service;
+    }
+    
     public ServiceInfo getOriginalData() {
         return originalData;
     }
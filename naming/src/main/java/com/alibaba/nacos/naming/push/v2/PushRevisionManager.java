@@ -0,0 +1,237 @@
+/*
+ * Copyright 1999-2020 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.nacos.naming.push.v2;
+
+import com.alibaba.nacos.api.naming.pojo.Instance;
+import com.alibaba.nacos.api.naming.pojo.ServiceInfo;
+import com.alibaba.nacos.api.naming.remote.request.NotifySubscriberRequest;
+import com.alibaba.nacos.common.notify.Event;
+import com.alibaba.nacos.common.notify.NotifyCenter;
+import com.alibaba.nacos.common.notify.listener.SmartSubscriber;
+import com.alibaba.nacos.naming.core.v2.event.client.ClientEvent;
+import com.alibaba.nacos.naming.core.v2.event.client.ClientOperationEvent;
+import com.alibaba.nacos.naming.core.v2.event.metadata.MetadataEvent;
+import com.alibaba.nacos.naming.core.v2.pojo.Service;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Push revision manager.
+ *
+ * <p>Records the recent pushed instances of each service by revision and the revision acknowledged by each client, so
+ * that only the changed instances need to be pushed to the clients which support delta push. Revisions are generated
+ * globally, so that a revision will never be reused even if the history of service is removed and built again.
+ *
+ * @author Nacos
+ */
+@Component
+public class PushRevisionManager extends SmartSubscriber {
+    
+    private static final String DELTA_KEY_PREFIX = "delta@";
+    
+    /**
+     * Cached in push data when delta can't be calculated or is no smaller than full data.
+     */
+    private static final NotifySubscriberRequest FULL_PUSH = new NotifySubscriberRequest();
+    
+    private final AtomicLong revisionGenerator = new AtomicLong();
+    
+    private final ConcurrentMap<Service, PushHistory> pushHistories = new ConcurrentHashMap<>();
+    
+    private final ConcurrentMap<String, ConcurrentMap<Service, Long>> ackedRevisions = new ConcurrentHashMap<>();
+    
+    public PushRevisionManager() {
+        NotifyCenter.registerSubscriber(this);
+    }
+    
+    /**
+     * Get the revision of push data, the revision is only increased when the pushed instances changed.
+     *
+     * @param data push data
+     * @return revision of push data
+     */
+    public long getRevision(PushDataWrapper data) {
+        Optional<Long> result = data.getProcessedPushData(PushRevisionManager.class.getSimpleName());
+        if (result.isPresent()) {
+            return result.get();
+        }
+        PushHistory history = pushHistories.computeIfAbsent(data.getService(), key -> new PushHistory());
+        long revision = history.record(data.getOriginalData().getHosts(), revisionGenerator,
+                PushConfig.getInstance().getDeltaPushHistorySize());
+        data.addProcessedPushData(PushRevisionManager.class.getSimpleName(), revision);
+        return revision;
+    }
+    
+    /**
+     * Build delta push request for client according to the revision it acknowledged.
+     *
+     * @param clientId client id
+     * @param data     push data
+     * @return delta push request, or empty if full data should be pushed
+     */
+    public Optional<NotifySubscriberRequest> buildDeltaRequest(String clientId, PushDataWrapper data) {
+        long revision = getRevision(data);
+        Map<Service, Long> clientRevisions = ackedRevisions.get(clientId);
+        Long baseRevision = null == clientRevisions ? null : clientRevisions.get(data.getService());
+        if (null == baseRevision) {
+            return Optional.empty();
+        }
+        String deltaKey = DELTA_KEY_PREFIX + baseRevision;
+        Optional<NotifySubscriberRequest> cached = data.getProcessedPushData(deltaKey);
+        if (cached.isPresent()) {
+            return FULL_PUSH == cached.get() ? Optional.empty() : cached;
+        }
+        Optional<NotifySubscriberRequest> result = calculateDelta(data, baseRevision, revision);
+        data.addProcessedPushData(deltaKey, result.orElse(FULL_PUSH));
+        return result;
+    }
+    
+    private Optional<NotifySubscriberRequest> calculateDelta(PushDataWrapper data, long baseRevision, long revision) {
+        PushHistory history = pushHistories.get(data.getService());
+        Map<String, Instance> base = null == history ? null : history.get(baseRevision);
+        Map<String, Instance> target = null == history ? null : history.get(revision);
+        if (null == base || null == target) {
+            return Optional.empty();
+        }
+        List<Instance> changed = new LinkedList<>();
+        for (Map.Entry<String, Instance> entry : target.entrySet()) {
+            if (!entry.getValue().equals(base.get(entry.getKey()))) {
+                changed.add(entry.getValue());
+            }
+        }
+        List<Instance> removed = new LinkedList<>();
+        for (Map.Entry<String, Instance> entry : base.entrySet()) {
+            if (!target.containsKey(entry.getKey())) {
+                removed.add(entry.getValue());
+            }
+        }
+        if (changed.size() + removed.size() >= target.size()) {
+            // delta is no smaller than full data
+            return Optional.empty();
+        }
+        ServiceInfo changedServiceInfo = copyWithoutHosts(data.getOriginalData());
+        changedServiceInfo.setHosts(changed);
+        return Optional.of(NotifySubscriberRequest.buildDeltaRequest(changedServiceInfo, removed, baseRevision, revision));
+    }
+    
+    private ServiceInfo copyWithoutHosts(ServiceInfo serviceInfo) {
+        ServiceInfo result = new ServiceInfo();
+        result.setName(serviceInfo.getName());
+        result.setGroupName(serviceInfo.getGroupName());
+        result.setClusters(serviceInfo.getClusters());
+        result.setCacheMillis(serviceInfo.getCacheMillis());
+        result.setLastRefTime(serviceInfo.getLastRefTime());
+        result.setChecksum(serviceInfo.getChecksum());
+        result.setAllIPs(serviceInfo.isAllIPs());
+        result.setReachProtectionThreshold(serviceInfo.isReachProtectionThreshold());
+        return result;
+    }
+    
+    /**
+     * Record the revision which client has received successfully.
+     *
+     * @param clientId client id
+     * @param service  service
+     * @param revision revision received by client
+     */
+    public void ack(String clientId, Service service, long revision) {
+        ackedRevisions.computeIfAbsent(clientId, key -> new ConcurrentHashMap<>(1)).merge(service, revision, Math::max);
+    }
+    
+    /**
+     * Forget the revision of client, so that full data will be pushed next time.
+     *
+     * @param clientId client id
+     * @param service  service
+     */
+    public void invalidate(String clientId, Service service) {
+        Map<Service, Long> clientRevisions = ackedRevisions.get(clientId);
+        if (null != clientRevisions) {
+            clientRevisions.remove(service);
+        }
+    }
+    
+    @Override
+    public List<Class<? extends Event>> subscribeTypes() {
+        List<Class<? extends Event>> result = new LinkedList<>();
+        result.add(ClientEvent.ClientDisconnectEvent.class);
+        result.add(ClientOperationEvent.ClientUnsubscribeServiceEvent.class);
+        result.add(MetadataEvent.ServiceMetadataEvent.class);
+        return result;
+    }
+    
+    @Override
+    public void onEvent(Event event) {
+        if (event instanceof ClientEvent.ClientDisconnectEvent) {
+            ackedRevisions.remove(((ClientEvent.ClientDisconnectEvent) event).getClient().getClientId());
+        } else if (event instanceof ClientOperationEvent.ClientUnsubscribeServiceEvent) {
+            ClientOperationEvent operationEvent = (ClientOperationEvent) event;
+            invalidate(operationEvent.getClientId(), operationEvent.getService());
+        } else if (((MetadataEvent.ServiceMetadataEvent) event).isExpired()) {
+            pushHistories.remove(((MetadataEvent.ServiceMetadataEvent) event).getService());
+        }
+    }
+    
+    /**
+     * Recent pushed instances of one service, keyed by {@link Instance#toInetAddr()} as the client does.
+     */
+    private static class PushHistory {
+        
+        private final LinkedHashMap<Long, Map<String, Instance>> snapshots = new LinkedHashMap<>();
+        
+        private long latestRevision;
+        
+        private Map<String, Instance> latest;
+        
+        private synchronized long record(List<Instance> hosts, AtomicLong revisionGenerator, int maxSize) {
+            Map<String, Instance> current = new HashMap<>(hosts.size() * 4 / 3 + 1);
+            for (Instance each : hosts) {
+                current.put(each.toInetAddr(), each);
+            }
+            // the same address in different clusters can't be expressed by delta, always push full data for it.
+            boolean deltaSupported = current.size() == hosts.size();
+            if (deltaSupported && current.equals(latest)) {
+                return latestRevision;
+            }
+            latestRevision = revisionGenerator.incrementAndGet();
+            latest = deltaSupported ? current : null;
+            if (deltaSupported) {
+                snapshots.put(latestRevision, current);
+            }
+            Iterator<Long> iterator = snapshots.keySet().iterator();
+            while (snapshots.size() > maxSize && iterator.hasNext()) {
+                iterator.next();
+                iterator.remove();
+            }
+            return latestRevision;
+        }
+        
+        private synchronized Map<String, Instance> get(long revision) {
+            return snapshots.get(revision);
+        }
+    }
+}
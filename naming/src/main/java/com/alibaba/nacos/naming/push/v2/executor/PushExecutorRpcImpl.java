@@ -18,12 +18,20 @@ package com.alibaba.nacos.naming.push.v2.executor;
 
 import com.alibaba.nacos.api.naming.remote.request.NotifySubscriberRequest;
 import com.alibaba.nacos.api.remote.PushCallBack;
+import com.alibaba.nacos.core.remote.Connection;
+import com.alibaba.nacos.core.remote.ConnectionManager;
+import com.alibaba.nacos.core.remote.PreparedServerRequest;
 import com.alibaba.nacos.core.remote.RpcPushService;
 import com.alibaba.nacos.naming.misc.GlobalExecutor;
 import com.alibaba.nacos.naming.pojo.Subscriber;
+import com.alibaba.nacos.naming.push.v2.PushConfig;
 import com.alibaba.nacos.naming.push.v2.PushDataWrapper;
+import com.alibaba.nacos.naming.push.v2.PushRevisionManager;
 import org.springframework.stereotype.Component;
 
+import java.util.Optional;
+import java.util.function.Supplier;
+
 /**
  * Push execute service for rpc.
  *
@@ -32,21 +40,117 @@ import org.springframework.stereotype.Component;
 @Component
 public class PushExecutorRpcImpl implements PushExecutor {
     
+    private static final String FULL_PUSH_REQUEST = "rpcFullPushRequest";
+    
+    private static final String REVISION_FULL_PUSH_REQUEST = "rpcRevisionFullPushRequest";
+    
+    private static final String DELTA_PUSH_REQUEST_PREFIX = "rpcDeltaPushRequest@";
+    
     private final RpcPushService pushService;
     
-    public PushExecutorRpcImpl(RpcPushService pushService) {
+    private final ConnectionManager connectionManager;
+    
+    private final PushRevisionManager revisionManager;
+    
+    public PushExecutorRpcImpl(RpcPushService pushService, ConnectionManager connectionManager,
+            PushRevisionManager revisionManager) {
         this.pushService = pushService;
+        this.connectionManager = connectionManager;
+        this.revisionManager = revisionManager;
     }
     
     @Override
     public void doPush(String clientId, Subscriber subscriber, PushDataWrapper data) {
-        pushService.pushWithoutAck(clientId, NotifySubscriberRequest.buildSuccessResponse(data.getOriginalData()));
+        pushService.pushWithoutAck(clientId, getFullPushRequest(data));
     }
     
     @Override
     public void doPushWithCallback(String clientId, Subscriber subscriber, PushDataWrapper data,
             PushCallBack callBack) {
-        pushService.pushWithCallback(clientId, NotifySubscriberRequest.buildSuccessResponse(data.getOriginalData()),
-                callBack, GlobalExecutor.getCallbackExecutor());
+        if (!isDeltaPushSupported(clientId, data)) {
+            pushService.pushWithCallback(clientId, getFullPushRequest(data), callBack,
+                    GlobalExecutor.getCallbackExecutor());
+            return;
+        }
+        long revision = revisionManager.getRevision(data);
+        PreparedServerRequest request = revisionManager.buildDeltaRequest(clientId, data)
+                .map(delta -> prepare(data, DELTA_PUSH_REQUEST_PREFIX + delta.getBaseRevision(), () -> delta))
+                .orElseGet(() -> getRevisionFullPushRequest(data, revision));
+        pushService.pushWithCallback(clientId, request, new RevisionPushCallback(clientId, data, revision, callBack),
+                GlobalExecutor.getCallbackExecutor());
+    }
+    
+    private PreparedServerRequest getFullPushRequest(PushDataWrapper data) {
+        return prepare(data, FULL_PUSH_REQUEST,
+                () -> NotifySubscriberRequest.buildSuccessResponse(data.getOriginalData()));
+    }
+    
+    private PreparedServerRequest getRevisionFullPushRequest(PushDataWrapper data, long revision) {
+        return prepare(data, REVISION_FULL_PUSH_REQUEST, () -> {
+            NotifySubscriberRequest request = NotifySubscriberRequest.buildSuccessResponse(data.getOriginalData());
+            request.setRevision(revision);
+            return request;
+        });
+    }
+    
+    /**
+     * The same request is pushed to all subscribers of the service, so cache it in push data to encode only once.
+     */
+    private PreparedServerRequest prepare(PushDataWrapper data, String key,
+            Supplier<NotifySubscriberRequest> requestSupplier) {
+        Optional<PreparedServerRequest> cached = data.getProcessedPushData(key);
+        if (cached.isPresent()) {
+            return cached.get();
+        }
+        PreparedServerRequest result = new PreparedServerRequest(requestSupplier.get());
+        data.addProcessedPushData(key, result);
+        return result;
+    }
+    
+    private boolean isDeltaPushSupported(String clientId, PushDataWrapper data) {
+        if (!PushConfig.getInstance().isDeltaPushEnabled() || null == data.getService()) {
+            return false;
+        }
+        Connection connection = connectionManager.getConnection(clientId);
+        return null != connection && null != connection.getAbilities() && connection.getAbilities().getNamingAbility()
+                .isSupportDeltaPush();
+    }
+    
+    /**
+     * Records the revision received by client, or forgets it when push failed so that the retry pushes full data.
+     */
+    private class RevisionPushCallback implements PushCallBack {
+        
+        private final String clientId;
+        
+        private final PushDataWrapper data;
+        
+        private final long revision;
+        
+        private final PushCallBack callBack;
+        
+        private RevisionPushCallback(String clientId, PushDataWrapper data, long revision, PushCallBack callBack) {
+            this.clientId = clientId;
+            this.data = data;
+            this.revision = revision;
+            this.callBack = callBack;
+        }
+        
+        @Override
+        public long getTimeout() {
+            return callBack.getTimeout();
+        }
+        
+        @Override
+        public void onSuccess() {
+            revisionManager.ack(clientId, data.getService(), revision);
+            callBack.onSuccess();
+        }
+        
+        @Override
+        public void onFail(Throwable e) {
+            revisionManager.invalidate(clientId, data.getService());
+            callBack.onFail(e);
+        }
     }
 }
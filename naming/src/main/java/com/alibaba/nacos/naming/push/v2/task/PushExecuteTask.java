@@ -76,7 +76,7 @@ public class PushExecuteTask extends AbstractExecuteTask {
         ServiceInfo serviceInfo = delayTaskEngine.getServiceStorage().getPushData(service);
         ServiceMetadata serviceMetadata = delayTaskEngine.getMetadataManager().getServiceMetadata(service).orElse(null);
         serviceInfo = ServiceUtil.selectInstancesWithHealthyProtection(serviceInfo, serviceMetadata, false, true);
-        return new PushDataWrapper(serviceInfo);
+        return new PushDataWrapper(service, serviceInfo);
     }
     
     private Collection<String> getTargetClientIds() {
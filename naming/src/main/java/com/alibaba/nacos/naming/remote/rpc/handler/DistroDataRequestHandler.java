@@ -23,9 +23,12 @@ import com.alibaba.nacos.core.distributed.distro.DistroProtocol;
 import com.alibaba.nacos.core.distributed.distro.entity.DistroData;
 import com.alibaba.nacos.core.distributed.distro.entity.DistroKey;
 import com.alibaba.nacos.core.remote.RequestHandler;
+import com.alibaba.nacos.core.remote.control.ConcurrencyLimit;
+import com.alibaba.nacos.core.remote.control.RequestPriority;
 import com.alibaba.nacos.naming.cluster.remote.request.DistroDataRequest;
 import com.alibaba.nacos.naming.cluster.remote.response.DistroDataResponse;
 import com.alibaba.nacos.naming.consistency.ephemeral.distro.v2.DistroClientDataProcessor;
+import com.alibaba.nacos.naming.consistency.ephemeral.distro.v2.DistroClientVerifyDigester;
 import com.alibaba.nacos.naming.misc.Loggers;
 import org.springframework.stereotype.Component;
 
@@ -39,18 +42,22 @@ public class DistroDataRequestHandler extends RequestHandler<DistroDataRequest,
     
     private final DistroProtocol distroProtocol;
     
-    public DistroDataRequestHandler(DistroProtocol distroProtocol) {
+    private final DistroClientVerifyDigester verifyDigester;
+    
+    public DistroDataRequestHandler(DistroProtocol distroProtocol, DistroClientVerifyDigester verifyDigester) {
         this.distroProtocol = distroProtocol;
+        this.verifyDigester = verifyDigester;
     }
     
     @Override
+    @ConcurrencyLimit(priority = RequestPriority.HIGH)
     public DistroDataResponse handle(DistroDataRequest request, RequestMeta meta) throws NacosException {
         try {
             switch (request.getDataOperation()) {
                 case VERIFY:
                     return handleVerify(request.getDistroData(), meta);
                 case SNAPSHOT:
-                    return handleSnapshot();
+                    return handleSnapshot(request.getDistroData());
                 case ADD:
                 case CHANGE:
                 case DELETE:
@@ -71,15 +78,27 @@ public class DistroDataRequestHandler extends RequestHandler<DistroDataRequest,
     
     private DistroDataResponse handleVerify(DistroData distroData, RequestMeta meta) {
         DistroDataResponse result = new DistroDataResponse();
+        if (verifyDigester.isDigestVerifyData(distroData)) {
+            String sourceAddress = distroData.getDistroKey().getTargetServer();
+            result.setDistroData(verifyDigester.processVerifyData(distroData, sourceAddress));
+            return result;
+        }
         if (!distroProtocol.onVerify(distroData, meta.getClientIp())) {
             result.setErrorInfo(ResponseCode.FAIL.getCode(), "[DISTRO-FAILED] distro data verify failed");
         }
         return result;
     }
     
-    private DistroDataResponse handleSnapshot() {
+    private DistroDataResponse handleSnapshot(DistroData snapshotRequest) {
         DistroDataResponse result = new DistroDataResponse();
-        DistroData distroData = distroProtocol.onSnapshot(DistroClientDataProcessor.TYPE);
+        // Request without cursor comes from old version node which can only handle full snapshot.
+        DistroData distroData;
+        if (null == snapshotRequest) {
+            distroData = distroProtocol.onSnapshot(DistroClientDataProcessor.TYPE);
+        } else {
+            String cursor = snapshotRequest.getDistroKey().getResourceKey();
+            distroData = distroProtocol.onSnapshot(DistroClientDataProcessor.TYPE, cursor);
+        }
         result.setDistroData(distroData);
         return result;
     }
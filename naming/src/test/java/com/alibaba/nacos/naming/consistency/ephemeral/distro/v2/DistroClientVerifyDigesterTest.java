@@ -0,0 +1,84 @@
+/*
+ * Copyright 1999-2020 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.nacos.naming.consistency.ephemeral.distro.v2;
+
+import com.alibaba.nacos.naming.core.v2.client.manager.ClientManagerDelegate;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.class)
+public class DistroClientVerifyDigesterTest {
+    
+    private static final String SOURCE = "1.1.1.1:8848";
+    
+    private static final String CLIENT_ID = "1.1.1.1:8848#true";
+    
+    private static final String MISSING_CLIENT_ID = "2.2.2.2:8848#true";
+    
+    private static final int BUCKETS = 4;
+    
+    @Mock
+    private ClientManagerDelegate clientManager;
+    
+    private DistroClientVerifyDigester digester;
+    
+    @Before
+    public void setUp() {
+        digester = new DistroClientVerifyDigester(clientManager);
+        when(clientManager.verifyClient(anyString()))
+                .thenAnswer(invocation -> CLIENT_ID.equals(invocation.getArgument(0)));
+    }
+    
+    @Test
+    public void testVerifyDigest() {
+        final int bucket = DistroClientVerifyDigester.bucketOf(CLIENT_ID, BUCKETS);
+        long[] digests = new long[BUCKETS];
+        digests[bucket] = DistroClientVerifyDigester.digestOf(CLIENT_ID);
+        DistroClientVerifyDigest digest = new DistroClientVerifyDigest(digests);
+        DistroClientBucketVerifyInfo inconsistent = digester.verifyDigest(digest, SOURCE);
+        assertEquals(Collections.singleton(bucket), inconsistent.getBucketClients().keySet());
+        
+        DistroClientBucketVerifyInfo buckets = new DistroClientBucketVerifyInfo();
+        buckets.getBucketClients().put(bucket, Collections.singletonList(CLIENT_ID));
+        assertTrue(digester.verifyBuckets(buckets, SOURCE).getBucketClients().isEmpty());
+        
+        assertTrue(digester.verifyDigest(digest, SOURCE).getBucketClients().isEmpty());
+        verify(clientManager, times(2)).verifyClient(CLIENT_ID);
+    }
+    
+    @Test
+    public void testVerifyBucketsWithMissingClient() {
+        int bucket = DistroClientVerifyDigester.bucketOf(CLIENT_ID, BUCKETS);
+        DistroClientBucketVerifyInfo buckets = new DistroClientBucketVerifyInfo();
+        buckets.getBucketClients().put(bucket, Arrays.asList(CLIENT_ID, MISSING_CLIENT_ID));
+        DistroClientBucketVerifyInfo missing = digester.verifyBuckets(buckets, SOURCE);
+        assertEquals(Collections.singletonList(MISSING_CLIENT_ID), missing.getBucketClients().get(bucket));
+    }
+}
@@ -0,0 +1,165 @@
+/*
+ *  Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package com.alibaba.nacos.naming.consistency.persistent.raft;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+public class DatumWriteAheadLogTest {
+    
+    private File baseDir;
+    
+    private DatumWriteAheadLog wal;
+    
+    @Before
+    public void setUp() throws Exception {
+        baseDir = Files.createTempDirectory("raft-wal").toFile();
+        wal = new DatumWriteAheadLog(baseDir);
+        wal.open();
+    }
+    
+    @After
+    public void tearDown() throws Exception {
+        wal.close();
+        File[] files = baseDir.listFiles();
+        if (null != files) {
+            for (File each : files) {
+                each.delete();
+            }
+        }
+        baseDir.delete();
+    }
+    
+    @Test
+    public void testReopen() throws Exception {
+        wal.put("a", bytes("1"));
+        wal.put("b", bytes("2"));
+        wal.put("a", bytes("3"));
+        wal.delete("b");
+        wal.close();
+        
+        Map<String, byte[]> entries = reopen();
+        Assert.assertEquals(1, entries.size());
+        Assert.assertEquals("3", string(entries.get("a")));
+        Assert.assertEquals("3", string(wal.read("a")));
+        Assert.assertNull(wal.read("b"));
+    }
+    
+    @Test
+    public void testCompact() throws Exception {
+        wal.put("a", bytes("1"));
+        wal.put("b", bytes("2"));
+        wal.compact();
+        Assert.assertEquals(0L, wal.getSegmentSize());
+        wal.put("c", bytes("3"));
+        wal.delete("a");
+        wal.compact();
+        wal.put("d", bytes("4"));
+        wal.close();
+        
+        Map<String, byte[]> entries = reopen();
+        Assert.assertEquals(3, entries.size());
+        Assert.assertEquals("2", string(entries.get("b")));
+        Assert.assertEquals("3", string(entries.get("c")));
+        Assert.assertEquals("4", string(entries.get("d")));
+    }
+    
+    @Test
+    public void testReset() throws Exception {
+        wal.put("a", bytes("1"));
+        Map<String, byte[]> migrated = new HashMap<>();
+        migrated.put("b", bytes("2"));
+        wal.reset(migrated);
+        wal.put("c", bytes("3"));
+        wal.close();
+        
+        Map<String, byte[]> entries = reopen();
+        Assert.assertEquals(2, entries.size());
+        Assert.assertNull(entries.get("a"));
+        Assert.assertEquals("2", string(entries.get("b")));
+    }
+    
+    @Test
+    public void testTruncateBrokenTail() throws Exception {
+        wal.put("a", bytes("1"));
+        final long validSize = wal.getSegmentSize();
+        wal.close();
+        File[] segments = baseDir.listFiles((dir, name) -> name.endsWith(".log"));
+        Assert.assertNotNull(segments);
+        try (FileOutputStream out = new FileOutputStream(segments[0], true)) {
+            out.write(new byte[] {0, 0, 0, 20, 1, 2});
+        }
+        
+        Map<String, byte[]> entries = reopen();
+        Assert.assertEquals(1, entries.size());
+        Assert.assertEquals(validSize, wal.getSegmentSize());
+        wal.put("b", bytes("2"));
+        wal.close();
+        Assert.assertEquals(2, reopen().size());
+    }
+    
+    @Test
+    public void testConcurrentPut() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < 200; i++) {
+                final String key = "key" + i;
+                futures.add(executor.submit(() -> {
+                    wal.put(key, bytes(key));
+                    return null;
+                }));
+            }
+            for (Future<?> each : futures) {
+                each.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+        wal.close();
+        Map<String, byte[]> entries = reopen();
+        Assert.assertEquals(200, entries.size());
+        Assert.assertEquals("key10", string(entries.get("key10")));
+    }
+    
+    private Map<String, byte[]> reopen() throws Exception {
+        wal = new DatumWriteAheadLog(baseDir);
+        return wal.open();
+    }
+    
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+    
+    private static String string(byte[] value) {
+        return new String(value, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,125 @@
+/*
+ *  Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package com.alibaba.nacos.naming.consistency.persistent.raft;
+
+import com.alibaba.nacos.common.utils.JacksonUtils;
+import com.alibaba.nacos.naming.consistency.Datum;
+import com.alibaba.nacos.naming.consistency.KeyBuilder;
+import com.alibaba.nacos.naming.core.Instance;
+import com.alibaba.nacos.naming.core.Instances;
+import com.alibaba.nacos.sys.env.EnvUtil;
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.HashMap;
+import java.util.Map;
+
+public class RaftStoreMigrationTest {
+    
+    private static final String NAMESPACE = "public";
+    
+    private File baseDir;
+    
+    @Before
+    public void setUp() throws Exception {
+        EnvUtil.setEnvironment(new MockEnvironment());
+        baseDir = Files.createTempDirectory("raft-store").toFile();
+    }
+    
+    @After
+    public void tearDown() throws Exception {
+        FileUtils.deleteDirectory(baseDir);
+    }
+    
+    @Test
+    public void testRestartAfterFailedMigration() throws Exception {
+        String key = KeyBuilder.buildInstanceListKey(NAMESPACE, "group@@service", false);
+        writeLegacyDatum(key, JacksonUtils.toJson(newDatum(key)));
+        final File broken = writeLegacyDatum(KeyBuilder.buildInstanceListKey(NAMESPACE, "group@@broken", false), "{broken");
+        
+        RaftStore store = new RaftStore(baseDir);
+        try {
+            store.loadDatums(null, new HashMap<>());
+            Assert.fail("broken legacy datum should fail the migration");
+        } catch (Exception ignored) {
+            // expected
+        } finally {
+            store.shutdown();
+        }
+        File[] walFiles = new File(baseDir, "wal").listFiles();
+        Assert.assertTrue(null == walFiles || 0 == walFiles.length);
+        Assert.assertTrue(new File(baseDir, "data").exists());
+        
+        Assert.assertTrue(broken.delete());
+        Map<String, Datum> datums = loadDatums();
+        Assert.assertEquals(1, datums.size());
+        Assert.assertEquals("1.1.1.1", ((Instances) datums.get(key).value).getInstanceList().get(0).getIp());
+        Assert.assertFalse(new File(baseDir, "data").exists());
+        Assert.assertTrue(new File(baseDir, "data.migrated").exists());
+        
+        datums = loadDatums();
+        Assert.assertEquals(1, datums.size());
+        Assert.assertEquals(1L, datums.get(key).timestamp.get());
+    }
+    
+    @Test
+    public void testLoadWithoutLegacyDatums() throws Exception {
+        String key = KeyBuilder.buildInstanceListKey(NAMESPACE, "group@@service", false);
+        RaftStore store = new RaftStore(baseDir);
+        store.loadDatums(null, new HashMap<>());
+        store.write(newDatum(key));
+        store.shutdown();
+        Assert.assertTrue(new File(baseDir, "data").mkdirs());
+        
+        Map<String, Datum> datums = loadDatums();
+        Assert.assertEquals(1, datums.size());
+        Assert.assertTrue(datums.containsKey(key));
+    }
+    
+    private Map<String, Datum> loadDatums() throws Exception {
+        Map<String, Datum> datums = new HashMap<>();
+        RaftStore store = new RaftStore(baseDir);
+        try {
+            store.loadDatums(null, datums);
+        } finally {
+            store.shutdown();
+        }
+        return datums;
+    }
+    
+    private File writeLegacyDatum(String key, String content) throws Exception {
+        File file = new File(new File(new File(baseDir, "data"), NAMESPACE), key);
+        FileUtils.writeStringToFile(file, content, StandardCharsets.UTF_8);
+        return file;
+    }
+    
+    private Datum<Instances> newDatum(String key) {
+        Datum<Instances> datum = new Datum<>();
+        datum.key = key;
+        datum.timestamp.set(1L);
+        datum.value = new Instances();
+        datum.value.getInstanceList().add(new Instance("1.1.1.1", 1, "c1"));
+        return datum;
+    }
+}
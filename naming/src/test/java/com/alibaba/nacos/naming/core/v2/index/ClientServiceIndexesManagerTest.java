@@ -38,6 +38,7 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
 
 @RunWith(MockitoJUnitRunner.class)
 public class ClientServiceIndexesManagerTest {
@@ -137,6 +138,18 @@ public class ClientServiceIndexesManagerTest {
         Mockito.verify(clientOperationEvent).getClientId();
     }
     
+    @Test
+    public void testOnEventUpdateIndexesByLane() throws InterruptedException {
+        Service realService = Service.newService("N", "G", "S");
+        clientServiceIndexesManager
+                .onEvent(new ClientOperationEvent.ClientRegisterServiceEvent(realService, NACOS));
+        for (int i = 0; i < 100 && clientServiceIndexesManager.getAllClientsRegisteredService(realService).isEmpty();
+                i++) {
+            TimeUnit.MILLISECONDS.sleep(10);
+        }
+        Assert.assertTrue(clientServiceIndexesManager.getAllClientsRegisteredService(realService).contains(NACOS));
+    }
+    
     @Test
     public void testAddPublisherIndexes()
             throws NoSuchMethodException, InvocationTargetException, IllegalAccessException {
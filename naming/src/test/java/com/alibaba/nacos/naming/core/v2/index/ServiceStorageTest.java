@@ -18,6 +18,7 @@ package com.alibaba.nacos.naming.core.v2.index;
 
 import com.alibaba.nacos.api.naming.pojo.Instance;
 import com.alibaba.nacos.api.naming.pojo.ServiceInfo;
+import com.alibaba.nacos.naming.core.v2.client.Client;
 import com.alibaba.nacos.naming.core.v2.client.manager.ClientManagerDelegate;
 import com.alibaba.nacos.naming.core.v2.metadata.NamingMetadataManager;
 import com.alibaba.nacos.naming.core.v2.pojo.InstancePublishInfo;
@@ -141,6 +142,40 @@ public class ServiceStorageTest {
         Assert.assertNotNull(list);
     }
     
+    @Test
+    public void testGetAllInstancesFromIndexIncrementally()
+            throws NoSuchMethodException, InvocationTargetException, IllegalAccessException {
+        Method getAllInstancesFromIndex = ServiceStorage.class
+                .getDeclaredMethod("getAllInstancesFromIndex", Service.class);
+        getAllInstancesFromIndex.setAccessible(true);
+        final Client client = Mockito.mock(Client.class);
+        InstancePublishInfo publishInfo = new InstancePublishInfo("1.1.1.1", 8848);
+        publishInfo.setCluster(NACOS);
+        publishInfo.setHealthy(true);
+        Mockito.when(clientServiceIndexesManager.getAllClientsRegisteredService(SERVICE))
+                .thenReturn(Collections.singletonList(NACOS));
+        Mockito.when(clientManagerDelegate.getClient(NACOS)).thenReturn(client);
+        Mockito.when(client.getInstancePublishInfo(SERVICE)).thenReturn(publishInfo);
+        
+        List<Instance> first = (List<Instance>) getAllInstancesFromIndex.invoke(serviceStorage, SERVICE);
+        List<Instance> second = (List<Instance>) getAllInstancesFromIndex.invoke(serviceStorage, SERVICE);
+        Assert.assertEquals(1, first.size());
+        Assert.assertSame(first, second);
+        Assert.assertEquals(1L, serviceStorage.getRevision(SERVICE));
+        
+        publishInfo.setHealthy(false);
+        List<Instance> third = (List<Instance>) getAllInstancesFromIndex.invoke(serviceStorage, SERVICE);
+        Assert.assertFalse(third.get(0).isHealthy());
+        Assert.assertTrue(first.get(0).isHealthy());
+        Assert.assertEquals(2L, serviceStorage.getRevision(SERVICE));
+        
+        Mockito.when(clientServiceIndexesManager.getAllClientsRegisteredService(SERVICE))
+                .thenReturn(Collections.emptyList());
+        List<Instance> fourth = (List<Instance>) getAllInstancesFromIndex.invoke(serviceStorage, SERVICE);
+        Assert.assertTrue(fourth.isEmpty());
+        Assert.assertEquals(3L, serviceStorage.getRevision(SERVICE));
+    }
+    
     @Test
     public void testGetInstanceInfo() throws NoSuchMethodException, InvocationTargetException, IllegalAccessException {
         Class<ServiceStorage> serviceStorageClass = ServiceStorage.class;
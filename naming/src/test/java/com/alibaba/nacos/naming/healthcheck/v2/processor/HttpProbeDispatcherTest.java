@@ -0,0 +1,103 @@
+/*
+ * Copyright 1999-2020 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.nacos.naming.healthcheck.v2.processor;
+
+import com.alibaba.nacos.common.http.Callback;
+import com.alibaba.nacos.common.http.client.NacosAsyncRestTemplate;
+import com.alibaba.nacos.common.http.param.Header;
+import com.alibaba.nacos.common.http.param.Query;
+import com.alibaba.nacos.common.model.RestResult;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@RunWith(MockitoJUnitRunner.class)
+public class HttpProbeDispatcherTest {
+    
+    @Mock
+    private NacosAsyncRestTemplate restTemplate;
+    
+    private HttpProbeDispatcher dispatcher;
+    
+    private AtomicInteger received;
+    
+    @Before
+    public void setUp() {
+        dispatcher = new HttpProbeDispatcher(restTemplate, 2, 1, 0L, 5000L, (task, delay) -> task.run(),
+                Runnable::run);
+        received = new AtomicInteger();
+    }
+    
+    @Test
+    public void testProbeWithInFlightLimit() {
+        dispatcher.probe("a", "http://a1", Header.EMPTY, this::newCallback);
+        dispatcher.probe("a", "http://a2", Header.EMPTY, this::newCallback);
+        dispatcher.probe("b", "http://b1", Header.EMPTY, this::newCallback);
+        assertEquals(2, dispatcher.getInFlightCount());
+        assertEquals(1, dispatcher.getWaitingCount());
+        verify(restTemplate, times(0)).get(eq("http://a2"), any(), any(), any(), any());
+        
+        ArgumentCaptor<Callback> captor = ArgumentCaptor.forClass(Callback.class);
+        verify(restTemplate).get(eq("http://a1"), any(Header.class), eq(Query.EMPTY), any(), captor.capture());
+        captor.getValue().onReceive(new RestResult<>(200, "ok"));
+        assertEquals(1, received.get());
+        assertEquals(0, dispatcher.getWaitingCount());
+        assertEquals(2, dispatcher.getInFlightCount());
+        verify(restTemplate).get(eq("http://a2"), any(), any(), any(), any());
+    }
+    
+    @Test
+    public void testProbeFinishOnce() {
+        dispatcher.probe("a", "http://a1", Header.EMPTY, this::newCallback);
+        ArgumentCaptor<Callback> captor = ArgumentCaptor.forClass(Callback.class);
+        verify(restTemplate).get(eq("http://a1"), any(), any(), any(), captor.capture());
+        captor.getValue().onError(new RuntimeException("test"));
+        captor.getValue().onCancel();
+        assertEquals(1, received.get());
+        assertEquals(0, dispatcher.getInFlightCount());
+    }
+    
+    private Callback<String> newCallback() {
+        return new Callback<String>() {
+            @Override
+            public void onReceive(RestResult<String> result) {
+                received.incrementAndGet();
+            }
+            
+            @Override
+            public void onError(Throwable throwable) {
+                received.incrementAndGet();
+            }
+            
+            @Override
+            public void onCancel() {
+                received.incrementAndGet();
+            }
+        };
+    }
+}
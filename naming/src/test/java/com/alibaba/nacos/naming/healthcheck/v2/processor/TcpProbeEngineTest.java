@@ -0,0 +1,91 @@
+/*
+ * Copyright 1999-2020 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.nacos.naming.healthcheck.v2.processor;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class TcpProbeEngineTest {
+    
+    private static final long TIMEOUT_MILLIS = 3000L;
+    
+    private TcpProbeEngine probeEngine;
+    
+    private ServerSocket serverSocket;
+    
+    @Before
+    public void setUp() throws Exception {
+        probeEngine = new TcpProbeEngine(2, 16, Runnable::run);
+        serverSocket = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+    }
+    
+    @After
+    public void tearDown() throws Exception {
+        probeEngine.shutdown();
+        serverSocket.close();
+    }
+    
+    @Test
+    public void testProbeSuccess() throws Exception {
+        InetSocketAddress address = new InetSocketAddress(InetAddress.getLoopbackAddress(),
+                serverSocket.getLocalPort());
+        assertEquals(TcpProbeEngine.ProbeResult.SUCCESS, probe(address));
+    }
+    
+    @Test
+    public void testProbeRefused() throws Exception {
+        int port = serverSocket.getLocalPort();
+        serverSocket.close();
+        InetSocketAddress address = new InetSocketAddress(InetAddress.getLoopbackAddress(), port);
+        assertEquals(TcpProbeEngine.ProbeResult.REFUSED, probe(address));
+    }
+    
+    @Test
+    public void testShutdownStopsEventLoops() throws Exception {
+        probeEngine.shutdown();
+        assertTrue(getLoopExecutor().awaitTermination(TIMEOUT_MILLIS, TimeUnit.MILLISECONDS));
+    }
+    
+    @Test
+    public void testInterruptStopsEventLoops() throws Exception {
+        ExecutorService loopExecutor = getLoopExecutor();
+        loopExecutor.shutdownNow();
+        assertTrue(loopExecutor.awaitTermination(TIMEOUT_MILLIS, TimeUnit.MILLISECONDS));
+    }
+    
+    private ExecutorService getLoopExecutor() {
+        return (ExecutorService) ReflectionTestUtils.getField(probeEngine, "loopExecutor");
+    }
+    
+    private TcpProbeEngine.ProbeResult probe(InetSocketAddress address) throws Exception {
+        CompletableFuture<TcpProbeEngine.ProbeResult> result = new CompletableFuture<>();
+        probeEngine.probe(address, TIMEOUT_MILLIS, (probeResult, rtMillis, message) -> result.complete(probeResult));
+        return result.get(TIMEOUT_MILLIS * 2, TimeUnit.MILLISECONDS);
+    }
+}
@@ -0,0 +1,76 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.nacos.naming.misc;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class HashedWheelTimerTest {
+    
+    private AtomicInteger scheduled;
+    
+    private AtomicInteger queued;
+    
+    private HashedWheelTimer timer;
+    
+    @Before
+    public void setUp() {
+        scheduled = new AtomicInteger();
+        queued = new AtomicInteger();
+        timer = new HashedWheelTimer(100L, 8, 2, Runnable::run, scheduled, queued);
+    }
+    
+    @Test
+    public void testSchedule() {
+        AtomicInteger count = new AtomicInteger();
+        final long now = System.currentTimeMillis();
+        timer.schedule(count::incrementAndGet, 1000L);
+        timer.schedule(count::incrementAndGet, 3000L);
+        assertEquals(2, scheduled.get());
+        timer.tick(now + 500L);
+        assertEquals(0, count.get());
+        timer.tick(now + 1200L);
+        assertEquals(1, count.get());
+        timer.tick(now + 3200L);
+        assertEquals(2, count.get());
+        assertEquals(0, scheduled.get());
+        assertEquals(0, queued.get());
+    }
+    
+    @Test
+    public void testScheduleWithFixedDelayAndCancel() {
+        AtomicInteger count = new AtomicInteger();
+        final long now = System.currentTimeMillis();
+        final HashedWheelTimer.Timeout timeout = timer.scheduleWithFixedDelay(count::incrementAndGet, 0L, 500L);
+        timer.tick(now + 100L);
+        assertEquals(1, count.get());
+        assertEquals(1, scheduled.get());
+        timer.tick(now + 1000L);
+        assertEquals(2, count.get());
+        assertTrue(timeout.cancel());
+        assertFalse(timeout.cancel());
+        timer.tick(now + 2000L);
+        assertEquals(2, count.get());
+        assertEquals(0, scheduled.get());
+    }
+}
@@ -0,0 +1,90 @@
+/*
+ * Copyright 1999-2020 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.nacos.naming.push.v2;
+
+import com.alibaba.nacos.api.naming.pojo.Instance;
+import com.alibaba.nacos.api.naming.pojo.ServiceInfo;
+import com.alibaba.nacos.api.naming.remote.request.NotifySubscriberRequest;
+import com.alibaba.nacos.naming.core.v2.pojo.Service;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+public class PushRevisionManagerTest {
+    
+    private static final String CLIENT_ID = "1.1.1.1:8848#true";
+    
+    private final Service service = Service.newService("N", "G", "S");
+    
+    private PushRevisionManager revisionManager;
+    
+    @Before
+    public void setUp() {
+        revisionManager = new PushRevisionManager();
+    }
+    
+    @Test
+    public void testGetRevision() {
+        long revision = revisionManager.getRevision(newPushData(3, 1));
+        assertEquals(revision, revisionManager.getRevision(newPushData(3, 1)));
+        assertNotEquals(revision, revisionManager.getRevision(newPushData(3, 2)));
+    }
+    
+    @Test
+    public void testBuildDeltaRequest() {
+        PushDataWrapper base = newPushData(10, 1);
+        long baseRevision = revisionManager.getRevision(base);
+        assertFalse(revisionManager.buildDeltaRequest(CLIENT_ID, base).isPresent());
+        revisionManager.ack(CLIENT_ID, service, baseRevision);
+        
+        PushDataWrapper target = newPushData(9, 1);
+        target.getOriginalData().getHosts().get(0).setHealthy(false);
+        Optional<NotifySubscriberRequest> delta = revisionManager.buildDeltaRequest(CLIENT_ID, target);
+        assertTrue(delta.isPresent());
+        assertTrue(delta.get().isDelta());
+        assertEquals(baseRevision, delta.get().getBaseRevision());
+        assertEquals(revisionManager.getRevision(target), delta.get().getRevision());
+        assertEquals(1, delta.get().getServiceInfo().getHosts().size());
+        assertEquals(1, delta.get().getRemovedHosts().size());
+        assertEquals("1.1.1.9", delta.get().getRemovedHosts().get(0).getIp());
+        
+        revisionManager.invalidate(CLIENT_ID, service);
+        assertFalse(revisionManager.buildDeltaRequest(CLIENT_ID, newPushData(8, 1)).isPresent());
+    }
+    
+    private PushDataWrapper newPushData(int count, double weight) {
+        ServiceInfo serviceInfo = new ServiceInfo("G@@S");
+        List<Instance> hosts = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Instance instance = new Instance();
+            instance.setIp("1.1.1." + i);
+            instance.setPort(8848);
+            instance.setWeight(weight);
+            hosts.add(instance);
+        }
+        serviceInfo.setHosts(hosts);
+        return new PushDataWrapper(service, serviceInfo);
+    }
+}
@@ -19,10 +19,13 @@ package com.alibaba.nacos.naming.push.v2.executor;
 import com.alibaba.nacos.api.naming.pojo.ServiceInfo;
 import com.alibaba.nacos.api.naming.remote.request.NotifySubscriberRequest;
 import com.alibaba.nacos.api.remote.PushCallBack;
+import com.alibaba.nacos.core.remote.ConnectionManager;
+import com.alibaba.nacos.core.remote.PreparedServerRequest;
 import com.alibaba.nacos.core.remote.RpcPushService;
 import com.alibaba.nacos.naming.misc.GlobalExecutor;
 import com.alibaba.nacos.naming.pojo.Subscriber;
 import com.alibaba.nacos.naming.push.v2.PushDataWrapper;
+import com.alibaba.nacos.naming.push.v2.PushRevisionManager;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -47,6 +50,12 @@ public class PushExecutorRpcImplTest {
     @Mock
     private RpcPushService pushService;
     
+    @Mock
+    private ConnectionManager connectionManager;
+    
+    @Mock
+    private PushRevisionManager revisionManager;
+    
     @Mock
     private Subscriber subscriber;
     
@@ -60,16 +69,16 @@ public class PushExecutorRpcImplTest {
     @Before
     public void setUp() throws Exception {
         pushData = new PushDataWrapper(new ServiceInfo("G@@S"));
-        pushExecutor = new PushExecutorRpcImpl(pushService);
+        pushExecutor = new PushExecutorRpcImpl(pushService, connectionManager, revisionManager);
         doAnswer(new CallbackAnswer()).when(pushService)
-                .pushWithCallback(eq(rpcClientId), any(NotifySubscriberRequest.class), eq(pushCallBack),
+                .pushWithCallback(eq(rpcClientId), any(PreparedServerRequest.class), eq(pushCallBack),
                         eq(GlobalExecutor.getCallbackExecutor()));
     }
     
     @Test
     public void testDoPush() {
         pushExecutor.doPush(rpcClientId, subscriber, pushData);
-        verify(pushService).pushWithoutAck(eq(rpcClientId), any(NotifySubscriberRequest.class));
+        verify(pushService).pushWithoutAck(eq(rpcClientId), any(PreparedServerRequest.class));
     }
     
     @Test
@@ -82,7 +91,8 @@ public class PushExecutorRpcImplTest {
         
         @Override
         public Void answer(InvocationOnMock invocationOnMock) throws Throwable {
-            NotifySubscriberRequest pushRequest = invocationOnMock.getArgument(1);
+            PreparedServerRequest preparedRequest = invocationOnMock.getArgument(1);
+            NotifySubscriberRequest pushRequest = (NotifySubscriberRequest) preparedRequest.getRequest();
             assertEquals(pushData.getOriginalData(), pushRequest.getServiceInfo());
             PushCallBack callBack = invocationOnMock.getArgument(2);
             callBack.onSuccess();